@@ -0,0 +1,73 @@
+package drawingbot;
+
+import drawingbot.api.IPixelData;
+import drawingbot.geom.shapes.GCubicCurve;
+import drawingbot.geom.shapes.GLine;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.plotting.PlottingTools;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic inputs for the JMH benchmarks, everything is generated from a fixed seed so runs are comparable between commits.
+ */
+public class BenchmarkUtils {
+
+    public static final long SEED = 1234;
+
+    /**
+     * @return an opaque image of overlapping gradients and noise, so darkest area searches have to do real work
+     */
+    public static BufferedImage createTestImage(int width, int height){
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(SEED);
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                double wave = Math.sin(x / 37D) * Math.cos(y / 53D);
+                int value = Math.max(0, Math.min(255, (int) (128 + wave * 100) + random.nextInt(32) - 16));
+                image.setRGB(x, y, 0xFF000000 | (value << 16) | ((255 - value) << 8) | (value / 2));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * @return a mix of short lines and curves spread over the given area, similar to the output of the sketch PFMs
+     */
+    public static List<IGeometry> createTestGeometries(int count, float width, float height){
+        Random random = new Random(SEED);
+        List<IGeometry> geometries = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            float x = random.nextFloat() * width;
+            float y = random.nextFloat() * height;
+            float dx = (random.nextFloat() - 0.5F) * width / 10;
+            float dy = (random.nextFloat() - 0.5F) * height / 10;
+            if(i % 4 == 0){
+                geometries.add(new GCubicCurve(x, y, x + dx, y, x, y + dy, x + dx, y + dy));
+            }else{
+                geometries.add(new GLine(x, y, x + dx, y + dy));
+            }
+        }
+        return geometries;
+    }
+
+    /**
+     * @return plotting tools which treat the whole of the pixel data as plottable, without requiring a {@link drawingbot.plotting.PFMTask}
+     */
+    public static PlottingTools createPlottingTools(IPixelData pixelData){
+        return new PlottingTools(){
+            @Override
+            public boolean withinPlottableArea(int x, int y) {
+                return pixelData.withinXY(x, y);
+            }
+
+            @Override
+            public IPixelData getPixelData() {
+                return pixelData;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package drawingbot.files.exporters;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.DrawingBotV3;
+import drawingbot.JUnitDBV3ClassRunner;
+import drawingbot.JUnitDBV3Launcher;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.files.DrawingExportHandler;
+import drawingbot.files.ExportTask;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.javafx.observables.ObservableDrawingSet;
+import drawingbot.plotting.PlottedDrawing;
+import drawingbot.plotting.canvas.SimpleCanvas;
+import drawingbot.registry.MasterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The write path of each exporter on a synthetic drawing, the drawing is optimised once in setup so only the exporter itself is measured.
+ * The exporters need the registry and the current project, so the application is started the same way as the regression tests, see {@link JUnitDBV3ClassRunner}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExporterBenchmark {
+
+    public static final int CANVAS_SIZE = 1000;
+
+    @Param({"svg_default", "svg_inkscape", "pdf_default", "gcode_default", "image_default"})
+    public String exportHandler;
+
+    @Param({"10000", "100000"})
+    public int count;
+
+    public File outputDir;
+    public File outputFile;
+    public ExportTask exportTask;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        JUnitDBV3Launcher.postLaunchMethod = JUnitDBV3ClassRunner::setupTestDBV3Free;
+        JUnitDBV3Launcher.startJavaFx();
+
+        DrawingExportHandler handler = MasterRegistry.INSTANCE.drawingExportHandlers.get(exportHandler);
+        if(handler == null){
+            throw new IllegalStateException("Missing export handler: " + exportHandler);
+        }
+        outputDir = Files.createTempDirectory("dbv3_benchmark").toFile();
+        outputFile = new File(outputDir, exportHandler + handler.getDefaultExtension());
+
+        ObservableDrawingSet drawingSet = DrawingBotV3.project().getDrawingSets().activeDrawingSet.get();
+        PlottedDrawing drawing = new PlottedDrawing(new SimpleCanvas(CANVAS_SIZE, CANVAS_SIZE), DrawingBotV3.project().getDrawingSets());
+        drawing.newPlottedGroup(drawingSet, null);
+        List<IGeometry> geometries = BenchmarkUtils.createTestGeometries(count, CANVAS_SIZE, CANVAS_SIZE);
+        for(int i = 0; i < geometries.size(); i++){
+            geometries.get(i).setPenIndex(i % drawingSet.pens.size());
+        }
+        drawing.addGeometry(geometries);
+
+        exportTask = new ExportTask(DrawingBotV3.context(), handler, ExportTask.Mode.PER_DRAWING, drawing, IGeometryFilter.DEFAULT_FILTER, handler.getDefaultExtension(), outputFile, true, false, false);
+        handler.setupExport(exportTask);
+        exportTask.originalPenStats = drawing.getPerPenGeometryStats();
+        exportTask.createExportPlottedDrawing(IGeometryFilter.DEFAULT_FILTER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        File[] files = outputDir.listFiles();
+        if(files != null){
+            for(File file : files){
+                file.delete();
+            }
+        }
+        outputDir.delete();
+    }
+
+    @Benchmark
+    public File export(){
+        exportTask.exportDrawing(IGeometryFilter.DEFAULT_FILTER, outputFile);
+        return outputFile;
+    }
+}
@@ -0,0 +1,54 @@
+package drawingbot.geom;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.image.PixelDataMask;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clipping geometries which cross the edge of a rectangle, an ellipse and a pixel mask, as used when clipping drawings to the canvas or to a soft clip
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GeometryClippingBenchmark {
+
+    public static final int SIZE = 1000;
+    public static final int GEOMETRIES = 1000;
+
+    @Param({"RECTANGLE", "ELLIPSE", "PIXEL_MASK"})
+    public String clipShape;
+
+    @Param({"false", "true"})
+    public boolean outside;
+
+    public Shape shape;
+    public List<IGeometry> geometries;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        Shape bounds = switch (clipShape){
+            case "RECTANGLE" -> new Rectangle2D.Double(SIZE * 0.25, SIZE * 0.25, SIZE * 0.5, SIZE * 0.5);
+            case "ELLIPSE", "PIXEL_MASK" -> new Ellipse2D.Double(SIZE * 0.25, SIZE * 0.25, SIZE * 0.5, SIZE * 0.5);
+            default -> throw new IllegalArgumentException("Unknown clip shape: " + clipShape);
+        };
+        shape = clipShape.equals("PIXEL_MASK") ? new PixelDataMask(SIZE, SIZE, bounds) : bounds;
+        geometries = BenchmarkUtils.createTestGeometries(GEOMETRIES, SIZE, SIZE);
+    }
+
+    @Benchmark
+    public void clip(Blackhole blackhole){
+        for(IGeometry geometry : geometries){
+            if(GeometryClipping.shouldClip(shape, geometry, outside)){
+                blackhole.consume(GeometryClipping.clip(shape, geometry, GeometryClipping.accuracy, outside));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package drawingbot.geom.spatial;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.geom.GeometryUtils;
+import org.locationtech.jts.geom.LineString;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.geom.AffineTransform;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting line strings into a short travelling order, as used by path optimisation before export
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class STRTreeSequencerBenchmark {
+
+    @Param({"10000", "100000"})
+    public int count;
+
+    public List<LineString> lineStrings;
+    public STRTreeSequencerLineString sequencer;
+
+    @Setup(Level.Trial)
+    public void setupTrial(){
+        lineStrings = GeometryUtils.toLineStrings(BenchmarkUtils.createTestGeometries(count, 1000, 1000), new AffineTransform());
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation(){
+        sequencer = new STRTreeSequencerLineString(lineStrings, 0);
+    }
+
+    @Benchmark
+    public List<LineString> sort(){
+        return sequencer.sort();
+    }
+}
@@ -0,0 +1,42 @@
+package drawingbot.image;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.api.IPixelData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The darkest pixel search used by the sketch PFMs, each call lightens the pixel it found so the next call has to search again, as it would while plotting
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PixelTargetDarkestAreaBenchmark {
+
+    @Param({"1024", "4096"})
+    public int size;
+
+    public IPixelData pixelData;
+    public PixelTargetDarkestArea target;
+
+    @Setup(Level.Iteration)
+    public void setup(){
+        pixelData = new PixelDataARGBY(size, size);
+        pixelData.loadData(BenchmarkUtils.createTestImage(size, size));
+        target = new PixelTargetDarkestArea(BenchmarkUtils.createPlottingTools(pixelData), pixelData);
+        target.getNextDarkestPixel(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown(){
+        target.destroy();
+    }
+
+    @Benchmark
+    public int[] getNextDarkestPixel(){
+        int[] darkest = target.getNextDarkestPixel(true);
+        pixelData.setLuminance(darkest[0], darkest[1], Math.min(255, darkest[2] + 64));
+        return darkest;
+    }
+}
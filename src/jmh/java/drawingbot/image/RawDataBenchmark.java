@@ -0,0 +1,75 @@
+package drawingbot.image;
+
+import drawingbot.BenchmarkUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes on {@link RawData}, the backing store of every {@link drawingbot.api.IPixelData} channel
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RawDataBenchmark {
+
+    public static final int POINTS = 4096;
+
+    @Param({"1024", "4096"})
+    public int size;
+
+    public RawData rawData;
+    public int[] pointsX;
+    public int[] pointsY;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        rawData = new RawData(size, size);
+        Random random = new Random(BenchmarkUtils.SEED);
+        for(int x = 0; x < size; x++){
+            for(int y = 0; y < size; y++){
+                rawData.setData(x, y, random.nextInt(256));
+            }
+        }
+        pointsX = new int[POINTS];
+        pointsY = new int[POINTS];
+        for(int i = 0; i < POINTS; i++){
+            pointsX[i] = random.nextInt(size);
+            pointsY[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public void readRandom(Blackhole blackhole){
+        for(int i = 0; i < POINTS; i++){
+            blackhole.consume(rawData.getData(pointsX[i], pointsY[i]));
+        }
+    }
+
+    @Benchmark
+    public void writeRandom(){
+        for(int i = 0; i < POINTS; i++){
+            rawData.setData(pointsX[i], pointsY[i], i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public void adjustRandom(){
+        for(int i = 0; i < POINTS; i++){
+            rawData.adjustData(pointsX[i], pointsY[i], (i & 1) == 0 ? 10 : -10);
+        }
+    }
+
+    @Benchmark
+    public long readRows(){
+        long total = 0;
+        for(int y = 0; y < size; y++){
+            for(int x = 0; x < size; x++){
+                total += rawData.getData(x, y);
+            }
+        }
+        return total;
+    }
+}
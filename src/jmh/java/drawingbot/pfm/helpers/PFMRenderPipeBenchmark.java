@@ -0,0 +1,64 @@
+package drawingbot.pfm.helpers;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.api.IPixelData;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.image.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Erasing geometries from each type of pixel data, the bresenham types take the fast path and the composite types render through Graphics2D
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PFMRenderPipeBenchmark {
+
+    public static final int IMAGE_SIZE = 2048;
+    public static final int GEOMETRIES = 1024;
+
+    @Param({"LUMINANCE", "ARGB", "ARGBY", "HYBRID", "GRAPHICS_COMPOSITE", "ADDITIVE_COMPOSITE"})
+    public String pixelDataType;
+
+    @Param({"1"})
+    public float lineWidth;
+
+    public PFMRenderPipe renderPipe;
+    public IPixelData pixelData;
+    public IPixelData reference;
+    public List<IGeometry> geometries;
+    public int index = 0;
+
+    @Setup(Level.Iteration)
+    public void setup(){
+        BufferedImage image = BenchmarkUtils.createTestImage(IMAGE_SIZE, IMAGE_SIZE);
+        renderPipe = new PFMRenderPipe();
+        pixelData = createPixelData(pixelDataType, IMAGE_SIZE, IMAGE_SIZE);
+        pixelData.loadData(image);
+        reference = new PixelDataARGBY(IMAGE_SIZE, IMAGE_SIZE);
+        reference.loadData(image);
+        geometries = BenchmarkUtils.createTestGeometries(GEOMETRIES, IMAGE_SIZE, IMAGE_SIZE);
+    }
+
+    public static IPixelData createPixelData(String type, int width, int height){
+        return switch (type) {
+            case "LUMINANCE" -> new PixelDataLuminance(width, height);
+            case "ARGB" -> new PixelDataARGB(width, height);
+            case "ARGBY" -> new PixelDataARGBY(width, height);
+            case "HYBRID" -> new PixelDataHybrid(width, height);
+            case "GRAPHICS_COMPOSITE" -> PixelDataGraphicsComposite.create(width, height);
+            case "ADDITIVE_COMPOSITE" -> new PixelDataAdditiveComposite(width, height);
+            default -> throw new IllegalArgumentException("Unknown pixel data type: " + type);
+        };
+    }
+
+    @Benchmark
+    public int eraseGeometry(){
+        IGeometry geometry = geometries.get(index++ % GEOMETRIES);
+        return renderPipe.eraseGeometry(pixelData, reference, geometry, 25, lineWidth);
+    }
+}
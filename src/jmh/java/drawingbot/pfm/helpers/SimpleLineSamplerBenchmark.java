@@ -0,0 +1,57 @@
+package drawingbot.pfm.helpers;
+
+import drawingbot.BenchmarkUtils;
+import drawingbot.api.IPixelData;
+import drawingbot.image.PixelDataARGBY;
+import drawingbot.plotting.PlottingTools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The darkest line search used by the sketch PFMs, from random start points with the default sketch settings
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimpleLineSamplerBenchmark {
+
+    public static final int START_POINTS = 1024;
+    public static final int IMAGE_SIZE = 2048;
+
+    @Param({"10", "100"})
+    public int maxLength;
+
+    @Param({"20", "360"})
+    public int maxTests;
+
+    public IPixelData pixelData;
+    public SimpleLineSampler sampler;
+    public int[] startX;
+    public int[] startY;
+    public int[] darkest = new int[2];
+    public int index = 0;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        pixelData = new PixelDataARGBY(IMAGE_SIZE, IMAGE_SIZE);
+        pixelData.loadData(BenchmarkUtils.createTestImage(IMAGE_SIZE, IMAGE_SIZE));
+        PlottingTools tools = BenchmarkUtils.createPlottingTools(pixelData);
+        sampler = new SimpleLineSampler(tools);
+
+        Random random = new Random(BenchmarkUtils.SEED);
+        startX = new int[START_POINTS];
+        startY = new int[START_POINTS];
+        for(int i = 0; i < START_POINTS; i++){
+            startX[i] = random.nextInt(IMAGE_SIZE);
+            startY[i] = random.nextInt(IMAGE_SIZE);
+        }
+    }
+
+    @Benchmark
+    public float findDarkestLine(){
+        int i = index++ % START_POINTS;
+        return sampler.findDarkestLine(pixelData, null, startX[i], startY[i], 3, maxLength, maxTests, 0, 360, false, darkest);
+    }
+}
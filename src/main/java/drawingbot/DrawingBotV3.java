@@ -8,6 +8,8 @@ import java.io.File;
 import java.util.EnumSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
@@ -31,11 +33,13 @@ import drawingbot.plotting.canvas.ObservableCanvas;
 import drawingbot.registry.MasterRegistry;
 import drawingbot.registry.Register;
 import drawingbot.render.modes.DisplayModeBase;
+import drawingbot.render.overlays.NotificationOverlays;
 import drawingbot.render.renderer.JFXRenderer;
 import drawingbot.software.SoftwareManager;
 import drawingbot.utils.*;
 import drawingbot.utils.flags.FlagStates;
 import drawingbot.utils.flags.Flags;
+import drawingbot.utils.jfr.FlightRecorderUtils;
 import javafx.application.Platform;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
@@ -89,6 +93,11 @@ public class DrawingBotV3 {
     public ExecutorService backgroundService = initBackgroundService();
     public ExecutorService lazyBackgroundService = initLazyBackgroundService();
     public ExecutorService imageFilteringService = initImageFilteringService();
+    public ExecutorService imageUploadService = initImageUploadService();
+    public ExecutorService parallelRenderingService = initParallelRenderingService();
+    public ExecutorService parallelExportService = initParallelExportService();
+    public ExecutorService parallelFilteringService = initParallelFilteringService();
+    public ExecutorService livePreviewService = initLivePreviewService();
     //public ExecutorService parallelPlottingService = initParallelPlottingService();
     public ExecutorService serialConnectionWriteService = initSerialConnectionService();
 
@@ -259,6 +268,21 @@ public class DrawingBotV3 {
         }
     }
 
+    /**
+     * Continues the current drawing with the current settings e.g. after raising the max lines, only drawings from a sketch PFM which match the selected PFM can be extended
+     */
+    public void extendPlotting(DBTaskContext context){
+        PlottedDrawing drawing = context.project().getCurrentDrawing();
+        if(!PFMTaskBuilder.canExtendDrawing(drawing, context.project().getPFMFactory())){
+            NotificationOverlays.INSTANCE.showWithSubtitle("WARNING", "Can't extend drawing", "Only finished drawings from the selected sketch PFM can be extended");
+            return;
+        }
+        if(context.project().activeTask.get() != null){
+            context.project().activeTask.get().cancel();
+        }
+        taskMonitor.queueTask(PFMTaskBuilder.create(context).setExtendedDrawing(drawing).createPFMTask());
+    }
+
     public void stopPlotting(DBTaskContext context){
         if(context.project().activeTask.get() != null){
             context.project().activeTask.get().stopElegantly();
@@ -402,7 +426,11 @@ public class DrawingBotV3 {
     //// SERVICES
 
     public void startTask(ExecutorService service, Task<?> task){
-        service.submit(task);
+        if(FlightRecorderUtils.isTaskRecordingEnabled() && task instanceof DBTask<?> dbTask){
+            service.submit(() -> FlightRecorderUtils.runRecorded(dbTask.getTaskName(), task));
+        }else{
+            service.submit(task);
+        }
         taskMonitor.logTask(task);
     }
 
@@ -422,6 +450,31 @@ public class DrawingBotV3 {
         return Executors.newSingleThreadExecutor(threadFactory("DrawingBotV3 - Image Filtering"));
     }
 
+    public ExecutorService initImageUploadService(){
+        return Executors.newSingleThreadExecutor(threadFactory("DrawingBotV3 - Image Upload"));
+    }
+
+    public ExecutorService initParallelRenderingService(){
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory("DrawingBotV3 - Parallel Rendering"));
+    }
+
+    public ExecutorService initParallelExportService(){
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory("DrawingBotV3 - Parallel Export"));
+    }
+
+    public ExecutorService initParallelFilteringService(){
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName("DrawingBotV3 - Parallel Filtering");
+            t.setDaemon(true);
+            return t;
+        }, exceptionHandler, false);
+    }
+
+    public ExecutorService initLivePreviewService(){
+        return Executors.newSingleThreadExecutor(threadFactory("DrawingBotV3 - Live Preview"));
+    }
+
     public ExecutorService initParallelPlottingService(){
         return Executors.newFixedThreadPool(5, threadFactory("DrawingBotV3 - Parallel Plotting"));
     }
@@ -81,6 +81,46 @@ public class FXApplication extends Application {
         launch(args);
     }
 
+    /**
+     * Loads the software without a stage, splash screen or user interface, for running plotting tasks from the command line, blocks until loading has finished.
+     * The JavaFX toolkit is still started as tasks report their progress on the JavaFX thread, the Monocle headless platform is used when it's available so no display is needed.
+     */
+    public static void launchHeadless() throws Exception {
+        isHeadless = true;
+        LazyTimerUtils.startTimer("launch");
+        LoggingHandler.init();
+        configureHeadlessPlatform();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.setImplicitExit(false);
+        Platform.startup(latch::countDown);
+        latch.await();
+
+        InitialLoadTask loadTask = new InitialLoadTask();
+        loadTask.run();
+        loadTask.get();
+    }
+
+    /**
+     * Selects the Monocle headless platform and software rendering, unless another glass platform has already been chosen e.g. -Dglass.platform=gtk
+     */
+    private static void configureHeadlessPlatform(){
+        if(System.getProperty("glass.platform") != null){
+            return;
+        }
+        try {
+            Class.forName("com.sun.glass.ui.monocle.MonoclePlatformFactory", false, FXApplication.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            DrawingBotV3.logger.warning("Monocle wasn't found, the JavaFX toolkit will need a display");
+            return;
+        }
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        if(System.getProperty("prism.order") == null){
+            System.setProperty("prism.order", "sw");
+        }
+    }
+
     ////////////////////////////////////////////////////////
 
     public static Scene getPrimaryScene(){
@@ -136,9 +176,11 @@ public class FXApplication extends Application {
 
             DrawingBotV3.logger.config("Plugins: Pre-Init");
             SoftwareManager.getLoadedPlugins().forEach(IPlugin::preInit);
+            LazyTimerUtils.lapTimer("launch", "Components");
 
             DrawingBotV3.logger.config("DrawingBotV3: Loading Configuration");
             JsonLoaderManager.loadConfigFiles();
+            LazyTimerUtils.lapTimer("launch", "Configuration");
 
             DrawingBotV3.logger.config("DrawingBotV3: Loading API");
             API.INSTANCE = new DrawingBotV3API();
@@ -155,6 +197,11 @@ public class FXApplication extends Application {
             //Sort the PFM settings
             MasterRegistry.INSTANCE.sortPFMSettings();
             MasterRegistry.INSTANCE.sortDataLoaders();
+            LazyTimerUtils.lapTimer("launch", "Registry");
+
+            //the presets are parsed in the background while the rest of DrawingBotV3 is initialised, they are added to the preset loaders later by loadJSONFiles
+            DrawingBotV3.logger.config("Json Loader: Parsing JSON Files");
+            JsonLoaderManager.startParsingJSONFiles();
 
             ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -170,6 +217,7 @@ public class FXApplication extends Application {
 
             SoftwareManager.getLoadedPlugins().forEach(IPlugin::registerPreferencePages);
             DBPreferences.INSTANCE.postInit();
+            LazyTimerUtils.lapTimer("launch", "Init");
 
             DrawingBotV3.logger.config("Json Loader: Load JSON Files");
             JsonLoaderManager.loadJSONFiles();
@@ -177,44 +225,48 @@ public class FXApplication extends Application {
 
             DrawingBotV3.logger.config("Json Loader: Load recent projects");
             RecentProjectHandler.loadRecentProjectData();
+            LazyTimerUtils.lapTimer("launch", "Recent Projects");
 
-            DrawingBotV3.logger.config("DrawingBotV3: Loading User Interface");
-            CountDownLatch latchA = new CountDownLatch(1);
-            Platform.runLater(() -> {
-
-                FXMLLoader loader = new FXMLLoader(FXApplication.class.getResource("userinterface.fxml"));
-                Parent root = null;
-                try {
-                    root = loader.load();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                DrawingBotV3.INSTANCE.controller = loader.getController();
-                DrawingBotV3.INSTANCE.controller.initSeparateStages();
-                DrawingBotV3.INSTANCE.controller.setupBindings();
+            //the user interface is never shown when headless, so isn't created at all
+            if(!isHeadless){
+                DrawingBotV3.logger.config("DrawingBotV3: Loading User Interface");
+                CountDownLatch latchA = new CountDownLatch(1);
+                Platform.runLater(() -> {
 
-                Rectangle2D visualBounds = Screen.getPrimary().getVisualBounds();
-                FXApplication.primaryScene = new Scene(root, visualBounds.getWidth(), visualBounds.getHeight(), false, SceneAntialiasing.BALANCED);
-                DBPreferences.INSTANCE.uiWindowSize.get().setupStage(primaryStage);
+                    FXMLLoader loader = new FXMLLoader(FXApplication.class.getResource("userinterface.fxml"));
+                    Parent root = null;
+                    try {
+                        root = loader.load();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                    DrawingBotV3.INSTANCE.controller = loader.getController();
+                    DrawingBotV3.INSTANCE.controller.initSeparateStages();
+                    DrawingBotV3.INSTANCE.controller.setupBindings();
+
+                    Rectangle2D visualBounds = Screen.getPrimary().getVisualBounds();
+                    FXApplication.primaryScene = new Scene(root, visualBounds.getWidth(), visualBounds.getHeight(), false, SceneAntialiasing.BALANCED);
+                    if(primaryStage != null){
+                        DBPreferences.INSTANCE.uiWindowSize.get().setupStage(primaryStage);
+                        primaryStage.setScene(primaryScene);
+                    }
+                    latchA.countDown();
+                });
 
-                if(!isHeadless) {
-                    primaryStage.setScene(primaryScene);
-                }
-                latchA.countDown();
-            });
+                latchA.await();
+                LazyTimerUtils.lapTimer("launch", "User Interface");
 
-            latchA.await();
 
+                //// ADD ACCELERATORS \\\\
+                int keypad = 1;
+                for(DisplayModeBase displayMode : MasterRegistry.INSTANCE.displayModes){
+                    FXApplication.primaryScene.getAccelerators().put(KeyCombination.valueOf("Shift + " + keypad), () -> DrawingBotV3.project().displayMode.set(displayMode));
+                    keypad++;
+                }
 
-            //// ADD ACCELERATORS \\\\
-            int keypad = 1;
-            for(DisplayModeBase displayMode : MasterRegistry.INSTANCE.displayModes){
-                FXApplication.primaryScene.getAccelerators().put(KeyCombination.valueOf("Shift + " + keypad), () -> DrawingBotV3.project().displayMode.set(displayMode));
-                keypad++;
+                FXApplication.primaryScene.getAccelerators().put(KeyCombination.valueOf("Shift + V"), () -> DrawingBotV3.INSTANCE.controller.versionControlController.saveVersion());
             }
 
-            FXApplication.primaryScene.getAccelerators().put(KeyCombination.valueOf("Shift + V"), () -> DrawingBotV3.INSTANCE.controller.versionControlController.saveVersion());
-
             CountDownLatch latchB = new CountDownLatch(1);
             Platform.runLater(() -> {
                 //save the default UI State before applying the users own defaults
@@ -225,11 +277,13 @@ public class FXApplication extends Application {
                 latchB.countDown();
             });
             latchB.await();
+            LazyTimerUtils.lapTimer("launch", "Apply Defaults");
 
             DrawingBotV3.logger.config("Plugins: Post Init");
             SoftwareManager.getLoadedPlugins().forEach(IPlugin::postInit);
 
             JsonLoaderManager.postInit();
+            LazyTimerUtils.lapTimer("launch", "Post Init");
 
             if(!isHeadless){
                 CountDownLatch latchC = new CountDownLatch(1);
@@ -282,9 +336,13 @@ public class FXApplication extends Application {
                 }
             }
 
-            String loadTime = LazyTimerUtils.finishTimer("launch").getElapsedTimeFormatted();
-            DrawingBotV3.logger.config("DrawingBotV3: Loaded %s".formatted(loadTime));
-            SplashScreen.stopPreloader(FXApplication.INSTANCE);
+            LazyTimerUtils.lapTimer("launch", "Show Stage");
+            LazyTimer launchTimer = LazyTimerUtils.finishTimer("launch");
+            DrawingBotV3.logger.config("DrawingBotV3: Loaded %s".formatted(launchTimer.getElapsedTimeFormatted()));
+            DrawingBotV3.logger.config("DrawingBotV3: Start up times - %s".formatted(launchTimer.getLapsFormatted()));
+            if(FXApplication.INSTANCE != null){
+                SplashScreen.stopPreloader(FXApplication.INSTANCE);
+            }
 
             isLoaded.set(true);
 
@@ -0,0 +1,165 @@
+package drawingbot.batch;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.FXApplication;
+import drawingbot.SoftwareDBV3Free;
+import drawingbot.batch.farm.RenderFarmCoordinator;
+import drawingbot.batch.farm.RenderFarmWorker;
+import drawingbot.files.FileUtils;
+import drawingbot.software.SoftwareManager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plots and exports batches of images or projects from the command line without showing the user interface, progress is written to stdout.
+ * <br>
+ * Arguments:
+ * <pre>
+ * --input [file/dir,...]       the images or .drawingbotv3 project files to plot, directories are searched for supported files
+ * --output [dir]               the directory to export to, default is the current directory
+ * --pfm [preset]               the PFM preset, given by name, "PFM Name:Preset Name" or the path of an exported preset
+ * --drawing-set [preset]       the drawing set preset, in the same form as --pfm
+ * --drawing-area [preset]      the drawing area preset, in the same form as --pfm
+ * --export [format,...]        the export handlers to use, e.g. svg_default,pdf_default,image_default:.png default is svg_default
+ * --threads [int]              how many jobs to run at once, default 0 picks from the available processors, fewer jobs will run if the heap is too small for them
+ * --state [file]               the file which records the progress of the batch, default batch_state.json in the output directory
+ * --restart                    ignore the state file and run every job again
+ * --workers [host:port,...]    send the jobs to render farm workers instead of plotting them locally
+ * --worker [port]              run as a render farm worker on the loopback port, 0 picks a free port, --threads sets the jobs it plots at once
+ * </pre>
+ * When a preset isn't given, a project input uses its own settings and an image input uses the default settings.
+ * If the batch is interrupted, running the same command again skips the jobs which already finished, see {@link BatchQueueTask}
+ * <br>
+ * A render farm can be tested on one machine by starting several workers e.g. "--worker 8701", "--worker 8702" and then running the batch with "--workers localhost:8701,localhost:8702", see {@link RenderFarmCoordinator}
+ * Exits with status 1 if any job failed.
+ * <br>
+ * N.B. The user interface is never created, but the JavaFX toolkit is still started as tasks report their progress on the JavaFX thread.
+ * It runs on the Monocle headless platform with software rendering so no display is needed, see {@link FXApplication#launchHeadless()}
+ */
+public class BatchCLI {
+
+    public static final String DEFAULT_STATE_FILE = "batch_state.json";
+
+    public List<String> inputs = new ArrayList<>();
+    public String outputDirectory = ".";
+    public String pfmPreset = null;
+    public String drawingSetPreset = null;
+    public String drawingAreaPreset = null;
+    public List<String> exportFormats = List.of("svg_default");
+    public int threads = 0;
+    public String stateFile = null;
+    public boolean restart = false;
+    public int workerPort = -1;
+    public List<String> workerAddresses = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        BatchCLI cli = new BatchCLI();
+        cli.parseArgs(args);
+
+        SoftwareManager.setSoftware(SoftwareDBV3Free.INSTANCE);
+        FXApplication.launchHeadless();
+
+        if(cli.workerPort != -1){
+            RenderFarmWorker worker = new RenderFarmWorker(cli.workerPort, cli.threads);
+            worker.start();
+            System.out.println("Batch: Render farm worker listening on port %s with %s slots".formatted(worker.getPort(), worker.slots));
+            worker.join();
+            return;
+        }
+
+        List<BatchJob> jobs = cli.createJobs();
+        if(jobs.isEmpty()){
+            System.out.println("Batch: No input files found");
+            System.exit(1);
+        }
+        List<BatchJob.Result> results = cli.run(jobs);
+        System.exit(results.stream().allMatch(result -> result.success) ? 0 : 1);
+    }
+
+    public void parseArgs(String[] args){
+        for(int i = 0; i < args.length; i++){
+            String arg = args[i];
+            switch (arg){
+                case "--input" -> inputs.addAll(List.of(args[++i].split(",")));
+                case "--output" -> outputDirectory = args[++i];
+                case "--pfm" -> pfmPreset = args[++i];
+                case "--drawing-set" -> drawingSetPreset = args[++i];
+                case "--drawing-area" -> drawingAreaPreset = args[++i];
+                case "--export" -> exportFormats = List.of(args[++i].split(","));
+                case "--threads" -> threads = Math.max(0, Integer.parseInt(args[++i]));
+                case "--state" -> stateFile = args[++i];
+                case "--restart" -> restart = true;
+                case "--worker" -> workerPort = Integer.parseInt(args[++i]);
+                case "--workers" -> workerAddresses = List.of(args[++i].split(","));
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if(inputs.isEmpty() && workerPort == -1){
+            throw new IllegalArgumentException("Missing argument: --input");
+        }
+    }
+
+    public List<BatchJob> createJobs(){
+        List<BatchJob> jobs = new ArrayList<>();
+        for(String input : inputs){
+            File file = new File(input);
+            File[] files = file.isDirectory() ? file.listFiles(f -> f.isFile() && isSupportedFile(f)) : new File[]{file};
+            if(files == null){
+                continue;
+            }
+            Arrays.sort(files);
+            for(File inputFile : files){
+                BatchJob job = new BatchJob(inputFile.getPath(), outputDirectory);
+                job.pfmPreset = pfmPreset;
+                job.drawingSetPreset = drawingSetPreset;
+                job.drawingAreaPreset = drawingAreaPreset;
+                job.exportFormats = new ArrayList<>(exportFormats);
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    public static boolean isSupportedFile(File file){
+        String extension = FileUtils.getExtension(file.getName());
+        return FileUtils.matchesExtensionFilter(extension, FileUtils.IMPORT_IMAGES) || FileUtils.matchesExtensionFilter(extension, FileUtils.FILTER_PROJECT);
+    }
+
+    public List<BatchJob.Result> run(List<BatchJob> jobs) throws Exception {
+        new File(outputDirectory).mkdirs();
+
+        File stateFile = new File(this.stateFile == null ? new File(outputDirectory, DEFAULT_STATE_FILE).getPath() : this.stateFile);
+        if(restart && stateFile.exists()){
+            Files.delete(stateFile.toPath());
+        }
+
+        long startTime = System.nanoTime();
+        RenderFarmCoordinator coordinator = null;
+        int workers = threads;
+        if(!workerAddresses.isEmpty()){
+            coordinator = new RenderFarmCoordinator(workerAddresses.stream().map(RenderFarmCoordinator::parseAddress).toList());
+            int slots = coordinator.getTotalSlots();
+            if(slots == 0){
+                throw new IllegalStateException("No render farm workers available: " + workerAddresses);
+            }
+            //each local worker only waits on a farm worker, so the batch sends as many jobs at once as the farm has slots
+            workers = threads > 0 ? threads : slots;
+        }
+
+        BatchQueueTask task = new BatchQueueTask(DrawingBotV3.context(), jobs, stateFile, workers);
+        task.progressListener = System.out::println;
+        if(coordinator != null){
+            task.jobRunner = coordinator;
+        }
+        task.run();
+        List<BatchJob.Result> results = task.get();
+
+        long failed = results.stream().filter(result -> !result.success).count();
+        System.out.println("Batch: Finished %s jobs in %.1f s, %s failed".formatted(results.size(), (System.nanoTime() - startTime) / 1_000_000_000D, failed));
+        return results;
+    }
+}
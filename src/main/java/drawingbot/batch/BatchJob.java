@@ -0,0 +1,93 @@
+package drawingbot.batch;
+
+import drawingbot.files.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single image or project file to plot and export without the user interface, see {@link BatchJobRunner}
+ * The presets are given by name, "subType:name" or as the path of an exported preset file, when null the project's own settings are used.
+ */
+public class BatchJob {
+
+    public String input;
+    public String outputDirectory;
+
+    /**
+     * The image to plot in place of the image path saved in a project file, e.g. when the project was created on another machine
+     */
+    public String image = null;
+
+    public String pfmPreset = null;
+    public String drawingSetPreset = null;
+    public String drawingAreaPreset = null;
+
+    /**
+     * The export handler registry names, optionally followed by the extension to use e.g. "svg_default" or "image_default:.jpg"
+     */
+    public List<String> exportFormats = new ArrayList<>();
+
+    // QUEUE STATE \\
+    public Status status = Status.PENDING;
+    public String error = null;
+    public List<String> exportedFiles = new ArrayList<>();
+
+    public BatchJob(){}
+
+    public BatchJob(String input, String outputDirectory){
+        this.input = input;
+        this.outputDirectory = outputDirectory;
+    }
+
+    public File getInputFile(){
+        return new File(input);
+    }
+
+    public boolean isProjectFile(){
+        return FileUtils.matchesExtensionFilter(FileUtils.getExtension(input), FileUtils.FILTER_PROJECT);
+    }
+
+    /**
+     * @return the name shared by every file exported from this job
+     */
+    public String getOutputName(){
+        return FileUtils.removeExtension(getInputFile().getName());
+    }
+
+    @Override
+    public String toString() {
+        return getInputFile().getName();
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        FINISHED,
+        FAILED;
+
+        public boolean isComplete(){
+            return this == FINISHED || this == FAILED;
+        }
+    }
+
+    /**
+     * The outcome of running a {@link BatchJob}
+     */
+    public static class Result {
+
+        public final BatchJob job;
+        public boolean success = false;
+        public String error = null;
+        public int geometries = 0;
+        public long vertices = 0;
+        public double plottingTimeMs = 0;
+        public double exportTimeMs = 0;
+        public List<String> exportedFiles = new ArrayList<>();
+
+        public Result(BatchJob job) {
+            this.job = job;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package drawingbot.batch;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.files.DrawingExportHandler;
+import drawingbot.files.ExportTask;
+import drawingbot.files.FileUtils;
+import drawingbot.files.json.IPresetLoader;
+import drawingbot.files.json.JsonLoaderManager;
+import drawingbot.files.json.projects.ObservableProject;
+import drawingbot.files.json.projects.PresetProjectSettings;
+import drawingbot.image.BufferedImageLoader;
+import drawingbot.image.format.ImageCropping;
+import drawingbot.image.format.ImageData;
+import drawingbot.javafx.GenericPreset;
+import drawingbot.plotting.PFMTask;
+import drawingbot.plotting.PFMTaskBuilder;
+import drawingbot.plotting.PlottedDrawing;
+import drawingbot.registry.MasterRegistry;
+import drawingbot.registry.Register;
+import javafx.application.Platform;
+import org.jetbrains.annotations.Nullable;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Runs a single {@link BatchJob} on the calling thread, every job gets its own {@link ObservableProject} which is never shown, so jobs can run concurrently.
+ * The project is set up on the JavaFX thread, like loading a project in the user interface, then the PFM and the exports are run as sub tasks on the calling thread.
+ */
+public class BatchJobRunner {
+
+    public static BatchJob.Result run(BatchJob job, Consumer<String> progress){
+        return run(job, progress, null);
+    }
+
+    /**
+     * @param memoryBudget if not null, the job waits for its estimated heap usage to be available before loading its image
+     */
+    public static BatchJob.Result run(BatchJob job, Consumer<String> progress, @Nullable BatchMemoryBudget memoryBudget){
+        BatchJob.Result result = new BatchJob.Result(job);
+        int acquiredMB = 0;
+        try{
+            progress.accept("Loading");
+            ProjectSetup setup = runOnFXThread(() -> createProject(job));
+            ObservableProject project = setup.project;
+
+            BufferedImage image = null;
+            if(memoryBudget != null){
+                int[] imageSize = readImageSize(setup.imagePath);
+                if(imageSize == null){
+                    //formats without a readable header, e.g. videos, have to be decoded before they can be estimated
+                    image = loadImage(setup.imagePath);
+                    imageSize = new int[]{image.getWidth(), image.getHeight()};
+                }
+                long jobBytes = BatchMemoryBudget.estimateJobBytes(project.getDrawingArea(), imageSize[0], imageSize[1]);
+                if(memoryBudget.getAvailableMB() < jobBytes / (1024 * 1024)){
+                    progress.accept("Waiting for memory, estimated %s MB".formatted(jobBytes / (1024 * 1024)));
+                }
+                acquiredMB = memoryBudget.acquire(jobBytes);
+            }
+            if(image == null){
+                image = loadImage(setup.imagePath);
+            }
+            ImageData imageData = new ImageData(new File(setup.imagePath), image);
+            if(setup.imageCropping != null){
+                imageData.imageCropping.update(setup.imageCropping);
+            }
+            runOnFXThread(() -> {
+                project.openImage.set(imageData);
+                return null;
+            });
+
+            PFMTask task = PFMTaskBuilder.create(project.context).setSubTask(true).setAllowSubTaskMultiThreading(true).createPFMTask();
+
+            progress.accept("Plotting");
+            long startTime = System.nanoTime();
+            task.run();
+            PlottedDrawing drawing = task.get();
+            result.plottingTimeMs = (System.nanoTime() - startTime) / 1_000_000D;
+            if(drawing == null || !task.error.isEmpty()){
+                throw new IllegalStateException("Plotting failed " + task.error);
+            }
+            result.geometries = drawing.getGeometryCount();
+            result.vertices = drawing.getVertexCount();
+
+            startTime = System.nanoTime();
+            Set<String> usedNames = new HashSet<>();
+            for(String exportFormat : job.exportFormats){
+                progress.accept("Exporting " + exportFormat);
+                File saveLocation = export(project, drawing, job, exportFormat, usedNames);
+                result.exportedFiles.add(saveLocation.getPath());
+            }
+            result.exportTimeMs = (System.nanoTime() - startTime) / 1_000_000D;
+            result.success = true;
+        }catch (Exception e){
+            result.error = e instanceof ExecutionException && e.getCause() != null ? e.getCause().toString() : e.toString();
+            DrawingBotV3.logger.log(Level.SEVERE, "Batch Job Failed: " + job, e);
+        }finally {
+            if(memoryBudget != null && acquiredMB > 0){
+                memoryBudget.release(acquiredMB);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The job's project before its image is loaded, so the image can be estimated against the memory budget first
+     */
+    public static class ProjectSetup {
+
+        public final ObservableProject project;
+        public final String imagePath;
+        @Nullable
+        public final ImageCropping imageCropping;
+
+        public ProjectSetup(ObservableProject project, String imagePath, @Nullable ImageCropping imageCropping) {
+            this.project = project;
+            this.imagePath = imagePath;
+            this.imageCropping = imageCropping;
+        }
+    }
+
+    /**
+     * Creates the project for the job from the input project file or image, then applies the job's presets over the top, the image itself is left for the caller to load
+     */
+    public static ProjectSetup createProject(BatchJob job) throws IOException {
+        File inputFile = job.getInputFile();
+        ObservableProject project = new ObservableProject(job.getOutputName(), job.isProjectFile() ? inputFile : null);
+
+        String imagePath = inputFile.getPath();
+        ImageCropping imageCropping = null;
+        if(job.isProjectFile()){
+            GenericPreset<PresetProjectSettings> preset = loadPresetFile(inputFile);
+            if(preset == null || !(preset.getData() instanceof PresetProjectSettings)){
+                throw new IOException("Invalid project file: " + inputFile);
+            }
+            imagePath = job.image != null ? job.image : preset.getData().imagePath;
+            if(preset.getData().settings.containsKey("image_settings")){
+                imageCropping = JsonLoaderManager.createDefaultGson().fromJson(preset.getData().settings.get("image_settings"), ImageCropping.class);
+            }
+            //the image is loaded by the batch job on its own thread instead of by a queued loading task, sub projects also skip restoring the UI layout
+            preset.getData().imagePath = "";
+            preset.getData().isSubProject = true;
+            Register.PRESET_MANAGER_PROJECT.applyPreset(project.context, project, preset, false);
+        }
+
+        applyPreset(project, Register.PRESET_LOADER_DRAWING_AREA, job.drawingAreaPreset);
+        applyPreset(project, Register.PRESET_LOADER_DRAWING_SET, job.drawingSetPreset);
+        applyPreset(project, Register.PRESET_LOADER_PFM, job.pfmPreset);
+
+        if(imagePath == null || imagePath.isEmpty()){
+            throw new IOException("No input image: " + inputFile);
+        }
+        return new ProjectSetup(project, imagePath, imageCropping);
+    }
+
+    public static BufferedImage loadImage(String imagePath) throws IOException {
+        BufferedImage image = BufferedImageLoader.loadImage(imagePath, false);
+        if(image == null){
+            throw new IOException("Unsupported image: " + imagePath);
+        }
+        return image;
+    }
+
+    /**
+     * Reads the image's size from its header without decoding it
+     * @return the width and height of the image, or null if no image reader can read it, e.g. for videos
+     */
+    @Nullable
+    public static int[] readImageSize(String imagePath) throws IOException {
+        try(ImageInputStream stream = ImageIO.createImageInputStream(new File(imagePath))){
+            if(stream == null){
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if(!readers.hasNext()){
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try{
+                reader.setInput(stream, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            }finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Finds the preset by name, "subType:name" or loads it from an exported preset file
+     */
+    public static <DATA> void applyPreset(ObservableProject project, IPresetLoader<DATA> loader, String presetName) throws IOException {
+        if(presetName == null){
+            return;
+        }
+        GenericPreset<DATA> preset;
+        File presetFile = new File(presetName);
+        if(presetFile.isFile()){
+            preset = loadPresetFile(presetFile);
+        }else{
+            preset = presetName.contains(":") ? loader.findPresetFromID(presetName) : loader.findPreset(presetName);
+        }
+        if(preset == null || preset.getPresetType() != loader.getPresetType()){
+            throw new IOException("Missing %s preset: %s".formatted(loader.getPresetType().registryName, presetName));
+        }
+        preset.applyPreset(project.context);
+    }
+
+    /**
+     * Loads a preset file without adding it to the user's presets
+     */
+    @SuppressWarnings("unchecked")
+    public static <DATA> GenericPreset<DATA> loadPresetFile(File file) throws IOException {
+        try(InputStream stream = new FileInputStream(file)){
+            return JsonLoaderManager.importJsonFile(stream, GenericPreset.class);
+        }
+    }
+
+    public static File export(ObservableProject project, PlottedDrawing drawing, BatchJob job, String exportFormat, Set<String> usedNames) throws Exception {
+        String[] split = exportFormat.split(":", 2);
+        DrawingExportHandler exportHandler = MasterRegistry.INSTANCE.drawingExportHandlers.get(split[0]);
+        if(exportHandler == null){
+            throw new IllegalArgumentException("Unknown export format: " + split[0]);
+        }
+        String extension = split.length > 1 ? (split[1].startsWith(".") ? split[1] : "." + split[1]) : exportHandler.getDefaultExtension();
+
+        //exports with matching extensions are told apart by the export handler's name
+        String fileName = job.getOutputName() + extension;
+        if(!usedNames.add(fileName)){
+            fileName = job.getOutputName() + "_" + FileUtils.getSafeFileName(exportHandler.getRegistryName()) + extension;
+            usedNames.add(fileName);
+        }
+        File saveLocation = new File(job.outputDirectory, fileName);
+
+        IGeometryFilter geometryFilter = project.getExportGeometryFilter();
+        ExportTask task = new ExportTask(project.context, exportHandler, ExportTask.Mode.PER_DRAWING, drawing, geometryFilter, extension, saveLocation, true, false, true);
+        task.run();
+        if(!Boolean.TRUE.equals(task.get()) || !task.error.isEmpty()){
+            throw new IOException("Export failed: %s %s".formatted(saveLocation, task.error));
+        }
+        return saveLocation;
+    }
+
+    /**
+     * Runs the callable on the JavaFX thread and waits for the result, unlike {@link drawingbot.javafx.util.JFXUtils#runTaskNow(FutureTask)} exceptions are passed on to the caller
+     */
+    public static <V> V runOnFXThread(Callable<V> callable) throws Exception {
+        if(Platform.isFxApplicationThread()){
+            return callable.call();
+        }
+        FutureTask<V> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        try{
+            return task.get();
+        }catch (ExecutionException e){
+            throw e.getCause() instanceof Exception exception ? exception : e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package drawingbot.batch;
+
+import drawingbot.api.ICanvas;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many batch jobs can plot at once by the heap they're estimated to need, so large canvases run fewer jobs concurrently instead of running out of memory.
+ * The budget is held in megabytes, each job acquires its estimate before loading its image and releases it once exported, a job larger than the whole budget runs on its own.
+ */
+public class BatchMemoryBudget {
+
+    /**
+     * The fraction of the max heap which batch jobs can use, the rest is left for the application itself
+     */
+    public static double heapBudgetFraction = 0.75;
+
+    /**
+     * The estimated bytes per pixel of the plotting canvas, covering the cropped & filtered images and the reference & plotting pixel data
+     */
+    public static long bytesPerCanvasPixel = 64;
+
+    /**
+     * The estimated bytes per pixel of the source image, covering the loaded image and its pre-cropped copy
+     */
+    public static long bytesPerSourcePixel = 8;
+
+    /**
+     * The estimated bytes for everything else, mostly the plotted geometries and the export
+     */
+    public static long baseJobBytes = 64L * 1024 * 1024;
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    public final int budgetMB;
+    private final Semaphore permits;
+
+    public BatchMemoryBudget(long budgetBytes){
+        this.budgetMB = (int) Math.max(1, budgetBytes / MEGABYTE);
+        this.permits = new Semaphore(budgetMB, true);
+    }
+
+    public static BatchMemoryBudget fromHeap(){
+        return new BatchMemoryBudget((long) (Runtime.getRuntime().maxMemory() * heapBudgetFraction));
+    }
+
+    /**
+     * Estimates the job before its image is loaded, so the budget is acquired before the image takes up any of the heap
+     * @param drawingArea the project's drawing area, the plotting canvas matches the image instead when it uses the original sizing
+     * @param sourceWidth the width of the source image in pixels, see {@link BatchJobRunner#readImageSize(String)}
+     * @param sourceHeight the height of the source image in pixels
+     * @return the estimated heap required to plot and export the image
+     */
+    public static long estimateJobBytes(ICanvas drawingArea, int sourceWidth, int sourceHeight){
+        long sourcePixels = (long) sourceWidth * sourceHeight;
+        long canvasPixels = drawingArea.useOriginalSizing() ? sourcePixels : (long) drawingArea.getScaledDrawingWidth() * (long) drawingArea.getScaledDrawingHeight();
+        return baseJobBytes + canvasPixels * bytesPerCanvasPixel + sourcePixels * bytesPerSourcePixel;
+    }
+
+    /**
+     * Blocks until the estimated bytes are available
+     * @return the permits acquired, which must be passed to {@link #release(int)}
+     */
+    public int acquire(long jobBytes) throws InterruptedException {
+        int required = (int) Math.min(budgetMB, Math.max(1, jobBytes / MEGABYTE));
+        permits.acquire(required);
+        return required;
+    }
+
+    public void release(int acquired){
+        permits.release(acquired);
+    }
+
+    public int getAvailableMB(){
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,222 @@
+package drawingbot.batch;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import drawingbot.DrawingBotV3;
+import drawingbot.files.json.projects.DBTaskContext;
+import drawingbot.utils.DBTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Runs a queue of {@link BatchJob}s concurrently, each job is plotted as an independent sub task and exported as soon as it finishes.
+ * The number of workers is sized by the available processors, and the jobs which can plot at once are limited further by the {@link BatchMemoryBudget}.
+ * <br>
+ * The state of every job is written to the state file each time it changes, if the batch is interrupted running it again with the same state file skips the finished jobs.
+ * The task doesn't occupy the single threaded task service, so it can be started with {@link DrawingBotV3#startTask(ExecutorService, javafx.concurrent.Task)} on the background service.
+ */
+public class BatchQueueTask extends DBTask<List<BatchJob.Result>> {
+
+    /**
+     * The number of workers when none is given, the PFMs can also use multiple threads so we leave some processors free
+     */
+    public static int defaultWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    public final List<BatchJob> jobs;
+    public final File stateFile;
+    public final int workers;
+    public final BatchMemoryBudget memoryBudget;
+
+    /**
+     * Receives progress messages for individual jobs, e.g. to print them to stdout
+     */
+    public Consumer<String> progressListener = message -> {};
+
+    /**
+     * Runs each job, by default on this machine, see {@link drawingbot.batch.farm.RenderFarmCoordinator} to send the jobs to render farm workers
+     */
+    public IJobRunner jobRunner = BatchJobRunner::run;
+
+    private final Object stateLock = new Object();
+
+    /**
+     * @param stateFile the file to persist the queue to, may be null if the batch shouldn't be resumable
+     * @param workers the number of jobs to run at once, or 0 to use {@link #defaultWorkers}
+     */
+    public BatchQueueTask(DBTaskContext context, List<BatchJob> jobs, @Nullable File stateFile, int workers){
+        super(context);
+        this.jobs = new ArrayList<>(jobs);
+        this.stateFile = stateFile;
+        this.workers = workers <= 0 ? defaultWorkers : workers;
+        this.memoryBudget = BatchMemoryBudget.fromHeap();
+    }
+
+    @Override
+    public String getTaskType() {
+        return "BatchQueueTask";
+    }
+
+    @Override
+    protected List<BatchJob.Result> call() throws Exception {
+        updateTitle("Batch Queue");
+        restoreState();
+
+        int skipped = (int) jobs.stream().filter(job -> job.status.isComplete()).count();
+        if(skipped > 0){
+            notifyProgress("Batch: Resuming, %s of %s jobs already complete".formatted(skipped, jobs.size()));
+        }
+        notifyProgress("Batch: Running %s jobs on %s workers, memory budget: %s MB".formatted(jobs.size() - skipped, workers, memoryBudget.budgetMB));
+
+        AtomicInteger completed = new AtomicInteger(skipped);
+        updateProgress(completed.get(), jobs.size());
+
+        ExecutorService service = Executors.newFixedThreadPool(workers, DrawingBotV3.threadFactory("DrawingBotV3 - Batch Worker"));
+        List<Future<BatchJob.Result>> futures = new ArrayList<>();
+        try{
+            for(int i = 0; i < jobs.size(); i++){
+                BatchJob job = jobs.get(i);
+                if(job.status.isComplete()){
+                    continue;
+                }
+                String prefix = "[%s/%s] %s".formatted(i + 1, jobs.size(), job);
+                futures.add(service.submit(() -> {
+                    if(isCancelled()){
+                        //the queue was cancelled before the job started, it's left queued so it runs when resumed
+                        return null;
+                    }
+                    setJobStatus(job, BatchJob.Status.RUNNING, null);
+                    BatchJob.Result result = jobRunner.run(job, stage -> notifyProgress(prefix + " - " + stage), memoryBudget);
+                    synchronized (stateLock){
+                        job.exportedFiles = result.exportedFiles;
+                        setJobStatus(job, result.success ? BatchJob.Status.FINISHED : BatchJob.Status.FAILED, result.error);
+                    }
+
+                    int done = completed.incrementAndGet();
+                    updateProgress(done, jobs.size());
+                    updateMessage("%s / %s".formatted(done, jobs.size()));
+                    if(result.success){
+                        notifyProgress("%s - Finished, plotting: %.1f ms, export: %.1f ms, geometries: %s (%s / %s complete)".formatted(prefix, result.plottingTimeMs, result.exportTimeMs, result.geometries, done, jobs.size()));
+                    }else{
+                        notifyProgress("%s - FAILED: %s (%s / %s complete)".formatted(prefix, result.error, done, jobs.size()));
+                    }
+                    return result;
+                }));
+            }
+            service.shutdown();
+
+            List<BatchJob.Result> results = new ArrayList<>();
+            for(Future<BatchJob.Result> future : futures){
+                if(isCancelled()){
+                    break;
+                }
+                results.add(future.get());
+            }
+            return results;
+        }finally {
+            if(isCancelled()){
+                //jobs which haven't started are cancelled, running jobs are left to finish, their state is still saved so they'll be skipped when resumed
+                futures.forEach(future -> future.cancel(false));
+                service.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+    }
+
+    private void notifyProgress(String message){
+        progressListener.accept(message);
+        DrawingBotV3.logger.fine(message);
+    }
+
+    private void setJobStatus(BatchJob job, BatchJob.Status status, @Nullable String error){
+        synchronized (stateLock){
+            job.status = status;
+            job.error = error;
+            saveState();
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+
+    private static Gson createGson(){
+        return new GsonBuilder().setPrettyPrinting().create();
+    }
+
+    /**
+     * Copies the state of any jobs in the state file with a matching input and output, jobs which were running when the batch was interrupted are run again
+     */
+    private void restoreState(){
+        if(stateFile == null || !stateFile.exists()){
+            return;
+        }
+        try(Reader reader = new InputStreamReader(new FileInputStream(stateFile), StandardCharsets.UTF_8)){
+            State state = createGson().fromJson(reader, State.class);
+            if(state == null || state.jobs == null){
+                return;
+            }
+            Map<String, BatchJob> previousJobs = new HashMap<>();
+            state.jobs.forEach(job -> previousJobs.put(getJobKey(job), job));
+            for(BatchJob job : jobs){
+                BatchJob previous = previousJobs.get(getJobKey(job));
+                if(previous != null && previous.status == BatchJob.Status.FINISHED){
+                    job.status = previous.status;
+                    job.exportedFiles = previous.exportedFiles;
+                }
+            }
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.WARNING, "Batch Queue: Failed to read state file " + stateFile, e);
+        }
+    }
+
+    /**
+     * Writes to a temporary file first, so an interrupted write never corrupts the previous state
+     */
+    private void saveState(){
+        if(stateFile == null){
+            return;
+        }
+        State state = new State();
+        state.jobs = jobs;
+        File tempFile = new File(stateFile.getPath() + ".tmp");
+        try{
+            if(stateFile.getAbsoluteFile().getParentFile() != null){
+                Files.createDirectories(stateFile.getAbsoluteFile().getParentFile().toPath());
+            }
+            try(Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)){
+                createGson().toJson(state, writer);
+            }
+            Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }catch (IOException e){
+            DrawingBotV3.logger.log(Level.WARNING, "Batch Queue: Failed to write state file " + stateFile, e);
+        }
+    }
+
+    private static String getJobKey(BatchJob job){
+        return new File(job.input).getAbsolutePath() + "|" + new File(job.outputDirectory).getAbsolutePath() + "|" + job.pfmPreset + "|" + job.drawingSetPreset + "|" + job.drawingAreaPreset + "|" + job.exportFormats;
+    }
+
+    public interface IJobRunner {
+
+        BatchJob.Result run(BatchJob job, Consumer<String> progress, @Nullable BatchMemoryBudget memoryBudget);
+
+    }
+
+    public static class State {
+
+        public List<BatchJob> jobs = new ArrayList<>();
+
+    }
+}
@@ -0,0 +1,270 @@
+package drawingbot.batch.farm;
+
+import com.google.gson.Gson;
+import drawingbot.DrawingBotV3;
+import drawingbot.batch.BatchJob;
+import drawingbot.batch.BatchJobRunner;
+import drawingbot.batch.BatchMemoryBudget;
+import drawingbot.batch.BatchQueueTask;
+import drawingbot.files.json.projects.PresetProjectSettings;
+import drawingbot.javafx.GenericPreset;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Distributes {@link BatchJob}s across {@link RenderFarmWorker}s, each job goes to the worker with the lowest load when it's dispatched.
+ * It's used as the job runner of a {@link BatchQueueTask}, so the batch keeps its progress reporting and resumable state while the plotting happens on the workers.
+ * <br>
+ * If a worker can't be reached the job is sent to the next least loaded worker, the job only fails once every worker has been tried.
+ * <br>
+ * Worker statuses are polled concurrently outside of the coordinator's lock and cached briefly, so a slow or unreachable worker never holds up the other batch threads.
+ */
+public class RenderFarmCoordinator implements BatchQueueTask.IJobRunner {
+
+    public static Duration statusTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a worker's status is reused before it's polled again, the jobs sent in the meantime are counted by the coordinator
+     */
+    public static Duration statusCacheTime = Duration.ofSeconds(1);
+
+    /**
+     * How long an unreachable worker is skipped before it's polled again
+     */
+    public static Duration unreachableRetryTime = Duration.ofSeconds(30);
+
+    public final List<Worker> workers = new ArrayList<>();
+    private final HttpClient client;
+
+    public RenderFarmCoordinator(List<URI> workerAddresses){
+        workerAddresses.forEach(address -> workers.add(new Worker(address)));
+        client = HttpClient.newBuilder().connectTimeout(statusTimeout).build();
+    }
+
+    /**
+     * @param address "host:port" or a full URI e.g. "http://localhost:8701"
+     */
+    public static URI parseAddress(String address){
+        return URI.create(address.contains("://") ? address : "http://" + address);
+    }
+
+    /**
+     * @return the combined slots of every worker which can be reached, the number of jobs the batch should send at once
+     */
+    public int getTotalSlots(){
+        int slots = 0;
+        for(Worker worker : workers){
+            RenderFarmProtocol.WorkerStatus status = fetchStatus(worker);
+            if(status != null){
+                slots += status.slots;
+            }
+        }
+        return slots;
+    }
+
+    @Nullable
+    public RenderFarmProtocol.WorkerStatus fetchStatus(Worker worker){
+        try{
+            return fetchStatusAsync(worker).get();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return null;
+        }catch (ExecutionException e){
+            return null;
+        }
+    }
+
+    /**
+     * @return the worker's status, or null if it can't be reached, the future never completes exceptionally
+     */
+    public CompletableFuture<RenderFarmProtocol.WorkerStatus> fetchStatusAsync(Worker worker){
+        HttpRequest request = HttpRequest.newBuilder(worker.address.resolve(RenderFarmProtocol.STATUS_PATH)).timeout(statusTimeout).GET().build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> response.statusCode() != 200 ? null : new Gson().fromJson(response.body(), RenderFarmProtocol.WorkerStatus.class))
+                .exceptionally(e -> null);
+    }
+
+    /**
+     * Polls every worker whose cached status has expired at the same time, called without holding the coordinator's lock
+     */
+    private void refreshStatuses(Set<Worker> excluded){
+        long now = System.currentTimeMillis();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for(Worker worker : workers){
+            if(excluded.contains(worker) || now < worker.statusExpiry){
+                continue;
+            }
+            futures.add(fetchStatusAsync(worker).thenAccept(status -> {
+                worker.status = status;
+                worker.statusExpiry = System.currentTimeMillis() + (status == null ? unreachableRetryTime : statusCacheTime).toMillis();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Picks the reachable worker with the lowest load, the jobs this coordinator has already sent are counted too as the worker may not have received them yet
+     */
+    @Nullable
+    private Worker selectWorker(Set<Worker> excluded){
+        refreshStatuses(excluded);
+        synchronized (this){
+            Worker selected = null;
+            double selectedLoad = Double.MAX_VALUE;
+            for(Worker worker : workers){
+                RenderFarmProtocol.WorkerStatus status = worker.status;
+                if(excluded.contains(worker) || status == null){
+                    continue;
+                }
+                double load = Math.max(status.running + status.queued, worker.inFlight) / (double) Math.max(1, status.slots);
+                if(load < selectedLoad){
+                    selected = worker;
+                    selectedLoad = load;
+                }
+            }
+            if(selected != null){
+                selected.inFlight++;
+            }
+            return selected;
+        }
+    }
+
+    private synchronized void releaseWorker(Worker worker){
+        worker.inFlight--;
+    }
+
+    @Override
+    public BatchJob.Result run(BatchJob job, Consumer<String> progress, @Nullable BatchMemoryBudget memoryBudget){
+        BatchJob.Result result = new BatchJob.Result(job);
+        try{
+            progress.accept("Loading");
+            byte[] requestBody = createRequestBody(job);
+
+            Set<Worker> excluded = new HashSet<>();
+            Worker worker;
+            while((worker = selectWorker(excluded)) != null){
+                progress.accept("Sending to " + worker.address);
+                try{
+                    RenderFarmProtocol.JobResponse response = sendJob(worker, requestBody);
+                    applyResponse(job, response, result);
+                    return result;
+                }catch (IOException e){
+                    DrawingBotV3.logger.log(Level.WARNING, "Render Farm: Worker failed %s, trying the next worker".formatted(worker.address), e);
+                    worker.markUnreachable();
+                    excluded.add(worker);
+                }finally {
+                    releaseWorker(worker);
+                }
+            }
+            throw new IOException("Render Farm: No workers available");
+        }catch (Exception e){
+            result.error = e.toString();
+            DrawingBotV3.logger.log(Level.SEVERE, "Render Farm: Job failed " + job, e);
+        }
+        return result;
+    }
+
+    public byte[] createRequestBody(BatchJob job) throws IOException {
+        RenderFarmProtocol.JobRequest request = new RenderFarmProtocol.JobRequest();
+        request.name = job.getOutputName();
+        request.pfmPreset = job.pfmPreset;
+        request.drawingSetPreset = job.drawingSetPreset;
+        request.drawingAreaPreset = job.drawingAreaPreset;
+        request.exportFormats.addAll(job.exportFormats);
+
+        File imageFile = job.getInputFile();
+        if(job.isProjectFile()){
+            request.projectJson = Files.readString(job.getInputFile().toPath(), StandardCharsets.UTF_8);
+            if(job.image != null){
+                imageFile = new File(job.image);
+            }else{
+                GenericPreset<PresetProjectSettings> preset = BatchJobRunner.loadPresetFile(job.getInputFile());
+                if(preset == null || preset.getData() == null || preset.getData().imagePath.isEmpty()){
+                    throw new IOException("No input image: " + job.getInputFile());
+                }
+                imageFile = new File(preset.getData().imagePath);
+            }
+        }
+        request.imageName = imageFile.getName();
+        request.image = Files.readAllBytes(imageFile.toPath());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        request.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    public RenderFarmProtocol.JobResponse sendJob(Worker worker, byte[] requestBody) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(worker.address.resolve(RenderFarmProtocol.JOB_PATH))
+                .header("Content-Type", RenderFarmProtocol.CONTENT_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try(InputStream body = response.body()){
+            if(response.statusCode() != 200){
+                throw new IOException("Render Farm: Worker returned %s %s".formatted(response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+            return RenderFarmProtocol.JobResponse.read(new DataInputStream(new BufferedInputStream(body)));
+        }
+    }
+
+    /**
+     * Writes the exported files returned by the worker to the job's output directory
+     */
+    private static void applyResponse(BatchJob job, RenderFarmProtocol.JobResponse response, BatchJob.Result result) throws IOException {
+        result.geometries = response.geometries;
+        result.vertices = response.vertices;
+        result.plottingTimeMs = response.plottingTimeMs;
+        result.exportTimeMs = response.exportTimeMs;
+        if(!response.success){
+            result.error = response.error;
+            return;
+        }
+        File outputDirectory = new File(job.outputDirectory);
+        Files.createDirectories(outputDirectory.toPath());
+        for(int i = 0; i < response.files.size(); i++){
+            //the worker only sends file names, but they're still reduced to a name so they can't be written outside the output directory
+            File file = new File(outputDirectory, new File(response.fileNames.get(i)).getName());
+            Files.write(file.toPath(), response.files.get(i));
+            result.exportedFiles.add(file.getPath());
+        }
+        result.success = true;
+    }
+
+    public static class Worker {
+
+        public final URI address;
+        private int inFlight = 0;
+        private volatile RenderFarmProtocol.WorkerStatus status;
+        private volatile long statusExpiry = 0;
+
+        public Worker(URI address) {
+            this.address = address;
+        }
+
+        private void markUnreachable(){
+            status = null;
+            statusExpiry = System.currentTimeMillis() + unreachableRetryTime.toMillis();
+        }
+
+        @Override
+        public String toString() {
+            return address.toString();
+        }
+    }
+}
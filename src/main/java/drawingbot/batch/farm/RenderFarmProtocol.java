@@ -0,0 +1,192 @@
+package drawingbot.batch.farm;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary messages sent between the {@link RenderFarmCoordinator} and a {@link RenderFarmWorker} over HTTP.
+ * A job is sent as the body of a POST to {@link #JOB_PATH} and the exported files are returned as the body of the response, the worker's load is returned as JSON from {@link #STATUS_PATH}.
+ * <br>
+ * Strings are written as an int byte length followed by UTF-8, with a length of -1 for null, so project JSON larger than {@link DataOutputStream#writeUTF(String)} allows can be sent.
+ */
+public class RenderFarmProtocol {
+
+    public static final int MAGIC = 0x44425633; //DBV3
+    public static final int VERSION = 1;
+
+    public static final String JOB_PATH = "/job";
+    public static final String STATUS_PATH = "/status";
+
+    public static final String CONTENT_TYPE = "application/x-drawingbotv3-job";
+
+    /**
+     * A plot job, the project JSON is the format saved by {@link drawingbot.files.json.projects.PresetProjectSettingsManager} and may be null to plot the image with the worker's default settings
+     */
+    public static class JobRequest {
+
+        public String name;
+        public String projectJson;
+        public String pfmPreset;
+        public String drawingSetPreset;
+        public String drawingAreaPreset;
+        public List<String> exportFormats = new ArrayList<>();
+        public String imageName;
+        public byte[] image;
+
+        public void write(DataOutputStream out) throws IOException {
+            writeHeader(out);
+            writeString(out, name);
+            writeString(out, projectJson);
+            writeString(out, pfmPreset);
+            writeString(out, drawingSetPreset);
+            writeString(out, drawingAreaPreset);
+            out.writeInt(exportFormats.size());
+            for(String exportFormat : exportFormats){
+                writeString(out, exportFormat);
+            }
+            writeString(out, imageName);
+            writeBytes(out, image);
+            out.flush();
+        }
+
+        public static JobRequest read(DataInputStream in) throws IOException {
+            readHeader(in);
+            JobRequest request = new JobRequest();
+            request.name = readString(in);
+            request.projectJson = readString(in);
+            request.pfmPreset = readString(in);
+            request.drawingSetPreset = readString(in);
+            request.drawingAreaPreset = readString(in);
+            int exportCount = in.readInt();
+            for(int i = 0; i < exportCount; i++){
+                request.exportFormats.add(readString(in));
+            }
+            request.imageName = readString(in);
+            request.image = readBytes(in);
+            return request;
+        }
+    }
+
+    /**
+     * The result of a plot job, including every exported file in the order of the requested export formats
+     */
+    public static class JobResponse {
+
+        public boolean success;
+        public String error;
+        public int geometries;
+        public long vertices;
+        public double plottingTimeMs;
+        public double exportTimeMs;
+        public List<String> fileNames = new ArrayList<>();
+        public List<byte[]> files = new ArrayList<>();
+
+        public void write(DataOutputStream out) throws IOException {
+            writeHeader(out);
+            out.writeBoolean(success);
+            writeString(out, error);
+            out.writeInt(geometries);
+            out.writeLong(vertices);
+            out.writeDouble(plottingTimeMs);
+            out.writeDouble(exportTimeMs);
+            out.writeInt(files.size());
+            for(int i = 0; i < files.size(); i++){
+                writeString(out, fileNames.get(i));
+                writeBytes(out, files.get(i));
+            }
+            out.flush();
+        }
+
+        public static JobResponse read(DataInputStream in) throws IOException {
+            readHeader(in);
+            JobResponse response = new JobResponse();
+            response.success = in.readBoolean();
+            response.error = readString(in);
+            response.geometries = in.readInt();
+            response.vertices = in.readLong();
+            response.plottingTimeMs = in.readDouble();
+            response.exportTimeMs = in.readDouble();
+            int fileCount = in.readInt();
+            for(int i = 0; i < fileCount; i++){
+                response.fileNames.add(readString(in));
+                response.files.add(readBytes(in));
+            }
+            return response;
+        }
+    }
+
+    /**
+     * The current load of a worker, returned as JSON
+     */
+    public static class WorkerStatus {
+
+        public int slots;
+        public int running;
+        public int queued;
+        public int completed;
+        public int failed;
+
+        /**
+         * @return the jobs running or waiting per slot, a worker with a lower load should be given the next job
+         */
+        public double getLoad(){
+            return (running + queued) / (double) Math.max(1, slots);
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    private static void readHeader(DataInputStream in) throws IOException {
+        if(in.readInt() != MAGIC){
+            throw new IOException("Render Farm: Not a DrawingBotV3 message");
+        }
+        int version = in.readInt();
+        if(version != VERSION){
+            throw new IOException("Render Farm: Unsupported protocol version " + version);
+        }
+    }
+
+    public static void writeString(DataOutputStream out, @Nullable String string) throws IOException {
+        writeBytes(out, string == null ? null : string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    public static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeBytes(DataOutputStream out, @Nullable byte[] bytes) throws IOException {
+        if(bytes == null){
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    public static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length == -1){
+            return null;
+        }
+        if(length < 0){
+            throw new IOException("Render Farm: Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
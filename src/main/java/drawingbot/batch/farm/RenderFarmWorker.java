@@ -0,0 +1,228 @@
+package drawingbot.batch.farm;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import drawingbot.DrawingBotV3;
+import drawingbot.batch.BatchJob;
+import drawingbot.batch.BatchJobRunner;
+import drawingbot.batch.BatchMemoryBudget;
+import drawingbot.batch.BatchQueueTask;
+import drawingbot.files.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * A render farm worker which plots jobs sent by a {@link RenderFarmCoordinator}, it listens on a loopback HTTP port so it's only reachable from the same machine.
+ * Each job is written to a temporary directory, plotted & exported with the {@link BatchJobRunner} and the exported files are returned in the response.
+ * <br>
+ * Jobs beyond the worker's slots wait for a free slot, while waiting they're reported as queued in the worker's status so the coordinator can send new jobs elsewhere.
+ */
+public class RenderFarmWorker {
+
+    public final int port;
+    public final int slots;
+    public final BatchMemoryBudget memoryBudget;
+
+    private final Semaphore freeSlots;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService service;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * @param port the port to listen on, or 0 to pick a free port
+     * @param slots the number of jobs to plot at once, or 0 to use {@link BatchQueueTask#defaultWorkers}
+     */
+    public RenderFarmWorker(int port, int slots){
+        this.port = port;
+        this.slots = slots <= 0 ? BatchQueueTask.defaultWorkers : slots;
+        this.memoryBudget = BatchMemoryBudget.fromHeap();
+        this.freeSlots = new Semaphore(this.slots, true);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(RenderFarmProtocol.JOB_PATH, this::handleJob);
+        server.createContext(RenderFarmProtocol.STATUS_PATH, this::handleStatus);
+        service = Executors.newCachedThreadPool(DrawingBotV3.threadFactory("DrawingBotV3 - Render Farm Worker"));
+        server.setExecutor(service);
+        server.start();
+        DrawingBotV3.logger.info("Render Farm: Worker listening on port %s with %s slots".formatted(getPort(), slots));
+    }
+
+    public void stop(){
+        if(server != null){
+            server.stop(0);
+            service.shutdownNow();
+            server = null;
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Blocks until the worker is stopped
+     */
+    public void join() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * @return the port the worker is listening on, which may differ from the requested port if it was 0
+     */
+    public int getPort(){
+        return server == null ? port : server.getAddress().getPort();
+    }
+
+    public RenderFarmProtocol.WorkerStatus getStatus(){
+        RenderFarmProtocol.WorkerStatus status = new RenderFarmProtocol.WorkerStatus();
+        status.slots = slots;
+        status.running = running.get();
+        status.queued = queued.get();
+        status.completed = completed.get();
+        status.failed = failed.get();
+        return status;
+    }
+
+    ////////////////////////////////////////////////////////
+
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try(exchange){
+            byte[] body = new Gson().toJson(getStatus()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void handleJob(HttpExchange exchange) throws IOException {
+        try(exchange){
+            if(!exchange.getRequestMethod().equals("POST")){
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            RenderFarmProtocol.JobRequest request;
+            try{
+                request = RenderFarmProtocol.JobRequest.read(new DataInputStream(new BufferedInputStream(exchange.getRequestBody())));
+            }catch (IOException e){
+                byte[] body = e.getMessage().getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(400, body.length);
+                exchange.getResponseBody().write(body);
+                return;
+            }
+
+            RenderFarmProtocol.JobResponse response = runJob(request);
+
+            exchange.getResponseHeaders().set("Content-Type", RenderFarmProtocol.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, 0);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(exchange.getResponseBody()));
+            response.write(out);
+        }
+    }
+
+    public RenderFarmProtocol.JobResponse runJob(RenderFarmProtocol.JobRequest request){
+        RenderFarmProtocol.JobResponse response = new RenderFarmProtocol.JobResponse();
+        File jobDirectory = null;
+        queued.incrementAndGet();
+        boolean acquired = false;
+        try{
+            freeSlots.acquire();
+            acquired = true;
+            queued.decrementAndGet();
+            running.incrementAndGet();
+
+            jobDirectory = Files.createTempDirectory("dbv3_farm_job").toFile();
+            BatchJob job = createJob(request, jobDirectory);
+            DrawingBotV3.logger.info("Render Farm: Running job " + request.name);
+            BatchJob.Result result = BatchJobRunner.run(job, stage -> DrawingBotV3.logger.fine("Render Farm: %s - %s".formatted(request.name, stage)), memoryBudget);
+
+            response.success = result.success;
+            response.error = result.error;
+            response.geometries = result.geometries;
+            response.vertices = result.vertices;
+            response.plottingTimeMs = result.plottingTimeMs;
+            response.exportTimeMs = result.exportTimeMs;
+            for(String exportedFile : result.exportedFiles){
+                File file = new File(exportedFile);
+                response.fileNames.add(file.getName());
+                response.files.add(Files.readAllBytes(file.toPath()));
+            }
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.SEVERE, "Render Farm: Job failed " + request.name, e);
+            response.success = false;
+            response.error = e.toString();
+        }finally {
+            if(acquired){
+                running.decrementAndGet();
+                freeSlots.release();
+            }else{
+                queued.decrementAndGet();
+            }
+            (response.success ? completed : failed).incrementAndGet();
+            deleteDirectory(jobDirectory);
+        }
+        return response;
+    }
+
+    /**
+     * Writes the image and the project to the job directory, so the job can be run like any local batch job
+     */
+    private static BatchJob createJob(RenderFarmProtocol.JobRequest request, File jobDirectory) throws IOException {
+        if(request.image == null || request.imageName == null){
+            throw new IOException("Missing image");
+        }
+        //only the file name is kept so a request can never write outside the job directory
+        String name = request.name == null ? "job" : FileUtils.getSafeFileName(FilenameUtils.getName(request.name));
+        File imageFile = new File(jobDirectory, "image" + FileUtils.getExtension(FilenameUtils.getName(request.imageName)));
+        Files.write(imageFile.toPath(), request.image);
+
+        File outputDirectory = new File(jobDirectory, "output");
+        Files.createDirectories(outputDirectory.toPath());
+
+        BatchJob job;
+        if(request.projectJson != null){
+            File projectFile = new File(jobDirectory, name + ".drawingbotv3");
+            Files.writeString(projectFile.toPath(), request.projectJson, StandardCharsets.UTF_8);
+            job = new BatchJob(projectFile.getPath(), outputDirectory.getPath());
+            job.image = imageFile.getPath();
+        }else{
+            File namedImageFile = new File(jobDirectory, name + FileUtils.getExtension(imageFile.getName()));
+            Files.move(imageFile.toPath(), namedImageFile.toPath());
+            job = new BatchJob(namedImageFile.getPath(), outputDirectory.getPath());
+        }
+        job.pfmPreset = request.pfmPreset;
+        job.drawingSetPreset = request.drawingSetPreset;
+        job.drawingAreaPreset = request.drawingAreaPreset;
+        job.exportFormats.addAll(request.exportFormats);
+        return job;
+    }
+
+    private static void deleteDirectory(File directory){
+        if(directory == null){
+            return;
+        }
+        try(Stream<Path> paths = Files.walk(directory.toPath())){
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }catch (IOException e){
+            DrawingBotV3.logger.log(Level.WARNING, "Render Farm: Failed to delete job directory " + directory, e);
+        }
+    }
+}
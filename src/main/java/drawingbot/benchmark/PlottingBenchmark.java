@@ -0,0 +1,327 @@
+package drawingbot.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import drawingbot.DrawingBotV3;
+import drawingbot.FXApplication;
+import drawingbot.SoftwareDBV3Free;
+import drawingbot.files.json.JsonLoaderManager;
+import drawingbot.files.json.PresetContainerJsonFile;
+import drawingbot.files.json.PresetData;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.image.ImageFilterSettings;
+import drawingbot.image.format.ImageData;
+import drawingbot.javafx.GenericPreset;
+import drawingbot.javafx.GenericSetting;
+import drawingbot.pfm.PFMFactory;
+import drawingbot.plotting.PFMTask;
+import drawingbot.plotting.PFMTaskBuilder;
+import drawingbot.plotting.PlottedDrawing;
+import drawingbot.plotting.canvas.SimpleCanvas;
+import drawingbot.plugins.PremiumPluginDummy;
+import drawingbot.registry.MasterRegistry;
+import drawingbot.registry.Register;
+import drawingbot.software.SoftwareManager;
+
+import javax.imageio.ImageIO;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Runs PFM presets on a corpus of images without showing the user interface, recording the time taken, the output size, the peak heap usage and a hash of the output geometry.
+ * The results are written as JSON and can be compared against a baseline from a previous version to find both speed regressions and unintended changes to the output.
+ * <br>
+ * Every run uses a fixed random seed and a pixel canvas the size of the image, so the output doesn't depend on the user's project or preferences.
+ * <br>
+ * Arguments:
+ * <pre>
+ * --images [file/dir,...]      the images to plot, defaults to the built in test image
+ * --presets [json,...]         preset container files to load PFM presets from, either a built in file e.g. sketch_pfm_defaults.json or a path
+ * --defaults                   also run every PFM with its default settings
+ * --pfm [name]                 only run PFMs with the given registry name
+ * --seed [int]                 the random seed, default 0
+ * --warmup [int]               unmeasured runs before measuring, default 1
+ * --runs [int]                 measured runs, the median time is reported, default 3
+ * --output [file]              the JSON results file, default plotting_benchmark.json
+ * --baseline [file]            a previous results file to compare against
+ * --tolerance [fraction]       how much slower a result can be than the baseline before it's reported as a regression, default 0.1
+ * </pre>
+ * Exits with status 1 if any output changed or any result regressed past the tolerance.
+ */
+public class PlottingBenchmark {
+
+    public static final String DEFAULT_IMAGE = "/images/testimage.jpg";
+    public static final String DEFAULT_PRESET_NAME = "Default";
+
+    public List<String> images = new ArrayList<>();
+    public List<String> presetFiles = new ArrayList<>(List.of("sketch_pfm_defaults.json"));
+    public boolean includeDefaults = false;
+    public String pfmFilter = null;
+    public int randomSeed = 0;
+    public int warmupRuns = 1;
+    public int measuredRuns = 3;
+    public File outputFile = new File("plotting_benchmark.json");
+    public File baselineFile = null;
+    public double tolerance = 0.1;
+
+    public static void main(String[] args) throws Exception {
+        PlottingBenchmark benchmark = new PlottingBenchmark();
+        benchmark.parseArgs(args);
+
+        SoftwareManager.setSoftware(SoftwareDBV3Free.INSTANCE);
+        FXApplication.launchHeadless();
+
+        PlottingBenchmarkResult.Report report = benchmark.run();
+        benchmark.writeReport(report, benchmark.outputFile);
+
+        boolean passed = true;
+        if(benchmark.baselineFile != null){
+            passed = benchmark.compare(readReport(benchmark.baselineFile), report);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    public void parseArgs(String[] args){
+        for(int i = 0; i < args.length; i++){
+            String arg = args[i];
+            switch (arg){
+                case "--images" -> images = List.of(args[++i].split(","));
+                case "--presets" -> presetFiles = List.of(args[++i].split(","));
+                case "--defaults" -> includeDefaults = true;
+                case "--pfm" -> pfmFilter = args[++i];
+                case "--seed" -> randomSeed = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmupRuns = Integer.parseInt(args[++i]);
+                case "--runs" -> measuredRuns = Math.max(1, Integer.parseInt(args[++i]));
+                case "--output" -> outputFile = new File(args[++i]);
+                case "--baseline" -> baselineFile = new File(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+    }
+
+    public PlottingBenchmarkResult.Report run() throws Exception {
+        PlottingBenchmarkResult.Report report = new PlottingBenchmarkResult.Report();
+        report.softwareVersion = FXApplication.getSoftware().getDisplayVersion();
+        report.javaVersion = System.getProperty("java.version");
+        report.availableProcessors = Runtime.getRuntime().availableProcessors();
+        report.maxHeapBytes = Runtime.getRuntime().maxMemory();
+
+        Map<String, BufferedImage> corpus = loadImages();
+        List<GenericPreset<PresetData>> presets = loadPresets();
+
+        for(Map.Entry<String, BufferedImage> image : corpus.entrySet()){
+            for(GenericPreset<PresetData> preset : presets){
+                PFMFactory<?> factory = MasterRegistry.INSTANCE.getPFMFactory(preset.getPresetSubType());
+                if(factory == null){
+                    DrawingBotV3.logger.warning("Plotting Benchmark: Missing PFM " + preset.getPresetSubType());
+                    continue;
+                }
+                report.results.add(runPreset(factory, preset, image.getKey(), image.getValue()));
+            }
+        }
+        return report;
+    }
+
+    public PlottingBenchmarkResult runPreset(PFMFactory<?> factory, GenericPreset<PresetData> preset, String imageName, BufferedImage image) throws Exception {
+        PlottingBenchmarkResult result = new PlottingBenchmarkResult(factory.getRegistryName(), preset.getPresetName(), imageName, randomSeed);
+        System.out.println("Plotting Benchmark: " + result.getKey());
+
+        double[] wallTimes = new double[measuredRuns];
+        for(int run = -warmupRuns; run < measuredRuns; run++){
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            PFMTask task = createTask(factory, preset, image);
+            long startTime = System.nanoTime();
+            task.run();
+            PlottedDrawing drawing = task.get();
+            long endTime = System.nanoTime();
+
+            if(run < 0){
+                continue;
+            }
+            wallTimes[run] = (endTime - startTime) / 1_000_000D;
+            result.peakHeapBytes = Math.max(result.peakHeapBytes, heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum());
+
+            String hash = hashDrawing(drawing);
+            if(result.outputHash != null && !result.outputHash.equals(hash)){
+                DrawingBotV3.logger.warning("Plotting Benchmark: Output isn't deterministic " + result.getKey());
+            }
+            result.outputHash = hash;
+            result.geometries = drawing.getGeometryCount();
+            result.vertices = drawing.getVertexCount();
+        }
+
+        Arrays.sort(wallTimes);
+        result.wallTimeMs = wallTimes[wallTimes.length / 2];
+        result.geometriesPerSecond = result.geometries / (result.wallTimeMs / 1000D);
+        result.verticesPerSecond = result.vertices / (result.wallTimeMs / 1000D);
+        return result;
+    }
+
+    /**
+     * Creates the task as a sub task, so it's run entirely on the calling thread and never appears in the viewport
+     */
+    public PFMTask createTask(PFMFactory<?> factory, GenericPreset<PresetData> preset, BufferedImage image){
+        List<GenericSetting<?, ?>> settings = MasterRegistry.INSTANCE.getNewPFMSettingsList(factory);
+        if(preset.getData() != null){
+            GenericSetting.applySettings(preset.getData().settings, settings);
+        }
+        GenericSetting<?, ?> seedSetting = GenericSetting.findSetting(settings, "Random Seed");
+        if(seedSetting != null){
+            seedSetting.setValue(randomSeed);
+        }
+
+        PFMTaskBuilder builder = PFMTaskBuilder.create(DrawingBotV3.context(), factory, settings, new SimpleCanvas(image.getWidth(), image.getHeight()), DrawingBotV3.project().getDrawingSets(), DrawingBotV3.project().getActiveDrawingSet(), new ImageFilterSettings(), new ImageData(null, image), true);
+        builder.setUseImageCanvas(false);
+        builder.setAllowSubTaskMultiThreading(true);
+        return builder.createPFMTask();
+    }
+
+    public Map<String, BufferedImage> loadImages() throws IOException {
+        Map<String, BufferedImage> corpus = new LinkedHashMap<>();
+        if(images.isEmpty()){
+            try(InputStream stream = PlottingBenchmark.class.getResourceAsStream(DEFAULT_IMAGE)){
+                corpus.put(DEFAULT_IMAGE, ImageIO.read(Objects.requireNonNull(stream)));
+            }
+            return corpus;
+        }
+        for(String path : images){
+            File file = new File(path);
+            File[] files = file.isDirectory() ? file.listFiles(File::isFile) : new File[]{file};
+            if(files == null){
+                continue;
+            }
+            Arrays.sort(files);
+            for(File imageFile : files){
+                BufferedImage image = ImageIO.read(imageFile);
+                if(image != null){
+                    corpus.put(imageFile.getName(), image);
+                }
+            }
+        }
+        return corpus;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<GenericPreset<PresetData>> loadPresets() throws IOException {
+        List<GenericPreset<PresetData>> presets = new ArrayList<>();
+        for(String presetFile : presetFiles){
+            File file = new File(presetFile);
+            try(InputStream stream = file.exists() ? new FileInputStream(file) : JsonLoaderManager.class.getResourceAsStream("/presets/" + presetFile)){
+                if(stream == null){
+                    throw new FileNotFoundException("Missing preset file: " + presetFile);
+                }
+                PresetContainerJsonFile container = JsonLoaderManager.importJsonFile(stream, PresetContainerJsonFile.class);
+                for(GenericPreset<?> preset : container.jsonMap){
+                    if(preset.presetType == Register.PRESET_TYPE_PFM && matchesFilter(preset.getPresetSubType())){
+                        presets.add((GenericPreset<PresetData>) preset);
+                    }
+                }
+            }
+        }
+        if(includeDefaults){
+            for(PFMFactory<?> factory : MasterRegistry.INSTANCE.pfmFactories){
+                if(factory.getInstanceClass() != PremiumPluginDummy.DummyPFM.class && matchesFilter(factory.getRegistryName())){
+                    GenericPreset<PresetData> preset = Register.PRESET_LOADER_PFM.createNewPreset();
+                    preset.setPresetSubType(factory.getRegistryName());
+                    preset.setPresetName(DEFAULT_PRESET_NAME);
+                    presets.add(preset);
+                }
+            }
+        }
+        return presets;
+    }
+
+    private boolean matchesFilter(String pfmName){
+        return pfmFilter == null || pfmFilter.equals(pfmName);
+    }
+
+    /**
+     * Hashes the pen, group and path of every geometry in order
+     */
+    public static String hashDrawing(PlottedDrawing drawing) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        float[] coords = new float[6];
+        for(IGeometry geometry : drawing.geometries){
+            buffer.clear();
+            buffer.putInt(geometry.getPenIndex()).putInt(geometry.getGroupID());
+            digest.update(buffer.array(), 0, buffer.position());
+
+            PathIterator iterator = geometry.getAWTShape().getPathIterator(null);
+            while(!iterator.isDone()){
+                int type = iterator.currentSegment(coords);
+                buffer.clear();
+                buffer.putInt(type);
+                for(float coord : coords){
+                    buffer.putFloat(coord);
+                }
+                digest.update(buffer.array(), 0, buffer.position());
+                iterator.next();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Prints the differences from the baseline
+     * @return false if any output changed or any result was slower than the baseline by more than the tolerance
+     */
+    public boolean compare(PlottingBenchmarkResult.Report baseline, PlottingBenchmarkResult.Report report){
+        Map<String, PlottingBenchmarkResult> baselineResults = new HashMap<>();
+        baseline.results.forEach(result -> baselineResults.put(result.getKey(), result));
+
+        boolean passed = true;
+        for(PlottingBenchmarkResult result : report.results){
+            PlottingBenchmarkResult previous = baselineResults.get(result.getKey());
+            if(previous == null){
+                System.out.println("NEW            " + result.getKey());
+                continue;
+            }
+            double change = (result.wallTimeMs - previous.wallTimeMs) / previous.wallTimeMs;
+            String timing = "%.1f ms -> %.1f ms (%+.1f%%)".formatted(previous.wallTimeMs, result.wallTimeMs, change * 100);
+            if(!Objects.equals(previous.outputHash, result.outputHash)){
+                System.out.println("OUTPUT CHANGED " + result.getKey() + ", geometries: " + previous.geometries + " -> " + result.geometries);
+                passed = false;
+            }
+            if(change > tolerance){
+                System.out.println("SLOWER         " + result.getKey() + ", " + timing);
+                passed = false;
+            }else if(change < -tolerance){
+                System.out.println("FASTER         " + result.getKey() + ", " + timing);
+            }else{
+                System.out.println("UNCHANGED      " + result.getKey() + ", " + timing);
+            }
+        }
+        return passed;
+    }
+
+    private static Gson createGson(){
+        return new GsonBuilder().setPrettyPrinting().create();
+    }
+
+    public void writeReport(PlottingBenchmarkResult.Report report, File file) throws IOException {
+        try(Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)){
+            createGson().toJson(report, writer);
+        }
+        System.out.println("Plotting Benchmark: Results written to " + file.getAbsolutePath());
+    }
+
+    public static PlottingBenchmarkResult.Report readReport(File file) throws IOException {
+        try(Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)){
+            return createGson().fromJson(reader, PlottingBenchmarkResult.Report.class);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package drawingbot.benchmark;
+
+/**
+ * The measurements from running a single PFM preset on a single image, see {@link PlottingBenchmark}
+ */
+public class PlottingBenchmarkResult {
+
+    public String pfm;
+    public String preset;
+    public String image;
+    public int randomSeed;
+
+    /**
+     * The median wall time of the measured runs
+     */
+    public double wallTimeMs;
+    public long geometries;
+    public long vertices;
+    public double geometriesPerSecond;
+    public double verticesPerSecond;
+
+    /**
+     * The highest heap usage seen during any of the measured runs
+     */
+    public long peakHeapBytes;
+
+    /**
+     * A SHA-256 hash of every geometry's pen, group and path in order, it will change if the PFM's output changes in any way
+     */
+    public String outputHash;
+
+    public PlottingBenchmarkResult(){}
+
+    public PlottingBenchmarkResult(String pfm, String preset, String image, int randomSeed){
+        this.pfm = pfm;
+        this.preset = preset;
+        this.image = image;
+        this.randomSeed = randomSeed;
+    }
+
+    public String getKey(){
+        return pfm + " / " + preset + " / " + image;
+    }
+
+    /**
+     * The full set of results from one run of the benchmark, as written to the JSON output
+     */
+    public static class Report {
+
+        public String softwareVersion;
+        public String javaVersion;
+        public int availableProcessors;
+        public long maxHeapBytes;
+        public java.util.List<PlottingBenchmarkResult> results = new java.util.ArrayList<>();
+
+    }
+}
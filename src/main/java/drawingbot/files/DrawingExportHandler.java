@@ -56,6 +56,13 @@ public class DrawingExportHandler {
         return true;
     }
 
+    /**
+     * If the files created by the per/pen, per/group and per/n pens modes can be written concurrently, raster exports render on multiple threads already and use far more memory per file
+     */
+    public boolean supportsParallelExport(){
+        return isVector;
+    }
+
     public String getDefaultExtension(){
         return selectedFilter.getExtensions().get(0).substring(1);
     }
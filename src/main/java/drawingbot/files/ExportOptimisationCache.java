@@ -0,0 +1,317 @@
+package drawingbot.files;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.ICanvas;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+import drawingbot.javafx.observables.ObservableDrawingSet;
+import drawingbot.javafx.preferences.DBPreferences;
+import drawingbot.plotting.AsynchronousGeometryIterator;
+import drawingbot.plotting.PlottedDrawing;
+import drawingbot.plotting.PlottedGroup;
+import drawingbot.plotting.canvas.SimpleCanvas;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.geom.PathIterator;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * An LRU cache of optimised export drawings, so exporting the same drawing multiple times (e.g. SVG, then GCode, then vpype) only optimises the drawing once.
+ * Entries are keyed by a hash of the geometries which pass the export filter along with their pens, groups, drawing sets and canvas, and every setting which could change the optimised result, see {@link #createSettingsKey(ExportTask, boolean)}
+ * Cached drawings are never returned directly, each caller receives its own copy of the geometries, so they can't be modified by the export.
+ * The cache is limited to {@link DBPreferences#exportOptimisationCacheGeometries} geometries in total, and an entry is released as soon as the drawing it was optimised from is destroyed or garbage collected.
+ * Every optimisation step works on each pen separately, so the optimised drawing can also be partitioned by pen afterwards, see {@link #createPartition(PlottedDrawing, IGeometryFilter)}
+ */
+public class ExportOptimisationCache {
+
+    public static final ExportOptimisationCache INSTANCE = new ExportOptimisationCache();
+
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75F, true);
+    private long cachedGeometries = 0;
+
+    public int hits = 0;
+    public int misses = 0;
+
+    /**
+     * @return a copy of the cached optimised drawing if there is one, otherwise the drawing created by the optimiser which will be stored for next time
+     */
+    public PlottedDrawing getOptimisedDrawing(ExportTask task, IGeometryFilter geometryFilter, boolean forceBypassOptimisation, Supplier<PlottedDrawing> optimiser){
+        String key = createContentHash(task.plottedDrawing, geometryFilter, createSettingsKey(task, forceBypassOptimisation));
+        synchronized (this){
+            expungeReleased();
+            CacheEntry entry = cache.get(key);
+            if(entry != null && ICanvas.matchingCanvas(entry.canvas, task.plottedDrawing.getCanvas())){
+                PlottedDrawing copy = entry.copyFor(task.plottedDrawing);
+                if(copy != null){
+                    hits++;
+                    DrawingBotV3.logger.fine("Export Optimisation Cache: Reusing optimised drawing " + key);
+                    return copy;
+                }
+            }
+            misses++;
+        }
+
+        PlottedDrawing optimised = optimiser.get();
+        int maxGeometries = DBPreferences.INSTANCE.exportOptimisationCacheGeometries.get();
+        if(optimised.getGeometryCount() <= maxGeometries){
+            CacheEntry entry = new CacheEntry(task.plottedDrawing, optimised.copy(), new SimpleCanvas(task.plottedDrawing.getCanvas()));
+            synchronized (this){
+                remove(key);
+                cache.put(key, entry);
+                cachedGeometries += entry.geometryCount;
+                trimToSize(maxGeometries);
+            }
+        }
+        return optimised;
+    }
+
+    /**
+     * Removes the least recently used entries until the cache holds no more than the given number of geometries
+     */
+    public synchronized void trimToSize(long maxGeometries){
+        while(cachedGeometries > maxGeometries && !cache.isEmpty()){
+            remove(cache.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Releases every entry which was optimised from the given drawing, called when the drawing is destroyed
+     */
+    public synchronized void release(PlottedDrawing source){
+        cache.entrySet().removeIf(entry -> {
+            if(entry.getValue().source.get() == source){
+                cachedGeometries -= entry.getValue().geometryCount;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void expungeReleased(){
+        cache.entrySet().removeIf(entry -> {
+            if(entry.getValue().source.get() == null){
+                cachedGeometries -= entry.getValue().geometryCount;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void remove(String key){
+        CacheEntry removed = cache.remove(key);
+        if(removed != null){
+            cachedGeometries -= removed.geometryCount;
+        }
+    }
+
+    public synchronized int size(){
+        return cache.size();
+    }
+
+    public synchronized long getCachedGeometries(){
+        return cachedGeometries;
+    }
+
+    public synchronized void clear(){
+        cache.clear();
+        cachedGeometries = 0;
+    }
+
+    private static class CacheEntry {
+
+        /**
+         * The drawing which was optimised, only weakly referenced so the cache never keeps a discarded drawing alive
+         */
+        public final WeakReference<PlottedDrawing> source;
+        public final PlottedDrawing drawing;
+        public final ICanvas canvas;
+        public final int geometryCount;
+
+        public CacheEntry(PlottedDrawing source, PlottedDrawing drawing, ICanvas canvas) {
+            this.source = new WeakReference<>(source);
+            this.drawing = drawing;
+            this.canvas = canvas;
+            this.geometryCount = drawing.getGeometryCount();
+        }
+
+        /**
+         * Copies the cached drawing for the target, the content hash only guarantees the target's drawing sets are equal to the cached ones, so the copied groups are moved onto the target's drawing sets and pens.
+         * @return the copy or null if the groups can't be matched to the target's drawing sets
+         */
+        @Nullable
+        public PlottedDrawing copyFor(PlottedDrawing target){
+            if(drawing.drawingSets == target.drawingSets){
+                return drawing.copy();
+            }
+            PlottedDrawing copy = new PlottedDrawing(target.getCanvas(), target.drawingSets);
+            copy.copyBase(drawing);
+            for(PlottedGroup group : copy.groups.values()){
+                int slot = drawing.drawingSets.drawingSetSlots.indexOf(group.drawingSet);
+                if(slot == -1 || slot >= target.drawingSets.drawingSetSlots.size()){
+                    return null;
+                }
+                ObservableDrawingSet targetSet = target.drawingSets.drawingSetSlots.get(slot);
+                Map<Integer, ObservableDrawingPen> originalOrder = new HashMap<>();
+                for(Map.Entry<Integer, ObservableDrawingPen> entry : group.originalDrawingSetOrder.entrySet()){
+                    int penIndex = group.drawingSet.pens.indexOf(entry.getValue());
+                    if(penIndex == -1 || penIndex >= targetSet.pens.size()){
+                        return null;
+                    }
+                    originalOrder.put(entry.getKey(), targetSet.pens.get(penIndex));
+                }
+                group.drawingSet = targetSet;
+                group.originalDrawingSetOrder = originalOrder;
+            }
+            drawing.geometries.forEach(g -> copy.addGeometry(g.copyGeometry()));
+            return copy;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a new drawing containing copies of the optimised geometries which pass the filter, in their optimised order
+     */
+    public static PlottedDrawing createPartition(PlottedDrawing optimised, IGeometryFilter partitionFilter){
+        PlottedDrawing partition = optimised.copyBase();
+        AsynchronousGeometryIterator iterator = new AsynchronousGeometryIterator(optimised);
+        iterator.setGeometryFilter(partitionFilter);
+        while(iterator.hasNext()){
+            IGeometry geometry = iterator.next();
+            if(iterator.currentFilterResult){
+                partition.addGeometry(geometry.copyGeometry());
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * @return a key representing every setting which could change the output of {@link drawingbot.geom.GeometryUtils#getOptimisedPlottedDrawing(ExportTask, IGeometryFilter, boolean)}
+     */
+    public static String createSettingsKey(ExportTask task, boolean forceBypassOptimisation){
+        DBPreferences settings = DBPreferences.INSTANCE;
+        StringBuilder builder = new StringBuilder();
+        builder.append(task.exportHandler.isVector).append(forceBypassOptimisation).append(settings.pathOptimisationEnabled.get());
+        if(task.exportHandler.isVector && !forceBypassOptimisation && settings.pathOptimisationEnabled.get()){
+            builder.append("|simplify").append(settings.lineSimplifyEnabled.get()).append(settings.lineSimplifyTolerance.get()).append(settings.lineSimplifyUnits.get());
+            builder.append("|merge").append(settings.lineMergingEnabled.get()).append(settings.lineMergingTolerance.get()).append(settings.lineMergingUnits.get());
+            builder.append("|filter").append(settings.lineFilteringEnabled.get()).append(settings.lineFilteringTolerance.get()).append(settings.lineFilteringUnits.get());
+            builder.append("|sort").append(settings.lineSortingEnabled.get()).append(settings.lineSortingTolerance.get()).append(settings.lineSortingUnits.get());
+            builder.append("|multipass").append(settings.multipassEnabled.get()).append(settings.multipassCount.get());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates a SHA-256 hash of everything in the drawing which the optimiser uses, only geometries which pass the filter are included, along with the filter result of every geometry
+     */
+    public static String createContentHash(PlottedDrawing drawing, IGeometryFilter geometryFilter, String settingsKey){
+        ContentHasher hasher = new ContentHasher();
+        hasher.putString(settingsKey);
+        hasher.putString(drawing.getCanvas().asString());
+
+        double[] coords = new double[6];
+        for(PlottedGroup group : drawing.groups.values()){
+            hasher.putInt(group.getGroupID());
+            hasher.putInt(drawing.drawingSets.drawingSetSlots.indexOf(group.drawingSet));
+            hasher.putString(group.drawingSet.getType());
+            hasher.putString(group.drawingSet.getName());
+            hasher.putString(group.pfmFactory == null ? "" : group.pfmFactory.getDisplayName());
+            hasher.putInt(group.drawingSet.pens.size());
+            for(ObservableDrawingPen pen : group.drawingSet.pens){
+                hasher.putString(pen.getType());
+                hasher.putString(pen.getName());
+                hasher.putInt(pen.getPenNumber());
+                hasher.putInt(pen.getARGB());
+                hasher.putDouble(pen.getStrokeSize());
+                hasher.putInt(pen.isEnabled() ? 1 : 0);
+                hasher.putString(pen.getSpecialColorHandler() == null ? "" : pen.getSpecialColorHandler().getClass().getName());
+            }
+            //the pens each set was plotted with, which may since have been reordered
+            for(Map.Entry<Integer, ObservableDrawingPen> entry : new TreeMap<>(group.originalDrawingSetOrder).entrySet()){
+                hasher.putInt(entry.getKey());
+                hasher.putInt(group.drawingSet.pens.indexOf(entry.getValue()));
+            }
+            for(IGeometry geometry : group.geometries){
+                ObservableDrawingPen pen = group.drawingSet.getPen(geometry.getPenIndex());
+                if(!geometryFilter.filter(drawing, geometry, pen)){
+                    hasher.putInt(-1);
+                    continue;
+                }
+                hasher.putInt(geometry.getPenIndex());
+                hasher.putInt(geometry.getSampledRGBA());
+                hasher.putInt(geometry.getFillType());
+                hasher.putString(geometry.getClass().getName());
+                PathIterator iterator = geometry.getAWTShape().getPathIterator(null);
+                while(!iterator.isDone()){
+                    int segType = iterator.currentSegment(coords);
+                    hasher.putInt(segType);
+                    int points = segType == PathIterator.SEG_CUBICTO ? 3 : segType == PathIterator.SEG_QUADTO ? 2 : segType == PathIterator.SEG_CLOSE ? 0 : 1;
+                    for(int i = 0; i < points * 2; i++){
+                        hasher.putDouble(coords[i]);
+                    }
+                    iterator.next();
+                }
+            }
+        }
+        return hasher.digest();
+    }
+
+    private static class ContentHasher {
+
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        public ContentHasher(){
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private void ensureRemaining(int bytes){
+            if(buffer.remaining() < bytes){
+                flush();
+            }
+        }
+
+        private void flush(){
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+
+        public void putInt(int value){
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        public void putDouble(double value){
+            ensureRemaining(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        public void putString(String value){
+            flush();
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            putInt(value.length());
+        }
+
+        public String digest(){
+            flush();
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
@@ -19,6 +19,7 @@ import drawingbot.plotting.canvas.CanvasUtils;
 import drawingbot.registry.Register;
 import drawingbot.render.overlays.NotificationOverlays;
 import drawingbot.utils.DBTask;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import javafx.application.Platform;
 import javafx.scene.control.Dialog;
 import org.controlsfx.control.action.Action;
@@ -33,7 +34,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 
@@ -59,6 +64,16 @@ public class ExportTask extends DBTask<Boolean> {
     public DrawingGeometryIterator exportIterator;
     public Map<ObservableDrawingPen, Integer> exportPenStats;
 
+    /**
+     * The fully optimised drawing, shared by every file created by the pen based export modes
+     */
+    private PlottedDrawing sharedOptimisedDrawing;
+
+    /**
+     * The sub tasks writing files concurrently, which are cancelled along with this task, see {@link #doSubExports(List)}
+     */
+    private final List<ExportTask> runningSubTasks = new CopyOnWriteArrayList<>();
+
     public ExportTask(DBTaskContext context, DrawingExportHandler exportHandler, Mode exportMode, PlottedDrawing plottedDrawing, IGeometryFilter geometryFilter, String extension, File saveLocation, boolean overwrite, boolean forceBypassOptimisation, boolean isSubTask){
         super(context);
         this.exportHandler = exportHandler;
@@ -90,7 +105,21 @@ public class ExportTask extends DBTask<Boolean> {
     }
 
     public void createExportPlottedDrawing(IGeometryFilter geometryFilter){
-        exportDrawing = GeometryUtils.getOptimisedPlottedDrawing(this, geometryFilter, forceBypassOptimisation);
+        setExportDrawing(GeometryUtils.getOptimisedPlottedDrawing(this, geometryFilter, forceBypassOptimisation));
+    }
+
+    /**
+     * Takes the export drawing from a finished sub task, so this task is left in the same state as when the sub export is run on this task
+     */
+    private void setExportDrawing(ExportTask subTask){
+        exportDrawing = subTask.exportDrawing;
+        exportPenStats = subTask.exportPenStats;
+        exportRenderOrder = subTask.exportRenderOrder;
+        exportIterator = subTask.exportIterator;
+    }
+
+    public void setExportDrawing(PlottedDrawing drawing){
+        exportDrawing = drawing;
         exportPenStats = exportDrawing.getPerPenGeometryStats();
         exportRenderOrder = filterActivePens(exportDrawing.getGlobalRenderOrder(), true);
         exportIterator = new DrawingGeometryIterator(exportDrawing, exportRenderOrder);
@@ -107,14 +136,111 @@ public class ExportTask extends DBTask<Boolean> {
 
             updateMessage("Optimising Paths");
             createExportPlottedDrawing(geometryFilter);
+            exportDrawing(geometryFilter, saveLocation);
+        }
+    }
+
+    /**
+     * Exports the current export drawing, which must have been set with {@link #setExportDrawing(PlottedDrawing)}
+     */
+    public void exportDrawing(IGeometryFilter geometryFilter, File saveLocation){
+        updateMessage("Exporting Paths");
+        renderedGeometries = 0;
+        FlightRecorderEvents.ExportEvent event = new FlightRecorderEvents.ExportEvent();
+        event.begin();
+        exportHandler.exportMethod.export(this, saveLocation);
+        if(event.shouldCommit()){
+            event.exportHandler = exportHandler.registryName;
+            event.file = saveLocation.getPath();
+            event.geometries = exportDrawing.getGeometryCount();
+            event.commit();
+        }
+        onDrawingExported(exportDrawing, geometryFilter, saveLocation);
+    }
+
+    /**
+     * Exports each of the files for the per/group, per/pen and per/n pens modes.
+     * Pen based files are partitioned from a single optimised drawing, see {@link ExportOptimisationCache#createPartition(PlottedDrawing, IGeometryFilter)}, group based files must be optimised separately as groups which share a drawing set are merged during optimisation.
+     * If supported by the export handler, the files will be written concurrently by sub tasks while the next file is being optimised
+     */
+    public void doSubExports(List<SubExport> subExports) throws InterruptedException, ExecutionException {
+        boolean parallel = DBPreferences.INSTANCE.parallelFileExport.get() && exportHandler.supportsParallelExport() && subExports.size() > 1;
+        ExecutorService service = parallel ? Executors.newFixedThreadPool(Math.min(subExports.size(), Runtime.getRuntime().availableProcessors()), DrawingBotV3.threadFactory("DrawingBotV3 - Export Task")) : null;
+        List<Future<ExportTask>> futures = new ArrayList<>();
+        try{
+            for(SubExport subExport : subExports){
+                if(isCancelled()){
+                    break;
+                }
+                if(!overwrite && Files.exists(subExport.saveLocation.toPath())){
+                    continue;
+                }
+                updateTitle(subExport.title);
+                updateMessage("Optimising Paths");
+
+                PlottedDrawing drawing;
+                if(subExport.partitionFilter != null){
+                    if(sharedOptimisedDrawing == null){
+                        sharedOptimisedDrawing = GeometryUtils.getOptimisedPlottedDrawing(this, geometryFilter, forceBypassOptimisation);
+                    }
+                    drawing = ExportOptimisationCache.createPartition(sharedOptimisedDrawing, subExport.partitionFilter);
+                }else{
+                    drawing = GeometryUtils.getOptimisedPlottedDrawing(this, subExport.geometryFilter, forceBypassOptimisation);
+                }
+
+                if(service == null){
+                    setExportDrawing(drawing);
+                    exportDrawing(subExport.geometryFilter, subExport.saveLocation);
+                    continue;
+                }
+
+                ExportTask subTask = new ExportTask(context, exportHandler, Mode.PER_DRAWING, plottedDrawing, subExport.geometryFilter, extension, subExport.saveLocation, overwrite, forceBypassOptimisation, true);
+                subTask.updateProgressInstantly = false;
+                subTask.exportScale = exportScale;
+                subTask.originalPenStats = originalPenStats;
+                subTask.setExportDrawing(drawing);
+                runningSubTasks.add(subTask);
+                if(isCancelled()){
+                    subTask.cancel(true);
+                }
+                futures.add(service.submit(() -> {
+                    if(!subTask.isCancelled()){
+                        subTask.exportDrawing(subExport.geometryFilter, subExport.saveLocation);
+                    }
+                    return subTask;
+                }));
+            }
 
-            updateMessage("Exporting Paths");
-            renderedGeometries = 0;
-            exportHandler.exportMethod.export(this, saveLocation);
-            onDrawingExported(exportDrawing, geometryFilter, saveLocation);
+            int completed = 0;
+            for(Future<ExportTask> future : futures){
+                ExportTask subTask = future.get();
+                if(!subTask.error.isEmpty()){
+                    setError(subTask.error);
+                }
+                if(subTask.isCancelled()){
+                    continue;
+                }
+                setExportDrawing(subTask);
+                onDrawingExported(subTask.exportDrawing, subTask.geometryFilter, subTask.saveLocation);
+                updateMessage("Exported " + (++completed) + " / " + futures.size());
+                updateProgress(completed, futures.size());
+            }
+        }finally {
+            if(service != null){
+                service.shutdownNow();
+            }
+            runningSubTasks.clear();
+            sharedOptimisedDrawing = null;
         }
     }
 
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        runningSubTasks.forEach(subTask -> subTask.cancel(mayInterruptIfRunning));
+        return cancelled;
+    }
+
     public List<ObservableDrawingPen> filterActivePens(List<ObservableDrawingPen> globalOrder, boolean inExport){
         List<ObservableDrawingPen> activeOrder = new ArrayList<>();
         for(ObservableDrawingPen drawingPen : globalOrder){
@@ -167,31 +293,35 @@ public class ExportTask extends DBTask<Boolean> {
                 break;
             case PER_GROUP:
                 Collection<PlottedGroup> groups = plottedDrawing.groups.values().stream().filter(g->!g.geometries.isEmpty()).collect(Collectors.toSet());
+                List<SubExport> groupExports = new ArrayList<>();
                 int groupPos = 0;
                 for(PlottedGroup group : groups){
-                    updateTitle(exportHandler.description + ": " + (groupPos+1) + " / " + groups.size() + " - " + saveLocation.getPath());
+                    String title = exportHandler.description + ": " + (groupPos+1) + " / " + groups.size() + " - " + saveLocation.getPath();
                     File fileName = new File(baseSaveLocation.getPath() + "_group" + (groupPos+1) + extension);
                     if(!group.geometries.isEmpty()){
-                        doExport((drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && geometry.getGroupID() == group.groupID, fileName);
+                        groupExports.add(new SubExport(title, fileName, (drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && geometry.getGroupID() == group.groupID, null));
                     }
                     groupPos++;
                 }
+                doSubExports(groupExports);
                 break;
             case PER_PEN:
                 List<ObservableDrawingPen> activePens = filterActivePens(plottedDrawing.getGlobalDisplayOrder(), false);
+                List<SubExport> penExports = new ArrayList<>();
                 int setPos = 0;
                 for(ObservableDrawingSet drawingSet : plottedDrawing.drawingSets.drawingSetSlots){
                     int penPos = 0;
                     for(ObservableDrawingPen drawingPen : drawingSet.pens){
-                        updateTitle(exportHandler.description + ": " + " Set: " + (setPos+1) + " / " + plottedDrawing.drawingSets.drawingSetSlots.size() +  " Pen: " + (penPos+1) + " / " + drawingSet.pens.size() + " - " + saveLocation.getPath());
+                        String title = exportHandler.description + ": " + " Set: " + (setPos+1) + " / " + plottedDrawing.drawingSets.drawingSetSlots.size() +  " Pen: " + (penPos+1) + " / " + drawingSet.pens.size() + " - " + saveLocation.getPath();
                         File fileName = new File(baseSaveLocation.getPath() + "_set" + (setPos+1) + "_pen" + (penPos+1) + "_" + FileUtils.getSafeFileName(drawingPen.getName()) + extension);
                         if(drawingPen.isEnabled() && activePens.contains(drawingPen)){
-                            doExport((drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && pen == drawingPen, fileName);
+                            penExports.add(new SubExport(title, fileName, (drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && pen == drawingPen, (drawing, geometry, pen) -> pen == drawingPen));
                         }
                         penPos++;
                     }
                     setPos++;
                 }
+                doSubExports(penExports);
                 break;
             case PER_N_PENS:
                 activePens = filterActivePens(plottedDrawing.getGlobalRenderOrder(), false);
@@ -206,6 +336,7 @@ public class ExportTask extends DBTask<Boolean> {
 
                 int nPens = task.get();
                 if(nPens != -1){
+                    List<SubExport> nPenExports = new ArrayList<>();
                     for(int i = 0; i < activePens.size(); i+=nPens){
                         List<ObservableDrawingPen> nextPens = new ArrayList<>();
                         for(int j = 0; j < nPens; j++){
@@ -216,11 +347,12 @@ public class ExportTask extends DBTask<Boolean> {
                             }
                         }
                         if(!nextPens.isEmpty()){
-                            updateTitle(exportHandler.description + ": " + " Pens: " + (i+1) + " to " + (i+nextPens.size()) + " - " + saveLocation.getPath());
+                            String title = exportHandler.description + ": " + " Pens: " + (i+1) + " to " + (i+nextPens.size()) + " - " + saveLocation.getPath();
                             File fileName = new File(baseSaveLocation.getPath() + "_pens" + (i+1) + "_to_" + (i+nextPens.size()) + extension);
-                            doExport((drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && nextPens.contains(pen), fileName);
+                            nPenExports.add(new SubExport(title, fileName, (drawing, geometry, pen) -> geometryFilter.filter(drawing, geometry, pen) && nextPens.contains(pen), (drawing, geometry, pen) -> nextPens.contains(pen)));
                         }
                     }
+                    doSubExports(nPenExports);
                 }else{
                     updateMessage("Cancelled");
                     DrawingBotV3.logger.info("Export Task: Cancelled " + saveLocation.getPath());
@@ -301,6 +433,29 @@ public class ExportTask extends DBTask<Boolean> {
         }
     }
 
+    /**
+     * One of the files created by a multi-file export
+     */
+    public static class SubExport {
+
+        public final String title;
+        public final File saveLocation;
+        public final IGeometryFilter geometryFilter;
+        @Nullable
+        public final IGeometryFilter partitionFilter;
+
+        /**
+         * @param geometryFilter the filter applied to the original drawing
+         * @param partitionFilter if not null, the filter applied to the shared optimised drawing instead of optimising the file separately, this may only filter by pen
+         */
+        public SubExport(String title, File saveLocation, IGeometryFilter geometryFilter, @Nullable IGeometryFilter partitionFilter) {
+            this.title = title;
+            this.saveLocation = saveLocation;
+            this.geometryFilter = geometryFilter;
+            this.partitionFilter = partitionFilter;
+        }
+    }
+
     public enum Mode {
         PER_DRAWING("per/drawing"),
         PER_PEN("per/pen"),
@@ -29,11 +29,22 @@ public class Graphics2DExporter {
     }
 
     public static void drawGeometries(ExportTask exportTask, Graphics2D graphics, IGeometryFilter geometryFilter){
+        drawGeometries(exportTask, graphics, geometryFilter, false);
+    }
+
+    /**
+     * @param batchGeometries if true consecutive geometries with the same render state will be drawn as a batch, see {@link RenderUtils.BatchRenderer}, the geometries are only combined into fewer shapes if {@link drawingbot.javafx.preferences.DBPreferences#combineRenderPaths} is enabled
+     */
+    public static void drawGeometries(ExportTask exportTask, Graphics2D graphics, IGeometryFilter geometryFilter, boolean batchGeometries){
         exportTask.exportIterator.reset();
+        RenderUtils.IRenderFunction<Graphics2D> renderFunction = batchGeometries ? new RenderUtils.AWTBatchRenderer() : RenderUtils::renderGeometryAWT;
         RenderUtils.renderDrawing(graphics, exportTask.exportIterator, geometryFilter, 0, 0, (renderer, geometry, drawing, group, pen) -> {
-            RenderUtils.renderGeometryAWT(graphics, geometry, drawing, group, pen);
+            renderFunction.renderGeometry(renderer, geometry, drawing, group, pen);
             exportTask.onGeometryExported();
         });
+        if(renderFunction instanceof RenderUtils.AWTBatchRenderer batchRenderer){
+            batchRenderer.flush(graphics);
+        }
     }
 
     public static void postDraw(ExportTask exportTask, Graphics2D graphics){
@@ -8,9 +8,14 @@ import drawingbot.javafx.preferences.DBPreferences;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 public class ImageExporter {
 
@@ -22,16 +27,35 @@ public class ImageExporter {
         return exportTask.extension.equals(".png") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
     }
 
+    /**
+     * Only the PNG and TIFF writers pull their data row by row, other formats would request the full image at once
+     */
+    public static boolean supportsTiledExport(ExportTask exportTask){
+        return exportTask.extension.equals(".png") || exportTask.extension.equals(".tif") || exportTask.extension.equals(".tiff");
+    }
+
     public static void exportImage(ExportTask exportTask, File saveLocation) {
+        if(DBPreferences.INSTANCE.tiledImageExport.get() && supportsTiledExport(exportTask)){
+            exportTiledImage(exportTask, saveLocation);
+            return;
+        }
 
         ImageRenderer renderer = new ImageRenderer(exportTask, false);
 
         Graphics2D graphics = renderer.getGraphics();
         Graphics2DExporter.preDraw(exportTask, graphics);
-        Graphics2DExporter.drawGeometries(exportTask, graphics, IGeometryFilter.BYPASS_FILTER);
+        if(DBPreferences.INSTANCE.parallelImageExport.get()){
+            drawGeometriesParallel(exportTask, renderer.getActiveImage(), graphics.getTransform());
+        }else{
+            Graphics2DExporter.drawGeometries(exportTask, graphics, IGeometryFilter.BYPASS_FILTER, true);
+        }
         Graphics2DExporter.postDraw(exportTask, graphics);
         renderer.dispose();
 
+        if(!exportTask.error.isEmpty()){
+            return;
+        }
+
         try {
             if(ImageIO.write(renderer.createExportImage(), exportTask.extension.substring(1), saveLocation)){
                 exportTask.updateProgress(1, 1);
@@ -44,6 +68,54 @@ public class ImageExporter {
         }
     }
 
+    /**
+     * Renders the export drawing into the image on multiple threads, see {@link ParallelTileRenderer}
+     * @param transform the transform from drawing coordinates to image coordinates
+     */
+    public static void drawGeometriesParallel(ExportTask exportTask, BufferedImage image, AffineTransform transform){
+        ParallelTileRenderer tileRenderer = new ParallelTileRenderer(exportTask, transform, image.getWidth(), image.getHeight(), ParallelTileRenderer.DEFAULT_TILE_SIZE, ParallelTileRenderer.DEFAULT_TILE_SIZE);
+        tileRenderer.setProgressCallback(exportTask);
+        tileRenderer.buildIndex(exportTask);
+        try {
+            tileRenderer.render(image, 0, 0);
+        } catch (CancellationException e) {
+            exportTask.setError(e.getMessage());
+        } catch (InterruptedException | ExecutionException e) {
+            exportTask.setError(e.getMessage());
+            e.printStackTrace();
+        } finally {
+            tileRenderer.dispose();
+        }
+    }
+
+    public static void exportTiledImage(ExportTask exportTask, File saveLocation) {
+        TiledImageRenderer renderer = new TiledImageRenderer(exportTask);
+        renderer.buildIndex();
+
+        try {
+            boolean written;
+            try {
+                written = ImageIO.write(renderer, exportTask.extension.substring(1), saveLocation);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if(written){
+                exportTask.updateProgress(1, 1);
+            }else{
+                exportTask.setError("Image Export Failed");
+            }
+        } catch (InterruptedIOException e) {
+            //cancelled part way through, don't leave a partially written image behind
+            exportTask.setError(e.getMessage());
+            saveLocation.delete();
+        } catch (IOException e) {
+            exportTask.setError(e.getMessage());
+            e.printStackTrace();
+        } finally {
+            renderer.dispose();
+        }
+    }
+
     public static void exportReferenceImage(ExportTask exportTask, File saveLocation) {
         BufferedImage referenceImage = exportTask.exportDrawing.getReferenceImage();
         if(referenceImage == null) {
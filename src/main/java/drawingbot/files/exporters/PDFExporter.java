@@ -47,7 +47,7 @@ public class PDFExporter {
             
             Graphics2DExporter.drawBackground(exportTask.context, graphics, width, height);
             Graphics2DExporter.preDraw(exportTask, graphics);
-            Graphics2DExporter.drawGeometries(exportTask, graphics, IGeometryFilter.BYPASS_FILTER);
+            Graphics2DExporter.drawGeometries(exportTask, graphics, IGeometryFilter.BYPASS_FILTER, true);
             Graphics2DExporter.postDraw(exportTask, graphics);
             document.close(); //dispose is already called within drawGraphics
 
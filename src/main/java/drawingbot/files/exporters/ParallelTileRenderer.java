@@ -0,0 +1,302 @@
+package drawingbot.files.exporters;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.api.IProgressCallback;
+import drawingbot.files.ExportTask;
+import drawingbot.files.json.projects.DBTaskContext;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.geom.spatial.SpatialGridIndex;
+import drawingbot.image.blend.EnumBlendMode;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+import drawingbot.plotting.AbstractGeometryIterator;
+import drawingbot.plotting.CulledGeometryIterator;
+import drawingbot.plotting.DrawingGeometryIterator;
+import drawingbot.plotting.PlottedDrawing;
+import drawingbot.plotting.PlottedGroup;
+import drawingbot.render.RenderUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Renders a drawing into a raster by splitting it into tiles which are rendered concurrently, each tile has its own {@link Graphics2D} and only renders the geometries which overlap it.
+ * Tiles never overlap, and each tile renders its geometries in the original render order, so blend modes composite exactly as they would when rendered on a single thread.
+ */
+public class ParallelTileRenderer {
+
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    public final DBTaskContext context;
+    @Nullable
+    public final ExportTask exportTask;
+    public final EnumBlendMode blendMode;
+    public final AffineTransform transform;
+    public final int rasterWidth;
+    public final int rasterHeight;
+    public final int tileWidth;
+    public final int tileHeight;
+    public boolean parallel = true;
+    public IProgressCallback progressCallback = IProgressCallback.NULL;
+
+    public final int tileColumns;
+    public final int tileRows;
+
+    private SpatialGridIndex<RenderUtils.GeometryEntry> index;
+
+    private PlottedDrawing indexedDrawing;
+    private List<ObservableDrawingPen> indexedRenderOrder;
+    private IGeometryFilter indexedFilter;
+    private AffineTransform inverseTransform;
+    private double indexPadding;
+
+    /**
+     * @param transform the transform from drawing coordinates to raster coordinates
+     */
+    public ParallelTileRenderer(ExportTask exportTask, AffineTransform transform, int rasterWidth, int rasterHeight, int tileWidth, int tileHeight){
+        this(exportTask.context, exportTask, exportTask.context.project().blendMode.get(), transform, rasterWidth, rasterHeight, tileWidth, tileHeight);
+    }
+
+    /**
+     * @param transform the transform from drawing coordinates to raster coordinates
+     */
+    public ParallelTileRenderer(DBTaskContext context, EnumBlendMode blendMode, AffineTransform transform, int rasterWidth, int rasterHeight, int tileWidth, int tileHeight){
+        this(context, null, blendMode, transform, rasterWidth, rasterHeight, tileWidth, tileHeight);
+    }
+
+    /**
+     * @param exportTask the export being rendered, if there is one, rendering stops when it's cancelled
+     * @param transform the transform from drawing coordinates to raster coordinates
+     */
+    public ParallelTileRenderer(DBTaskContext context, @Nullable ExportTask exportTask, EnumBlendMode blendMode, AffineTransform transform, int rasterWidth, int rasterHeight, int tileWidth, int tileHeight){
+        this.context = context;
+        this.exportTask = exportTask;
+        this.blendMode = blendMode;
+        this.transform = transform;
+        this.rasterWidth = rasterWidth;
+        this.rasterHeight = rasterHeight;
+        this.tileWidth = Math.max(1, Math.min(rasterWidth, tileWidth));
+        this.tileHeight = Math.max(1, Math.min(rasterHeight, tileHeight));
+        this.tileColumns = Math.max(1, (int) Math.ceil((double) rasterWidth / this.tileWidth));
+        this.tileRows = Math.max(1, (int) Math.ceil((double) rasterHeight / this.tileHeight));
+    }
+
+    /**
+     * Indexes the export drawing, each tile will find its geometries with the drawing's spatial index see {@link #useDrawingIndex(PlottedDrawing, List, IGeometryFilter)}
+     */
+    public void buildIndex(ExportTask exportTask){
+        useDrawingIndex(exportTask.exportDrawing, exportTask.exportRenderOrder, IGeometryFilter.BYPASS_FILTER);
+    }
+
+    /**
+     * Updates the drawing's own spatial index, each tile will then query it for the geometries which overlap the tile when it's rendered, in the original render order
+     * The index is kept by the drawing, so rendering the same drawing again only has to index geometries which have been added since, see {@link PlottedDrawing#updateSpatialIndex()}
+     */
+    public void useDrawingIndex(PlottedDrawing drawing, List<ObservableDrawingPen> renderOrder, IGeometryFilter geometryFilter){
+        try {
+            inverseTransform = transform.createInverse();
+        } catch (NoninvertibleTransformException e) {
+            buildIndex(new DrawingGeometryIterator(drawing, renderOrder), geometryFilter);
+            return;
+        }
+        drawing.updateSpatialIndex();
+        //the per pen lists are created lazily, so they're created now before the tiles are rendered concurrently
+        drawing.groups.values().forEach(PlottedGroup::getGeometriesPerPen);
+
+        //geometries are indexed without their stroke width, so the tile is expanded by the widest pen
+        indexPadding = 0;
+        for(ObservableDrawingPen pen : renderOrder){
+            indexPadding = Math.max(indexPadding, drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize()));
+        }
+        indexedDrawing = drawing;
+        indexedRenderOrder = renderOrder;
+        indexedFilter = geometryFilter;
+        index = null;
+    }
+
+    /**
+     * Sorts every geometry provided by the iterator which passes the filter into the tiles it overlaps, maintaining the render order within each tile
+     */
+    public void buildIndex(AbstractGeometryIterator iterator, IGeometryFilter geometryFilter){
+        indexedDrawing = null;
+        index = new SpatialGridIndex<>(0, 0, rasterWidth, rasterHeight, tileWidth, tileHeight);
+
+        iterator.reset();
+        RenderUtils.renderDrawing(index, iterator, geometryFilter, 0, 0, (grid, geometry, drawing, group, pen) -> {
+            Rectangle2D bounds = getRasterBounds(geometry, drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize()));
+            grid.insert(new RenderUtils.GeometryEntry(geometry, drawing, group, pen), bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        });
+    }
+
+    private Rectangle2D getRasterBounds(IGeometry geometry, float strokeWidth){
+        Rectangle2D bounds = geometry.getAWTShape().getBounds2D();
+        bounds.setRect(bounds.getX() - strokeWidth, bounds.getY() - strokeWidth, bounds.getWidth() + strokeWidth*2, bounds.getHeight() + strokeWidth*2);
+        Rectangle2D rasterBounds = transform.createTransformedShape(bounds).getBounds2D();
+        rasterBounds.setRect(rasterBounds.getX() - 1, rasterBounds.getY() - 1, rasterBounds.getWidth() + 2, rasterBounds.getHeight() + 2);
+        return rasterBounds;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public void setProgressCallback(IProgressCallback progressCallback) {
+        this.progressCallback = progressCallback;
+    }
+
+    public int getTileRows(){
+        return tileRows;
+    }
+
+    public int getTileColumns(){
+        return tileColumns;
+    }
+
+    /**
+     * @return the bounds in drawing space of every geometry which could be visible in the tile
+     */
+    private Rectangle2D getDrawingRegion(int column, int row){
+        Rectangle tile = getTileBounds(column, row);
+        Rectangle2D region = inverseTransform.createTransformedShape(new Rectangle(tile.x - 1, tile.y - 1, tile.width + 2, tile.height + 2)).getBounds2D();
+        region.setRect(region.getX() - indexPadding, region.getY() - indexPadding, region.getWidth() + indexPadding*2, region.getHeight() + indexPadding*2);
+        return region;
+    }
+
+    /**
+     * @return the geometries which overlap the tile, in render order
+     */
+    private List<RenderUtils.GeometryEntry> getTileEntries(int column, int row){
+        if(indexedDrawing == null){
+            return index.getCell(column, row);
+        }
+        List<RenderUtils.GeometryEntry> entries = new ArrayList<>();
+        CulledGeometryIterator iterator = new CulledGeometryIterator(indexedDrawing, indexedRenderOrder, List.of(getDrawingRegion(column, row)));
+        RenderUtils.renderDrawing(entries, iterator, indexedFilter, 0, 0, (list, geometry, drawing, group, pen) -> list.add(new RenderUtils.GeometryEntry(geometry, drawing, group, pen)));
+        return entries;
+    }
+
+    /**
+     * Renders every tile which overlaps the given image concurrently, the image must already contain the background
+     * If parallel rendering is disabled the tiles will be rendered in sequence on the calling thread
+     * Export tiles are rendered by {@link DrawingBotV3#parallelExportService} so they don't queue behind the viewport's tiles, which use {@link DrawingBotV3#parallelRenderingService}
+     * @param image the destination image, which may only cover a section of the full raster
+     * @param imageX the x position of the image within the full raster
+     * @param imageY the y position of the image within the full raster
+     * @throws CancellationException if the export task is cancelled, no more tiles are rendered and the tiles which haven't started are cancelled
+     */
+    public void render(BufferedImage image, int imageX, int imageY) throws InterruptedException, ExecutionException {
+        int minCol = getTileColumn(imageX), maxCol = getTileColumn(imageX + image.getWidth() - 1);
+        int minRow = getTileRow(imageY), maxRow = getTileRow(imageY + image.getHeight() - 1);
+
+        ExecutorService service = !parallel ? null : exportTask != null ? DrawingBotV3.INSTANCE.parallelExportService : DrawingBotV3.INSTANCE.parallelRenderingService;
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for(int row = minRow; row <= maxRow; row++){
+                for(int col = minCol; col <= maxCol; col++){
+                    Rectangle tile = new Rectangle(col * tileWidth, row * tileHeight, tileWidth, tileHeight).intersection(new Rectangle(imageX, imageY, image.getWidth(), image.getHeight()));
+                    if(tile.isEmpty()){
+                        continue;
+                    }
+                    checkCancelled();
+                    int column = col, tileRow = row;
+                    if(parallel){
+                        futures.add(service.submit(() -> {
+                            if(!isCancelled()){
+                                renderTile(image, imageX, imageY, tile, getTileEntries(column, tileRow));
+                            }
+                        }));
+                    }else{
+                        renderTile(image, imageX, imageY, tile, getTileEntries(column, tileRow));
+                    }
+                }
+            }
+            int completed = 0;
+            for(Future<?> future : futures){
+                future.get();
+                checkCancelled();
+                progressCallback.updateProgress(++completed, futures.size());
+            }
+        } finally {
+            //if a tile failed or the export was cancelled, the remaining tiles are no longer needed
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private boolean isCancelled(){
+        return exportTask != null && exportTask.isCancelled();
+    }
+
+    private void checkCancelled(){
+        if(isCancelled()){
+            throw new CancellationException("Export cancelled");
+        }
+    }
+
+    /**
+     * @return the bounds of the tile within the full raster, tiles on the right and bottom edges may be smaller than the tile size
+     */
+    public Rectangle getTileBounds(int column, int row){
+        return new Rectangle(column * tileWidth, row * tileHeight, tileWidth, tileHeight).intersection(new Rectangle(0, 0, rasterWidth, rasterHeight));
+    }
+
+    private int getTileColumn(int x){
+        return Math.max(0, Math.min(tileColumns - 1, x / tileWidth));
+    }
+
+    private int getTileRow(int y){
+        return Math.max(0, Math.min(tileRows - 1, y / tileHeight));
+    }
+
+    public boolean isTileEmpty(int column, int row){
+        if(indexedDrawing == null){
+            return index.getCell(column, row).isEmpty();
+        }
+        Rectangle2D region = getDrawingRegion(column, row);
+        return indexedDrawing.queryGeometries(region.getMinX(), region.getMinY(), region.getMaxX(), region.getMaxY()).isEmpty();
+    }
+
+    /**
+     * Renders a single tile into a new image on the calling thread, the image's origin is the top left of the tile
+     */
+    public BufferedImage renderTile(int column, int row, boolean drawBackground){
+        Rectangle tile = getTileBounds(column, row);
+        BufferedImage image = new BufferedImage(tile.width, tile.height, BufferedImage.TYPE_INT_ARGB);
+        ImageRenderer.createFreshGraphics2D(context, image, blendMode, false, drawBackground).dispose();
+        List<RenderUtils.GeometryEntry> entries = getTileEntries(column, row);
+        if(!entries.isEmpty()){
+            renderTile(image, tile.x, tile.y, tile, entries);
+        }
+        return image;
+    }
+
+    private void renderTile(BufferedImage image, int imageX, int imageY, Rectangle tile, List<RenderUtils.GeometryEntry> entries){
+        if(entries.isEmpty()){
+            return;
+        }
+        BufferedImage tileImage = image.getSubimage(tile.x - imageX, tile.y - imageY, tile.width, tile.height);
+        Graphics2D graphics = ImageRenderer.createFreshGraphics2D(context, tileImage, blendMode, false, false);
+        graphics.translate(-tile.x, -tile.y);
+        graphics.transform(transform);
+        RenderUtils.AWTBatchRenderer batchRenderer = new RenderUtils.AWTBatchRenderer();
+        for(RenderUtils.GeometryEntry entry : entries){
+            entry.render(graphics, batchRenderer);
+        }
+        batchRenderer.flush(graphics);
+        graphics.dispose();
+    }
+
+    public void dispose(){
+        index = null;
+        indexedDrawing = null;
+    }
+}
@@ -0,0 +1,164 @@
+package drawingbot.files.exporters;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.ICanvas;
+import drawingbot.api.ISpecialPenHandler;
+import drawingbot.files.ExportTask;
+import drawingbot.image.ImageTools;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+import drawingbot.javafx.preferences.DBPreferences;
+import drawingbot.plotting.canvas.CanvasUtils;
+import drawingbot.render.RenderUtils;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * A lightweight SVG exporter which writes each geometry straight to the output as a path, without building a DOM with Batik first.
+ * The output matches the layout of {@link SVGExporter#exportBasicSVG(ExportTask, java.io.File)}, one group per pen with paths in render order, but without the background, stats or settings.
+ * It's intended for handing drawings to other programs, e.g. streaming the drawing into vpype's stdin.
+ */
+public class StreamedSVGExporter {
+
+    public static void exportStreamedSVG(ExportTask exportTask, Writer writer) throws IOException {
+        ICanvas canvas = exportTask.exportDrawing.getCanvas();
+        int width = (int)canvas.getScaledWidth();
+
+        // Calculate the page size relative to the configured SVG DPI
+        int scaledPageWidth = (int)CanvasUtils.getExportWidth(canvas, DrawingBotV3.SVG_DPI);
+        int scaledPageHeight = (int)CanvasUtils.getExportHeight(canvas, DrawingBotV3.SVG_DPI);
+
+        double scale = (double)scaledPageWidth / width;
+
+        // The same transform applied by the SVGExporter, geometries are transformed directly so the paths don't need a transform attribute
+        AffineTransform transform = AffineTransform.getScaleInstance(scale, scale);
+        transform.translate(canvas.getScaledDrawingOffsetX(), canvas.getScaledDrawingOffsetY());
+        transform.scale(canvas.getCanvasScale(), canvas.getCanvasScale());
+        double strokeScale = scale * canvas.getCanvasScale();
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + canvas.getWidth() + canvas.getUnits().getSuffix() + "\" height=\"" + canvas.getHeight() + canvas.getUnits().getSuffix() + "\" viewBox=\"0 0 " + scaledPageWidth + " " + scaledPageHeight + "\">\n");
+
+        StringBuilder builder = new StringBuilder();
+        double[] coords = new double[6];
+
+        int index = 0;
+        for(ObservableDrawingPen drawingPen : exportTask.exportRenderOrder){
+            String layerName = SVGExporter.formatLayerName(DBPreferences.INSTANCE.svgLayerNaming.get(), drawingPen.getDisplayName(), "" + (index+1));
+            String groupTag = "<g id=\"" + escapeAttribute(layerName.replace(' ', '_')) + "\"";
+            //the same work around as the SVGExporter, so the layer still carries the stroke colour when it's black
+            if(!(drawingPen.source instanceof ISpecialPenHandler) && drawingPen.getARGB() == ImageTools.getARGB(255, 0, 0, 0)){
+                groupTag += " stroke=\"black\"";
+            }
+            groupTag += ">\n";
+
+            //like the SVGExporter, pens without any paths don't get a group, the group is only opened once its first path is written so the pen's paths don't need to be buffered
+            boolean[] groupOpen = new boolean[]{false};
+            String openGroup = groupTag;
+
+            exportTask.exportIterator.reset();
+            try{
+                RenderUtils.renderDrawing(writer, exportTask.exportIterator, (drawing, geometry, pen) -> pen == drawingPen, 0, 0, (renderer, geometry, drawing, group, pen) -> {
+                    Color color = pen.getAWTColor(geometry.getSampledRGBA());
+                    String rgb = "#" + Integer.toHexString(0x1000000 | (color.getRGB() & 0xFFFFFF)).substring(1);
+
+                    builder.setLength(0);
+                    builder.append("<path d=\"");
+                    appendPathData(builder, geometry.getAWTShape().getPathIterator(transform), coords);
+                    builder.append("\" stroke=\"").append(rgb).append('"');
+                    builder.append(" stroke-width=\"").append(formatNumber(drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize()) * strokeScale)).append('"');
+                    builder.append(" stroke-linecap=\"round\" stroke-linejoin=\"round\"");
+                    builder.append(" fill=\"").append(geometry.getFillType() == 0 ? rgb : "none").append('"');
+                    if(color.getAlpha() != 255){
+                        builder.append(" opacity=\"").append(formatNumber(color.getAlpha() / 255D)).append('"');
+                    }
+                    builder.append("/>\n");
+
+                    try {
+                        if(!groupOpen[0]){
+                            renderer.write(openGroup);
+                            groupOpen[0] = true;
+                        }
+                        renderer.write(builder.toString());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    exportTask.onGeometryExported();
+                });
+            }catch (UncheckedIOException e){
+                throw e.getCause();
+            }
+
+            if(groupOpen[0]){
+                writer.write("</g>\n");
+            }
+            index++;
+        }
+        writer.write("</svg>\n");
+        writer.flush();
+    }
+
+    public static void appendPathData(StringBuilder builder, PathIterator iterator, double[] coords){
+        while(!iterator.isDone()){
+            int segType = iterator.currentSegment(coords);
+            switch (segType){
+                case PathIterator.SEG_MOVETO -> appendCommand(builder, 'M', coords, 1);
+                case PathIterator.SEG_LINETO -> appendCommand(builder, 'L', coords, 1);
+                case PathIterator.SEG_QUADTO -> appendCommand(builder, 'Q', coords, 2);
+                case PathIterator.SEG_CUBICTO -> appendCommand(builder, 'C', coords, 3);
+                case PathIterator.SEG_CLOSE -> appendCommand(builder, 'Z', coords, 0);
+                default -> throw new RuntimeException("Unrecognised segment type " + segType);
+            }
+            iterator.next();
+        }
+    }
+
+    private static void appendCommand(StringBuilder builder, char command, double[] coords, int points){
+        builder.append(command);
+        for(int i = 0; i < points; i++){
+            if(i != 0){
+                builder.append(' ');
+            }
+            appendNumber(builder, coords[i*2]);
+            builder.append(',');
+            appendNumber(builder, coords[i*2 + 1]);
+        }
+    }
+
+    public static String formatNumber(double value){
+        StringBuilder builder = new StringBuilder();
+        appendNumber(builder, value);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the number with at most 3 decimal places, without exponents or trailing zeros
+     */
+    public static void appendNumber(StringBuilder builder, double value){
+        long rounded = Math.round(value * 1000D);
+        if(rounded < 0){
+            builder.append('-');
+            rounded = -rounded;
+        }
+        builder.append(rounded / 1000);
+        int fraction = (int)(rounded % 1000);
+        if(fraction != 0){
+            builder.append('.');
+            int divisor = 100;
+            while(fraction != 0){
+                builder.append((char)('0' + fraction / divisor));
+                fraction %= divisor;
+                divisor /= 10;
+            }
+        }
+    }
+
+    public static String escapeAttribute(String value){
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+}
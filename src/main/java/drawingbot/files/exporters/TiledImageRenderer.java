@@ -0,0 +1,251 @@
+package drawingbot.files.exporters;
+
+import drawingbot.api.ICanvas;
+import drawingbot.files.ExportTask;
+import drawingbot.javafx.preferences.DBPreferences;
+import drawingbot.plotting.canvas.CanvasUtils;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Renders a raster export as a series of horizontal strips, only one strip is held in memory at a time so the peak memory use is independent of the export size.
+ * It is exposed as a {@link RenderedImage} with one tile per strip, image writers which request their data row by row (PNG / TIFF) will then pull each strip as it's needed.
+ * Unlike the {@link ImageRenderer} the drawing is rendered directly at the export scale, without supersampling.
+ * Each strip is split into tiles by the {@link ParallelTileRenderer} so it can be rendered on multiple threads.
+ */
+public class TiledImageRenderer implements RenderedImage {
+
+    public final ExportTask exportTask;
+    public final ICanvas canvas;
+    public final int outputBufferedImageType;
+    public final boolean drawBackground;
+
+    private final int rasterWidth;
+    private final int rasterHeight;
+    private final int stripHeight;
+    private final int stripCount;
+    private final AffineTransform transform;
+
+    private final ParallelTileRenderer tileRenderer;
+    private final ColorModel colorModel;
+
+    private int cachedStrip = -1;
+    private BufferedImage cachedImage;
+    private int renderedStrips = 0;
+
+    public TiledImageRenderer(ExportTask exportTask){
+        this.exportTask = exportTask;
+        this.canvas = exportTask.exportDrawing.getCanvas();
+        this.outputBufferedImageType = ImageExporter.getOutputBufferedImageType(exportTask);
+        this.drawBackground = ImageExporter.drawBackgroundOnRaster(exportTask);
+
+        this.rasterWidth = CanvasUtils.getRasterExportWidth(canvas, DBPreferences.INSTANCE.exportDPI.get(), false);
+        this.rasterHeight = CanvasUtils.getRasterExportHeight(canvas, DBPreferences.INSTANCE.exportDPI.get(), false);
+        this.stripHeight = Math.max(1, Math.min(rasterHeight, DBPreferences.INSTANCE.tiledImageExportStripHeight.get()));
+        this.stripCount = (rasterHeight + stripHeight - 1) / stripHeight;
+
+        double scale = (double) rasterWidth / canvas.getScaledWidth();
+        this.transform = new AffineTransform();
+        this.transform.scale(scale, scale);
+        this.transform.translate(canvas.getScaledDrawingOffsetX(), canvas.getScaledDrawingOffsetY());
+        this.transform.scale(canvas.getCanvasScale(), canvas.getCanvasScale());
+
+        this.tileRenderer = new ParallelTileRenderer(exportTask, transform, rasterWidth, rasterHeight, ParallelTileRenderer.DEFAULT_TILE_SIZE, stripHeight);
+        this.tileRenderer.setParallel(DBPreferences.INSTANCE.parallelImageExport.get());
+        this.colorModel = new BufferedImage(1, 1, outputBufferedImageType).getColorModel();
+    }
+
+    /**
+     * Sorts every geometry in the export drawing into the tiles it overlaps, maintaining the render order within each tile
+     */
+    public void buildIndex(){
+        tileRenderer.buildIndex(exportTask);
+    }
+
+    public int getStripCount(){
+        return stripCount;
+    }
+
+    public int getStripHeight(int strip){
+        return Math.min(stripHeight, rasterHeight - strip * stripHeight);
+    }
+
+    /**
+     * Renders the given strip into a new image, the image's origin is the top left of the strip
+     */
+    public BufferedImage renderStrip(int strip) throws InterruptedException, ExecutionException {
+        int height = getStripHeight(strip);
+        BufferedImage image = new BufferedImage(rasterWidth, height, BufferedImage.TYPE_INT_ARGB);
+        ImageRenderer.createFreshGraphics2D(exportTask.context, image, tileRenderer.blendMode, false, drawBackground).dispose();
+        tileRenderer.render(image, 0, strip * stripHeight);
+
+        if(outputBufferedImageType == BufferedImage.TYPE_INT_ARGB){
+            return image;
+        }
+        BufferedImage converted = new BufferedImage(rasterWidth, height, outputBufferedImageType);
+        Graphics2D convertGraphics = converted.createGraphics();
+        convertGraphics.drawImage(image, 0, 0, null);
+        convertGraphics.dispose();
+        return converted;
+    }
+
+    /**
+     * The image writer can only pull strips through {@link RenderedImage#getTile(int, int)}, so failures are thrown as an {@link UncheckedIOException} which the exporter unwraps, see {@link ImageExporter#exportTiledImage(ExportTask, File)}
+     */
+    private synchronized BufferedImage getStripImage(int strip){
+        if(cachedStrip != strip){
+            if(exportTask.isCancelled()){
+                throw new UncheckedIOException(new InterruptedIOException("Export cancelled"));
+            }
+            try {
+                cachedImage = renderStrip(strip);
+            } catch (CancellationException e) {
+                throw new UncheckedIOException(new InterruptedIOException("Export cancelled"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Export interrupted"));
+            } catch (ExecutionException e) {
+                throw new UncheckedIOException(new IOException("Failed to render strip " + strip, e.getCause()));
+            }
+            cachedStrip = strip;
+            renderedStrips++;
+            exportTask.updateProgress(Math.min(renderedStrips, stripCount), stripCount);
+        }
+        return cachedImage;
+    }
+
+    public void dispose(){
+        cachedImage = null;
+        cachedStrip = -1;
+        tileRenderer.dispose();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public Vector<RenderedImage> getSources() {
+        return null;
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return Image.UndefinedProperty;
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return null;
+    }
+
+    @Override
+    public ColorModel getColorModel() {
+        return colorModel;
+    }
+
+    @Override
+    public SampleModel getSampleModel() {
+        return colorModel.createCompatibleSampleModel(rasterWidth, stripHeight);
+    }
+
+    @Override
+    public int getWidth() {
+        return rasterWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return rasterHeight;
+    }
+
+    @Override
+    public int getMinX() {
+        return 0;
+    }
+
+    @Override
+    public int getMinY() {
+        return 0;
+    }
+
+    @Override
+    public int getNumXTiles() {
+        return 1;
+    }
+
+    @Override
+    public int getNumYTiles() {
+        return stripCount;
+    }
+
+    @Override
+    public int getMinTileX() {
+        return 0;
+    }
+
+    @Override
+    public int getMinTileY() {
+        return 0;
+    }
+
+    @Override
+    public int getTileWidth() {
+        return rasterWidth;
+    }
+
+    @Override
+    public int getTileHeight() {
+        return stripHeight;
+    }
+
+    @Override
+    public int getTileGridXOffset() {
+        return 0;
+    }
+
+    @Override
+    public int getTileGridYOffset() {
+        return 0;
+    }
+
+    @Override
+    public Raster getTile(int tileX, int tileY) {
+        return getStripImage(tileY).getRaster().createTranslatedChild(0, tileY * stripHeight);
+    }
+
+    @Override
+    public Raster getData() {
+        return copyData(null);
+    }
+
+    @Override
+    public Raster getData(Rectangle rect) {
+        WritableRaster raster = colorModel.createCompatibleWritableRaster(rect.width, rect.height).createWritableTranslatedChild(rect.x, rect.y);
+        return copyData(raster);
+    }
+
+    @Override
+    public WritableRaster copyData(WritableRaster raster) {
+        if(raster == null){
+            raster = colorModel.createCompatibleWritableRaster(rasterWidth, rasterHeight);
+        }
+        int minY = Math.max(0, raster.getMinY());
+        int maxY = Math.min(rasterHeight, raster.getMinY() + raster.getHeight());
+        for(int strip = minY / stripHeight; strip < stripCount && strip * stripHeight < maxY; strip++){
+            Raster stripRaster = getTile(0, strip);
+            Rectangle overlap = stripRaster.getBounds().intersection(raster.getBounds());
+            if(!overlap.isEmpty()){
+                raster.setRect(stripRaster.createChild(overlap.x, overlap.y, overlap.width, overlap.height, overlap.x, overlap.y, null));
+            }
+        }
+        return raster;
+    }
+}
@@ -2,6 +2,7 @@ package drawingbot.files.json;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonWriter;
 import drawingbot.DrawingBotV3;
 import drawingbot.files.FileUtils;
@@ -25,6 +26,9 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -310,7 +314,7 @@ public abstract class AbstractPresetLoader<DATA> implements IPresetLoader<DATA>,
             //Copy the data from the edit preset to the existing preset, keeping it's name and order
             oldPreset.setPresetName(editPreset.getPresetName());
             oldPreset.setPresetSubType(editPreset.getPresetSubType());
-            oldPreset.data = editPreset.data;
+            oldPreset.setData(editPreset.getData());
             result = oldPreset;
         }
 
@@ -421,7 +425,7 @@ public abstract class AbstractPresetLoader<DATA> implements IPresetLoader<DATA>,
     @Override
     public final GenericPreset<DATA> createNewPreset(String presetSubType, String presetName, boolean userCreated) {
         GenericPreset<DATA> preset = new GenericPreset<>(getVersion(), presetType, presetSubType, presetName, userCreated);
-        preset.data = createDataInstance(preset);
+        preset.setData(createDataInstance(preset));
         preset.presetLoader = this;
         return preset;
     }
@@ -480,9 +484,30 @@ public abstract class AbstractPresetLoader<DATA> implements IPresetLoader<DATA>,
 
     @Override
     public void loadFromJSON() {
-        PresetLoaderDataFile dataFile = JsonLoaderManager.getOrCreateJSONFile(PresetLoaderDataFile.class, configFile, c -> new PresetLoaderDataFile());
+        loadFromJSON(readJSONFile());
+    }
+
+    @Override
+    public PresetLoaderDataFile readJSONFile() {
+        PresetLoaderDataFile dataFile = PresetIndexCache.read(this, configFile);
+        if(dataFile == null){
+            dataFile = JsonLoaderManager.getOrCreateJSONFile(PresetLoaderDataFile.class, configFile, c -> new PresetLoaderDataFile());
+            PresetIndexCache.write(this, configFile, dataFile);
+        }
+        return dataFile;
+    }
+
+    /**
+     * @return true if the preset's data can be deserialized the first time it's needed, rather than when the preset is loaded from the {@link PresetIndexCache}
+     */
+    public boolean canLoadDataLazily() {
+        return true;
+    }
+
+    @Override
+    public void loadFromJSON(PresetLoaderDataFile dataFile) {
         dataFile.jsonMap.forEach(preset -> {
-            if (preset != null && preset.data != null && canLoadPreset(preset)) {
+            if (preset != null && preset.hasData() && canLoadPreset(preset)) {
                 preset.userCreated = true;
                 addPreset(cast(preset));
             }
@@ -546,10 +571,14 @@ public abstract class AbstractPresetLoader<DATA> implements IPresetLoader<DATA>,
             dateFile.presetOrder = getPresets().stream().map(GenericPreset::getPresetID).collect(Collectors.toList());
             dateFile.hiddenSystemPresets = getPresets().stream().filter(f -> f.isSystemPreset() && !f.isEnabled()).map(GenericPreset::getPresetID).collect(Collectors.toList());
 
-            JsonWriter writer = gson.newJsonWriter(new FileWriter(configFile));
+            //written to a temporary file first, as presets which haven't loaded their data yet read it from the current json
+            File tempFile = new File(configFile.getPath() + ".tmp");
+            JsonWriter writer = gson.newJsonWriter(new FileWriter(tempFile));
             gson.toJson(dateFile, PresetLoaderDataFile.class, writer);
             writer.flush();
             writer.close();
+            Files.move(tempFile.toPath(), configFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            PresetIndexCache.write(this, configFile, dateFile);
             DrawingBotV3.logger.info("Updated JSON: %s, saved %s presets".formatted(configFile.getName(), presets.size()));
         }catch (Exception e) {
             DrawingBotV3.logger.log(Level.WARNING, e, () -> "Error updating preset json");
@@ -619,7 +648,16 @@ public abstract class AbstractPresetLoader<DATA> implements IPresetLoader<DATA>,
      */
     @Override
     public JsonElement toJsonElement(Gson gson, GenericPreset<?> preset){
-        return gson.toJsonTree(preset.data, getDataType());
+        PresetIndexCache.DataLocation lazyData = preset.getLazyData();
+        if(lazyData != null){
+            //the data hasn't been changed since it was loaded, so there's no need to deserialize it
+            try{
+                return JsonParser.parseString(lazyData.readJson());
+            }catch (IOException e){
+                DrawingBotV3.logger.log(Level.WARNING, e, () -> "Error reading preset data " + preset.getPresetID());
+            }
+        }
+        return gson.toJsonTree(preset.getData(), getDataType());
     }
 
     /**
@@ -50,7 +50,7 @@ public abstract class DefaultPresetManager<TARGET, DATA extends PresetData> exte
             return;
         }
         GenericSetting.updateSettingsFromInstance(getSettings(), target);
-        preset.data.settings = GenericSetting.toJsonMap(getSettings(), new HashMap<>(), changesOnly);
+        preset.getData().settings = GenericSetting.toJsonMap(getSettings(), new HashMap<>(), changesOnly);
 
         Gson gson = JsonLoaderManager.createDefaultGson();
         for(PresetDataLoader<DATA> loader : presetDataLoaders){
@@ -68,10 +68,10 @@ public abstract class DefaultPresetManager<TARGET, DATA extends PresetData> exte
         if(target == null){
             return;
         }
-        GenericSetting.applySettings(preset.data.settings, getSettings());
+        GenericSetting.applySettings(preset.getData().settings, getSettings());
         List<GenericSetting<?, ?>> toApply = getSettings();
         if (changesOnly) {
-            toApply = GenericSetting.filterSettings(toApply, preset.data.settings.keySet());
+            toApply = GenericSetting.filterSettings(toApply, preset.getData().settings.keySet());
         }
         GenericSetting.applySettingsToInstance(toApply, target);
 
@@ -102,7 +102,7 @@ public abstract class DefaultPresetManager<TARGET, DATA extends PresetData> exte
                 editorNode.getChildren().add(new LabelNode("Settings").setTitleStyling());
                 EasyBind.subscribe(editingPresetProperty(), preset -> {
                     if(preset != null){
-                        GenericSetting.applySettings(preset.data.settings, editingSettings);
+                        GenericSetting.applySettings(preset.getData().settings, editingSettings);
                     }
                 });
 
@@ -115,7 +115,7 @@ public abstract class DefaultPresetManager<TARGET, DATA extends PresetData> exte
             @Override
             public void updatePreset() {
                 super.updatePreset();
-                getEditingPreset().data.settings = GenericSetting.toJsonMap(editingSettings, new HashMap<>(), false);
+                getEditingPreset().getData().settings = GenericSetting.toJsonMap(editingSettings, new HashMap<>(), false);
             }
         };
     }
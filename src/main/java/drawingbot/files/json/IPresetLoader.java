@@ -208,6 +208,23 @@ public interface IPresetLoader<DATA> extends ISpecialListenable<IPresetLoader.Li
 
     void loadFromJSON();
 
+    /**
+     * Reads the loader's JSON file without adding any of its presets, so the files of every loader can be read in parallel
+     */
+    PresetLoaderDataFile readJSONFile();
+
+    /**
+     * Adds the presets read by {@link #readJSONFile()}, must be called on the thread which loads the presets
+     */
+    void loadFromJSON(PresetLoaderDataFile dataFile);
+
+    /**
+     * @return false if reading the loader's presets depends on the presets of other loaders, they will then be read after every other loader has added its presets
+     */
+    default boolean canReadInParallel(){
+        return true;
+    }
+
     void updateJSON();
 
     void saveToJSON();
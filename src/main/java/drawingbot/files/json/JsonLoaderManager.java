@@ -25,6 +25,7 @@ import drawingbot.plotting.canvas.SimpleCanvas;
 import drawingbot.registry.MasterRegistry;
 import drawingbot.registry.Register;
 import drawingbot.software.SoftwareManager;
+import drawingbot.utils.LazyTimerUtils;
 import drawingbot.utils.MetadataMap;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -33,9 +34,11 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.geom.AffineTransform;
 import java.io.*;
 import java.nio.file.Files;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.logging.Level;
 
@@ -111,30 +114,116 @@ public class JsonLoaderManager {
         Register.PRESET_LOADER_PREFERENCES.loadFromJSON();
     }
 
+    /**
+     * The bundled preset containers, loaded in order before the user's presets
+     */
+    public static final List<String> DEFAULT_PRESET_CONTAINERS = List.of(
+            "pre_processing_defaults.json",
+            "sketch_pfm_defaults.json",
+            "square_pfm_defaults.json",
+            "shapes_pfm_defaults.json",
+            "curves_pfm_defaults.json",
+            "mosaic_pfm_defaults.json",
+            "catmull_rom_pfm_defaults.json",
+            "voronoi_pfm_defaults.json",
+            "drawing_area_defaults.json",
+            "gcode_settings_defaults.json",
+            "vpype_settings_defaults.json",
+            "hpgl_settings_defaults.json",
+            "serial_port_defaults.json",
+            "adaptive_pfm_defaults.json"
+    );
+
+    private static ExecutorService parsingService;
+    private static List<Future<PresetContainerJsonFile>> parsedDefaultContainers;
+    private static Map<IPresetLoader<?>, Future<PresetLoaderDataFile>> parsedUserFiles;
+
+    /**
+     * Starts parsing the bundled preset containers and every preset loader's user file in parallel on a background pool, so the rest of the start up can continue while they're parsed.
+     * Parsing never adds any presets, they are all added in the original order by {@link #loadJSONFiles()}, so the loaded presets are identical to loading them one by one.
+     * The preset loaders & PFMs must all be registered before calling this method.
+     */
+    public static void startParsingJSONFiles(){
+        if(parsingService != null){
+            return;
+        }
+        //the shared gson instance is created lazily, create it before it's used by multiple threads
+        createDefaultGson();
+
+        parsingService = Executors.newFixedThreadPool(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 4)), DrawingBotV3.threadFactory("DrawingBotV3 - Preset Parser"));
+        parsedDefaultContainers = new ArrayList<>();
+        for(String json : DEFAULT_PRESET_CONTAINERS){
+            parsedDefaultContainers.add(parsingService.submit(() -> parseDefaultPresetContainerJSON(json)));
+        }
+        parsedUserFiles = new LinkedHashMap<>();
+        for(IPresetLoader<?> loader : MasterRegistry.INSTANCE.presetLoaders){
+            if(loader != Register.PRESET_LOADER_PREFERENCES && loader.canReadInParallel()){
+                parsedUserFiles.put(loader, parsingService.submit(loader::readJSONFile));
+            }
+        }
+        parsingService.shutdown();
+    }
+
+    /**
+     * Adds every parsed preset to the preset loaders, waiting for any files which are still being parsed, see {@link #startParsingJSONFiles()}
+     * Only the parsing happens in the background, start up still blocks here until every preset has been registered.
+     * The default presets are applied straight afterwards by {@link #loadDefaults(DBTaskContext)} and the user interface is built from the loaders' preset lists, so registration can't be deferred past this point.
+     */
     public static void loadJSONFiles(){
+        startParsingJSONFiles();
+
+        //wait for every file to be parsed before adding any presets, the parsers look up existing presets e.g. drawing pens so they must not run while presets are being added
+        List<PresetContainerJsonFile> defaultContainers = new ArrayList<>();
+        for(int i = 0; i < DEFAULT_PRESET_CONTAINERS.size(); i++){
+            defaultContainers.add(getParsedFile(parsedDefaultContainers.get(i), DEFAULT_PRESET_CONTAINERS.get(i)));
+        }
+        Map<IPresetLoader<?>, PresetLoaderDataFile> userFiles = new HashMap<>();
+        parsedUserFiles.forEach((loader, future) -> userFiles.put(loader, getParsedFile(future, loader.getPresetType().registryName)));
+        LazyTimerUtils.lapTimer("launch", "Parse Presets");
 
         //load default presets TODO FIX DEFAULTS / FIX LOADING JSON WITH OLD NAMES!!! -TODO AUTOMATE THIS
-        loadDefaultPresetContainerJSON("pre_processing_defaults.json");
-        loadDefaultPresetContainerJSON("sketch_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("square_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("shapes_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("curves_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("mosaic_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("catmull_rom_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("voronoi_pfm_defaults.json");
-        loadDefaultPresetContainerJSON("drawing_area_defaults.json");
-        loadDefaultPresetContainerJSON("gcode_settings_defaults.json");
-        loadDefaultPresetContainerJSON("vpype_settings_defaults.json");
-        loadDefaultPresetContainerJSON("hpgl_settings_defaults.json");
-        loadDefaultPresetContainerJSON("serial_port_defaults.json");
-        loadDefaultPresetContainerJSON("adaptive_pfm_defaults.json");
+        for(PresetContainerJsonFile container : defaultContainers){
+            if(container != null){
+                container.jsonMap.forEach(preset -> loadUnknownPreset(preset, true));
+                container.jsonMap.forEach(preset -> preset.userCreated = false);
+            }
+        }
+        LazyTimerUtils.lapTimer("launch", "Default Presets");
 
         //load user presets
         for(IPresetLoader<?> loader : MasterRegistry.INSTANCE.presetLoaders){
             if(loader != Register.PRESET_LOADER_PREFERENCES){
-                loader.loadFromJSON();
+                PresetLoaderDataFile dataFile = loader.canReadInParallel() ? userFiles.get(loader) : loader.readJSONFile();
+                loader.loadFromJSON(dataFile == null ? new PresetLoaderDataFile() : dataFile);
             }
         }
+        LazyTimerUtils.lapTimer("launch", "User Presets");
+
+        parsingService = null;
+        parsedDefaultContainers = null;
+        parsedUserFiles = null;
+    }
+
+    @Nullable
+    private static <T> T getParsedFile(Future<T> future, String name){
+        try{
+            return future.get();
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }catch (ExecutionException e){
+            DrawingBotV3.logger.log(Level.SEVERE, "Failed to parse preset file: " + name, e.getCause());
+        }
+        return null;
+    }
+
+    @Nullable
+    private static PresetContainerJsonFile parseDefaultPresetContainerJSON(String json){
+        InputStream stream = JsonLoaderManager.class.getResourceAsStream("/presets/" + json);
+        if(stream == null){
+            DrawingBotV3.logger.warning("Missing Preset Container JSON: " + json);
+            return null;
+        }
+        return importJsonFile(stream, PresetContainerJsonFile.class);
     }
 
     public static void loadDefaults(DBTaskContext context){
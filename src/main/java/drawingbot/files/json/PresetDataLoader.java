@@ -42,7 +42,7 @@ public abstract class PresetDataLoader<MASTER extends PresetData> {
         if(!isEnabled()){
             return;
         }
-        JsonElement element = preset.data.settings.get(getKey());
+        JsonElement element = preset.getData().settings.get(getKey());
         if(element != null){
             loadData(context, gson, element, preset);
         }
@@ -61,7 +61,7 @@ public abstract class PresetDataLoader<MASTER extends PresetData> {
          */
         JsonElement element = saveData(context, gson, preset);
         if(element != null){
-            preset.data.settings.put(getKey(), element);
+            preset.getData().settings.put(getKey(), element);
         }
     }
 
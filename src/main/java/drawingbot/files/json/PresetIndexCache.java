@@ -0,0 +1,375 @@
+package drawingbot.files.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import drawingbot.DrawingBotV3;
+import drawingbot.files.json.adapters.JsonAdapterGenericPreset;
+import drawingbot.javafx.GenericPreset;
+import drawingbot.registry.MasterRegistry;
+import org.apache.commons.io.FilenameUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+
+/**
+ * A binary index of the presets in a {@link AbstractPresetLoader}'s json file, stored next to the json as a ".index" file.
+ * It holds each preset's type, sub type and name with the offset of its data in the json file, so large preset libraries can be loaded without parsing the whole json file with Gson.
+ * If the loader supports it the data is only read from the json file the first time it's needed e.g. when the preset is selected, see {@link AbstractPresetLoader#canLoadDataLazily()}
+ * <br>
+ * The index records the modification time and size of the json file it was created from, if either changes e.g. the json was edited by hand the index is ignored and recreated.
+ */
+public class PresetIndexCache {
+
+    public static final int MAGIC = 0x44425049; //DBPI
+    public static final int VERSION = 2;
+
+    /**
+     * If the index cache should be used, if disabled the json files are always parsed
+     */
+    public static boolean enabled = true;
+
+    public static File getIndexFile(File jsonFile){
+        return new File(jsonFile.getParentFile(), FilenameUtils.getBaseName(jsonFile.getName()) + ".index");
+    }
+
+    /**
+     * @return the presets from the index, or null if there's no valid index for the json file
+     */
+    @Nullable
+    public static <DATA> PresetLoaderDataFile read(AbstractPresetLoader<DATA> loader, File jsonFile){
+        File indexFile = getIndexFile(jsonFile);
+        if(!enabled || !jsonFile.exists() || !indexFile.exists()){
+            return null;
+        }
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))){
+            if(in.readInt() != MAGIC || in.readInt() != VERSION || !Objects.equals(loader.getVersion(), readString(in))){
+                return null;
+            }
+            if(in.readLong() != jsonFile.lastModified() || in.readLong() != jsonFile.length()){
+                return null;
+            }
+            Gson gson = null;
+            PresetLoaderDataFile dataFile = new PresetLoaderDataFile();
+            int presetCount = in.readInt();
+            for(int i = 0; i < presetCount; i++){
+                GenericPreset<DATA> preset = new GenericPreset<>();
+                preset.presetType = MasterRegistry.INSTANCE.getPresetType(readString(in));
+                preset.version = readString(in);
+                preset.setPresetSubType(readString(in));
+                preset.setPresetName(readString(in));
+                preset.setEnabled(in.readBoolean());
+                preset.userCreated = in.readBoolean();
+                preset.presetLoader = loader;
+                DataLocation location = new DataLocation(jsonFile, in.readLong(), in.readInt());
+                if(!loader.canLoadPreset(preset)){
+                    return null;
+                }
+                if(loader.canLoadDataLazily()){
+                    preset.setLazyData(location);
+                }else{
+                    gson = gson == null ? JsonLoaderManager.createDefaultGson() : gson;
+                    preset.setData(loader.fromJsonElement(gson, preset, JsonParser.parseString(location.readJson())));
+                }
+                dataFile.jsonMap.add(preset);
+            }
+            readStrings(in, dataFile.presetOrder);
+            readStrings(in, dataFile.hiddenSystemPresets);
+            return dataFile;
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.WARNING, e, () -> "Error reading preset index " + indexFile.getName() + " using json");
+            return null;
+        }
+    }
+
+    /**
+     * Creates the index for the json file, it must be called after the json file has been written so the index matches its modification time.
+     * The presets in the data file must be in the same order as the json file, any presets whose data still hasn't been loaded are moved to their new location in the json file.
+     */
+    public static <DATA> void write(AbstractPresetLoader<DATA> loader, File jsonFile, PresetLoaderDataFile dataFile){
+        if(!enabled || !jsonFile.exists()){
+            return;
+        }
+        File indexFile = getIndexFile(jsonFile);
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        try{
+            List<long[]> dataRanges = findDataRanges(Files.readAllBytes(jsonFile.toPath()));
+            if(dataRanges.size() != dataFile.jsonMap.size()){
+                throw new IOException("Found %s presets in the json, expected %s".formatted(dataRanges.size(), dataFile.jsonMap.size()));
+            }
+            List<GenericPreset<?>> presets = new ArrayList<>();
+            List<DataLocation> locations = new ArrayList<>();
+            for(int i = 0; i < dataFile.jsonMap.size(); i++){
+                GenericPreset<?> preset = dataFile.jsonMap.get(i);
+                long[] range = dataRanges.get(i);
+                if(preset != null && range != null && preset.hasData() && loader.canLoadPreset(preset)){
+                    presets.add(preset);
+                    locations.add(new DataLocation(jsonFile, range[0], (int) range[1]));
+                }
+            }
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))){
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, loader.getVersion());
+                out.writeLong(jsonFile.lastModified());
+                out.writeLong(jsonFile.length());
+                out.writeInt(presets.size());
+                for(int i = 0; i < presets.size(); i++){
+                    GenericPreset<?> preset = presets.get(i);
+                    writeString(out, preset.presetType.registryName);
+                    writeString(out, preset.version);
+                    writeString(out, preset.getPresetSubType());
+                    writeString(out, preset.getPresetName());
+                    out.writeBoolean(preset.isEnabled());
+                    out.writeBoolean(preset.userCreated);
+                    out.writeLong(locations.get(i).offset);
+                    out.writeInt(locations.get(i).length);
+                }
+                writeStrings(out, dataFile.presetOrder);
+                writeStrings(out, dataFile.hiddenSystemPresets);
+            }
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            for(int i = 0; i < presets.size(); i++){
+                if(presets.get(i).getLazyData() != null){
+                    presets.get(i).setLazyData(locations.get(i));
+                }
+            }
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.WARNING, e, () -> "Error writing preset index " + indexFile.getName());
+            tempFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    /**
+     * The position of a preset's data in the json file, the json file must be unchanged since the index was created
+     */
+    public static class DataLocation {
+
+        public final File jsonFile;
+        public final long offset;
+        public final int length;
+        private final long lastModified;
+        private final long fileLength;
+
+        public DataLocation(File jsonFile, long offset, int length) {
+            this.jsonFile = jsonFile;
+            this.offset = offset;
+            this.length = length;
+            this.lastModified = jsonFile.lastModified();
+            this.fileLength = jsonFile.length();
+        }
+
+        public String readJson() throws IOException {
+            if(jsonFile.lastModified() != lastModified || jsonFile.length() != fileLength){
+                throw new IOException("Preset json has changed since it was indexed: " + jsonFile.getName());
+            }
+            byte[] bytes = new byte[length];
+            try(RandomAccessFile file = new RandomAccessFile(jsonFile, "r")){
+                file.seek(offset);
+                file.readFully(bytes);
+            }
+            //the json is read & written with the default charset by FileReader / FileWriter
+            return new String(bytes, Charset.defaultCharset());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj instanceof DataLocation other){
+                return jsonFile.equals(other.jsonFile) && offset == other.offset && length == other.length && lastModified == other.lastModified && fileLength == other.fileLength;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jsonFile, offset, length, lastModified, fileLength);
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+
+    /**
+     * Finds the byte range of each preset's data in a {@link PresetLoaderDataFile}'s json, without parsing the data itself
+     * The json's structural characters are all ASCII, so the ranges are found on the raw bytes for any ASCII compatible charset.
+     * @return the offset and length of the data of each entry in the json map, null if the entry has no data
+     */
+    public static List<long[]> findDataRanges(byte[] json) throws IOException {
+        JsonScanner scanner = new JsonScanner(json);
+        List<long[]> ranges = new ArrayList<>();
+        scanner.expect('{');
+        while(scanner.nextMember('}')){
+            String key = scanner.readKey();
+            if(key.equals("jsonMap") && scanner.peek() == '['){
+                scanner.expect('[');
+                while(scanner.nextMember(']')){
+                    if(scanner.peek() != '{'){
+                        scanner.skipValue();
+                        ranges.add(null);
+                        continue;
+                    }
+                    long[] range = null;
+                    scanner.expect('{');
+                    while(scanner.nextMember('}')){
+                        String presetKey = scanner.readKey();
+                        int start = scanner.skipWhitespace();
+                        scanner.skipValue();
+                        if(presetKey.equals(JsonAdapterGenericPreset.JSON_DATA)){
+                            range = new long[]{start, scanner.pos - start};
+                        }
+                    }
+                    ranges.add(range);
+                }
+            }else{
+                scanner.skipValue();
+            }
+        }
+        return ranges;
+    }
+
+    private static class JsonScanner {
+
+        private final byte[] json;
+        private int pos = 0;
+        private boolean first = true;
+
+        private JsonScanner(byte[] json) {
+            this.json = json;
+        }
+
+        private int skipWhitespace(){
+            while(pos < json.length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')){
+                pos++;
+            }
+            return pos;
+        }
+
+        private byte peek() throws IOException {
+            skipWhitespace();
+            if(pos >= json.length){
+                throw new IOException("Unexpected end of json");
+            }
+            return json[pos];
+        }
+
+        private void expect(char c) throws IOException {
+            if(peek() != c){
+                throw new IOException("Expected '%s' at %s".formatted(c, pos));
+            }
+            pos++;
+            first = true;
+        }
+
+        /**
+         * @return true if there's another member in the current object / array, false once the closing character is reached
+         */
+        private boolean nextMember(char end) throws IOException {
+            if(peek() == end){
+                pos++;
+                first = false;
+                return false;
+            }
+            if(!first){
+                expect(',');
+            }
+            first = false;
+            return true;
+        }
+
+        private String readKey() throws IOException {
+            int start = skipWhitespace() + 1;
+            skipString();
+            String key = new String(json, start, pos - start - 1, StandardCharsets.UTF_8);
+            expect(':');
+            first = false;
+            return key;
+        }
+
+        private void skipString() throws IOException {
+            expect('"');
+            while(pos < json.length && json[pos] != '"'){
+                pos += json[pos] == '\\' ? 2 : 1;
+            }
+            pos++;
+            first = false;
+        }
+
+        private void skipValue() throws IOException {
+            byte c = peek();
+            if(c == '"'){
+                skipString();
+            }else if(c == '{' || c == '['){
+                int depth = 0;
+                do{
+                    c = json[pos];
+                    if(c == '"'){
+                        skipString();
+                        continue;
+                    }
+                    if(c == '{' || c == '['){
+                        depth++;
+                    }else if(c == '}' || c == ']'){
+                        depth--;
+                    }
+                    pos++;
+                }while(depth > 0 && pos < json.length);
+            }else{
+                while(pos < json.length && json[pos] != ',' && json[pos] != '}' && json[pos] != ']' && json[pos] > ' '){
+                    pos++;
+                }
+            }
+            if(pos > json.length){
+                throw new IOException("Unexpected end of json");
+            }
+            first = false;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+
+    private static void writeString(DataOutputStream out, @Nullable String string) throws IOException {
+        if(string == null){
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length == -1){
+            return null;
+        }
+        if(length < 0){
+            throw new IOException("Invalid length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for(String string : strings){
+            writeString(out, string);
+        }
+    }
+
+    private static void readStrings(DataInputStream in, List<String> strings) throws IOException {
+        int count = in.readInt();
+        for(int i = 0; i < count; i++){
+            strings.add(readString(in));
+        }
+    }
+}
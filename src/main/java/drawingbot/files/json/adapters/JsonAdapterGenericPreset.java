@@ -56,7 +56,7 @@ public class JsonAdapterGenericPreset implements JsonSerializer<GenericPreset<?>
         Gson gson = JsonLoaderManager.createDefaultGson();
         IPresetLoader<Object> manager = JsonLoaderManager.getJsonLoaderForPresetType(preset);
         if(manager != null){
-            preset.data = manager.fromJsonElement(gson, preset, jsonObject.get(JSON_DATA));
+            preset.setData(manager.fromJsonElement(gson, preset, jsonObject.get(JSON_DATA)));
             preset.presetLoader = manager;
             return preset;
         }
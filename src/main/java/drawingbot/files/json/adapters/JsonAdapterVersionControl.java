@@ -50,6 +50,6 @@ public class JsonAdapterVersionControl implements JsonSerializer<VersionControl>
 
     //Fix: Duplicate version data may still exist in projects created prior to the fix in 1.6.17-stable, this data will never be loaded or used we remove the entry
     private static void stripDuplicateVersionData(ObservableVersion version){
-        version.getPreset().data.settings.remove("versions");
+        version.getPreset().getData().settings.remove("versions");
     }
 }
@@ -26,16 +26,16 @@ public class PresetDrawingPenEditor extends DefaultPresetEditor<IDrawingPen, IDr
         penColour.set(Color.WHITE);
         EasyBind.subscribe(editingPresetProperty(), preset -> {
             if(preset != null){
-                penColour.set(ImageTools.getColorFromARGB(preset.data.getARGB()));
+                penColour.set(ImageTools.getColorFromARGB(preset.getData().getARGB()));
             }
         });
-        editorNode.getChildren().add(new PropertyNode<Color>("Colour", penColour, () -> ImageTools.getColorFromARGB(getSelectedPreset().data.getARGB()), Color.class));
+        editorNode.getChildren().add(new PropertyNode<Color>("Colour", penColour, () -> ImageTools.getColorFromARGB(getSelectedPreset().getData().getARGB()), Color.class));
     }
 
     @Override
     public void updatePreset() {
         super.updatePreset();
-        if(editingPreset.get().data instanceof DrawingPen pen){
+        if(editingPreset.get().getData() instanceof DrawingPen pen){
             pen.argb = ImageTools.getARGBFromColor(penColour.get());
         }
     }
@@ -39,7 +39,7 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
         IDrawingPen previousData = findDrawingPen(preset.getPresetSubType(), preset.getPresetName());
 
         super.addPreset(preset);
-        preset.data.setLinkedPreset(preset); //set transient binding
+        preset.getData().setLinkedPreset(preset); //set transient binding
 
         if(previousData != null){
             updateDrawingSetData(previousData, preset.getData());
@@ -51,7 +51,7 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
         IDrawingPen previousData = preset.getData();
 
         super.removePreset(preset);
-        preset.data.setLinkedPreset(null); //set transient binding
+        preset.getData().setLinkedPreset(null); //set transient binding
 
         IDrawingPen newData = findDrawingPen(preset.getPresetSubType(), preset.getPresetName());
         if(previousData != null && newData != null){
@@ -74,6 +74,11 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
         return result;
     }
 
+    @Override
+    public boolean canLoadDataLazily() {
+        return false; //drawing sets link to the pen instances when they are loaded
+    }
+
     public void updateDrawingSetData(IDrawingPen previousData, IDrawingPen newData){
         //Iterate through all existing drawing set presets for matches and replace them
         boolean foundMatch = false;
@@ -100,7 +105,7 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
     public DrawingPen createDataInstance(GenericPreset<IDrawingPen> preset) {
         DrawingPen drawingPen = new DrawingPen(preset.getPresetSubType(), preset.getPresetName(), ImageTools.getARGBFromColor(Color.BLACK));
         drawingPen.setLinkedPreset(preset);
-        preset.data = drawingPen;
+        preset.setData(drawingPen);
         return drawingPen;
     }
 
@@ -127,7 +132,7 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
 
     public IDrawingPen unwrapPreset(GenericPreset<IDrawingPen> preset){
         if(preset != null){
-            return preset.data;
+            return preset.getData();
         }
         return null;
     }
@@ -142,8 +147,8 @@ public class PresetDrawingPenLoader extends AbstractPresetLoader<IDrawingPen> {
         GenericPreset<IDrawingPen> preset = createNewPreset();
         preset.setPresetName(pen.getName());
         preset.setPresetSubType(pen.getType());
-        preset.data = new DrawingPen(pen);
-        preset.data.setLinkedPreset(preset);
+        preset.setData(new DrawingPen(pen));
+        preset.getData().setLinkedPreset(preset);
         preset.userCreated = userCreated;
         return preset;
     }
@@ -27,7 +27,7 @@ public class PresetDrawingPenManager extends AbstractPresetManager<IDrawingPen,
         }
         preset.setPresetSubType(target.getType());
         preset.setPresetName(target.getName());
-        if(preset.data instanceof DrawingPen pen){
+        if(preset.getData() instanceof DrawingPen pen){
             pen.update(target);
         }else{
             DrawingBotV3.logger.severe("Unable to update Preset %s".formatted(preset.getPresetName()));
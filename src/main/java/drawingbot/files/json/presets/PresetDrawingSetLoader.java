@@ -34,13 +34,23 @@ public class PresetDrawingSetLoader extends AbstractPresetLoader<IDrawingSet> {
     @Override
     public void addPreset(GenericPreset<IDrawingSet> preset) {
         super.addPreset(preset);
-        preset.data.setLinkedPreset(preset); //set transient binding
+        preset.getData().setLinkedPreset(preset); //set transient binding
     }
 
     @Override
     public void removePreset(GenericPreset<IDrawingSet> preset) {
         super.removePreset(preset);
-        preset.data.setLinkedPreset(null); //set transient binding
+        preset.getData().setLinkedPreset(null); //set transient binding
+    }
+
+    @Override
+    public boolean canLoadDataLazily() {
+        return false; //drawing sets are linked to their presets when they are added
+    }
+
+    @Override
+    public boolean canReadInParallel() {
+        return false; //drawing sets are read after the drawing pens, so they link to the loaded pens
     }
 
     @Override
@@ -60,7 +70,7 @@ public class PresetDrawingSetLoader extends AbstractPresetLoader<IDrawingSet> {
 
     public IDrawingSet unwrapPreset(GenericPreset<IDrawingSet> preset){
         if(preset != null){
-            return preset.data;
+            return preset.getData();
         }
         return null;
     }
@@ -75,8 +85,8 @@ public class PresetDrawingSetLoader extends AbstractPresetLoader<IDrawingSet> {
         GenericPreset<IDrawingSet> preset = createNewPreset();
         preset.setPresetName(set.getName());
         preset.setPresetSubType(set.getType());
-        preset.data = new DrawingSet(set);
-        preset.data.setLinkedPreset(preset);
+        preset.setData(new DrawingSet(set));
+        preset.getData().setLinkedPreset(preset);
         preset.userCreated = userCreated;
         return preset;
     }
@@ -23,7 +23,7 @@ public class PresetDrawingSetManager extends AbstractPresetManager<IDrawingSet,
 
     @Override
     public void updatePreset(DBTaskContext context, IDrawingSet target, GenericPreset<IDrawingSet> preset, boolean changesOnly) {
-        if(target != null && preset.data instanceof DrawingSet set){
+        if(target != null && preset.getData() instanceof DrawingSet set){
             set.pens.clear();
             set.colorHandler = null;
             set.colorSettings = null;
@@ -45,7 +45,7 @@ public class PresetDrawingSetManager extends AbstractPresetManager<IDrawingSet,
     public void applyPreset(DBTaskContext context, IDrawingSet target, GenericPreset<IDrawingSet> preset, boolean changesOnly) {
         //TODO REMOVE ME!
         if(target instanceof ObservableDrawingSet set){
-            set.loadDrawingSet(preset.data);
+            set.loadDrawingSet(preset.getData());
         }
     }
 
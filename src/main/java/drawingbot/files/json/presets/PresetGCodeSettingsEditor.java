@@ -61,7 +61,7 @@ public class PresetGCodeSettingsEditor extends DefaultPresetEditor<GCodeSettings
 
         EasyBind.subscribe(editingPresetProperty(), preset -> {
             if(preset != null){
-                GenericSetting.applySettings(preset.data.settings, editingSettings);
+                GenericSetting.applySettings(preset.getData().settings, editingSettings);
             }
         });
 
@@ -85,7 +85,7 @@ public class PresetGCodeSettingsEditor extends DefaultPresetEditor<GCodeSettings
     @Override
     public void updatePreset() {
         super.updatePreset();
-        getEditingPreset().data.settings = GenericSetting.toJsonMap(editingSettings, new HashMap<>(), false);
+        getEditingPreset().getData().settings = GenericSetting.toJsonMap(editingSettings, new HashMap<>(), false);
     }
 
 
@@ -27,8 +27,8 @@ public class PresetImageFiltersManager extends AbstractPresetManager<ImageFilter
     @Override
     public void updatePreset(DBTaskContext context, ImageFilterSettings target, GenericPreset<PresetImageFilters> preset, boolean changesOnly) {
         if(target != null){
-            preset.data.filters.clear();
-            target.currentFilters.get().forEach(preset.data::copyFilter);
+            preset.getData().filters.clear();
+            target.currentFilters.get().forEach(preset.getData()::copyFilter);
         }
     }
 
@@ -36,8 +36,8 @@ public class PresetImageFiltersManager extends AbstractPresetManager<ImageFilter
     public void applyPreset(DBTaskContext context, ImageFilterSettings target, GenericPreset<PresetImageFilters> preset, boolean changesOnly) {
         if(target != null) {
             target.currentFilters.get().clear();
-            for (int i = 0; i < preset.data.filters.size(); i++) {
-                PresetImageFilters.Filter filter = preset.data.filters.get(i);
+            for (int i = 0; i < preset.getData().filters.size(); i++) {
+                PresetImageFilters.Filter filter = preset.getData().filters.get(i);
                 GenericFactory<BufferedImageOp> factory = MasterRegistry.INSTANCE.getImageFilterFactory(filter.type);
                 if(factory != null){
                     ObservableImageFilter observableImageFilter = new ObservableImageFilter(filter.isEnabled, factory);
@@ -21,7 +21,7 @@ public class PresetPFMSettingsManager extends AbstractPresetManager<PFMSettings,
     public static String getPFMPresetJson(PFMFactory<?> pfmFactory, List<GenericSetting<?,?>> pfmSettings) {
         GenericPreset<PresetData> preset = Register.PRESET_LOADER_PFM.createNewPreset();
         preset.setPresetSubType(pfmFactory.getRegistryName());
-        preset.data.settings = GenericSetting.toJsonMap(pfmSettings, new HashMap<>(), false);
+        preset.getData().settings = GenericSetting.toJsonMap(pfmSettings, new HashMap<>(), false);
         return JsonLoaderManager.createDefaultGson().toJson(preset);
     }
 
@@ -36,7 +36,7 @@ public class PresetPFMSettingsManager extends AbstractPresetManager<PFMSettings,
             return;
         }
         preset.setPresetSubType(target.getPFMFactory().getRegistryName());
-        preset.data.settings = GenericSetting.toJsonMap(target.getSettings(), new HashMap<>(), false);
+        preset.getData().settings = GenericSetting.toJsonMap(target.getSettings(), new HashMap<>(), false);
     }
 
     @Override
@@ -45,7 +45,7 @@ public class PresetPFMSettingsManager extends AbstractPresetManager<PFMSettings,
             return;
         }
         target.setPFMFactory(MasterRegistry.INSTANCE.getPFMFactory(preset.getPresetSubType()));
-        GenericSetting.applySettings(preset.data.settings, target.getSettings());
+        GenericSetting.applySettings(preset.getData().settings, target.getSettings());
     }
 
     @Override
@@ -55,11 +55,11 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
     @Override
     public void updatePreset(DBTaskContext context, ObservableProject project, GenericPreset<PresetProjectSettings> preset, boolean changesOnly) {
         PlottedDrawing renderedDrawing = project.getCurrentDrawing();
-        preset.data.imagePath = project.openImage.get() != null && project.openImage.get().getSourceFile() != null ? project.openImage.get().getSourceFile().getPath() : "";
-        preset.data.timeStamp = LocalDateTime.now().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT, FormatStyle.MEDIUM));
-        preset.data.thumbnailID = renderedDrawing == null ? "" : UUID.randomUUID().toString();
+        preset.getData().imagePath = project.openImage.get() != null && project.openImage.get().getSourceFile() != null ? project.openImage.get().getSourceFile().getPath() : "";
+        preset.getData().timeStamp = LocalDateTime.now().format(DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT, FormatStyle.MEDIUM));
+        preset.getData().thumbnailID = renderedDrawing == null ? "" : UUID.randomUUID().toString();
 
-        if(preset.data instanceof PresetProjectSettingsLegacy){
+        if(preset.getData() instanceof PresetProjectSettingsLegacy){
             PresetProjectSettingsManagerLegacy.updatePreset(project, preset);
         }else{
             Gson gson = JsonLoaderManager.createDefaultGson();
@@ -75,7 +75,7 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
         if(renderedDrawing != null){
             //run the thumbnail generation task
-            File saveLocation = new File(FileUtils.getUserThumbnailDirectory() + preset.data.thumbnailID + ".jpg");
+            File saveLocation = new File(FileUtils.getUserThumbnailDirectory() + preset.getData().thumbnailID + ".jpg");
             ExportTask task = new ExportTask(project.context, Register.EXPORT_IMAGE, ExportTask.Mode.PER_DRAWING, renderedDrawing, project.getExportGeometryFilter(), ".jpg", saveLocation, true, true, true);
             task.exportScale = 400 / renderedDrawing.canvas.getWidth(UnitsLength.PIXELS);
             DrawingBotV3.INSTANCE.startTask(DrawingBotV3.INSTANCE.backgroundService, task);
@@ -84,7 +84,7 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
     @Override
     public void applyPreset(DBTaskContext context, ObservableProject project, GenericPreset<PresetProjectSettings> preset, boolean changesOnly) {
-        if(preset.data instanceof PresetProjectSettingsLegacy){
+        if(preset.getData() instanceof PresetProjectSettingsLegacy){
             PresetProjectSettingsManagerLegacy.applyPreset(project, preset);
             return;
         }
@@ -121,14 +121,14 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
             @Override
             public void loadData(DBTaskContext context, UIGlobalState data, GenericPreset<PresetProjectSettings> preset) {
-                if(!preset.data.isSubProject){
+                if(!preset.getData().isSubProject){
                     FXHelper.loadUIStates(data.nodes);
                 }
             }
 
             @Override
             public void saveData(DBTaskContext context, UIGlobalState data, GenericPreset<PresetProjectSettings> preset) {
-                if(!preset.data.isSubProject) {
+                if(!preset.getData().isSubProject) {
                     FXHelper.saveUIStates(data.nodes);
                 }
             }
@@ -162,7 +162,7 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
             @Override
             public JsonElement saveData(DBTaskContext context, Gson gson, GenericPreset<PresetProjectSettings> preset) {
-                if(preset.data.isSubProject) { //no need to save sub versions
+                if(preset.getData().isSubProject) { //no need to save sub versions
                     return new JsonObject();
                 }
                 return gson.toJsonTree(context.project().getVersionControl(), VersionControl.class);
@@ -170,7 +170,7 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
             @Override
             public void loadData(DBTaskContext context, Gson gson, JsonElement element, GenericPreset<PresetProjectSettings> preset) {
-                if(preset.data.isSubProject) { //no need to save sub versions
+                if(preset.getData().isSubProject) { //no need to save sub versions
                     return;
                 }
                 context.project().setVersionControl(gson.fromJson(element, VersionControl.class));
@@ -201,14 +201,14 @@ public class PresetProjectSettingsManager extends AbstractPresetManager<Observab
 
             @Override
             public void loadData(DBTaskContext context, ImageCropping data, GenericPreset<PresetProjectSettings> preset) {
-                if(!preset.data.imagePath.isEmpty()) {
-                    AbstractFileLoader loadingTask = DrawingBotV3.INSTANCE.getImageLoaderTask(context, new File(preset.data.imagePath), EnumSet.of(FileLoaderFlags.PROJECT_LOADING));
+                if(!preset.getData().imagePath.isEmpty()) {
+                    AbstractFileLoader loadingTask = DrawingBotV3.INSTANCE.getImageLoaderTask(context, new File(preset.getData().imagePath), EnumSet.of(FileLoaderFlags.PROJECT_LOADING));
                     loadingTask.stateProperty().addListener((observable, oldValue, newValue) -> {
                         if (newValue == Worker.State.FAILED) {
                             File initialDirectory = null;
 
                             // 1) Use the image files original directory
-                            File parent = new File(preset.data.imagePath).getParentFile();
+                            File parent = new File(preset.getData().imagePath).getParentFile();
                             if(parent.exists()){
                                 initialDirectory = parent;
                             }
@@ -33,7 +33,7 @@ class PresetProjectSettingsManagerLegacy {
 
     public static GenericPreset<PresetProjectSettings> updatePreset(ObservableProject project, GenericPreset<PresetProjectSettings> preset) {
 
-        PresetProjectSettingsLegacy presetData = (PresetProjectSettingsLegacy) preset.data;
+        PresetProjectSettingsLegacy presetData = (PresetProjectSettingsLegacy) preset.getData();
 
         PlottedDrawing renderedDrawing = project.getCurrentDrawing();
         presetData.imagePath = project.openImage.get() != null && project.openImage.get().getSourceFile() != null ? project.openImage.get().getSourceFile().getPath() : "";
@@ -70,8 +70,8 @@ class PresetProjectSettingsManagerLegacy {
         presetData.projectVersions = new ArrayList<>();
 
         for(ObservableVersion projectVersion : project.getVersionControl().getProjectVersions()){
-            if(projectVersion.getPreset().data instanceof PresetProjectSettingsLegacy){
-                presetData.projectVersions.add((PresetProjectSettingsLegacy)projectVersion.getPreset().data);
+            if(projectVersion.getPreset().getData() instanceof PresetProjectSettingsLegacy){
+                presetData.projectVersions.add((PresetProjectSettingsLegacy)projectVersion.getPreset().getData());
             }
         }
 
@@ -86,7 +86,7 @@ class PresetProjectSettingsManagerLegacy {
     }
 
     public static void applyPreset(ObservableProject project, GenericPreset<PresetProjectSettings> preset) {
-        PresetProjectSettingsLegacy presetData = (PresetProjectSettingsLegacy) preset.data;
+        PresetProjectSettingsLegacy presetData = (PresetProjectSettingsLegacy) preset.getData();
 
         Register.PRESET_MANAGER_DRAWING_AREA.applyPreset(project.context, project.getDrawingArea(), presetData.drawingArea, false);
         Register.PRESET_MANAGER_FILTERS.applyPreset(project.context, project.getImageSettings(), presetData.imageFilters, false);
@@ -112,7 +112,7 @@ class PresetProjectSettingsManagerLegacy {
 
          */
 
-        project.getDrawingSets().getDrawingSetForSlot(0).loadDrawingSet(presetData.drawingSet.data);
+        project.getDrawingSets().getDrawingSetForSlot(0).loadDrawingSet(presetData.drawingSet.getData());
         project.getDrawingSets().getDrawingSetForSlot(0).colorHandler.set(presetData.colourSplitter);
         project.getDrawingSets().getDrawingSetForSlot(0).colorHandler.get().applySettings(project.context, project.getDrawingSets().getActiveDrawingSet());
         project.getDrawingSets().getDrawingSetForSlot(0).distributionType.set(presetData.distributionType);
@@ -133,7 +133,7 @@ class PresetProjectSettingsManagerLegacy {
                 for(PresetProjectSettingsLegacy projectVersion : presetData.projectVersions){
                     GenericPreset<PresetProjectSettings> newPreset = Register.PRESET_LOADER_PROJECT.createNewPreset();
                     newPreset.version = "1";
-                    newPreset.data = projectVersion;
+                    newPreset.setData(projectVersion);
                     project.getVersionControl().getProjectVersions().add(new ObservableVersion(newPreset, true));
                 }
             }
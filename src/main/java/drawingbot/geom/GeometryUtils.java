@@ -3,6 +3,7 @@ package drawingbot.geom;
 import drawingbot.DrawingBotV3;
 import drawingbot.api.IGeometryFilter;
 import drawingbot.api.IProgressCallback;
+import drawingbot.files.ExportOptimisationCache;
 import drawingbot.files.ExportTask;
 import drawingbot.geom.operation.AbstractGeometryOperation;
 import drawingbot.geom.operation.GeometryOperationOptimize;
@@ -15,6 +16,7 @@ import drawingbot.plotting.PlottedDrawing;
 import drawingbot.plotting.canvas.CanvasUtils;
 import drawingbot.registry.MasterRegistry;
 import drawingbot.utils.Utils;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import org.locationtech.jts.awt.ShapeReader;
 import org.locationtech.jts.awt.ShapeWriter;
 import org.locationtech.jts.geom.*;
@@ -33,6 +35,14 @@ public class GeometryUtils {
     public static GeometryFactory factory = new GeometryFactory(new PrecisionModel(1000));
 
     public static PlottedDrawing getOptimisedPlottedDrawing(ExportTask task, IGeometryFilter filter, boolean forceBypassOptimisation){
+        //only cache drawings which will be fully optimised, the simplify operation alone is cheaper than hashing the drawing
+        if(DBPreferences.INSTANCE.exportOptimisationCache.get() && task.exportHandler.isVector && !forceBypassOptimisation && DBPreferences.INSTANCE.pathOptimisationEnabled.get()){
+            return ExportOptimisationCache.INSTANCE.getOptimisedDrawing(task, filter, forceBypassOptimisation, () -> createOptimisedPlottedDrawing(task, filter, forceBypassOptimisation));
+        }
+        return createOptimisedPlottedDrawing(task, filter, forceBypassOptimisation);
+    }
+
+    public static PlottedDrawing createOptimisedPlottedDrawing(ExportTask task, IGeometryFilter filter, boolean forceBypassOptimisation){
 
         IProgressCallback progressCallback = new IProgressCallback() {
             @Override
@@ -63,7 +73,16 @@ public class GeometryUtils {
                 plottedDrawing = newDrawing;
             }
             operation.progressCallback = progressCallback;
+            FlightRecorderEvents.GeometryOperationEvent event = new FlightRecorderEvents.GeometryOperationEvent();
+            event.begin();
+            int inputGeometries = plottedDrawing.getGeometryCount();
             plottedDrawing = operation.run(plottedDrawing);
+            if(event.shouldCommit()){
+                event.operation = operation.getClass().getSimpleName();
+                event.inputGeometries = inputGeometries;
+                event.outputGeometries = plottedDrawing.getGeometryCount();
+                event.commit();
+            }
             i++;
         }
 
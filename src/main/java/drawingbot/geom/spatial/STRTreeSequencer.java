@@ -3,6 +3,7 @@ package drawingbot.geom.spatial;
 import drawingbot.DrawingBotV3;
 import drawingbot.api.IProgressCallback;
 import drawingbot.utils.LazyTimer;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.index.strtree.ItemDistance;
@@ -36,6 +37,8 @@ public abstract class STRTreeSequencer<T> {
     }
 
     public void build() {
+        FlightRecorderEvents.STRTreeBuildEvent event = new FlightRecorderEvents.STRTreeBuildEvent();
+        event.begin();
         this.tree = new STRtree();
         this.nodes = new ArrayList<>();
 
@@ -55,16 +58,24 @@ public abstract class STRTreeSequencer<T> {
         this.tree.build();
         buildTimer.finish();
         DrawingBotV3.logger.info("Build: " + buildTimer.getElapsedTimeFormatted());
+        event.nodes = nodes.size();
+        event.rebuild = false;
+        event.commit();
     }
 
     public void rebuild(){
+        FlightRecorderEvents.STRTreeBuildEvent event = new FlightRecorderEvents.STRTreeBuildEvent();
+        event.begin();
         this.tree = new STRtree();
         for(STRNode<T> node : nodes){
             if(!sorted[node.index]){
                 tree.insert(node.envelope, node);
+                event.nodes++;
             }
         }
         this.tree.build();
+        event.rebuild = true;
+        event.commit();
     }
 
     public void sequence(BiConsumer<STRNode<T>, STRNode<T>> consumer){
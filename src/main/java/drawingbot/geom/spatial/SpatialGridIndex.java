@@ -0,0 +1,140 @@
+package drawingbot.geom.spatial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A uniform grid spatial index, items are inserted with their bounding box and are added to every cell they overlap.
+ * Unlike the {@link org.locationtech.jts.index.strtree.STRtree} the grid can be extended incrementally and queries return items in the order they were inserted, which allows it to be used to preserve render order.
+ * Items which fall outside the grid's bounds are clamped into the outer cells.
+ */
+public class SpatialGridIndex<T> {
+
+    public final double originX;
+    public final double originY;
+    public final double cellWidth;
+    public final double cellHeight;
+    public final int columns;
+    public final int rows;
+
+    private final List<GridEntry<T>>[] cells;
+    private int size = 0;
+
+    public SpatialGridIndex(double originX, double originY, double width, double height, double cellWidth, double cellHeight){
+        this.originX = originX;
+        this.originY = originY;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellWidth));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellHeight));
+        this.cells = createCells(columns * rows);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> List<GridEntry<T>>[] createCells(int length){
+        return new List[length];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public void clear(){
+        for(int i = 0; i < cells.length; i++){
+            cells[i] = null;
+        }
+        size = 0;
+    }
+
+    public int getColumn(double x){
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((x - originX) / cellWidth)));
+    }
+
+    public int getRow(double y){
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - originY) / cellHeight)));
+    }
+
+    public void insert(T item, double minX, double minY, double maxX, double maxY){
+        GridEntry<T> entry = new GridEntry<>(size, item);
+        int minCol = getColumn(minX), maxCol = getColumn(maxX);
+        int minRow = getRow(minY), maxRow = getRow(maxY);
+        for(int row = minRow; row <= maxRow; row++){
+            for(int col = minCol; col <= maxCol; col++){
+                int index = row * columns + col;
+                if(cells[index] == null){
+                    cells[index] = new ArrayList<>();
+                }
+                cells[index].add(entry);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * @return the items in the given cell, in insertion order
+     */
+    public List<T> getCell(int column, int row){
+        List<GridEntry<T>> cell = cells[row * columns + column];
+        if(cell == null){
+            return List.of();
+        }
+        List<T> items = new ArrayList<>(cell.size());
+        cell.forEach(entry -> items.add(entry.item));
+        return items;
+    }
+
+    /**
+     * Passes every item whose cell overlaps the given bounds to the consumer, each item will only be passed once and in insertion order
+     * The result is conservative, items which only share a cell with the bounds will also be returned
+     */
+    public void query(double minX, double minY, double maxX, double maxY, Consumer<T> consumer){
+        int minCol = getColumn(minX), maxCol = getColumn(maxX);
+        int minRow = getRow(minY), maxRow = getRow(maxY);
+
+        if(minCol == maxCol && minRow == maxRow){
+            List<GridEntry<T>> cell = cells[minRow * columns + minCol];
+            if(cell != null){
+                cell.forEach(entry -> consumer.accept(entry.item));
+            }
+            return;
+        }
+
+        List<GridEntry<T>> matches = new ArrayList<>();
+        for(int row = minRow; row <= maxRow; row++){
+            for(int col = minCol; col <= maxCol; col++){
+                List<GridEntry<T>> cell = cells[row * columns + col];
+                if(cell != null){
+                    matches.addAll(cell);
+                }
+            }
+        }
+        matches.sort((e1, e2) -> Integer.compare(e1.sequence, e2.sequence));
+
+        int lastSequence = -1;
+        for(GridEntry<T> entry : matches){
+            if(entry.sequence != lastSequence){
+                consumer.accept(entry.item);
+                lastSequence = entry.sequence;
+            }
+        }
+    }
+
+    public List<T> query(double minX, double minY, double maxX, double maxY){
+        List<T> items = new ArrayList<>();
+        query(minX, minY, maxX, maxY, items::add);
+        return items;
+    }
+
+    private static class GridEntry<T> {
+
+        public final int sequence;
+        public final T item;
+
+        public GridEntry(int sequence, T item) {
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package drawingbot.image;
+
+import drawingbot.javafx.GenericFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImageOp;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A factory for an image filter, which also records if the filter can be split into tiles and filtered in parallel, see {@link ParallelImageFilter}
+ */
+public class ImageFilterFactory<I extends BufferedImageOp> extends GenericFactory<I> {
+
+    /**
+     * Returns the number of pixels around each tile the filter needs to read to produce the same result as filtering the whole image, or null if the filter can't be tiled
+     */
+    @Nullable
+    private final ToIntFunction<I> tileHalo;
+
+    public ImageFilterFactory(Class<I> clazz, String name, Supplier<I> create, boolean isHidden, @Nullable ToIntFunction<I> tileHalo) {
+        super(clazz, name, create, isHidden);
+        this.tileHalo = tileHalo;
+    }
+
+    /**
+     * @return false if the filter's output depends on the whole image, e.g. histograms, randomness, or effects positioned relative to the image size
+     */
+    public boolean isTileable(){
+        return tileHalo != null;
+    }
+
+    /**
+     * @param filter an instance of this factory's filter, with its settings applied
+     * @return the halo required around each tile, or -1 if the filter can't be tiled
+     */
+    public int getTileHalo(BufferedImageOp filter){
+        return tileHalo == null ? -1 : tileHalo.applyAsInt(getInstanceClass().cast(filter));
+    }
+}
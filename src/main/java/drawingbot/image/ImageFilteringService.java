@@ -1,27 +1,46 @@
 package drawingbot.image;
 
+import drawingbot.DrawingBotV3;
 import drawingbot.api.ICanvas;
 import drawingbot.api.IProgressCallback;
 import drawingbot.image.format.ImageData;
+import drawingbot.javafx.GenericSetting;
 import drawingbot.javafx.observables.ObservableImageFilter;
 import drawingbot.plotting.canvas.ObservableCanvas;
 import drawingbot.plotting.canvas.SimpleCanvas;
 import drawingbot.registry.MasterRegistry;
 import drawingbot.utils.flags.FlagStates;
 import drawingbot.utils.flags.Flags;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.*;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
+import org.imgscalr.Scalr;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.image.BufferedImage;
-import java.awt.image.BufferedImageOp;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 public class ImageFilteringService implements ImageFilterSettings.Listener, ObservableCanvas.Listener {
 
+    /**
+     * How long the settings must be unchanged before the full resolution pass runs, while a proxy size is set
+     */
+    public static int proxySettleTime = 300;
+
+    /**
+     * The latest full resolution result and the fingerprint of the settings it was filtered with, so plotting tasks with identical settings can skip the filters, see {@link #getCachedFilteredImage(List)}
+     */
+    private static final Object resultCacheLock = new Object();
+    private static List<Object> cachedFingerprint = null;
+    private static BufferedImage cachedResult = null;
+
     /**
      * Flags for the state of the cache, these are the valid flags: <br>
      * {@link Flags#FORCE_REDRAW}} <br>
@@ -32,11 +51,20 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
      * {@link Flags#IMAGE_FILTERS_FULL_UPDATE}
      */
     private final FlagStates liveState = new FlagStates(Flags.RENDER_CATEGORY);
-    private final FlagStates runningState = new FlagStates(Flags.RENDER_CATEGORY);
-    private final Map<ObservableImageFilter, ImageStateCache> filterCache = new LinkedHashMap<>();
     private final InvalidationListener croppingListener;
 
-    private transient BufferedImage cropped;
+    /**
+     * The full resolution pass, and the preview pass which filters a downscaled proxy of the cropped image while the settings are changing
+     */
+    private final FilterPass fullPass = new FilterPass(false);
+    private final FilterPass proxyPass = new FilterPass(true);
+    private FilterPass nextPass = fullPass;
+    private boolean fullPassPending = false;
+    private long lastChangeTime = 0;
+
+    private volatile boolean resultUnchanged = false;
+    private FilterPass lastResultPass = null;
+    private volatile double filteredImageScale = 1;
 
     public ImageFilteringService(){
         targetCanvasProperty().addListener((observable, oldValue, newValue) -> {
@@ -92,41 +120,98 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
             return;
         }
         if(liveState.anyMatch(Flags.FORCE_REDRAW, Flags.OPEN_IMAGE_UPDATED, Flags.CROPPING_CHANGED, Flags.CANVAS_CHANGED, Flags.IMAGE_FILTERS_PARTIAL_UPDATE, Flags.IMAGE_FILTERS_FULL_UPDATE)){
-            runningState.loadState(liveState);
-            getImageFilteringService().restart();
+            boolean updateSource = liveState.anyMatch(Flags.FORCE_REDRAW, Flags.OPEN_IMAGE_UPDATED, Flags.CROPPING_CHANGED, Flags.CANVAS_CHANGED);
+            boolean updateFilters = liveState.anyMatch(Flags.IMAGE_FILTERS_FULL_UPDATE);
+            fullPass.markChanged(updateSource, updateFilters);
+            proxyPass.markChanged(updateSource, updateFilters);
             liveState.clear();
+
+            lastChangeTime = System.currentTimeMillis();
+            if(getProxySize() > 0){
+                //filter the proxy while the settings are changing, restarting the service cancels any obsolete pass
+                fullPassPending = true;
+                startPass(proxyPass);
+            }else{
+                fullPassPending = false;
+                startPass(fullPass);
+            }
+        }else if(fullPassPending && !getImageFilteringService().isRunning() && System.currentTimeMillis() - lastChangeTime >= proxySettleTime){
+            fullPassPending = false;
+            startPass(fullPass);
         }
     }
 
-    private BufferedImage doUpdate(ICanvas targetCanvas, IProgressCallback callback){
-        boolean updateDownstream = runningState.anyMatch(Flags.FORCE_REDRAW);
+    private void startPass(FilterPass pass){
+        nextPass = pass;
+        getImageFilteringService().restart();
+    }
 
-        if(runningState.anyMatch(Flags.OPEN_IMAGE_UPDATED)){
-            updateDownstream = true;
+    /**
+     * @param cancelled checked between each filter, if the pass is cancelled the filters which haven't been updated are left dirty for the next pass
+     * @return the filtered image, or null if the pass was cancelled
+     */
+    private BufferedImage doUpdate(FilterPass pass, ICanvas targetCanvas, IProgressCallback callback, BooleanSupplier cancelled){
+        List<Object> fingerprint = null;
+        if(!pass.proxy){
+            //the cached images are about to be overwritten
+            synchronized (resultCacheLock){
+                cachedFingerprint = null;
+                cachedResult = null;
+            }
+            fingerprint = createFingerprint(getImageData(), targetCanvas, getImageSettings().currentFilters.get());
         }
 
-        if(updateDownstream || cropped == null || runningState.anyMatch(Flags.CROPPING_CHANGED, Flags.CANVAS_CHANGED)){
-            cropped = getImageData().createCroppedImage(targetCanvas);
-            updateDownstream = true;
+        boolean updateSource, updateDownstream;
+        synchronized (pass){
+            updateSource = pass.updateSource;
+            updateDownstream = pass.updateFilters;
+            pass.updateSource = false;
+            pass.updateFilters = false;
         }
 
-        if(!updateDownstream && runningState.anyMatch(Flags.IMAGE_FILTERS_FULL_UPDATE)){
+        if(updateSource || pass.cropped == null){
+            BufferedImage cropped = getImageData().createCroppedImage(targetCanvas);
+            pass.scale = 1;
+            if(pass.proxy){
+                int proxySize = getProxySize();
+                int maxDimension = Math.max(cropped.getWidth(), cropped.getHeight());
+                if(proxySize > 0 && maxDimension > proxySize){
+                    pass.scale = (double) proxySize / maxDimension;
+                    cropped = Scalr.resize(cropped, Scalr.Method.SPEED, Scalr.Mode.FIT_EXACT, Math.max(1, (int) (cropped.getWidth() * pass.scale)), Math.max(1, (int) (cropped.getHeight() * pass.scale)));
+                }
+            }
+            pass.cropped = cropped;
             updateDownstream = true;
         }
 
-        BufferedImage filteredImage = cropped;
+        BufferedImage filteredImage = pass.cropped;
+        List<ObservableImageFilter> filters = getImageSettings().currentFilters.get();
         int filterCount = 0;
-        for(ObservableImageFilter filter : getImageSettings().currentFilters.get()){
-            ImageStateCache stateCache = this.filterCache.get(filter);
+        for(ObservableImageFilter filter : filters){
+            if(cancelled.getAsBoolean()){
+                if(updateDownstream){
+                    //the remaining filters are downstream of a filter which changed
+                    filters.subList(filterCount, filters.size()).forEach(remaining -> pass.filterCache.get(remaining).markDirty());
+                }
+                return null;
+            }
+            ImageStateCache stateCache = pass.filterCache.get(filter);
             if(filter.enable.get()){
                 if(updateDownstream || stateCache.isDirty || stateCache.bufferedImage == null){
 
-                    BufferedImageOp imageOp = filter.getBufferedImageOp();
-
+                    FlightRecorderEvents.ImageFilterEvent event = new FlightRecorderEvents.ImageFilterEvent();
+                    event.begin();
                     if(stateCache.bufferedImage != null && isCachedImageCompatible(filteredImage, stateCache.bufferedImage)){
-                        filteredImage = imageOp.filter(filteredImage, stateCache.bufferedImage);
+                        filteredImage = filter.filter(filteredImage, stateCache.bufferedImage);
                     }else{
-                        filteredImage = imageOp.filter(filteredImage, null);
+                        filteredImage = filter.filter(filteredImage, null);
+                    }
+                    if(event.shouldCommit()){
+                        event.filter = filter.name.getValue();
+                        event.width = filteredImage.getWidth();
+                        event.height = filteredImage.getHeight();
+                        event.proxy = pass.proxy;
+                        event.commit();
                     }
 
                     updateDownstream = true; //one of the filters has changed, so all the ones after this need to be updated
@@ -147,12 +232,91 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
         }
 
         callback.updateProgress(1, 1);
+        filteredImageScale = pass.scale;
+        //every filter can change the whole image, so the result only matches the last result if no filter had to be run again
+        resultUnchanged = !updateDownstream && lastResultPass == pass;
+        lastResultPass = pass;
+
+        //only cache the result if the settings didn't change while the filters were running
+        if(fingerprint != null && fingerprint.equals(createFingerprint(getImageData(), targetCanvas, filters))){
+            synchronized (resultCacheLock){
+                cachedFingerprint = fingerprint;
+                cachedResult = filteredImage;
+            }
+        }
         return filteredImage;
     }
 
+    /**
+     * Creates a fingerprint of everything which affects the filtered image: the source image, the cropping, the image's target canvas and the settings of each enabled filter
+     */
+    public static List<Object> createFingerprint(ImageData imageData, ICanvas targetCanvas, List<ObservableImageFilter> filters){
+        List<Object> fingerprint = new ArrayList<>();
+        fingerprint.add(imageData.getSourceImage());
+        fingerprint.add(imageData.getCrop());
+        fingerprint.add(imageData.getImageCropping().getImageRotation());
+        fingerprint.add(imageData.getImageCropping().shouldFlipHorizontal());
+        fingerprint.add(imageData.getImageCropping().shouldFlipVertical());
+
+        ICanvas canvas = imageData.createImageTargetCanvas(targetCanvas);
+        fingerprint.add(canvas.getUnits());
+        fingerprint.add(canvas.getCroppingMode());
+        fingerprint.add(canvas.getClippingMode());
+        fingerprint.add(canvas.getRescaleMode());
+        fingerprint.add(canvas.useOriginalSizing());
+        fingerprint.add(canvas.getPlottingScale());
+        fingerprint.add(canvas.getWidth());
+        fingerprint.add(canvas.getHeight());
+        fingerprint.add(canvas.getDrawingWidth());
+        fingerprint.add(canvas.getDrawingHeight());
+        fingerprint.add(canvas.getDrawingOffsetX());
+        fingerprint.add(canvas.getDrawingOffsetY());
+        fingerprint.add(canvas.getCanvasScale());
+
+        for(ObservableImageFilter filter : filters){
+            if(filter.enable.get()){
+                fingerprint.add(filter.filterFactory);
+                for(GenericSetting<?, ?> setting : filter.filterSettings){
+                    fingerprint.add(setting.getKey());
+                    fingerprint.add(setting.getValue());
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @param fingerprint see {@link #createFingerprint(ImageData, ICanvas, List)}
+     * @return a copy of the latest full resolution filtered image if it was filtered with identical settings, otherwise null
+     */
+    @Nullable
+    public static BufferedImage getCachedFilteredImage(List<Object> fingerprint){
+        synchronized (resultCacheLock){
+            if(cachedResult != null && fingerprint.equals(cachedFingerprint)){
+                //the service will filter into the same image again, so the result must be copied
+                return ImageTools.deepCopy(cachedResult);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the last update reused every cached filter result, so the filtered image is identical to the previous result
+     */
+    public boolean isResultUnchanged(){
+        return resultUnchanged;
+    }
+
+    /**
+     * @return the scale of the filtered image relative to the full resolution image, less than 1 if the filtered image is a preview of a downscaled proxy
+     */
+    public double getFilteredImageScale(){
+        return filteredImageScale;
+    }
+
     public void dispose(){
-        filterCache.values().forEach(ImageStateCache::destroy);
-        filterCache.clear();
+        fullPass.dispose();
+        proxyPass.dispose();
     }
 
     ////////////////////////////////////////////////////////
@@ -161,19 +325,22 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
 
     @Override
     public void onImageFilterAdded(ObservableImageFilter filter) {
-        filterCache.put(filter, new ImageStateCache(filter));
+        fullPass.filterCache.put(filter, new ImageStateCache(filter));
+        proxyPass.filterCache.put(filter, new ImageStateCache(filter));
         liveState.setFlag(Flags.IMAGE_FILTERS_PARTIAL_UPDATE, true);
     }
 
     @Override
     public void onImageFilterRemoved(ObservableImageFilter filter) {
-        filterCache.remove(filter).destroy();
+        fullPass.filterCache.remove(filter).destroy();
+        proxyPass.filterCache.remove(filter).destroy();
         liveState.setFlag(Flags.IMAGE_FILTERS_FULL_UPDATE, true);
     }
 
     @Override
     public void onImageFilterPropertyChanged(ObservableImageFilter filter, Observable property) {
-        filterCache.get(filter).isDirty = true;
+        fullPass.filterCache.get(filter).isDirty = true;
+        proxyPass.filterCache.get(filter).isDirty = true;
         liveState.setFlag(Flags.IMAGE_FILTERS_PARTIAL_UPDATE, true);
     }
 
@@ -191,13 +358,42 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
     ////////////////////////////////////////////////////////
 
     private void markDirty(){
-        filterCache.values().forEach(ImageStateCache::markDirty);
+        fullPass.filterCache.values().forEach(ImageStateCache::markDirty);
+        proxyPass.filterCache.values().forEach(ImageStateCache::markDirty);
     }
 
     private boolean isCachedImageCompatible(BufferedImage src, BufferedImage dst){
         return src.getWidth() == dst.getWidth() && src.getHeight() == dst.getHeight() && src.getType() == dst.getType();
     }
 
+    private static class FilterPass {
+
+        public final boolean proxy;
+        public final Map<ObservableImageFilter, ImageStateCache> filterCache = new LinkedHashMap<>();
+        public BufferedImage cropped;
+        public double scale = 1;
+
+        /**
+         * Changes which haven't been applied by this pass yet
+         */
+        public boolean updateSource = true;
+        public boolean updateFilters = true;
+
+        public FilterPass(boolean proxy){
+            this.proxy = proxy;
+        }
+
+        public synchronized void markChanged(boolean updateSource, boolean updateFilters){
+            this.updateSource |= updateSource;
+            this.updateFilters |= updateFilters;
+        }
+
+        public void dispose(){
+            filterCache.values().forEach(ImageStateCache::destroy);
+            filterCache.clear();
+        }
+    }
+
     private static class ImageStateCache {
         public BufferedImage bufferedImage = null;
         public boolean isDirty;
@@ -218,6 +414,25 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
 
     ////////////////////////////////////////////////////////
 
+    /**
+     * The maximum width/height of the proxy image filtered while the settings are changing, or 0 to always filter at full resolution
+     */
+    private final IntegerProperty proxySize = new SimpleIntegerProperty(0);
+
+    public int getProxySize() {
+        return proxySize.get();
+    }
+
+    public IntegerProperty proxySizeProperty() {
+        return proxySize;
+    }
+
+    public void setProxySize(int proxySize) {
+        this.proxySize.set(proxySize);
+    }
+
+    ////////////////////////////////////////////////////////
+
     private final BooleanProperty enabled = new SimpleBooleanProperty(false);
 
     public boolean isEnabled() {
@@ -321,16 +536,20 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
             imageFilteringService = new Service<>() {
                 @Override
                 protected Task<BufferedImage> createTask() {
+                    FilterPass pass = nextPass;
                     return new Task<>() {
                         @Override
                         protected BufferedImage call() {
-                            setFilteredImage(null);
-                            setFilteredCanvas(null);
                             if(getImageData() == null){
+                                setFilteredImage(null);
+                                setFilteredCanvas(null);
                                 return null;
                             }
                             SimpleCanvas canvas = new SimpleCanvas(getTargetCanvas());
-                            BufferedImage result = doUpdate(canvas, IProgressCallback.NULL);
+                            BufferedImage result = doUpdate(pass, canvas, IProgressCallback.NULL, this::isCancelled);
+                            if(result == null){
+                                return null;
+                            }
                             setFilteredCanvas(getImageData().createImageTargetCanvas(canvas));
                             setFilteredImage(result);
                             return result;
@@ -338,6 +557,8 @@ public class ImageFilteringService implements ImageFilterSettings.Listener, Obse
                     };
                 }
             };
+            //passes run one at a time, so a cancelled pass has stopped before the next pass uses the caches
+            imageFilteringService.setExecutor(DrawingBotV3.INSTANCE.imageFilteringService);
         }
         return imageFilteringService;
     }
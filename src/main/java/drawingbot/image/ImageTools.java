@@ -30,9 +30,7 @@ public class ImageTools {
         for(ObservableImageFilter filter : settings.currentFilters.get()){
             if(filter.enable.get()){
                 if(forceUpdate || filter.dirty.get()){
-                    BufferedImageOp imageOp = filter.filterFactory.instance();
-                    filter.filterSettings.forEach(setting -> setting.applySetting(imageOp));
-                    image = imageOp.filter(image, null);
+                    image = filter.filter(image, null);
                     filter.dirty.set(false);
                     filter.cached.set(image);
                     forceUpdate = true; //one of the filters has changed, so all the ones after this need to be updated to
@@ -66,19 +64,77 @@ public class ImageTools {
 
     //// BUFFERED IMAGE FILTERS
 
-    public static BufferedImage lazyConvolutionFilter(BufferedImage image, float[][] matrix){
-        return lazyConvolutionFilter(image, matrix, 1, false);
-    }
+    /**
+     * Convolves the image with the column vector and then the row vector, equivalent to a {@link ConvolveOp} of their product with {@link ConvolveOp#EDGE_NO_OP}, see {@link MatrixTools#separateMatrix(float[][])}
+     * Like the {@link ConvolveOp} the raster's own samples are convolved, so premultiplied images stay premultiplied, and the result has the same type as the source image, except for indexed images which become {@link BufferedImage#TYPE_INT_ARGB}.
+     * Pixels too close to the edge for the full kernel to fit are copied from the source image.
+     */
+    public static BufferedImage separableConvolutionFilter(BufferedImage image, float[] column, float[] row){
+        if(image.getColorModel() instanceof IndexColorModel){
+            image = BufferedImageLoader.convertToARGB(image);
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int originX = (row.length - 1) / 2;
+        int originY = (column.length - 1) / 2;
+
+        BufferedImage dst;
+        if(image.getType() != BufferedImage.TYPE_CUSTOM){
+            dst = new BufferedImage(width, height, image.getType());
+        }else{
+            ColorModel colorModel = image.getColorModel();
+            dst = new BufferedImage(colorModel, colorModel.createCompatibleWritableRaster(width, height), colorModel.isAlphaPremultiplied(), null);
+        }
+        image.copyData(dst.getRaster());
 
-    public static BufferedImage lazyConvolutionFilter(BufferedImage image, float[][] matrix, int scale, boolean normalize){
-        DrawingBotV3.logger.entering("ImageTools", "lazyConvolutionFilter: " + scale);
-        if(scale != 1){
-            matrix = MatrixTools.scaleMatrix(matrix, scale);
+        int minX = originX, maxX = width - (row.length - originX);
+        int minY = originY, maxY = height - (column.length - originY);
+        if(minX > maxX || minY > maxY){
+            return dst;
         }
-        if(normalize){
-            matrix = MatrixTools.normalizeMatrix(matrix);
+
+        Raster src = image.getRaster();
+        WritableRaster dstRaster = dst.getRaster();
+        int bands = src.getNumBands();
+        int[] maxSample = new int[bands];
+        for(int band = 0; band < bands; band++){
+            maxSample[band] = (1 << src.getSampleModel().getSampleSize(band)) - 1;
         }
-        return new ConvolveOp(MatrixTools.matrixToKernal(matrix), ConvolveOp.EDGE_NO_OP, null).filter(image, null);
+
+        //the horizontal pass is kept for the last rows the column covers, the samples are kept as floats between passes so the result isn't rounded twice
+        float[][] horizontal = new float[column.length][width * bands];
+        float[] pixels = new float[width * bands];
+        int[] result = new int[(maxX - minX + 1) * bands];
+        int nextRow = 0;
+        for(int y = minY; y <= maxY; y++){
+            int lastRow = y + originY;
+            for(; nextRow <= lastRow; nextRow++){
+                float[] rowBuffer = horizontal[nextRow % column.length];
+                src.getPixels(0, nextRow, width, 1, pixels);
+                for(int x = minX; x <= maxX; x++){
+                    int offset = (x + originX) * bands;
+                    for(int band = 0; band < bands; band++){
+                        float sum = 0;
+                        for(int k = 0; k < row.length; k++){
+                            sum += row[k] * pixels[offset - k * bands + band];
+                        }
+                        rowBuffer[x * bands + band] = sum;
+                    }
+                }
+            }
+            for(int x = minX; x <= maxX; x++){
+                for(int band = 0; band < bands; band++){
+                    float sum = 0;
+                    int index = x * bands + band;
+                    for(int k = 0; k < column.length; k++){
+                        sum += column[k] * horizontal[(lastRow - k) % column.length][index];
+                    }
+                    result[(x - minX) * bands + band] = Math.min(maxSample[band], Math.max(0, (int) (sum + 0.5F)));
+                }
+            }
+            dstRaster.setPixels(minX, y, maxX - minX + 1, 1, result);
+        }
+        return dst;
     }
 
     /**a lazy/very fast way to filter an image,*/
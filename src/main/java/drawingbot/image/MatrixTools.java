@@ -25,6 +25,50 @@ public class MatrixTools {
         return new Kernel(width, height, kernalMatrix);
     }
 
+    /**
+     * Splits a matrix into a column vector and a row vector whose product is the original matrix, e.g. a gaussian or box kernel.
+     * Convolving with the column and then the row gives the same result as the full matrix at a cost of (n + m) per pixel instead of (n * m)
+     * @return {column, row} or null if the matrix can't be separated
+     */
+    public static float[][] separateMatrix(float[][] matrix) {
+        int n = matrix.length;      // rows
+        int m = matrix[0].length;   // columns
+
+        int pivotRow = 0, pivotColumn = 0;
+        float max = 0;
+        for (int i=0; i<n; i++) {
+            for (int j=0; j<m; j++) {
+                if(Math.abs(matrix[i][j]) > max){
+                    max = Math.abs(matrix[i][j]);
+                    pivotRow = i;
+                    pivotColumn = j;
+                }
+            }
+        }
+        if(max == 0){
+            return null;
+        }
+
+        float[] column = new float[n];
+        float[] row = new float[m];
+        for (int i=0; i<n; i++) {
+            column[i] = matrix[i][pivotColumn];
+        }
+        for (int j=0; j<m; j++) {
+            row[j] = matrix[pivotRow][j] / matrix[pivotRow][pivotColumn];
+        }
+
+        float tolerance = max * 1E-5F;
+        for (int i=0; i<n; i++) {
+            for (int j=0; j<m; j++) {
+                if(Math.abs(column[i] * row[j] - matrix[i][j]) > tolerance){
+                    return null;
+                }
+            }
+        }
+        return new float[][]{column, row};
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////////
     /**
      * Source:  https://en.wikipedia.org/wiki/Matrix_multiplication_algorithm
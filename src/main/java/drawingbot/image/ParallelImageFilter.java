@@ -0,0 +1,99 @@
+package drawingbot.image;
+
+import drawingbot.DrawingBotV3;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs point and local image filters in parallel by splitting the image into horizontal strips, each strip is filtered with its own instance of the filter.
+ * Each strip is filtered with a halo of the surrounding rows, which must cover the filter's radius, so the rows kept from each strip are identical to filtering the whole image.
+ */
+public class ParallelImageFilter {
+
+    /**
+     * Images smaller than this are filtered on the calling thread, as splitting them costs more than it saves
+     */
+    public static int minParallelPixels = 512 * 512;
+
+    /**
+     * The number of strips per thread, so threads which finish early can pick up more of the work
+     */
+    public static int stripsPerThread = 2;
+
+    /**
+     * @param filterFactory creates an instance of the filter with its settings applied, instances are created on the calling thread and never shared between threads
+     * @param halo the number of rows required above and below each strip, or -1 if the filter can't be tiled
+     * @param dst the destination image, if null or the wrong size a new destination will be created
+     * @return the filtered image
+     */
+    public static BufferedImage filter(Supplier<BufferedImageOp> filterFactory, int halo, BufferedImage src, @Nullable BufferedImage dst){
+        ExecutorService service = DrawingBotV3.INSTANCE == null ? null : DrawingBotV3.INSTANCE.parallelFilteringService;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int width = src.getWidth(), height = src.getHeight();
+
+        int strips = Math.min(threads * stripsPerThread, height / Math.max(1, halo * 2));
+        if(service == null || halo < 0 || threads == 1 || strips < 2 || (long) width * height < minParallelPixels){
+            return filterFactory.get().filter(src, dst);
+        }
+
+        return filterInStrips(filterFactory, halo, src, dst, strips, service);
+    }
+
+    /**
+     * Filters the image in the given number of strips, without checking if the image is large enough to be worth splitting
+     * @param service the executor to filter the strips on
+     * @return the filtered image
+     */
+    public static BufferedImage filterInStrips(Supplier<BufferedImageOp> filterFactory, int halo, BufferedImage src, @Nullable BufferedImage dst, int strips, ExecutorService service){
+        int width = src.getWidth(), height = src.getHeight();
+        BufferedImageOp filter = filterFactory.get();
+        if(dst == null || dst.getWidth() != width || dst.getHeight() != height){
+            dst = filter.createCompatibleDestImage(src, null);
+        }
+        BufferedImage result = dst;
+
+        int stripHeight = (height + strips - 1) / strips;
+        List<Future<?>> futures = new ArrayList<>();
+        for(int y = 0; y < height; y += stripHeight){
+            int minY = y, maxY = Math.min(height, y + stripHeight);
+            BufferedImageOp stripFilter = minY == 0 ? filter : filterFactory.get();
+            futures.add(service.submit(() -> filterStrip(stripFilter, halo, src, result, minY, maxY)));
+        }
+        try{
+            for(Future<?> future : futures){
+                future.get();
+            }
+        }catch (InterruptedException e){
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+        }catch (ExecutionException e){
+            throw new RuntimeException("Failed to filter image in parallel", e.getCause());
+        }
+        return result;
+    }
+
+    private static void filterStrip(BufferedImageOp filter, int halo, BufferedImage src, BufferedImage dst, int minY, int maxY){
+        int width = src.getWidth();
+        int haloMinY = Math.max(0, minY - halo);
+        int haloMaxY = Math.min(src.getHeight(), maxY + halo);
+
+        BufferedImage strip = filter.filter(src.getSubimage(0, haloMinY, width, haloMaxY - haloMinY), null);
+
+        //copy the rows without the halo into the destination, the strips never overlap so they can be written concurrently
+        int offsetY = minY - haloMinY;
+        if(strip.getType() == dst.getType() && strip.getType() != BufferedImage.TYPE_CUSTOM){
+            dst.getRaster().setDataElements(0, minY, width, maxY - minY, strip.getRaster().getDataElements(0, offsetY, width, maxY - minY, null));
+        }else{
+            int[] rgb = strip.getRGB(0, offsetY, width, maxY - minY, null, 0, width);
+            dst.setRGB(0, minY, width, maxY - minY, rgb, 0, width);
+        }
+    }
+}
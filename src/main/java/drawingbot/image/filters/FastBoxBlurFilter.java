@@ -0,0 +1,133 @@
+package drawingbot.image.filters;
+
+import com.jhlabs.image.AbstractBufferedImageOp;
+import com.jhlabs.image.ImageMath;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An alternative to jhlabs' BoxBlurFilter with the same settings, each pass sums the box from a prefix sum of the row so the cost per pixel doesn't depend on the radius.
+ */
+public class FastBoxBlurFilter extends AbstractBufferedImageOp {
+
+    private float hRadius;
+    private float vRadius;
+    private int iterations = 1;
+    private boolean premultiplyAlpha = true;
+
+    @Override
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+
+        if (dst == null){
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int[] inPixels = new int[width * height];
+        int[] outPixels = new int[width * height];
+        getRGB(src, 0, 0, width, height, inPixels);
+
+        if(premultiplyAlpha){
+            ImageMath.premultiply(inPixels, 0, inPixels.length);
+        }
+        for (int i = 0; i < iterations; i++){
+            blur(inPixels, outPixels, width, height, hRadius);
+            blur(outPixels, inPixels, height, width, vRadius);
+        }
+        if(premultiplyAlpha){
+            ImageMath.unpremultiply(inPixels, 0, inPixels.length);
+        }
+
+        setRGB(dst, 0, 0, width, height, inPixels);
+        return dst;
+    }
+
+    /**
+     * Blurs each row of the input with a box of the given radius and writes the result transposed, so calling it twice blurs in both directions.
+     * The edges are clamped, and a fractional radius gives the pixels either side of the box a partial weight.
+     */
+    public static void blur(int[] in, int[] out, int width, int height, float radius){
+        int r = (int) radius;
+        float fraction = radius - r;
+        float scale = 1F / (2 * radius + 1);
+        int pad = r + 1;
+        int extended = width + pad * 2;
+
+        int[] sumA = new int[extended + 1];
+        int[] sumR = new int[extended + 1];
+        int[] sumG = new int[extended + 1];
+        int[] sumB = new int[extended + 1];
+
+        for (int y = 0; y < height; y++){
+            int inIndex = y * width;
+            for (int i = 0; i < extended; i++){
+                int argb = in[inIndex + Math.min(width - 1, Math.max(0, i - pad))];
+                sumA[i + 1] = sumA[i] + ((argb >>> 24));
+                sumR[i + 1] = sumR[i] + ((argb >> 16) & 0xFF);
+                sumG[i + 1] = sumG[i] + ((argb >> 8) & 0xFF);
+                sumB[i + 1] = sumB[i] + (argb & 0xFF);
+            }
+
+            int outIndex = y;
+            for (int x = 0; x < width; x++){
+                //the box covers [x - r, x + r], the pixels either side are weighted by the fraction
+                int start = x - r + pad;
+                int end = x + r + pad + 1;
+                float a = sumA[end] - sumA[start];
+                float red = sumR[end] - sumR[start];
+                float green = sumG[end] - sumG[start];
+                float blue = sumB[end] - sumB[start];
+                if(fraction > 0){
+                    a += fraction * ((sumA[start] - sumA[start - 1]) + (sumA[end + 1] - sumA[end]));
+                    red += fraction * ((sumR[start] - sumR[start - 1]) + (sumR[end + 1] - sumR[end]));
+                    green += fraction * ((sumG[start] - sumG[start - 1]) + (sumG[end + 1] - sumG[end]));
+                    blue += fraction * ((sumB[start] - sumB[start - 1]) + (sumB[end + 1] - sumB[end]));
+                }
+                out[outIndex] = (toByte(a * scale) << 24) | (toByte(red * scale) << 16) | (toByte(green * scale) << 8) | toByte(blue * scale);
+                outIndex += height;
+            }
+        }
+    }
+
+    private static int toByte(float value){
+        return Math.min(255, Math.max(0, (int) (value + 0.5F)));
+    }
+
+    public void setHRadius(float hRadius) {
+        this.hRadius = hRadius;
+    }
+
+    public float getHRadius() {
+        return hRadius;
+    }
+
+    public void setVRadius(float vRadius) {
+        this.vRadius = vRadius;
+    }
+
+    public float getVRadius() {
+        return vRadius;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setPremultiplyAlpha(boolean premultiplyAlpha) {
+        this.premultiplyAlpha = premultiplyAlpha;
+    }
+
+    public boolean getPremultiplyAlpha() {
+        return premultiplyAlpha;
+    }
+
+    @Override
+    public String toString() {
+        return "Blur/Box Blur - Fast";
+    }
+}
@@ -0,0 +1,106 @@
+package drawingbot.image.filters;
+
+import com.jhlabs.image.AbstractBufferedImageOp;
+import com.jhlabs.image.ImageMath;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An alternative to jhlabs' GaussianFilter with the same settings, the gaussian is approximated by three successive box blurs, see {@link FastBoxBlurFilter}.
+ * The cost per pixel doesn't depend on the radius, where the full kernel convolution grows with the radius.
+ */
+public class FastGaussianFilter extends AbstractBufferedImageOp {
+
+    public static final int BOX_COUNT = 3;
+
+    protected float radius;
+    protected boolean premultiplyAlpha = true;
+
+    @Override
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+
+        if (dst == null){
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int[] pixels = new int[width * height];
+        getRGB(src, 0, 0, width, height, pixels);
+        setRGB(dst, 0, 0, width, height, blurPixels(pixels, width, height));
+        return dst;
+    }
+
+    /**
+     * @return the blurred pixels, the input array may be overwritten
+     */
+    protected int[] blurPixels(int[] pixels, int width, int height){
+        int[] temp = new int[pixels.length];
+        if(premultiplyAlpha){
+            ImageMath.premultiply(pixels, 0, pixels.length);
+        }
+        for(int boxRadius : getBoxRadii(radius)){
+            FastBoxBlurFilter.blur(pixels, temp, width, height, boxRadius);
+            FastBoxBlurFilter.blur(temp, pixels, height, width, boxRadius);
+        }
+        if(premultiplyAlpha){
+            ImageMath.unpremultiply(pixels, 0, pixels.length);
+        }
+        return pixels;
+    }
+
+    /**
+     * Finds the radii of the box blurs whose combined variance is closest to a gaussian with a standard deviation of a third of the radius, matching jhlabs' GaussianFilter
+     */
+    public static int[] getBoxRadii(float radius){
+        double sigma = radius / 3D;
+        int[] radii = new int[BOX_COUNT];
+        if(sigma <= 0){
+            return radii;
+        }
+        double idealWidth = Math.sqrt((12 * sigma * sigma / BOX_COUNT) + 1);
+        int lowerWidth = (int) Math.floor(idealWidth);
+        if(lowerWidth % 2 == 0){
+            lowerWidth--;
+        }
+        int upperWidth = lowerWidth + 2;
+        double idealCount = (12 * sigma * sigma - BOX_COUNT * lowerWidth * lowerWidth - 4 * BOX_COUNT * lowerWidth - 3 * BOX_COUNT) / (-4D * lowerWidth - 4);
+        int lowerCount = (int) Math.round(idealCount);
+        for(int i = 0; i < BOX_COUNT; i++){
+            radii[i] = ((i < lowerCount ? lowerWidth : upperWidth) - 1) / 2;
+        }
+        return radii;
+    }
+
+    /**
+     * @return the furthest distance a pixel can be blurred, the sum of the box radii
+     */
+    public int getKernelRadius(){
+        int total = 0;
+        for(int boxRadius : getBoxRadii(radius)){
+            total += boxRadius;
+        }
+        return total;
+    }
+
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public void setPremultiplyAlpha(boolean premultiplyAlpha) {
+        this.premultiplyAlpha = premultiplyAlpha;
+    }
+
+    public boolean getPremultiplyAlpha() {
+        return premultiplyAlpha;
+    }
+
+    @Override
+    public String toString() {
+        return "Blur/Gaussian Blur - Fast";
+    }
+}
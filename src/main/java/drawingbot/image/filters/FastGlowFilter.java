@@ -0,0 +1,57 @@
+package drawingbot.image.filters;
+
+import com.jhlabs.image.PixelUtils;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An alternative to jhlabs' GlowFilter with the same settings, using the box blur approximation of {@link FastGaussianFilter}
+ */
+public class FastGlowFilter extends FastGaussianFilter {
+
+    private float amount = 0.5F;
+
+    public FastGlowFilter(){
+        radius = 2;
+    }
+
+    @Override
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+
+        if (dst == null){
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int[] original = new int[width * height];
+        getRGB(src, 0, 0, width, height, original);
+        int[] blurred = blurPixels(original.clone(), width, height);
+
+        float a = 4 * amount;
+        for(int i = 0; i < original.length; i++){
+            int rgb1 = original[i];
+            int rgb2 = blurred[i];
+            int r = PixelUtils.clamp((int) (((rgb1 >> 16) & 0xFF) + a * ((rgb2 >> 16) & 0xFF)));
+            int g = PixelUtils.clamp((int) (((rgb1 >> 8) & 0xFF) + a * ((rgb2 >> 8) & 0xFF)));
+            int b = PixelUtils.clamp((int) ((rgb1 & 0xFF) + a * (rgb2 & 0xFF)));
+            blurred[i] = (rgb1 & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+
+        setRGB(dst, 0, 0, width, height, blurred);
+        return dst;
+    }
+
+    public void setAmount(float amount) {
+        this.amount = amount;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return "Blur/Glow - Fast";
+    }
+}
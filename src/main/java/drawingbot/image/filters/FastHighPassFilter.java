@@ -0,0 +1,44 @@
+package drawingbot.image.filters;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An alternative to jhlabs' HighPassFilter with the same settings, using the box blur approximation of {@link FastGaussianFilter}
+ */
+public class FastHighPassFilter extends FastGaussianFilter {
+
+    public FastHighPassFilter(){
+        radius = 10;
+    }
+
+    @Override
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+
+        if (dst == null){
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int[] original = new int[width * height];
+        getRGB(src, 0, 0, width, height, original);
+        int[] blurred = blurPixels(original.clone(), width, height);
+
+        for(int i = 0; i < original.length; i++){
+            int rgb1 = original[i];
+            int rgb2 = blurred[i];
+            int r = (((rgb1 >> 16) & 0xFF) + 255 - ((rgb2 >> 16) & 0xFF)) / 2;
+            int g = (((rgb1 >> 8) & 0xFF) + 255 - ((rgb2 >> 8) & 0xFF)) / 2;
+            int b = ((rgb1 & 0xFF) + 255 - (rgb2 & 0xFF)) / 2;
+            blurred[i] = (rgb1 & 0xFF000000) | (r << 16) | (g << 8) | b;
+        }
+
+        setRGB(dst, 0, 0, width, height, blurred);
+        return dst;
+    }
+
+    @Override
+    public String toString() {
+        return "Blur/High Pass - Fast";
+    }
+}
@@ -0,0 +1,70 @@
+package drawingbot.image.filters;
+
+import com.jhlabs.image.PixelUtils;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An alternative to jhlabs' UnsharpFilter with the same settings, using the box blur approximation of {@link FastGaussianFilter}
+ */
+public class FastUnsharpFilter extends FastGaussianFilter {
+
+    private float amount = 0.5F;
+    private int threshold = 1;
+
+    public FastUnsharpFilter(){
+        radius = 2;
+    }
+
+    @Override
+    public BufferedImage filter(BufferedImage src, BufferedImage dst) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+
+        if (dst == null){
+            dst = createCompatibleDestImage(src, null);
+        }
+
+        int[] original = new int[width * height];
+        getRGB(src, 0, 0, width, height, original);
+        int[] blurred = blurPixels(original.clone(), width, height);
+
+        float a = 4 * amount;
+        for(int i = 0; i < original.length; i++){
+            int rgb1 = original[i];
+            int rgb2 = blurred[i];
+            blurred[i] = (rgb1 & 0xFF000000) | (sharpen((rgb1 >> 16) & 0xFF, (rgb2 >> 16) & 0xFF, a) << 16) | (sharpen((rgb1 >> 8) & 0xFF, (rgb2 >> 8) & 0xFF, a) << 8) | sharpen(rgb1 & 0xFF, rgb2 & 0xFF, a);
+        }
+
+        setRGB(dst, 0, 0, width, height, blurred);
+        return dst;
+    }
+
+    private int sharpen(int original, int blurred, float a){
+        if(Math.abs(original - blurred) >= threshold){
+            return PixelUtils.clamp((int) ((a + 1) * (original - blurred) + blurred));
+        }
+        return original;
+    }
+
+    public void setAmount(float amount) {
+        this.amount = amount;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public String toString() {
+        return "Blur/Unsharp Mask - Fast";
+    }
+}
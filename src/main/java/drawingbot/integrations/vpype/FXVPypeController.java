@@ -17,6 +17,7 @@ public class FXVPypeController extends AbstractFXController {
     public ControlPresetSelector<VpypeSettings, PresetData> controlVpypePreset;
     public TextArea textAreaVPypeCommand = null;
     public CheckBox checkBoxBypassPathOptimisation = null;
+    public CheckBox checkBoxStreamInput = null;
     public TextField textBoxVPypeExecutablePath = null;
     public Button buttonAutoDetectPath = null;
     public Button buttonVPypeExecutablePath = null;
@@ -37,6 +38,7 @@ public class FXVPypeController extends AbstractFXController {
         labelWildcard.setText(VpypeHelper.OUTPUT_FILE_WILDCARD);
 
         checkBoxBypassPathOptimisation.selectedProperty().bindBidirectional(VpypePlugin.INSTANCE.vpypeSettings.vpypeBypassOptimisation);
+        checkBoxStreamInput.selectedProperty().bindBidirectional(VpypePlugin.INSTANCE.vpypeSettings.vpypeStreamInput);
 
         textBoxVPypeExecutablePath.textProperty().bindBidirectional(VpypePlugin.INSTANCE.vpypeSettings.vpypeExecutable);
         buttonAutoDetectPath.setOnAction(e -> VpypeHelper.autoDetectVpype(VpypePlugin.INSTANCE.vpypeSettings));
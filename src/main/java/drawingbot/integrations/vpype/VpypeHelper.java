@@ -6,23 +6,23 @@ import drawingbot.api.IProgressCallback;
 import drawingbot.files.ExportTask;
 import drawingbot.files.FileUtils;
 import drawingbot.files.exporters.SVGExporter;
+import drawingbot.files.exporters.StreamedSVGExporter;
 import drawingbot.files.json.projects.DBTaskContext;
 import drawingbot.javafx.util.JFXUtils;
 import drawingbot.utils.Utils;
 import javafx.stage.FileChooser;
 import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.*;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,6 +31,7 @@ public class VpypeHelper {
 
     public static final String VPYPE_NAME = "vpype";
     public static final String OUTPUT_FILE_WILDCARD = "%OUTPUT_FILE%";
+    public static final String STDIN_INPUT = "-";
 
     public static ProcessBuilder buildGenericProcess(String command){
         ProcessBuilder builder = new ProcessBuilder();
@@ -97,15 +98,30 @@ public class VpypeHelper {
 
         }
 
+        File outputFile = requestedFilter != null ? FileUtils.removeExtension(saveLocation) : saveLocation;
+
+        if(vpypeSettings.vpypeStreamInput.get()){
+            // Stream the drawing straight into vpype's stdin, vpype starts up while the drawing is being written
+            try {
+                String finalCommand = VpypeHelper.createFinalCommand(vpypeSettings, STDIN_INPUT, outputFile);
+                VpypeHelper.runVpypeCommand(finalCommand, waitForCompletion, exportTask, writer -> StreamedSVGExporter.exportStreamedSVG(exportTask, writer));
+            } catch (IOException | InterruptedException e) {
+                exportTask.setError(e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
+
         File tempFile = null;
         try {
             tempFile = Files.createTempFile(VPYPE_NAME, ".svg").toFile();
             SVGExporter.exportBasicSVG(exportTask, tempFile);
-            String finalCommand = VpypeHelper.createFinalCommand(vpypeSettings, tempFile, requestedFilter != null ? FileUtils.removeExtension(saveLocation) : saveLocation);
+            String finalCommand = VpypeHelper.createFinalCommand(vpypeSettings, tempFile, outputFile);
 
             VpypeHelper.runVpypeCommand(finalCommand, waitForCompletion, exportTask);
 
         } catch (IOException | InterruptedException e) {
+            exportTask.setError(e.getMessage());
             e.printStackTrace();
         } finally {
             // Attempt to delete our temporary SVG straight away, if not possible mark for deleteOnExit.
@@ -116,26 +132,54 @@ public class VpypeHelper {
     }
 
     public static void runVpypeCommand(String command, boolean waitForCompletion, IProgressCallback callback) throws IOException, InterruptedException {
+        runVpypeCommand(command, waitForCompletion, callback, null);
+    }
+
+    /**
+     * Runs the vpype command, stdout and stderr are drained on separate threads so vpype can never block on a full pipe
+     * @param inputWriter if not null, writes the input to the process's stdin on the calling thread, the process is started first so vpype's startup overlaps with writing
+     */
+    public static void runVpypeCommand(String command, boolean waitForCompletion, IProgressCallback callback, @Nullable IInputWriter inputWriter) throws IOException, InterruptedException {
         callback.updateMessage(VpypeHelper.VPYPE_NAME + " - Command - Processing");
         callback.updateProgress(-1, 1);
 
         Process process = buildGenericProcess(command).start();
 
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService executor = Executors.newFixedThreadPool(2, DrawingBotV3.threadFactory("DrawingBotV3 - vpype Output"));
         executor.submit(() -> new BufferedReader(new InputStreamReader(process.getInputStream())).lines().forEach(System.out::println));
         executor.submit(() -> new BufferedReader(new InputStreamReader(process.getErrorStream())).lines().forEach(System.out::println));
+        executor.shutdown();
+
+        if(inputWriter != null){
+            callback.updateMessage(VpypeHelper.VPYPE_NAME + " - Command - Writing Input");
+            try(Writer writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8), 65536)){
+                inputWriter.write(writer);
+            } catch (IOException e){
+                // The process closed its input early, most likely the command failed, stop it so it can't block on the remaining input
+                process.destroy();
+                throw new IOException(VPYPE_NAME + " stopped reading the input: " + e.getMessage(), e);
+            }
+            callback.updateMessage(VpypeHelper.VPYPE_NAME + " - Command - Processing");
+        }else{
+            process.getOutputStream().close();
+        }
 
         if(waitForCompletion){
-            CountDownLatch latch = new CountDownLatch(1);
-            executor.submit(latch::countDown);
-            latch.await();
+            int exitCode = process.waitFor();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            if(exitCode != 0){
+                throw new IOException(VPYPE_NAME + " exited with code " + exitCode);
+            }
         }
-        executor.shutdown();
 
         callback.updateMessage(VpypeHelper.VPYPE_NAME + " - Command - Finished");
         callback.updateProgress(1, 1);
     }
 
+    public interface IInputWriter {
+        void write(Writer writer) throws IOException;
+    }
+
     public static String matchUserCommand(VpypeSettings settings, File outputFile){
         String userCommand = settings.vpypeCommand.getValue();
 
@@ -147,7 +191,11 @@ public class VpypeHelper {
     }
 
     public static String createFinalCommand(VpypeSettings settings, File inputFile, File outputFile){
-        return settings.vpypeExecutable.get() + " read " + Matcher.quoteReplacement(inputFile.toString()) + " " + matchUserCommand(settings, outputFile);
+        return createFinalCommand(settings, Matcher.quoteReplacement(inputFile.toString()), outputFile);
+    }
+
+    public static String createFinalCommand(VpypeSettings settings, String input, File outputFile){
+        return settings.vpypeExecutable.get() + " read " + input + " " + matchUserCommand(settings, outputFile);
     }
 
     public static boolean hasExecutable(VpypeSettings settings){
@@ -15,6 +15,7 @@ import drawingbot.javafx.controls.DialogScrollPane;
 import drawingbot.javafx.preferences.DBPreferences;
 import drawingbot.javafx.preferences.items.ControllerNode;
 import drawingbot.javafx.preferences.items.TreeNode;
+import drawingbot.javafx.settings.BooleanSetting;
 import drawingbot.javafx.settings.StringSetting;
 import drawingbot.plugins.AbstractPlugin;
 import drawingbot.registry.MasterRegistry;
@@ -44,9 +45,11 @@ public class VpypePlugin extends AbstractPlugin {
     private boolean skipNextCommandDialog = false; //if we export the traditional way, don't show the command dialog instantly
 
     public final StringSetting<?> vpypeExecutable = register(GenericSetting.createStringSetting(DBPreferences.class, "vpype", "vpypeExecutable", ""));
+    public final BooleanSetting<?> vpypeStreamInput = register(GenericSetting.createBooleanSetting(DBPreferences.class, "vpype", "vpypeStreamInput", true));
 
     private VpypePlugin(){
         vpypeExecutable.valueProperty().bindBidirectional(vpypeSettings.vpypeExecutable);
+        vpypeStreamInput.valueProperty().bindBidirectional(vpypeSettings.vpypeStreamInput);
     }
 
 
@@ -94,6 +97,12 @@ public class VpypePlugin extends AbstractPlugin {
                 //If we're using a special mode, rely on the ExportTask to tell us the destinations and assume we need one (unlikely to batch "show" commands), if not ask for the destination later, when the command has been confirmed
                 return exportMode != ExportTask.Mode.PER_DRAWING;
             }
+
+            @Override
+            public boolean supportsParallelExport() {
+                //vpype commands may require confirmation dialogs and share the same output
+                return false;
+            }
         });
 
         selectedVPypePreset.setValue(VpypePlugin.PRESET_LOADER_VPYPE_SETTINGS.getDefaultPreset());
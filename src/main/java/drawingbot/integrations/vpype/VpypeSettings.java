@@ -12,6 +12,7 @@ public class VpypeSettings implements IProperties {
     public final SimpleStringProperty vpypeExecutable = new SimpleStringProperty("");
     public final SimpleStringProperty vpypeCommand = new SimpleStringProperty("");
     public final SimpleBooleanProperty vpypeBypassOptimisation = new SimpleBooleanProperty();
+    public final SimpleBooleanProperty vpypeStreamInput = new SimpleBooleanProperty(true);
 
     ///////////////////////////
 
@@ -20,7 +21,7 @@ public class VpypeSettings implements IProperties {
     @Override
     public ObservableList<Observable> getPropertyList() {
         if(propertyList == null){
-            propertyList = PropertyUtil.createPropertiesList(vpypeExecutable, vpypeCommand, vpypeBypassOptimisation);
+            propertyList = PropertyUtil.createPropertiesList(vpypeExecutable, vpypeCommand, vpypeBypassOptimisation, vpypeStreamInput);
         }
         return propertyList;
     }
@@ -870,14 +870,20 @@ public class FXController extends AbstractFXController {
     public Button buttonSaveVersion = null;
 
     public void initPlottingControls(){
+        Binding<PlottedDrawing> binding = EasyBind.select(DrawingBotV3.INSTANCE.activeProject).selectObject(project -> project.currentDrawing);
+
         buttonStartPlotting.setOnAction(param -> DrawingBotV3.INSTANCE.startPlotting(DrawingBotV3.context()));
         buttonStartPlotting.disableProperty().bind(DrawingBotV3.INSTANCE.taskMonitor.isPlotting);
+
+        MenuItem menuExtendPlotting = new MenuItem("Extend Plot");
+        menuExtendPlotting.setOnAction(param -> DrawingBotV3.INSTANCE.extendPlotting(DrawingBotV3.context()));
+        menuExtendPlotting.disableProperty().bind(Bindings.createBooleanBinding(() -> DrawingBotV3.INSTANCE.taskMonitor.isPlotting.get() || binding.getValue() == null, DrawingBotV3.INSTANCE.taskMonitor.isPlotting, binding));
+        buttonStartPlotting.setContextMenu(new ContextMenu(menuExtendPlotting));
+
         buttonStopPlotting.setOnAction(param -> DrawingBotV3.INSTANCE.stopPlotting(DrawingBotV3.context()));
         buttonStopPlotting.disableProperty().bind(DrawingBotV3.INSTANCE.taskMonitor.isPlotting.not());
         buttonResetPlotting.setOnAction(param -> DrawingBotV3.INSTANCE.resetPlotting(DrawingBotV3.context()));
 
-        Binding<PlottedDrawing> binding = EasyBind.select(DrawingBotV3.INSTANCE.activeProject).selectObject(project -> project.currentDrawing);
-
         buttonSaveVersion.setOnAction(param -> versionControlController.saveVersion());
         buttonSaveVersion.disableProperty().bind(Bindings.createBooleanBinding(() -> DrawingBotV3.INSTANCE.taskMonitor.isPlotting.get() || binding.getValue() == null, DrawingBotV3.INSTANCE.taskMonitor.isPlotting, binding));
 
@@ -456,7 +456,7 @@ public class FXHelper {
         JsonElement element = loader.toJsonElement(gson, preset);
 
         GenericPreset<D> copy = loader.createNewPreset(preset.getPresetSubType(), preset.getPresetName(), preset.userCreated);
-        copy.data = loader.fromJsonElement(gson, copy, element);
+        copy.setData(loader.fromJsonElement(gson, copy, element));
         return copy;
     }
 
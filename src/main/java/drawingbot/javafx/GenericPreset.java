@@ -1,8 +1,11 @@
 package drawingbot.javafx;
 
+import com.google.gson.JsonParser;
 import com.google.gson.annotations.JsonAdapter;
+import drawingbot.DrawingBotV3;
 import drawingbot.files.json.IPresetLoader;
 import drawingbot.files.json.JsonLoaderManager;
+import drawingbot.files.json.PresetIndexCache;
 import drawingbot.files.json.PresetType;
 import drawingbot.files.json.adapters.JsonAdapterGenericPreset;
 import drawingbot.files.json.projects.DBTaskContext;
@@ -12,6 +15,7 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 
 import java.util.Objects;
+import java.util.logging.Level;
 
 @JsonAdapter(JsonAdapterGenericPreset.class)
 public class GenericPreset<DATA> implements INamedSetting {
@@ -23,7 +27,8 @@ public class GenericPreset<DATA> implements INamedSetting {
     public boolean userCreated; //if the preset should be saved to the json, if false it's assumed the preset is pre-installed
     public boolean overridesSystemPreset;
 
-    public DATA data; //data this preset is bound to
+    private DATA data; //data this preset is bound to
+    private transient volatile PresetIndexCache.DataLocation lazyData; //where to find the data's json when it hasn't been deserialized yet, see PresetIndexCache
 
     public GenericPreset(){}
 
@@ -47,7 +52,7 @@ public class GenericPreset<DATA> implements INamedSetting {
         this.presetName.set(copy.getPresetName());
         this.userCreated = copy.userCreated;
         this.overridesSystemPreset = copy.overridesSystemPreset;
-        this.data = copy.presetLoader.duplicateData(JsonLoaderManager.createDefaultGson(), copy);
+        setData(copy.presetLoader.duplicateData(JsonLoaderManager.createDefaultGson(), copy));
     }
 
     ////////////////////////////////////////////////////////
@@ -75,9 +80,52 @@ public class GenericPreset<DATA> implements INamedSetting {
     }
 
     public DATA getData() {
+        if(lazyData != null){
+            loadLazyData();
+        }
         return data;
     }
 
+    public void setData(DATA data) {
+        this.data = data;
+        this.lazyData = null;
+    }
+
+    /**
+     * Stores where to find the data's json, to be deserialized the first time the data is needed e.g. when the preset is selected
+     */
+    public void setLazyData(PresetIndexCache.DataLocation location) {
+        this.data = null;
+        this.lazyData = location;
+    }
+
+    /**
+     * @return where to find the data's json if it hasn't been deserialized yet, otherwise null
+     */
+    public PresetIndexCache.DataLocation getLazyData() {
+        return lazyData;
+    }
+
+    /**
+     * @return true if the preset has data, without deserializing lazy data
+     */
+    public boolean hasData() {
+        return data != null || lazyData != null;
+    }
+
+    private synchronized void loadLazyData(){
+        PresetIndexCache.DataLocation location = lazyData;
+        if(location != null){
+            try{
+                data = presetLoader.fromJsonElement(JsonLoaderManager.createDefaultGson(), this, JsonParser.parseString(location.readJson()));
+            }catch (Exception e){
+                DrawingBotV3.logger.log(Level.WARNING, e, () -> "Error loading preset data " + getPresetID() + " using defaults");
+                data = presetLoader.createDataInstance(this);
+            }
+            lazyData = null;
+        }
+    }
+
     ////////////////////////////////////////////////////////
 
     private final SimpleBooleanProperty enabled = new SimpleBooleanProperty(true);
@@ -194,7 +242,8 @@ public class GenericPreset<DATA> implements INamedSetting {
                     && Objects.equals(userCreated, other.userCreated)
                     && Objects.equals(getPresetName(), other.getPresetName())
                     && Objects.equals(getPresetSubType(), other.getPresetSubType())
-                    && Objects.equals(data, other.data);
+                    && Objects.equals(data, other.data)
+                    && Objects.equals(lazyData, other.lazyData); //compared without deserializing lazy data, so presets with unloaded data are only equal to presets from the same location
         }
         return super.equals(obj);
     }
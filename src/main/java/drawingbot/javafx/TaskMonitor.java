@@ -98,6 +98,9 @@ public class TaskMonitor {
     }
 
     public void logTask(Task<?> task){
+        if(DrawingBotV3.INSTANCE.controller == null){
+            return; //headless, there is no task progress view
+        }
         Platform.runLater(() -> {
             DrawingBotV3.INSTANCE.controller.taskMonitorController.taskProgressView.getTasks().add(task);
         });
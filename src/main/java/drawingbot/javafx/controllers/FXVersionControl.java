@@ -124,7 +124,7 @@ public class FXVersionControl extends AbstractFXController {
             GenericPreset<PresetProjectSettings> preset = Register.PRESET_LOADER_PROJECT.createNewPreset();
             preset.updatePreset(context);
             control.getProjectVersions().add(new ObservableVersion(preset, true));
-            NotificationOverlays.INSTANCE.showWithSubtitle("Saved New Version", preset.data.imagePath);
+            NotificationOverlays.INSTANCE.showWithSubtitle("Saved New Version", preset.getData().imagePath);
         });
     }
 
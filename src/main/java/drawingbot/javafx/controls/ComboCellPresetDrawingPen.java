@@ -37,9 +37,9 @@ public class ComboCellPresetDrawingPen extends ComboBoxListCell<GenericPreset<ID
             checkBox.selectedProperty().bindBidirectional(property);
             checkBox.setOnAction(event -> {
                 if(checkBox.isSelected()){
-                    this.drawingSet.getValue().addNewPen(getItem().data, true);
+                    this.drawingSet.getValue().addNewPen(getItem().getData(), true);
                 }else{
-                    this.drawingSet.getValue().pens.removeIf((p) -> p.getCodeName().equals(getItem().data.getCodeName()));
+                    this.drawingSet.getValue().pens.removeIf((p) -> p.getCodeName().equals(getItem().getData().getCodeName()));
                 }
             });
             hbox.setSpacing(10);
@@ -66,13 +66,13 @@ public class ComboCellPresetDrawingPen extends ComboBoxListCell<GenericPreset<ID
             setText("");
             setGraphic(hbox);
             if (checkBox != null) {
-                property.set(drawingSet.getValue().containsPen(item.data));
+                property.set(drawingSet.getValue().containsPen(item.getData()));
             }
             hbox.setSpacing(4);
             hbox.setAlignment(Pos.CENTER_LEFT);
             displayNameLabel.setText("  " + item.getPresetName());
             displayNameLabel.textFillProperty().bind(DBPreferences.INSTANCE.defaultThemeColor);
-            colour.setFill(ImageTools.getColorFromARGB(item.data.getARGB()));
+            colour.setFill(ImageTools.getColorFromARGB(item.getData().getARGB()));
             String userCreatedText = "";
             if(item.userCreated){
                 userCreatedText = " (User)";
@@ -42,7 +42,7 @@ public class ComboCellPresetDrawingSet extends ComboBoxListCell<GenericPreset<ID
             HBox hBox = new HBox();
             hBox.setAlignment(Pos.CENTER_LEFT);
             setText("");
-            hBox.getChildren().add(ComboCellDrawingSet.createStaticPenPalette(item.data.getPens()));
+            hBox.getChildren().add(ComboCellDrawingSet.createStaticPenPalette(item.getData().getPens()));
             Label displayNameLabel = new Label("  " + item.getPresetName());
             displayNameLabel.setPrefHeight(12);
             displayNameLabel.textFillProperty().bind(DBPreferences.INSTANCE.defaultThemeColor);
@@ -203,10 +203,12 @@ public class ObservableDrawingPen extends SpecialListenable<ObservableDrawingPen
     }
 
     public BasicStroke getAWTStroke(float lineWidth){
-        if(awtStroke == null || awtStroke.getLineWidth() != lineWidth){
-            awtStroke = new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        //read once, the pen may be rendered by multiple threads at once
+        BasicStroke stroke = awtStroke;
+        if(stroke == null || stroke.getLineWidth() != lineWidth){
+            awtStroke = stroke = new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
         }
-        return awtStroke;
+        return stroke;
     }
 
     public Color getFXColor(){
@@ -2,6 +2,8 @@ package drawingbot.javafx.observables;
 
 import drawingbot.api.IProperties;
 import drawingbot.image.BufferedImageOpFactory;
+import drawingbot.image.ImageFilterFactory;
+import drawingbot.image.ParallelImageFilter;
 import drawingbot.javafx.GenericFactory;
 import drawingbot.javafx.GenericSetting;
 import drawingbot.javafx.util.PropertyUtil;
@@ -14,6 +16,7 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.BufferedImageOp;
@@ -85,6 +88,15 @@ public class ObservableImageFilter extends SpecialListenable<ObservableImageFilt
         return imageOp;
     }
 
+    /**
+     * Applies this filter to the image, if the filter supports it the image will be split into tiles and filtered in parallel see {@link ParallelImageFilter}
+     * @param dst the destination image, may be null
+     */
+    public BufferedImage filter(BufferedImage src, @Nullable BufferedImage dst){
+        int halo = filterFactory instanceof ImageFilterFactory<?> imageFilterFactory ? imageFilterFactory.getTileHalo(getBufferedImageOp()) : -1;
+        return ParallelImageFilter.filter(this::getBufferedImageOp, halo, src, dst);
+    }
+
     ///////////////////////////
 
     private ObservableList<Observable> propertyList = null;
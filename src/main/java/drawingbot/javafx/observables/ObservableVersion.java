@@ -39,7 +39,7 @@ public class ObservableVersion {
         this.notes.set(copy.notes.get());
         this.thumbnailID.set(copy.thumbnailID.get());
         this.preset.set(new GenericPreset<>(copy.preset.get()));
-        preset.get().data.isSubProject = true;//copy.preset.get().data.isSubProject;
+        preset.get().getData().isSubProject = true;//copy.preset.get().data.isSubProject;
 
         if(copy.thumbnail != null){
             this.thumbnail.set(copy.thumbnail.get());
@@ -48,14 +48,14 @@ public class ObservableVersion {
 
     public ObservableVersion(GenericPreset<PresetProjectSettings> preset, boolean isSubProject) {
         this.uuid.set(UUID.randomUUID());
-        this.name.set(preset.data.name);
-        this.rating.set(preset.data.rating);
-        this.date.set(preset.data.timeStamp);
-        this.thumbnailID.set(preset.data.thumbnailID);
-        this.file.set(preset.data.imagePath);
-        this.notes.set(preset.data.notes);
+        this.name.set(preset.getData().name);
+        this.rating.set(preset.getData().rating);
+        this.date.set(preset.getData().timeStamp);
+        this.thumbnailID.set(preset.getData().thumbnailID);
+        this.file.set(preset.getData().imagePath);
+        this.notes.set(preset.getData().notes);
         this.preset.set(preset);
-        preset.data.isSubProject = true;//isSubProject;
+        preset.getData().isSubProject = true;//isSubProject;
 
     }
 
@@ -104,9 +104,9 @@ public class ObservableVersion {
 
 
     public void updatePreset(){
-        preset.get().data.name = name.get();
-        preset.get().data.rating = rating.get();
-        preset.get().data.notes = notes.get();
+        preset.get().getData().name = name.get();
+        preset.get().getData().rating = rating.get();
+        preset.get().getData().notes = notes.get();
     }
 
     public ObservableVersion copy() {
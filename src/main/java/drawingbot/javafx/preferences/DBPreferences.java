@@ -64,6 +64,8 @@ public class DBPreferences implements ISettings {
 
     public final IntegerSetting<?> maxTextureSize = register(createRangedIntSetting(DBPreferences.class, CATEGORY_ADVANCED, "maxTextureSize", -1, -1, 8096));
     public final BooleanSetting<?> disableOpenGLRenderer = register(createBooleanSetting(DBPreferences.class, CATEGORY_ADVANCED, "disableOpenGLRenderer", false));
+    public final BooleanSetting<?> recordTasks = register(createBooleanSetting(DBPreferences.class, CATEGORY_ADVANCED, "recordTasks", false));
+    public final BooleanSetting<?> combineRenderPaths = register(createBooleanSetting(DBPreferences.class, CATEGORY_ADVANCED, "combineRenderPaths", false));
 
     ///////////////////////////////////////////////
 
@@ -78,6 +80,7 @@ public class DBPreferences implements ISettings {
     public final OptionSetting<?, EnumBlendMode> defaultBlendMode = register(createOptionSetting(DBPreferences.class, EnumBlendMode.class, CATEGORY_GENERAL, "defaultBlendMode", FXCollections.observableArrayList(EnumBlendMode.values()), EnumBlendMode.NORMAL));
     public final OptionSetting<?, ExportTask.Mode> quickExportMode = register(createOptionSetting(DBPreferences.class, ExportTask.Mode.class, CATEGORY_GENERAL, "defaultExportMode", FXCollections.observableArrayList(ExportTask.Mode.values()), ExportTask.Mode.PER_DRAWING));
     public final StringSetting<?> quickExportHandler = register(createStringSetting(DBPreferences.class, CATEGORY_GENERAL, "defaultExportHandler", "svg_default"));
+    public final BooleanSetting<?> parallelFileExport = register(createBooleanSetting(DBPreferences.class, CATEGORY_GENERAL, "parallelFileExport", true));
     public final BooleanSetting<?> autoRunPFM = register(createBooleanSetting(DBPreferences.class, CATEGORY_GENERAL, "autoRunPFM", true));
 
     ///////////////////////////////////////////////
@@ -117,6 +120,8 @@ public class DBPreferences implements ISettings {
 
     public final BooleanSetting<?> multipassEnabled = register(createBooleanSetting(DBPreferences.class, CATEGORY_OPTIMISATION, "multipassEnabled", false));
     public final IntegerSetting<?> multipassCount = (IntegerSetting<?>) register(createRangedIntSetting(DBPreferences.class, CATEGORY_OPTIMISATION, "multipassCount", 1, 1, 100)).setDisplaySlider(false);
+    public final BooleanSetting<?> exportOptimisationCache = register(createBooleanSetting(DBPreferences.class, CATEGORY_OPTIMISATION, "exportOptimisationCache", true));
+    public final IntegerSetting<?> exportOptimisationCacheGeometries = (IntegerSetting<?>) register(createRangedIntSetting(DBPreferences.class, CATEGORY_OPTIMISATION, "exportOptimisationCacheGeometries", 1000000, 0, 100000000)).setDisplaySlider(false);
 
     ///////////////////////////////////////////////
 
@@ -135,6 +140,13 @@ public class DBPreferences implements ISettings {
     public final BooleanSetting<?> drawingBordersEnabled = register(createBooleanSetting(DBPreferences.class, CATEGORY_NOTIFICATIONS, "drawingBordersEnabled", false));
     public final ColourSetting<?> drawingBordersColor = register(createColourSetting(DBPreferences.class, CATEGORY_NOTIFICATIONS, "drawingBordersColor", Color.BLACK));
 
+    //// VIEWPORT \\\\
+    public final BooleanSetting<?> viewportTileCache = register(createBooleanSetting(DBPreferences.class, CATEGORY_USER_INTERFACE, "viewportTileCache", true));
+    public final BooleanSetting<?> viewportLevelOfDetail = register(createBooleanSetting(DBPreferences.class, CATEGORY_USER_INTERFACE, "viewportLevelOfDetail", true));
+    public final BooleanSetting<?> viewportLivePreview = register(createBooleanSetting(DBPreferences.class, CATEGORY_USER_INTERFACE, "viewportLivePreview", true));
+    public final BooleanSetting<?> viewportCulling = register(createBooleanSetting(DBPreferences.class, CATEGORY_USER_INTERFACE, "viewportCulling", true));
+    public final BooleanSetting<?> viewportFilterPreview = register(createBooleanSetting(DBPreferences.class, CATEGORY_USER_INTERFACE, "viewportFilterPreview", true));
+
     ///////////////////////////////////////////////
 
     //// NOTIFICATIONS \\\\
@@ -157,6 +169,9 @@ public class DBPreferences implements ISettings {
 
     public final DoubleSetting<?> exportDPI = (DoubleSetting<?>) register(createRangedDoubleSetting(DBPreferences.class, CATEGORY_IMAGE, "exportDPI", 300D, 1D, Short.MAX_VALUE)).setDisplaySlider(false).setDisplayName("Export DPI");
     public final BooleanSetting<?> transparentPNG = (BooleanSetting<?>) register(createBooleanSetting(DBPreferences.class, CATEGORY_IMAGE, "transparentPNG", false).setDisplayName("Export Transparent PNGs"));
+    public final BooleanSetting<?> parallelImageExport = (BooleanSetting<?>) register(createBooleanSetting(DBPreferences.class, CATEGORY_IMAGE, "parallelImageExport", true).setDisplayName("Multi-threaded Rendering"));
+    public final BooleanSetting<?> tiledImageExport = (BooleanSetting<?>) register(createBooleanSetting(DBPreferences.class, CATEGORY_IMAGE, "tiledImageExport", false).setDisplayName("Tiled Export (Low Memory)"));
+    public final IntegerSetting<?> tiledImageExportStripHeight = (IntegerSetting<?>) register(createRangedIntSetting(DBPreferences.class, CATEGORY_IMAGE, "tiledImageExportStripHeight", 512, 16, 8192).setDisplaySlider(false).setDisplayName("Tile Height"));
 
     //// GCODE SETTINGS \\\\
 
@@ -132,6 +132,10 @@ public class FXPreferences extends AbstractFXController {
                             new SettingNode<>("Export Folder", settings.defaultExportDirectory),
                             new LabelNode("Advanced").setTitleStyling(),
                             new SettingNode<>("High Quality Mode DPI", settings.importDPI),
+                            new SettingNode<>("Record Tasks", settings.recordTasks),
+                            new LabelNode("Records each plotting / export task with the Java Flight Recorder, the recordings are saved in the 'recordings' folder of the user data directory").setSubtitleStyling(),
+                            new SettingNode<>("Combine Rendered Paths", settings.combineRenderPaths),
+                            new LabelNode("Strokes lines of the same pen and colour as one path when rendering images and previews, this is faster but overlapping lines are slightly lighter").setSubtitleStyling(),
 
                             new LabelNode("Preset Defaults").setTitleStyling(),
                             new LabelNode("Drawing Area", () -> EditorSheet.createDefaultPresetComboBox(Register.PRESET_LOADER_DRAWING_AREA)),
@@ -198,7 +202,9 @@ public class FXPreferences extends AbstractFXController {
         ));
         MasterRegistry.INSTANCE.registerPreferencesPage(EditorSheet.node("Export Settings",
                 pageExportGeneral = EditorSheet.page("General",
-                        new SettingNode<>("Show Exported Drawing", settings.showExportedDrawing).setTitleStyling().setHideFromTree(true)
+                        new SettingNode<>("Show Exported Drawing", settings.showExportedDrawing).setTitleStyling().setHideFromTree(true),
+                        new SettingNode<>("Parallel File Export", settings.parallelFileExport).setTitleStyling().setHideFromTree(true),
+                        new LabelNode("When exporting per/pen, per/group or per/n pens, each file will be written concurrently. The drawing will only be optimised once for all of the pen based modes.").setSubtitleStyling()
                 ),
                 pageExportPathOptimisation = EditorSheet.page("Path Optimisation",
                         new SettingNode<>("Enabled", settings.pathOptimisationEnabled).setTitleStyling().setHideFromTree(true),
@@ -227,7 +233,12 @@ public class FXPreferences extends AbstractFXController {
                         new LabelNode("Line Multipass").setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()).setTitleStyling(),
                         new LabelNode("Draws over each geometry multiple times").setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()).setSubtitleStyling(),
                         new SettingNode<>("Enabled", settings.multipassEnabled).setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()),
-                        new SettingNode<>("Passes", settings.multipassCount).setDisabledProperty(settings.multipassEnabled.asBooleanProperty().not().or(settings.pathOptimisationEnabled.asBooleanProperty().not()))
+                        new SettingNode<>("Passes", settings.multipassCount).setDisabledProperty(settings.multipassEnabled.asBooleanProperty().not().or(settings.pathOptimisationEnabled.asBooleanProperty().not())),
+
+                        new LabelNode("Optimisation Cache").setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()).setTitleStyling(),
+                        new LabelNode("Remembers recently optimised drawings, so exporting the same drawing again only needs to write the file").setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()).setSubtitleStyling(),
+                        new SettingNode<>("Enabled", settings.exportOptimisationCache).setDisabledProperty(settings.pathOptimisationEnabled.asBooleanProperty().not()),
+                        new SettingNode<>("Max Geometries", settings.exportOptimisationCacheGeometries).setDisabledProperty(settings.exportOptimisationCache.asBooleanProperty().not().or(settings.pathOptimisationEnabled.asBooleanProperty().not()))
 
                 ),
                 pageSVG = EditorSheet.page("SVG",
@@ -276,6 +287,10 @@ public class FXPreferences extends AbstractFXController {
                         new LabelNode("Resolution").setTitleStyling(),
                         new SettingNode<>(settings.exportDPI),
                         new SettingNode<>(settings.transparentPNG),
+                        new SettingNode<>(settings.parallelImageExport),
+                        new SettingNode<>(settings.tiledImageExport),
+                        new LabelNode("Renders PNG / TIFF exports in horizontal strips, allowing very large images to be exported with a fixed amount of memory").setSubtitleStyling(),
+                        new SettingNode<>(settings.tiledImageExportStripHeight).setDisabledProperty(settings.tiledImageExport.asBooleanProperty().not()),
                         new PropertyNode<>("Image Export Size", settings.imageExportSize, String.class).setEditable(false),
                         new LabelNode("Animations").setTitleStyling(),
                         new SettingNode<>("Frames per second", settings.framesPerSecond),
@@ -316,6 +331,18 @@ public class FXPreferences extends AbstractFXController {
                     new SettingNode<>("Enabled", settings.drawingBordersEnabled),
                     new SettingNode<>( "Colour", settings.drawingBordersColor).setDisabledProperty(settings.drawingBordersEnabled.asBooleanProperty().not()),
 
+                    new LabelNode("Viewport").setTitleStyling(),
+                    new SettingNode<>("Tile Cache", settings.viewportTileCache),
+                    new LabelNode("Renders completed drawings into cached tiles on multiple threads, so re-drawing an unchanged drawing is instant").setSubtitleStyling(),
+                    new SettingNode<>("Level of Detail", settings.viewportLevelOfDetail),
+                    new LabelNode("Previews dense drawings with simplified paths when the vertices are smaller than a pixel, exports always use the full detail").setSubtitleStyling(),
+                    new SettingNode<>("Background Plotting Preview", settings.viewportLivePreview),
+                    new LabelNode("Renders the drawing on a background thread while the PFM is running, which keeps the viewport responsive with fast PFMs").setSubtitleStyling(),
+                    new SettingNode<>("Render Visible Area First", settings.viewportCulling),
+                    new LabelNode("When zoomed in, the visible part of the drawing is rendered before the rest of the page").setSubtitleStyling(),
+                    new SettingNode<>("Fast Image Filter Preview", settings.viewportFilterPreview),
+                    new LabelNode("While image filters are being changed they're previewed at the viewport's resolution, the full resolution image is filtered once the settings stop changing").setSubtitleStyling(),
+
                     new LabelNode("Notifications").setTitleStyling(),
                     new SettingNode<>("Enabled", settings.notificationsEnabled),
                     new SettingNode<>("Screen Time", settings.notificationsScreenTime).setDisabledProperty(settings.notificationsEnabled.asBooleanProperty().not()),
@@ -94,7 +94,7 @@ public class SettingPresetNode<DATA> extends SettingNode<DATA> {
     @Override
     public void resetProperty() {
         if(getPreset() != null){
-            GenericSetting.applySettings(getPreset().data.settings, setting);
+            GenericSetting.applySettings(getPreset().getData().settings, setting);
         }else{
             setting.resetSetting();
         }
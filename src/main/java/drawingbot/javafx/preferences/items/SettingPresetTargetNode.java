@@ -93,7 +93,7 @@ public class SettingPresetTargetNode<TARGET, DATA> extends SettingNode<DATA> {
     @Override
     public void resetProperty() {
         if(getPreset() != null){
-            GenericSetting.applySettings(getPreset().data.settings, setting);
+            GenericSetting.applySettings(getPreset().getData().settings, setting);
         }else{
             setting.resetSetting();
         }
@@ -7,9 +7,11 @@ import drawingbot.geom.shapes.IGeometry;
 import drawingbot.image.*;
 import drawingbot.pfm.helpers.PFMRenderPipe;
 import drawingbot.plotting.PFMTask;
+import drawingbot.plotting.PlottedDrawing;
 import drawingbot.plotting.PlottingTools;
 import drawingbot.utils.Utils;
 
+import java.util.Random;
 import java.util.function.BiConsumer;
 
 public abstract class AbstractSketchPFM extends AbstractDarkestPFM {
@@ -111,6 +113,7 @@ public abstract class AbstractSketchPFM extends AbstractDarkestPFM {
             context.last = context.current;
             context.current = new int[2];
             findDarkestPixelMethod.accept(tools.getPixelData(), context.current);
+            tools.metrics.darkestPixelLookups++;
 
             // Create a linking geometry, to draw this forced pen move
             if(!shouldLiftPen && context.hasResult()){
@@ -254,7 +257,9 @@ public abstract class AbstractSketchPFM extends AbstractDarkestPFM {
         float strokeWidth = (float) (radiusMin + yProgress * (radiusMax - radiusMin));
         int erase = (int) (eraseMin + yProgress * (eraseMax-eraseMin));
 
-        return renderPipe.eraseGeometry(pixelData, tools.getReferencePixelData(), geometry, erase, tools.getCanvas().getRenderedPenWidth() * strokeWidth);
+        int colourSamples = renderPipe.eraseGeometry(pixelData, tools.getReferencePixelData(), geometry, erase, tools.getCanvas().getRenderedPenWidth() * strokeWidth);
+        tools.metrics.pixelsErased += renderPipe.sampleTest.getSampleCount();
+        return colourSamples;
     }
 
     @Override
@@ -265,6 +270,47 @@ public abstract class AbstractSketchPFM extends AbstractDarkestPFM {
         }
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the state needed to extend the finished drawing, the next seed is taken from the random so the extension continues with a deterministic sequence
+     */
+    public State createState(){
+        return new State(tools.pfmTask.pfmFactory, tools.currentGroup.getGroupID(), pfmResolution, initialLuminance, tools.random.nextLong(), context.current.clone());
+    }
+
+    /**
+     * Continues from the state of a finished drawing, called once the PFM has been setup with the restored pixel data
+     */
+    public void restoreState(State state){
+        initialLuminance = state.initialLuminance;
+        tools.random = new Random(state.randomSeed);
+        context.current = state.position.clone();
+    }
+
+    /**
+     * The state of a finished sketch PFM which isn't held by the drawing itself, stored in the drawing's metadata so the drawing can be extended see {@link drawingbot.plotting.PFMTaskBuilder#setExtendedDrawing(PlottedDrawing)}
+     * The pixel data is restored from the drawing's plotting image and the targeting cache is rebuilt from it, so only a few values need to be kept
+     */
+    public static class State {
+
+        public final PFMFactory<?> pfmFactory;
+        public final int groupID;
+        public final float plottingResolution;
+        public final double initialLuminance;
+        public final long randomSeed;
+        public final int[] position;
+
+        public State(PFMFactory<?> pfmFactory, int groupID, float plottingResolution, double initialLuminance, long randomSeed, int[] position) {
+            this.pfmFactory = pfmFactory;
+            this.groupID = groupID;
+            this.plottingResolution = plottingResolution;
+            this.initialLuminance = initialLuminance;
+            this.randomSeed = randomSeed;
+            this.position = position;
+        }
+    }
+
     public static class PathFindingContext {
 
         //// Path Finding Current Positions \\\\
@@ -88,5 +88,7 @@ public class SimpleLineSampler {
         }
 
         tools.bresenham.plotLine(startX, startY, endX, endY, (xT, yT) -> luminanceTest.addSample(pixels, xT, yT));
+        tools.metrics.lineTests++;
+        tools.metrics.pixelsSampled += luminanceTest.getPixelCount();
     }
 }
@@ -0,0 +1,85 @@
+package drawingbot.plotting;
+
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Iterates the geometries of a drawing which may overlap the given regions, found with the drawing's spatial index see {@link PlottedDrawing#updateSpatialIndex()}
+ * The pens and groups are walked exactly like the {@link DrawingGeometryIterator}, only the geometries outside the regions are skipped, so the geometries are returned in the same order they would be rendered.
+ */
+public class CulledGeometryIterator extends DrawingGeometryIterator {
+
+    private final Map<PlottedGroup, Map<ObservableDrawingPen, List<IGeometry>>> culledGeometries = new HashMap<>();
+    private int geometryCount = 0;
+
+    /**
+     * @param regions the regions to find the geometries in, in drawing space
+     */
+    public CulledGeometryIterator(PlottedDrawing drawing, List<Rectangle2D> regions){
+        this(drawing, drawing.getGlobalRenderOrder(), regions);
+    }
+
+    /**
+     * @param regions the regions to find the geometries in, in drawing space
+     */
+    public CulledGeometryIterator(PlottedDrawing drawing, List<ObservableDrawingPen> renderOrder, List<Rectangle2D> regions){
+        super(drawing, renderOrder);
+
+        BitSet found = new BitSet(drawing.getGeometryCount());
+        Map<PlottedGroup, Map<ObservableDrawingPen, Integer>> counts = new HashMap<>();
+        for(Rectangle2D region : regions){
+            for(IGeometry geometry : drawing.queryGeometries(region.getMinX(), region.getMinY(), region.getMaxX(), region.getMaxY())){
+                if(found.get(geometry.getGeometryIndex())){
+                    continue;
+                }
+                found.set(geometry.getGeometryIndex());
+                PlottedGroup group = drawing.getPlottedGroup(geometry.getGroupID());
+                ObservableDrawingPen pen = group == null ? null : group.drawingSet.getPen(geometry.getPenIndex());
+                if(pen != null){
+                    counts.computeIfAbsent(group, g -> new HashMap<>()).merge(pen, 1, Integer::sum);
+                }
+            }
+        }
+
+        //the geometries are taken from the group's own lists, so they keep any order the lists have been optimised into
+        for(Map.Entry<PlottedGroup, Map<ObservableDrawingPen, Integer>> groupEntry : counts.entrySet()){
+            Map<ObservableDrawingPen, List<IGeometry>> penGeometries = new HashMap<>();
+            for(Map.Entry<ObservableDrawingPen, Integer> penEntry : groupEntry.getValue().entrySet()){
+                List<IGeometry> geometries = super.getGeometries(groupEntry.getKey(), penEntry.getKey());
+                if(geometries == null){
+                    continue;
+                }
+                List<IGeometry> culled = new ArrayList<>(penEntry.getValue());
+                for(IGeometry geometry : geometries){
+                    if(found.get(geometry.getGeometryIndex())){
+                        culled.add(geometry);
+                        if(culled.size() == penEntry.getValue()){
+                            break;
+                        }
+                    }
+                }
+                penGeometries.put(penEntry.getKey(), culled);
+                geometryCount += culled.size();
+            }
+            culledGeometries.put(groupEntry.getKey(), penGeometries);
+        }
+    }
+
+    @Override
+    protected List<IGeometry> getGeometries(PlottedGroup group, ObservableDrawingPen pen) {
+        Map<ObservableDrawingPen, List<IGeometry>> penGeometries = culledGeometries.get(group);
+        return penGeometries == null ? null : penGeometries.get(pen);
+    }
+
+    @Override
+    public int getTotalGeometryCount() {
+        return geometryCount;
+    }
+}
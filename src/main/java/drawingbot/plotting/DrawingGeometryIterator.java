@@ -81,6 +81,13 @@ public class DrawingGeometryIterator extends AbstractGeometryIterator {
         throw new NoSuchElementException();
     }
 
+    /**
+     * @return the geometries to render for the pen in the group, in the order they should be rendered, may be null
+     */
+    protected List<IGeometry> getGeometries(PlottedGroup group, ObservableDrawingPen pen){
+        return group.getGeometriesPerPen().get(pen);
+    }
+
     protected boolean updateIterator(boolean check){
         PlottedDrawing drawing = currentDrawing;
         ObservableDrawingPen pen = currentPen;
@@ -98,7 +105,7 @@ public class DrawingGeometryIterator extends AbstractGeometryIterator {
                 pen = pens.get(penIndex);
                 for (; reverseGroups ? groupIndex >= 0 : groupIndex < groups.size(); groupIndex += reverseGroups ? -1 : 1) {
                     group = groups.get(groupIndex);
-                    List<IGeometry> geometries = group.getGeometriesPerPen().get(pen);
+                    List<IGeometry> geometries = getGeometries(group, pen);
                     if (geometries != null && !geometries.isEmpty() && (drawing != currentDrawing || currentGroup != group || pen != currentPen)) {
                         iterator = geometries.listIterator(reverseGeometries ? geometries.size() - 1 : 0);
                         break drawings;
@@ -2,6 +2,7 @@ package drawingbot.plotting;
 
 import drawingbot.DrawingBotV3;
 import drawingbot.api.IPFM;
+import drawingbot.files.ExportOptimisationCache;
 import drawingbot.files.json.presets.PresetPFMSettingsManager;
 import drawingbot.files.json.projects.DBTaskContext;
 import drawingbot.javafx.GenericSetting;
@@ -10,9 +11,11 @@ import drawingbot.pfm.AbstractSketchPFM;
 import drawingbot.pfm.PFMFactory;
 import drawingbot.registry.Register;
 import drawingbot.utils.*;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -34,6 +37,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
     // STATUS \\
     public EnumTaskStage stage = EnumTaskStage.START;
     public LazyTimer taskTimer = new LazyTimer();
+    public final PFMTaskMetrics metrics = new PFMTaskMetrics();
     public List<String> comments = new ArrayList<>();
 
     // PATH FINDING \\
@@ -43,6 +47,10 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
     public boolean isSubTask = false;
     public boolean allowSubTaskMultiThreading = false;
 
+    /** The state of the finished sketch PFM this task continues from, null unless the task is extending a drawing */
+    @Nullable
+    public final AbstractSketchPFM.State extendedState;
+
     // RENDERING \\\
     public boolean skipReRender = false;
 
@@ -56,7 +64,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
      * @param builder the {@link PFMTaskBuilder} which generated this PFM
      */
     public PFMTask(PFMTaskBuilder builder){
-        this(builder.context, builder.drawing, builder.pfmFactory, builder.activeSet, builder.pfmSettings);
+        this(builder.context, builder.drawing, builder.pfmFactory, builder.activeSet, builder.pfmSettings, builder.getExtendedState());
     }
 
     /**
@@ -67,16 +75,25 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
      * @param pfmSettings the list of {@link GenericSetting} which will be applied to the {@link IPFM} instance during the setup process
      */
     public PFMTask(DBTaskContext context, PlottedDrawing drawing, PFMFactory<?> pfmFactory, ObservableDrawingSet refPenSet, List<GenericSetting<?, ?>> pfmSettings){
+        this(context, drawing, pfmFactory, refPenSet, pfmSettings, null);
+    }
+
+    /**
+     * @param extendedState the state of the finished sketch PFM to continue from, the drawing must be the one it was stored in, or null to plot a new group
+     */
+    public PFMTask(DBTaskContext context, PlottedDrawing drawing, PFMFactory<?> pfmFactory, ObservableDrawingSet refPenSet, List<GenericSetting<?, ?>> pfmSettings, @Nullable AbstractSketchPFM.State extendedState){
         super(context);
         updateTitle("Plotting Image (" + pfmFactory.getRegistryName() + ")");
         this.refPenSet = refPenSet;
         this.pfmSettings = pfmSettings;
         this.pfmFactory = pfmFactory;
         this.drawing = drawing;
+        this.extendedState = extendedState;
         this.drawing.setMetadata(Register.INSTANCE.SETTINGS_JSON, PresetPFMSettingsManager.getPFMPresetJson(pfmFactory, pfmSettings));
-        this.tools = new PlottingTools(drawing, drawing.newPlottedGroup(refPenSet, pfmFactory));
+        this.tools = new PlottingTools(drawing, extendedState != null ? drawing.getPlottedGroup(extendedState.groupID) : drawing.newPlottedGroup(refPenSet, pfmFactory));
         this.tools.pfmTask = this;
         this.tools.progressCallback = this;
+        this.tools.metrics = metrics;
         this.updateProgressInstantly = false;
     }
 
@@ -111,6 +128,11 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
                 pfm.onSettingsApplied();
                 sendListenerEvent(l -> l.postPFMSettingsApplied(this, pfmSettings, pfm));
 
+                //The pixel data is restored at the previous run's resolution, so it must be kept
+                if(extendedState != null && pfm instanceof AbstractSketchPFM sketchPFM){
+                    sketchPFM.pfmResolution = extendedState.plottingResolution;
+                }
+
                 //Sets the plotting transform which is used to convert from the PFMs plotting resolution to the resolution of the ICanvas
                 if(pfm.getPlottingResolution() != 1 && enablePlottingResolution){
                     tools.plottingTransform = AffineTransform.getScaleInstance(1D / pfm.getPlottingResolution(), 1D / pfm.getPlottingResolution());
@@ -138,7 +160,9 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
                 }
 
                 //PFMs which utilise images/vectors as inputs should initialize their images here once the IPlottingTools have been setup but before the final setup of the PFM
+                long preProcessStart = PFMTaskMetrics.start();
                 preProcessImages();
+                metrics.recordStep("Pre-Process Images", preProcessStart);
 
                 tools.currentGroup.setPFMFactory(pfmFactory);
 
@@ -146,13 +170,20 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
                 updateMessage("Setup");
                 DrawingBotV3.logger.fine( "PFM - Setup");
                 sendListenerEvent(l -> l.preSetupPFM(this, pfm));
+                long setupStart = PFMTaskMetrics.start();
                 pfm.setup();
+                if(extendedState != null && pfm instanceof AbstractSketchPFM sketchPFM){
+                    sketchPFM.restoreState(extendedState);
+                }
+                metrics.recordStep("PFM Setup", setupStart);
                 sendListenerEvent(l -> l.postSetupPFM(this, pfm));
             }
             case DO_PROCESS -> {
                 if(!useLowQuality){
                     //Run the PFM, this method will only return once all processing has been completed
+                    long runStart = PFMTaskMetrics.start();
                     pfm.run();
+                    metrics.recordStep("PFM Run", runStart);
                 }else{
                     /*
                      * Experimental Feature: to draw with multiple sketch PFMs at the same time, currently broken due to PFMs not being thread-safe
@@ -183,8 +214,17 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
                 }
             }
             case POST_PROCESSING -> {
+                long postProcessStart = PFMTaskMetrics.start();
                 pfm.postProcess();
+                metrics.recordStep("PFM Post-Process", postProcessStart);
+
+                if(canBeExtended() && pfm instanceof AbstractSketchPFM sketchPFM){
+                    drawing.setMetadata(Register.INSTANCE.SKETCH_PFM_STATE, sketchPFM.createState());
+                }
+
+                long postProcessImagesStart = PFMTaskMetrics.start();
                 postProcessImages();
+                metrics.recordStep("Post-Process Images", postProcessImagesStart);
 
                 updateMessage("Updating Pen Distribution");
                 drawing.updatePenDistribution();
@@ -192,6 +232,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
             case FINISH -> {
                 updateMessage("Finished - Elapsed Time: " + taskTimer.getElapsedTimeFormatted());
                 updateProgress(1, 1);
+                DrawingBotV3.logger.config(metrics.toString());
             }
         }
         return true;
@@ -225,6 +266,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
 
         //Start the task timer
         taskTimer.start();
+        metrics.reset();
         logStart();
 
         //Loop through the various task stages and run them
@@ -241,7 +283,21 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
 
             sendListenerEvent(listener -> listener.prePFMTaskStage(this, stage));
 
-            if(!doTask()){
+            FlightRecorderEvents.PFMStageEvent stageEvent = new FlightRecorderEvents.PFMStageEvent();
+            stageEvent.begin();
+            long stageStart = PFMTaskMetrics.start();
+            boolean success = doTask();
+            metrics.recordStage(stage, stageStart);
+            if(stageEvent.shouldCommit()){
+                stageEvent.task = getTaskName();
+                stageEvent.pfm = pfmFactory.getRegistryName();
+                stageEvent.stage = stage.name();
+                stageEvent.subTask = isSubTask;
+                stageEvent.geometries = drawing.getGeometryCount();
+                stageEvent.commit();
+            }
+
+            if(!success){
                 cancel();
                 break;
             }
@@ -268,6 +324,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
 
         //Finish the task timer
         taskTimer.finish();
+        drawing.setMetadata(Register.INSTANCE.PFM_METRICS, metrics);
 
         return drawing;
     }
@@ -304,10 +361,24 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
         return taskTimer.getElapsedTime();
     }
 
+    /**
+     * @return the time spent in each stage and step of the task and the work done by the PFM, also stored in the drawing's metadata once the task has finished
+     */
+    public PFMTaskMetrics getMetrics(){
+        return metrics;
+    }
+
     public boolean isTaskFinished(){
         return stage == EnumTaskStage.FINISH;
     }
 
+    /**
+     * @return true if the drawing can be extended once the task finishes, only image tasks plotted by a single PFM can restore their pixel data from the drawing
+     */
+    public boolean canBeExtended(){
+        return this instanceof PFMTaskImage && !isSubTask() && hostTask == null && subTasks.isEmpty() && !isColourMatchTask();
+    }
+
     /**
      * Called when a user presses the STOP button, rather than cancelling the task, this tries to keep the progress which has already been made.
      */
@@ -367,6 +438,7 @@ public class PFMTask extends DBTask<PlottedDrawing> implements ISpecialListenabl
         comments.clear();
         finishEarly = false;
 
+        ExportOptimisationCache.INSTANCE.release(drawing);
         drawing.reset();
     }
 
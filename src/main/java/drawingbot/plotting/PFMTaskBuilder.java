@@ -8,8 +8,11 @@ import drawingbot.image.ImageFilterSettings;
 import drawingbot.image.format.ImageData;
 import drawingbot.javafx.GenericSetting;
 import drawingbot.javafx.observables.ObservableDrawingSet;
+import drawingbot.pfm.AbstractSketchPFM;
 import drawingbot.pfm.PFMFactory;
 import drawingbot.plotting.canvas.SimpleCanvas;
+import drawingbot.registry.Register;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.function.Consumer;
@@ -34,6 +37,9 @@ public class PFMTaskBuilder {
 
     public PlottedDrawing drawing;
 
+    /** The finished drawing to continue plotting, see {@link #setExtendedDrawing(PlottedDrawing)} */
+    public PlottedDrawing extendedDrawing;
+
     // Image Data \\
     public ImageFilterSettings imageSettings;
     public ImageData imageData;
@@ -96,8 +102,8 @@ public class PFMTaskBuilder {
             preSetup.accept(this);
         }
 
-        //Create the drawing now all the settings have been applied properly
-        drawing = new PlottedDrawing(canvas, drawingSets);
+        //Create the drawing now all the settings have been applied properly, an extended drawing is copied so stopping the task early leaves the finished drawing as it was
+        drawing = extendedDrawing != null ? extendedDrawing.copy() : new PlottedDrawing(canvas, drawingSets);
 
         PFMTask task;
         if(!useInternalBuilder && customTaskSupplier != null){
@@ -129,6 +135,24 @@ public class PFMTaskBuilder {
         }
     }
 
+    //// Extending Drawings \\\\
+
+    /**
+     * @return true if the drawing was plotted by the given sketch PFM and can be extended with new settings
+     */
+    public static boolean canExtendDrawing(@Nullable PlottedDrawing drawing, PFMFactory<?> pfmFactory){
+        if(drawing == null){
+            return false;
+        }
+        AbstractSketchPFM.State state = drawing.getMetadata(Register.INSTANCE.SKETCH_PFM_STATE);
+        return state != null && state.pfmFactory == pfmFactory && drawing.getPlottingImage() != null && drawing.getReferenceImage() != null;
+    }
+
+    @Nullable
+    public AbstractSketchPFM.State getExtendedState(){
+        return extendedDrawing == null ? null : extendedDrawing.getMetadata(Register.INSTANCE.SKETCH_PFM_STATE);
+    }
+
     //// Setters / Getters \\\\
 
     public DBTaskContext context() {
@@ -185,6 +209,18 @@ public class PFMTaskBuilder {
         return this;
     }
 
+    /**
+     * Continues the PFM run which created the finished drawing with the current settings, e.g. with a higher max lines or line density, the new geometries are appended to a copy of the drawing
+     * The previous run's final pixel data is restored from the drawing, so plotting continues from where it finished rather than from a blank image, see {@link #canExtendDrawing(PlottedDrawing, PFMFactory)}
+     * <br>
+     * External task suppliers are bypassed as only the standard image task can restore the pixel data
+     */
+    public PFMTaskBuilder setExtendedDrawing(PlottedDrawing extendedDrawing) {
+        this.extendedDrawing = extendedDrawing;
+        this.useInternalBuilder = true;
+        return this;
+    }
+
     public PFMTaskBuilder setCustomTaskSupplier(Function<PFMTaskBuilder, PFMTask> customTaskSupplier) {
         this.customTaskSupplier = customTaskSupplier;
         return this;
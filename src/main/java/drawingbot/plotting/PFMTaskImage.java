@@ -5,18 +5,20 @@ import drawingbot.api.IPFMImage;
 import drawingbot.api.IPixelData;
 import drawingbot.files.json.projects.DBTaskContext;
 import drawingbot.image.ImageFilterSettings;
+import drawingbot.image.ImageFilteringService;
 import drawingbot.image.ImageTools;
 import drawingbot.image.format.ImageData;
 import drawingbot.javafx.GenericSetting;
 import drawingbot.javafx.observables.ObservableDrawingSet;
 import drawingbot.javafx.observables.ObservableImageFilter;
+import drawingbot.pfm.AbstractSketchPFM;
 import drawingbot.pfm.PFMFactory;
 import drawingbot.registry.Register;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import org.imgscalr.Scalr;
 import org.jetbrains.annotations.Nullable;
 
 import java.awt.image.BufferedImage;
-import java.awt.image.BufferedImageOp;
 import java.io.File;
 import java.util.List;
 
@@ -33,11 +35,15 @@ public class PFMTaskImage extends PFMTask {
     public boolean enableImageFiltering = true;
 
     public PFMTaskImage(PFMTaskBuilder builder){
-        this(builder.context, builder.drawing, builder.pfmFactory, builder.activeSet, builder.pfmSettings, builder.imageSettings, builder.imageData);
+        this(builder.context, builder.drawing, builder.pfmFactory, builder.activeSet, builder.pfmSettings, builder.imageSettings, builder.imageData, builder.getExtendedState());
     }
 
     public PFMTaskImage(DBTaskContext context, PlottedDrawing drawing, PFMFactory<?> pfmFactory, ObservableDrawingSet drawingPenSet, List<GenericSetting<?, ?>> pfmSettings, @Nullable ImageFilterSettings imgFilterSettings, ImageData imageData){
-        super(context, drawing, pfmFactory, drawingPenSet, pfmSettings);
+        this(context, drawing, pfmFactory, drawingPenSet, pfmSettings, imgFilterSettings, imageData, null);
+    }
+
+    public PFMTaskImage(DBTaskContext context, PlottedDrawing drawing, PFMFactory<?> pfmFactory, ObservableDrawingSet drawingPenSet, List<GenericSetting<?, ?>> pfmSettings, @Nullable ImageFilterSettings imgFilterSettings, ImageData imageData, @Nullable AbstractSketchPFM.State extendedState){
+        super(context, drawing, pfmFactory, drawingPenSet, pfmSettings, extendedState);
         this.imgFilterSettings = imgFilterSettings;
         this.imageData = imageData;
         this.drawing.setMetadata(Register.INSTANCE.ORIGINAL_FILE, imageData.getSourceFile());
@@ -52,44 +58,77 @@ public class PFMTaskImage extends PFMTask {
     public void preProcessImages() {
         super.preProcessImages();
 
+        if(extendedState != null){
+            restoreExtendedImages();
+            return;
+        }
+
         BufferedImage imgPlotting = null;
 
         if(enableImageFiltering && imgFilterSettings != null){
             if(imageData.isVectorImage()){
                 updateMessage("Pre-Processing - Rasterizing from Vector");
             }
-            imgPlotting = imageData.createCroppedImage(drawing.getCanvas());
-
-            DrawingBotV3.logger.fine("Applying Filters");
-            for(ObservableImageFilter filter : imgFilterSettings.currentFilters.get()) {
-                if (filter.enable.get()) {
-                    BufferedImageOp instance = filter.filterFactory.instance();
-                    filter.filterSettings.forEach(setting -> setting.applySetting(instance));
-
-                    updateMessage("Pre-Processing - " + filter.name.getValue());
-                    imgPlotting = instance.filter(imgPlotting, null);
+            //the image filtering service may have already filtered the image with identical settings
+            long cacheStart = PFMTaskMetrics.start();
+            imgPlotting = ImageFilteringService.getCachedFilteredImage(ImageFilteringService.createFingerprint(imageData, drawing.getCanvas(), imgFilterSettings.currentFilters.get()));
+            metrics.recordStep("Filtered Image Cache", cacheStart);
+
+            if(imgPlotting != null){
+                DrawingBotV3.logger.fine("Using Cached Filtered Image");
+            }else{
+                long cropStart = PFMTaskMetrics.start();
+                imgPlotting = imageData.createCroppedImage(drawing.getCanvas());
+                metrics.recordStep("Crop", cropStart);
+
+                DrawingBotV3.logger.fine("Applying Filters");
+                for(ObservableImageFilter filter : imgFilterSettings.currentFilters.get()) {
+                    if (filter.enable.get()) {
+                        updateMessage("Pre-Processing - " + filter.name.getValue());
+                        FlightRecorderEvents.ImageFilterEvent event = new FlightRecorderEvents.ImageFilterEvent();
+                        event.begin();
+                        long filterStart = PFMTaskMetrics.start();
+                        imgPlotting = filter.filter(imgPlotting, null);
+                        metrics.recordStep("Filter - " + filter.name.getValue(), filterStart);
+                        if(event.shouldCommit()){
+                            event.filter = filter.name.getValue();
+                            event.width = imgPlotting.getWidth();
+                            event.height = imgPlotting.getHeight();
+                            event.commit();
+                        }
+                    }
                 }
             }
         }
 
         if(imgPlotting == null){
             DrawingBotV3.logger.fine("Copying Original Image");
+            long cropStart = PFMTaskMetrics.start();
             imgPlotting = ImageTools.deepCopy(imageData.createPreCroppedImage());
+            metrics.recordStep("Crop", cropStart);
         }
 
         if(pfm.getPlottingResolution() != 1 && enablePlottingResolution){
             updateMessage("Pre-Processing - Resize");
+            long resizeStart = PFMTaskMetrics.start();
             imgPlotting = Scalr.resize(imgPlotting, Scalr.Method.ULTRA_QUALITY, (int)(imgPlotting.getWidth() * pfm().getPlottingResolution()), (int)(imgPlotting.getHeight()* pfm().getPlottingResolution()));
+            metrics.recordStep("Resize", resizeStart);
         }
 
         DrawingBotV3.logger.fine("Creating Reference Image");
+        long referenceStart = PFMTaskMetrics.start();
         pixelDataReference = pfm().createPixelData(imgPlotting.getWidth(), imgPlotting.getHeight());
         pixelDataReference.loadData(imgPlotting);
+        metrics.recordStep("Load Pixel Data - Reference", referenceStart);
         this.drawing.setMetadata(Register.INSTANCE.REFERENCE_IMAGE, imgPlotting);
         DrawingBotV3.logger.config( "Reference Image: " + pixelDataReference.asString());
 
         DrawingBotV3.logger.finer("Creating Plotting Image");
+        long preFilterStart = PFMTaskMetrics.start();
         imgPlotting = pfm().preFilter(imgPlotting);
+        metrics.recordStep("PFM Pre-Filter", preFilterStart);
+
+        long plottingStart = PFMTaskMetrics.start();
         pixelDataPlotting = pfm().createPixelData(imgPlotting.getWidth(), imgPlotting.getHeight());
         DrawingBotV3.logger.config("Plotting Image: " + pixelDataPlotting.asString());
 
@@ -100,9 +139,33 @@ public class PFMTaskImage extends PFMTask {
 
         pixelDataPlotting.setTransparentARGB(pfm().getTransparentARGB());
         pixelDataPlotting.loadData(imgPlotting);
+        metrics.recordStep("Load Pixel Data - Plotting", plottingStart);
         this.drawing.setMetadata(Register.INSTANCE.PLOTTING_IMAGE, imgPlotting);
     }
 
+    /**
+     * Restores the pixel data of the drawing being extended, the plotting image holds the pixel data as it was when the previous run finished, so no filtering is required
+     */
+    protected void restoreExtendedImages(){
+        updateMessage("Pre-Processing - Restoring Pixel Data");
+        long referenceStart = PFMTaskMetrics.start();
+        BufferedImage imgReference = drawing.getReferenceImage();
+        pixelDataReference = pfm().createPixelData(imgReference.getWidth(), imgReference.getHeight());
+        pixelDataReference.loadData(imgReference);
+        metrics.recordStep("Load Pixel Data - Reference", referenceStart);
+
+        long plottingStart = PFMTaskMetrics.start();
+        BufferedImage imgPlotting = drawing.getPlottingImage();
+        pixelDataPlotting = pfm().createPixelData(imgPlotting.getWidth(), imgPlotting.getHeight());
+        if(tools.getSoftClip() != null){
+            pixelDataPlotting.setSoftClip(tools.getSoftClipPixelMask());
+        }
+        pixelDataPlotting.setTransparentARGB(pfm().getTransparentARGB());
+        pixelDataPlotting.loadData(imgPlotting);
+        metrics.recordStep("Load Pixel Data - Plotting", plottingStart);
+        DrawingBotV3.logger.config("Extending Drawing, Plotting Image: " + pixelDataPlotting.asString());
+    }
+
     @Override
     public void postProcessImages() {
         super.postProcessImages();
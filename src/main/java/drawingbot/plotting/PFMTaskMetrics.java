@@ -0,0 +1,89 @@
+package drawingbot.plotting;
+
+import drawingbot.utils.EnumTaskStage;
+import drawingbot.utils.Utils;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records where the time of a {@link PFMTask} is spent and how much work the PFM did, to find bottlenecks without attaching a profiler.
+ * The times of each {@link EnumTaskStage} are recorded by the task, the named steps within each stage e.g. image filters are recorded by the task and its subclasses.
+ * The counters are incremented by the {@link PlottingTools} and the PFM helpers, they are cheap enough to always be enabled.
+ * Pixels are only erased by PFMs which erase their geometries from the image, e.g. the sketch PFMs or with {@link PlottingTools#adjustGeometryLuminance}, so the count is only reported for those PFMs.
+ * <br>
+ * N.B. this class is not thread safe, like the PFMs themselves
+ */
+public class PFMTaskMetrics {
+
+    public final Map<EnumTaskStage, Long> stageTimes = new EnumMap<>(EnumTaskStage.class);
+    public final Map<String, Long> stepTimes = new LinkedHashMap<>();
+
+    // COUNTERS \\
+    public long darkestPixelLookups = 0;
+    public long lineTests = 0;
+    public long pixelsSampled = 0;
+    public long pixelsErased = 0;
+    public long geometriesAdded = 0;
+    public long clipOperations = 0;
+
+    /**
+     * @return the start time to pass to {@link #recordStage(EnumTaskStage, long)} or {@link #recordStep(String, long)}
+     */
+    public static long start(){
+        return System.nanoTime();
+    }
+
+    public void recordStage(EnumTaskStage stage, long startTime){
+        stageTimes.merge(stage, System.nanoTime() - startTime, Long::sum);
+    }
+
+    /**
+     * Adds the time since the start time to the named step, steps which run more than once are summed
+     */
+    public void recordStep(String step, long startTime){
+        stepTimes.merge(step, System.nanoTime() - startTime, Long::sum);
+    }
+
+    /**
+     * @return the time spent in the stage in milliseconds
+     */
+    public double getStageTime(EnumTaskStage stage){
+        return stageTimes.getOrDefault(stage, 0L) / 1_000_000D;
+    }
+
+    /**
+     * @return the time spent in the step in milliseconds
+     */
+    public double getStepTime(String step){
+        return stepTimes.getOrDefault(step, 0L) / 1_000_000D;
+    }
+
+    public void reset(){
+        stageTimes.clear();
+        stepTimes.clear();
+        darkestPixelLookups = 0;
+        lineTests = 0;
+        pixelsSampled = 0;
+        pixelsErased = 0;
+        geometriesAdded = 0;
+        clipOperations = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("PFM Metrics:");
+        stageTimes.forEach((stage, time) -> builder.append("\n  Stage - %s: %s ms".formatted(stage, Utils.defaultDF.format(time / 1_000_000D))));
+        stepTimes.forEach((step, time) -> builder.append("\n  Step - %s: %s ms".formatted(step, Utils.defaultDF.format(time / 1_000_000D))));
+        builder.append("\n  Darkest Pixel Lookups: ").append(darkestPixelLookups);
+        builder.append("\n  Line Tests: ").append(lineTests);
+        builder.append("\n  Pixels Sampled: ").append(pixelsSampled);
+        if(pixelsErased > 0){
+            builder.append("\n  Pixels Erased: ").append(pixelsErased);
+        }
+        builder.append("\n  Geometries Added: ").append(geometriesAdded);
+        builder.append("\n  Clip Operations: ").append(clipOperations);
+        return builder.toString();
+    }
+}
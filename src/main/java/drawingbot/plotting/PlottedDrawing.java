@@ -1,11 +1,13 @@
 package drawingbot.plotting;
 
+import drawingbot.DrawingBotV3;
 import drawingbot.api.ICanvas;
 import drawingbot.api.IGeometryFilter;
 import drawingbot.drawing.DrawingSets;
 import drawingbot.drawing.DrawingStats;
 import drawingbot.geom.GeometryUtils;
 import drawingbot.geom.shapes.IGeometry;
+import drawingbot.geom.spatial.SpatialGridIndex;
 import drawingbot.image.ImageTools;
 import drawingbot.javafx.observables.ObservableDrawingPen;
 import drawingbot.javafx.observables.ObservableDrawingSet;
@@ -19,6 +21,7 @@ import drawingbot.utils.flags.Flags;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Coordinate;
 
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.*;
@@ -42,6 +45,16 @@ public class PlottedDrawing {
     public boolean ignoreWeightedDistribution = false; //used for disabling distributions within sub tasks, will use the pfms default
 
     private Map<ObservableDrawingPen, Integer> perPenGeometryStats;
+    private PlottedDrawingLOD lod;
+    private SpatialGridIndex<IGeometry> spatialIndex;
+    private int spatialIndexCount = 0;
+    private boolean spatialIndexPending = false;
+    private final Object spatialIndexLock = new Object();
+
+    /**
+     * The number of cells along the longest side of the drawing's spatial index
+     */
+    public static int spatialIndexResolution = 64;
 
     public PlottedDrawing(ICanvas canvas, DrawingSets drawingSets){
         this(canvas, drawingSets, true);
@@ -132,10 +145,103 @@ public class PlottedDrawing {
         return geometries.size();
     }
 
+    /**
+     * @return the level of detail pyramid for the drawing, a new one will be created if geometries have been added since it was last requested
+     */
+    public synchronized PlottedDrawingLOD getLOD(){
+        if(lod == null || !lod.isValid()){
+            lod = new PlottedDrawingLOD(this);
+        }
+        return lod;
+    }
+
     public long getVertexCount(){
         return vertexCount;
     }
 
+    /**
+     * @return true if every geometry in the drawing has been added to the spatial index
+     */
+    public synchronized boolean isSpatialIndexUpToDate(){
+        return spatialIndex != null && spatialIndexCount == geometries.size();
+    }
+
+    /**
+     * Updates the spatial index in the background if an update hasn't already been requested
+     * @param onUpdated called on the background thread once the index is updated, only if this call requested the update
+     */
+    public synchronized void requestSpatialIndexUpdate(@Nullable Runnable onUpdated){
+        if(spatialIndexPending){
+            return;
+        }
+        spatialIndexPending = true;
+        DrawingBotV3.INSTANCE.backgroundService.submit(() -> {
+            try{
+                updateSpatialIndex();
+            }finally {
+                synchronized (this){
+                    spatialIndexPending = false;
+                }
+            }
+            if(onUpdated != null){
+                onUpdated.run();
+            }
+        });
+    }
+
+    /**
+     * Adds any geometries which have been added to the drawing since the last update to the spatial index
+     * The index stores each geometry's bounds in drawing space, without the pen's stroke width
+     * <br>
+     * Geometries are appended while holding the drawing's lock, so the index can be extended while the drawing is still being plotted.
+     * The new geometries' bounds are found without holding the lock, so the PFM is only blocked while they're inserted
+     */
+    public void updateSpatialIndex(){
+        synchronized (spatialIndexLock){
+            SpatialGridIndex<IGeometry> index;
+            List<IGeometry> added;
+            synchronized (this){
+                if(spatialIndex == null){
+                    double width = Math.max(1, canvas.getScaledDrawingWidth());
+                    double height = Math.max(1, canvas.getScaledDrawingHeight());
+                    double cellSize = Math.max(width, height) / spatialIndexResolution;
+                    spatialIndex = new SpatialGridIndex<>(0, 0, width, height, cellSize, cellSize);
+                    spatialIndexCount = 0;
+                }
+                index = spatialIndex;
+                added = new ArrayList<>(geometries.subList(spatialIndexCount, geometries.size()));
+            }
+            if(added.isEmpty()){
+                return;
+            }
+            Rectangle2D[] bounds = new Rectangle2D[added.size()];
+            for(int i = 0; i < bounds.length; i++){
+                bounds[i] = added.get(i).getAWTShape().getBounds2D();
+            }
+            synchronized (this){
+                if(spatialIndex != index){
+                    //the drawing was cleared while the bounds were found
+                    return;
+                }
+                for(int i = 0; i < bounds.length; i++){
+                    spatialIndex.insert(added.get(i), bounds[i].getMinX(), bounds[i].getMinY(), bounds[i].getMaxX(), bounds[i].getMaxY());
+                }
+                spatialIndexCount += bounds.length;
+            }
+        }
+    }
+
+    /**
+     * Finds the geometries which may overlap the given bounds in drawing space, the result is conservative and in the order the geometries were added
+     * Only geometries added before the last call to {@link #updateSpatialIndex()} will be returned
+     */
+    public synchronized List<IGeometry> queryGeometries(double minX, double minY, double maxX, double maxY){
+        if(spatialIndex == null){
+            return List.of();
+        }
+        return spatialIndex.query(minX, minY, maxX, maxY);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -143,8 +249,10 @@ public class PlottedDrawing {
         if(geometry == null){
             return;
         }
-        geometry.setGeometryIndex(geometries.size());
-        geometries.add(geometry);
+        synchronized (this){
+            geometry.setGeometryIndex(geometries.size());
+            geometries.add(geometry);
+        }
         vertexCount += geometry.getVertexCount();
 
         addGeometryToGroups(geometry);
@@ -265,8 +373,13 @@ public class PlottedDrawing {
     ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
     public void clearGeometries(){
-        geometries.clear();
         vertexCount = 0;
+        synchronized (this){
+            geometries.clear();
+            spatialIndex = null;
+            spatialIndexCount = 0;
+            lod = null;
+        }
         groups.values().forEach(PlottedGroup::clearGeometries);
     }
 
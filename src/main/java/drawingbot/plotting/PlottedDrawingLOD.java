@@ -0,0 +1,344 @@
+package drawingbot.plotting;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.geom.GeometryUtils;
+import drawingbot.geom.shapes.GPath;
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.geom.shapes.IPathElement;
+import drawingbot.image.blend.EnumBlendMode;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.geom.GeneralPath;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A level of detail pyramid for a {@link PlottedDrawing}, used to speed up preview rendering when many vertices fall within the same pixel.
+ * Each level holds the geometries to render in place of the drawing's own, for each pen continuous geometries with the same opaque colour are joined into a single path, and vertices closer together than the level's tolerance are removed.
+ * Level n has a tolerance of {@link #BASE_TOLERANCE} * 2^n in drawing units, levels are only built when they are requested and the original geometries are never modified.
+ * <br>
+ * Joined paths are only equivalent to the originals when drawn with normal blending, see {@link #canDisplayLOD(PlottedDrawing, EnumBlendMode)}
+ */
+public class PlottedDrawingLOD {
+
+    public static final int LEVEL_COUNT = 8;
+    public static final double BASE_TOLERANCE = 0.25;
+
+    /**
+     * The maximum number of segments joined into a single path, so progressive rendering can still stop regularly
+     */
+    public static final int MAX_PATH_SEGMENTS = 4096;
+
+    public final PlottedDrawing drawing;
+    public final int geometryCount;
+    private final List<Integer> penColours;
+
+    private final List<CompletableFuture<Level>> levels = new ArrayList<>();
+
+    public PlottedDrawingLOD(PlottedDrawing drawing){
+        this.drawing = drawing;
+        this.geometryCount = drawing.getGeometryCount();
+        this.penColours = getPenColours(drawing);
+        for(int i = 0; i < LEVEL_COUNT; i++){
+            levels.add(null);
+        }
+    }
+
+    public static double getTolerance(int level){
+        return BASE_TOLERANCE * (1 << level);
+    }
+
+    /**
+     * @param renderScale the number of pixels per drawing unit
+     * @return the coarsest level with a tolerance of at most half a pixel, or -1 if the drawing should be rendered at full detail
+     */
+    public static int getLevelForScale(double renderScale){
+        double pixelTolerance = 0.5 / renderScale;
+        int level = -1;
+        while(level + 1 < LEVEL_COUNT && getTolerance(level + 1) <= pixelTolerance){
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Geometries are joined across their indices, so the LOD can only be used while every geometry in the drawing is displayed.
+     * Overlaps within a joined path are only painted once, so other blend modes would change the tone of the drawing
+     */
+    public static boolean canDisplayLOD(PlottedDrawing drawing, EnumBlendMode blendMode){
+        return blendMode == EnumBlendMode.NORMAL && drawing.getDisplayedShapeMin() <= 0 && drawing.getDisplayedShapeMax() >= drawing.getGeometryCount();
+    }
+
+    /**
+     * @return false if geometries have been added to the drawing or the pen colours have changed since the LOD was created
+     */
+    public boolean isValid(){
+        return drawing.getGeometryCount() == geometryCount && penColours.equals(getPenColours(drawing));
+    }
+
+    /**
+     * Which geometries can be joined depends on the opacity of the pens, so the LOD must be rebuilt if they change
+     */
+    private static List<Integer> getPenColours(PlottedDrawing drawing){
+        List<Integer> colours = new ArrayList<>();
+        for(ObservableDrawingPen pen : drawing.getGlobalRenderOrder()){
+            colours.add(pen.getARGB());
+        }
+        return colours;
+    }
+
+    /**
+     * @return the level if it has finished building, otherwise null
+     */
+    @Nullable
+    public synchronized Level getLevelIfBuilt(int level){
+        CompletableFuture<Level> future = levels.get(level);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+    }
+
+    /**
+     * Builds the level in the background if it hasn't already been requested
+     * @param onBuilt called on the background thread once the level is built, only if this call started building it
+     */
+    public synchronized void requestLevel(int level, @Nullable Runnable onBuilt){
+        if(levels.get(level) == null){
+            CompletableFuture<Level> future = CompletableFuture.supplyAsync(() -> buildLevel(level), DrawingBotV3.INSTANCE.backgroundService);
+            if(onBuilt != null){
+                future.thenRun(onBuilt);
+            }
+            levels.set(level, future);
+        }
+    }
+
+    /**
+     * @return the level, building it on the calling thread if it hasn't already been requested, or waiting for it to finish building
+     */
+    public Level getLevel(int level){
+        CompletableFuture<Level> future;
+        synchronized (this){
+            future = levels.get(level);
+            if(future == null){
+                future = new CompletableFuture<>();
+                levels.set(level, future);
+            }else{
+                return future.join();
+            }
+        }
+        try{
+            future.complete(buildLevel(level));
+        }catch (RuntimeException e){
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return future.join();
+    }
+
+    private Level buildLevel(int level){
+        long startTime = System.currentTimeMillis();
+        Level result = new Level(level, getTolerance(level));
+        List<IGeometry> run = new ArrayList<>();
+        for(PlottedGroup group : drawing.groups.values()){
+            for(Map.Entry<ObservableDrawingPen, List<IGeometry>> entry : group.getGeometriesPerPen().entrySet()){
+                ObservableDrawingPen pen = entry.getKey();
+                List<IGeometry> output = new ArrayList<>();
+                int runSegments = 0;
+                for(IGeometry geometry : entry.getValue()){
+                    if(!run.isEmpty() && (runSegments >= MAX_PATH_SEGMENTS || !canJoin(pen, run.get(run.size() - 1), geometry))){
+                        result.addRun(run, output);
+                        run.clear();
+                        runSegments = 0;
+                    }
+                    run.add(geometry);
+                    runSegments += geometry.getVertexCount();
+                }
+                result.addRun(run, output);
+                run.clear();
+                result.setGeometries(group, pen, output);
+            }
+        }
+        DrawingBotV3.logger.fine("Drawing LOD: Built level %s in %s ms, %s vertices -> %s vertices".formatted(level, System.currentTimeMillis() - startTime, result.originalVertices, result.simplifiedVertices));
+        return result;
+    }
+
+    /**
+     * Only opaque geometries are joined, overlaps within a single path are painted once so joining translucent geometries would lighten the drawing
+     */
+    private static boolean canJoin(ObservableDrawingPen pen, IGeometry last, IGeometry next){
+        return last instanceof IPathElement && next instanceof IPathElement
+                && last.getFillType() != 0 && next.getFillType() != 0
+                && last.getPenIndex() == next.getPenIndex()
+                && last.getSampledRGBA() == next.getSampledRGBA()
+                && pen.getAWTColor(last.getSampledRGBA()).getAlpha() == 255
+                && GeometryUtils.comparePathContinuity(last, next);
+    }
+
+    /**
+     * Removes every line segment which ends closer than the tolerance to the last vertex kept, curves and the final vertex of each sub-path are always kept
+     * @return the simplified path, or null if it wouldn't remove enough vertices to be worth keeping
+     */
+    @Nullable
+    public static GeneralPath simplifyPath(GeneralPath path, double tolerance){
+        GeneralPath simplified = new GeneralPath(path.getWindingRule());
+        PathIterator iterator = path.getPathIterator(null);
+        float[] coords = new float[6];
+        double toleranceSq = tolerance * tolerance;
+        float lastX = 0, lastY = 0;
+        float skippedX = 0, skippedY = 0;
+        boolean skipped = false;
+        int originalSegments = 0;
+        int simplifiedSegments = 0;
+
+        while(!iterator.isDone()){
+            int segType = iterator.currentSegment(coords);
+            originalSegments++;
+            if(segType == PathIterator.SEG_LINETO){
+                double dx = coords[0] - lastX, dy = coords[1] - lastY;
+                if(dx*dx + dy*dy < toleranceSq){
+                    skipped = true;
+                    skippedX = coords[0];
+                    skippedY = coords[1];
+                }else{
+                    simplified.lineTo(coords[0], coords[1]);
+                    simplifiedSegments++;
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    skipped = false;
+                }
+                iterator.next();
+                continue;
+            }
+            if(skipped){
+                simplified.lineTo(skippedX, skippedY);
+                simplifiedSegments++;
+                skipped = false;
+            }
+            switch (segType){
+                case PathIterator.SEG_MOVETO -> {
+                    simplified.moveTo(coords[0], coords[1]);
+                    lastX = coords[0];
+                    lastY = coords[1];
+                }
+                case PathIterator.SEG_QUADTO -> {
+                    simplified.quadTo(coords[0], coords[1], coords[2], coords[3]);
+                    lastX = coords[2];
+                    lastY = coords[3];
+                }
+                case PathIterator.SEG_CUBICTO -> {
+                    simplified.curveTo(coords[0], coords[1], coords[2], coords[3], coords[4], coords[5]);
+                    lastX = coords[4];
+                    lastY = coords[5];
+                }
+                case PathIterator.SEG_CLOSE -> simplified.closePath();
+            }
+            simplifiedSegments++;
+            iterator.next();
+        }
+        if(skipped){
+            simplified.lineTo(skippedX, skippedY);
+            simplifiedSegments++;
+        }
+        return simplifiedSegments < originalSegments * 0.9 ? simplified : null;
+    }
+
+    public static class Level {
+
+        public final int level;
+        public final double tolerance;
+        public int originalVertices = 0;
+        public int simplifiedVertices = 0;
+        public int geometryCount = 0;
+
+        /**
+         * The geometries to render for each pen in each group, in render order, only joined or simplified paths are new geometries, the rest are the drawing's own
+         */
+        private final Map<PlottedGroup, Map<ObservableDrawingPen, List<IGeometry>>> geometries = new HashMap<>();
+
+        public Level(int level, double tolerance) {
+            this.level = level;
+            this.tolerance = tolerance;
+        }
+
+        /**
+         * @return the geometries to render in place of the group's geometries for the pen, or null if there are none
+         */
+        @Nullable
+        public List<IGeometry> getGeometries(PlottedGroup group, ObservableDrawingPen pen){
+            Map<ObservableDrawingPen, List<IGeometry>> perPen = geometries.get(group);
+            return perPen == null ? null : perPen.get(pen);
+        }
+
+        /**
+         * @return an iterator over the level's geometries, in the same order as a {@link DrawingGeometryIterator} over the drawing
+         */
+        public DrawingGeometryIterator iterator(PlottedDrawing drawing){
+            return new LevelIterator(drawing, this);
+        }
+
+        private void setGeometries(PlottedGroup group, ObservableDrawingPen pen, List<IGeometry> output){
+            geometries.computeIfAbsent(group, key -> new HashMap<>()).put(pen, output);
+            geometryCount += output.size();
+        }
+
+        private void addRun(List<IGeometry> run, List<IGeometry> output){
+            if(run.isEmpty()){
+                return;
+            }
+            IGeometry first = run.get(0);
+            int vertices = 0;
+            for(IGeometry geometry : run){
+                vertices += geometry.getVertexCount();
+            }
+            originalVertices += vertices;
+
+            GPath path;
+            if(run.size() == 1){
+                if(!(first instanceof GPath)){
+                    simplifiedVertices += vertices;
+                    output.add(first);
+                    return;
+                }
+                path = (GPath) first;
+            }else{
+                path = new GPath((IPathElement) first, true);
+                for(int i = 1; i < run.size(); i++){
+                    ((IPathElement) run.get(i)).addToPath(false, path);
+                }
+            }
+
+            GeneralPath simplified = simplifyPath(path.awtPath, tolerance);
+            if(simplified != null){
+                path = (GPath) GeometryUtils.copyGeometryData(new GPath(simplified, true), first);
+            }
+            simplifiedVertices += path.getVertexCount();
+            output.add(path);
+        }
+    }
+
+    /**
+     * Iterates the level's geometries instead of the drawing's, the pens and groups are iterated in the drawing's current render order
+     */
+    private static class LevelIterator extends DrawingGeometryIterator {
+
+        private final Level level;
+
+        public LevelIterator(PlottedDrawing drawing, Level level) {
+            super(drawing);
+            this.level = level;
+        }
+
+        @Override
+        protected List<IGeometry> getGeometries(PlottedGroup group, ObservableDrawingPen pen) {
+            return level.getGeometries(group, pen);
+        }
+
+        @Override
+        public int getTotalGeometryCount() {
+            return level.geometryCount;
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class PlottingTools implements IPlottingTools {
     public AffineTransform plottingTransform;
     public AffineTransform hostTaskTransform;
     public boolean disablePlotting = false;
+    public PFMTaskMetrics metrics = new PFMTaskMetrics();
 
     // CLIPPING \\
     public Shape clippingShape = null;
@@ -369,6 +370,7 @@ public class PlottingTools implements IPlottingTools {
         }
 
         if(clippingShape != null && GeometryClipping.shouldClip(clippingShape, geometry, false)){
+            metrics.clipOperations++;
             List<IGeometry> geometries = GeometryClipping.clip(clippingShape, geometry, 0.5D, false);
             geometries.forEach(g -> {
                 if(hostTaskTransform != null){
@@ -385,6 +387,7 @@ public class PlottingTools implements IPlottingTools {
     }
 
     public void addGeometryInternal(IGeometry geometry){
+        metrics.geometriesAdded++;
         getPlottedDrawing().addGeometry(geometry);
     }
 
@@ -419,17 +422,22 @@ public class PlottingTools implements IPlottingTools {
     public int adjustGeometryLuminance(IPixelData pixelData, IGeometry geometry, int adjust){
         defaultColourTest.resetColourSamples(adjust);
         geometry.renderBresenham(bresenham, (x,y) -> defaultColourTest.addSample(pixelData, x, y));
+        if(adjust != 0){
+            metrics.pixelsErased += defaultColourTest.getSampleCount();
+        }
         return defaultColourTest.getCurrentAverage();
     }
 
 
     @Override
     public void findDarkestArea(IPixelData pixels, int[] dest) {
+        metrics.darkestPixelLookups++;
         AbstractDarkestPFM.findDarkestArea(pixels, dest);
     }
 
     @Override
     public List<int[]> findDarkestPixels(IPixelData pixels) {
+        metrics.darkestPixelLookups++;
         return AbstractDarkestPFM.findDarkestPixels(pixels);
     }
 
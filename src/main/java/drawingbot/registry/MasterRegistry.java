@@ -15,6 +15,7 @@ import drawingbot.files.loaders.FileLoaderFlags;
 import drawingbot.files.loaders.IFileLoaderFactory;
 import drawingbot.geom.shapes.IGeometry;
 import drawingbot.geom.shapes.JFXGeometryConverter;
+import drawingbot.image.ImageFilterFactory;
 import drawingbot.javafx.GenericFactory;
 import drawingbot.javafx.GenericPreset;
 import drawingbot.javafx.GenericSetting;
@@ -37,6 +38,7 @@ import java.awt.image.BufferedImageOp;
 import java.io.File;
 import java.util.*;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 public class MasterRegistry {
@@ -263,7 +265,7 @@ public class MasterRegistry {
         GenericSetting.resetSettings(list);
         GenericPreset<PresetData> preset = Register.PRESET_LOADER_PFM.getDefaultPresetForSubType(factory.getRegistryName());
         if(preset != null){
-            GenericSetting.applySettings(preset.data.settings, list);
+            GenericSetting.applySettings(preset.getData().settings, list);
         }
     }
 
@@ -464,9 +466,19 @@ public class MasterRegistry {
     }
 
     public <I extends BufferedImageOp> void registerImageFilter(EnumFilterTypes filterType, Class<I> filterClass, String name, Supplier<I> create, boolean isHidden){
+        registerImageFilter(filterType, filterClass, name, create, isHidden, null);
+    }
+
+    /**
+     * @param tileHalo returns the number of pixels the filter reads around each pixel, allowing it to be filtered in parallel tiles, or null if the filter can't be tiled see {@link ImageFilterFactory}
+     */
+    @SuppressWarnings("unchecked")
+    public <I extends BufferedImageOp> void registerImageFilter(EnumFilterTypes filterType, Class<I> filterClass, String name, Supplier<I> create, boolean isHidden, @Nullable ToIntFunction<I> tileHalo){
         DrawingBotV3.logger.config("Registering Image Filter: " + name);
         imgFilterFactories.putIfAbsent(filterType, FXCollections.observableArrayList());
-        imgFilterFactories.get(filterType).add(new GenericFactory(filterClass, name, create, isHidden));
+        //the factories are stored by their base type, the instances they create are only ever used as a BufferedImageOp
+        ImageFilterFactory<I> factory = new ImageFilterFactory<>(filterClass, name, create, isHidden, tileHalo);
+        imgFilterFactories.get(filterType).add((GenericFactory<BufferedImageOp>) factory);
     }
 
     public void registerImageFilterSetting(GenericSetting<? extends BufferedImageOp, ?> setting){
@@ -35,6 +35,7 @@ import drawingbot.javafx.preferences.FXPreferences;
 import drawingbot.javafx.settings.ImageSetting;
 import drawingbot.javafx.settings.custom.DirtyBorderSetting;
 import drawingbot.pfm.*;
+import drawingbot.plotting.PFMTaskMetrics;
 import drawingbot.plugins.*;
 import drawingbot.render.modes.*;
 import drawingbot.software.IComponent;
@@ -147,6 +148,8 @@ public class Register implements IPlugin {
     public Metadata<Shape> SOFT_CLIP_SHAPE;
     public Metadata<DrawingStats> DRAWING_STATS;
     public Metadata<String> SETTINGS_JSON;
+    public Metadata<PFMTaskMetrics> PFM_METRICS;
+    public Metadata<AbstractSketchPFM.State> SKETCH_PFM_STATE;
 
     public ObservableDrawingPen INVISIBLE_DRAWING_PEN;
     public DrawingPen BLACK_DRAWING_PEN;
@@ -276,6 +279,8 @@ public class Register implements IPlugin {
         MasterRegistry.INSTANCE.registerMetadataType(SOFT_CLIP_SHAPE = new Metadata<>("soft_clip_shape", Shape.class, false));
         MasterRegistry.INSTANCE.registerMetadataType(DRAWING_STATS = new Metadata<>("drawing_stats", DrawingStats.class, false));
         MasterRegistry.INSTANCE.registerMetadataType(SETTINGS_JSON = new Metadata<>("pfm_settings", String.class, false));
+        MasterRegistry.INSTANCE.registerMetadataType(PFM_METRICS = new Metadata<>("pfm_metrics", PFMTaskMetrics.class, false));
+        MasterRegistry.INSTANCE.registerMetadataType(SKETCH_PFM_STATE = new Metadata<>("sketch_pfm_state", AbstractSketchPFM.State.class, false));
 
         MasterRegistry.INSTANCE.setFallbackFileLoaderFactory(new ImageFileLoaderFactory());
         MasterRegistry.INSTANCE.registerFileLoaderFactory(new ProjectFileLoaderFactory());
@@ -369,17 +374,23 @@ public class Register implements IPlugin {
 
         ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BoxBlurFilter.class, "Box Blur", BoxBlurFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BoxBlurFilter.class, "Box Blur", BoxBlurFilter::new, false); //not tileable, the edge handling of each pass depends on the image height
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(BoxBlurFilter.class, "H Radius", 0F, 0, 100F, BoxBlurFilter::setHRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(BoxBlurFilter.class, "V Radius", 0F, 0, 100F, BoxBlurFilter::setVRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(BoxBlurFilter.class, "Iterations", 1, 0, 10, BoxBlurFilter::setIterations));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(BoxBlurFilter.class, "Premultiply", true,  BoxBlurFilter::setPremultiplyAlpha));
 
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, FastBoxBlurFilter.class, "Box Blur - Fast", FastBoxBlurFilter::new, false, filter -> ((int) Math.ceil(Math.max(filter.getHRadius(), filter.getVRadius())) + 1) * filter.getIterations());
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(FastBoxBlurFilter.class, "H Radius", 0F, 0, 100F, FastBoxBlurFilter::setHRadius));
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(FastBoxBlurFilter.class, "V Radius", 0F, 0, 100F, FastBoxBlurFilter::setVRadius));
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(FastBoxBlurFilter.class, "Iterations", 1, 0, 10, FastBoxBlurFilter::setIterations));
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(FastBoxBlurFilter.class, "Premultiply", true,  FastBoxBlurFilter::setPremultiplyAlpha));
+
         //// MISSING: CONVOLVE
 
         //// MISSING: DESPECKLE
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BumpFilter.class, "Emboss Edges", BumpFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BumpFilter.class, "Emboss Edges", BumpFilter::new, false, filter -> 1);
 
         MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MotionBlurOp.class, "Motion Blur - Fast", MotionBlurOp::new, false);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(MotionBlurOp.class, "Centre X", 0.5F, 0, 1, MotionBlurOp::setCentreX));
@@ -389,27 +400,36 @@ public class Register implements IPlugin {
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(MotionBlurOp.class, "Rotation", 0, -180, 180, MotionBlurOp::setRotation).setMajorTick(90));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(MotionBlurOp.class, "Zoom", 0, 0, 100, MotionBlurOp::setZoom));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, GaussianFilter.class, "Gaussian Blur", GaussianFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, GaussianFilter.class, "Gaussian Blur", GaussianFilter::new, false, filter -> (int) Math.ceil(filter.getRadius()));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(GaussianFilter.class, "Radius", 0, 0, 100, GaussianFilter::setRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(GaussianFilter.class, "Premultiply", true, GaussianFilter::setPremultiplyAlpha));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, GlowFilter.class, "Glow", GlowFilter::new, false); //extends Gaussian Blur
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, FastGaussianFilter.class, "Gaussian Blur - Fast", FastGaussianFilter::new, false, FastGaussianFilter::getKernelRadius);
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(FastGaussianFilter.class, "Radius", 0, 0, 100, FastGaussianFilter::setRadius));
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(FastGaussianFilter.class, "Premultiply", true, FastGaussianFilter::setPremultiplyAlpha));
+
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, GlowFilter.class, "Glow", GlowFilter::new, false, filter -> (int) Math.ceil(filter.getRadius())); //extends Gaussian Blur
         //MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(GlowFilter.class, "Premultiply", true, GlowFilter::setPremultiplyAlpha));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, HighPassFilter.class, "High Pass", HighPassFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, FastGlowFilter.class, "Glow - Fast", FastGlowFilter::new, false, FastGlowFilter::getKernelRadius); //extends Gaussian Blur - Fast
+
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, HighPassFilter.class, "High Pass", HighPassFilter::new, false, filter -> (int) Math.ceil(filter.getRadius()));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(HighPassFilter.class, "Softness", 0, 0, 100, HighPassFilter::setRadius));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, LensBlurFilter.class, "Lens Blur", LensBlurFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, FastHighPassFilter.class, "High Pass - Fast", FastHighPassFilter::new, false, FastHighPassFilter::getKernelRadius);
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(FastHighPassFilter.class, "Softness", 0, 0, 100, FastHighPassFilter::setRadius));
+
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, LensBlurFilter.class, "Lens Blur", LensBlurFilter::new, false); //not tileable, the FFT blur wraps around the image edges
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(LensBlurFilter.class, "Radius", 10, 0, 50, LensBlurFilter::setRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(LensBlurFilter.class, "Sides", 5, 3, 12, LensBlurFilter::setSides));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(LensBlurFilter.class, "Bloom", 2F, 1.0F, 8.0F, LensBlurFilter::setBloom));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(LensBlurFilter.class, "Bloom Threshold", 255F, 0F, 255F, LensBlurFilter::setBloomThreshold));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MaximumFilter.class, "Maximum", MaximumFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MaximumFilter.class, "Maximum", MaximumFilter::new, false, filter -> 1);
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MedianFilter.class, "Median", MedianFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MedianFilter.class, "Median", MedianFilter::new, false, filter -> 1);
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MinimumFilter.class, "Minimum", MinimumFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MinimumFilter.class, "Minimum", MinimumFilter::new, false, filter -> 1);
 
         MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, MotionBlurFilter.class, "Motion Blur Slow", MotionBlurFilter::new, false);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(MotionBlurFilter.class, "Wrap Edges", false, MotionBlurFilter::setWrapEdges));
@@ -418,36 +438,40 @@ public class Register implements IPlugin {
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(MotionBlurFilter.class, "Rotation", -180, 0, 180, MotionBlurFilter::setRotation));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(MotionBlurFilter.class, "Zoom", 20, 0, 100, MotionBlurFilter::setZoom));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, SharpenFilter.class, "Sharpen", SharpenFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, SharpenFilter.class, "Sharpen", SharpenFilter::new, false, filter -> 1);
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BlurFilter.class, "Simple Blur", BlurFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, BlurFilter.class, "Simple Blur", BlurFilter::new, false, filter -> 1);
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, SmartBlurFilter.class, "Smart Blur", SmartBlurFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, SmartBlurFilter.class, "Smart Blur", SmartBlurFilter::new, false, filter -> Math.max(filter.getHRadius(), filter.getVRadius()));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(SmartBlurFilter.class, "H Radius", 5, 0, 100, SmartBlurFilter::setHRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(SmartBlurFilter.class, "V Radius", 5, 0, 100, SmartBlurFilter::setVRadius));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(SmartBlurFilter.class, "Threshold", 10, 0, 255, SmartBlurFilter::setThreshold));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, HSBAdjustFilter.class, "Adjust HSB", HSBAdjustFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, HSBAdjustFilter.class, "Adjust HSB", HSBAdjustFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(HSBAdjustFilter.class, "Hue", 0F, -1F, 1F, HSBAdjustFilter::setHFactor));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(HSBAdjustFilter.class, "Saturation", 0F, -1F, 1F, HSBAdjustFilter::setSFactor));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(HSBAdjustFilter.class, "Brightness", 0F, -1F, 1F, HSBAdjustFilter::setBFactor));
 
         //// MISSING: SMOOTH FILTER
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, UnsharpFilter.class, "Unsharp Mask", UnsharpFilter::new, false); //extends Gaussian Blur
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, UnsharpFilter.class, "Unsharp Mask", UnsharpFilter::new, false, filter -> (int) Math.ceil(filter.getRadius())); //extends Gaussian Blur
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(UnsharpFilter.class, "Amount", 0.5F, 0, 1, UnsharpFilter::setAmount));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(UnsharpFilter.class, "Threshold", 1, 0, 255, UnsharpFilter::setThreshold));
 
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.BLUR, FastUnsharpFilter.class, "Unsharp Mask - Fast", FastUnsharpFilter::new, false, FastUnsharpFilter::getKernelRadius); //extends Gaussian Blur - Fast
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(FastUnsharpFilter.class, "Amount", 0.5F, 0, 1, FastUnsharpFilter::setAmount));
+        MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(FastUnsharpFilter.class, "Threshold", 1, 0, 255, FastUnsharpFilter::setThreshold));
+
         //// MISSING: VARIABLE BLUR
 
         ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, RGBAdjustFilter.class, "Adjust RGB", RGBAdjustFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, RGBAdjustFilter.class, "Adjust RGB", RGBAdjustFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(RGBAdjustFilter.class, "Red", 0F, -1F, 1F, RGBAdjustFilter::setRFactor));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(RGBAdjustFilter.class, "Green", 0F, -1F, 1F, RGBAdjustFilter::setGFactor));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(RGBAdjustFilter.class, "Blue", 0F, -1F, 1F, RGBAdjustFilter::setBFactor));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ContrastFilter.class, "Contrast", ContrastFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ContrastFilter.class, "Contrast", ContrastFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(ContrastFilter.class, "Brightness", 1F, 0, 2F, ContrastFilter::setBrightness));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(ContrastFilter.class, "Contrast", 1F, 0, 2F, ContrastFilter::setContrast));
 
@@ -455,19 +479,19 @@ public class Register implements IPlugin {
 
         //// MISSING: DITHER
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ExposureFilter.class, "Exposure", ExposureFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ExposureFilter.class, "Exposure", ExposureFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(ExposureFilter.class, "Exposure", 1F, 0, 5F, ExposureFilter::setExposure));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GainFilter.class, "Gain", GainFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GainFilter.class, "Gain", GainFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(GainFilter.class, "Gain", 0.5F, 0, 1F, GainFilter::setGain));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(GainFilter.class, "Bias", 0.5F, 0, 1F, GainFilter::setBias));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GammaFilter.class, "Gamma", GammaFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GammaFilter.class, "Gamma", GammaFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(GammaFilter.class, "Gamma", 1F, 0, 3F, GammaFilter::setGamma));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GrayscaleFilter.class, "Grayscale", GrayscaleFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, GrayscaleFilter.class, "Grayscale", GrayscaleFilter::new, false, filter -> 0);
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, InvertFilter.class, "Invert", InvertFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, InvertFilter.class, "Invert", InvertFilter::new, false, filter -> 0);
 
         MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, LevelsFilter.class, "Levels", LevelsFilter::new, false);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(LevelsFilter.class, "Low Level", 0F, 0, 1F, (filter, value) -> filter.setLowLevel(Math.min(value, filter.getHighLevel()))));
@@ -477,7 +501,7 @@ public class Register implements IPlugin {
 
         /// MISSING: LOOKUP
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ChannelMixFilter.class, "Mix Channels", ChannelMixFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, ChannelMixFilter.class, "Mix Channels", ChannelMixFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(ChannelMixFilter.class, "Blue/Green", 0, 0, 255, ChannelMixFilter::setBlueGreen));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(ChannelMixFilter.class, "Into Red", 0, 0, 255, ChannelMixFilter::setIntoR));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(ChannelMixFilter.class, "Red/Blue", 0, 0, 255, ChannelMixFilter::setRedBlue));
@@ -485,7 +509,7 @@ public class Register implements IPlugin {
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(ChannelMixFilter.class, "Green/Red", 0, 0, 255, ChannelMixFilter::setGreenRed));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(ChannelMixFilter.class, "Into Blue", 0, 0, 255, ChannelMixFilter::setIntoB));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, PosterizeFilter.class, "Posterize", PosterizeFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, PosterizeFilter.class, "Posterize", PosterizeFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(PosterizeFilter.class, "Posterize", 6, 0, 255, PosterizeFilter::setNumLevels));
 
         MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, QuantizeFilter.class, "Quantize", QuantizeFilter::new, false);
@@ -493,14 +517,14 @@ public class Register implements IPlugin {
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(QuantizeFilter.class, "Dither", false, QuantizeFilter::setDither));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createBooleanSetting(QuantizeFilter.class, "Serpentine", false, QuantizeFilter::setSerpentine));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, RescaleFilter.class, "Rescale", RescaleFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, RescaleFilter.class, "Rescale", RescaleFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedFloatSetting(RescaleFilter.class, "Number of Colours", 1F, 0F, 5F, RescaleFilter::setScale));
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, SolarizeFilter.class, "Solarize", SolarizeFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, SolarizeFilter.class, "Solarize", SolarizeFilter::new, false, filter -> 0);
 
         /// MISSING: TEMPERATURE FILTER
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, OpacityFilter.class, "Transparency", OpacityFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.COLOURS, OpacityFilter.class, "Transparency", OpacityFilter::new, false, filter -> 0);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createRangedIntSetting(OpacityFilter.class, "Opacity", 255, 0, 255, OpacityFilter::setOpacity));
 
         /// MISSING: TRITONE FILTER
@@ -573,7 +597,7 @@ public class Register implements IPlugin {
 
         ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
-        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.EDGES, EdgeFilter.class, "Detect Edges", EdgeFilter::new, false);
+        MasterRegistry.INSTANCE.registerImageFilter(EnumFilterTypes.EDGES, EdgeFilter.class, "Detect Edges", EdgeFilter::new, false, filter -> 1);
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createOptionSetting(EdgeFilter.class, EnumEdgeDetect.class, "Horizontal", FXCollections.observableArrayList(EnumEdgeDetect.values()), EnumEdgeDetect.SOBEL, (filter, value) -> filter.setHEdgeMatrix(value.getHorizontalMatrix())));
         MasterRegistry.INSTANCE.registerImageFilterSetting(GenericSetting.createOptionSetting(EdgeFilter.class, EnumEdgeDetect.class, "Vertical", FXCollections.observableArrayList(EnumEdgeDetect.values()), EnumEdgeDetect.SOBEL, (filter, value) -> filter.setVEdgeMatrix(value.getVerticalMatrix())));
 
@@ -1,7 +1,9 @@
 package drawingbot.render;
 
 import drawingbot.api.IGeometryFilter;
+import drawingbot.geom.shapes.GLine;
 import drawingbot.geom.shapes.IGeometry;
+import drawingbot.geom.shapes.IPathElement;
 import drawingbot.image.blend.EnumBlendMode;
 import drawingbot.javafx.observables.ObservableDrawingPen;
 import drawingbot.javafx.preferences.DBPreferences;
@@ -12,6 +14,7 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.BlendMode;
 
 import java.awt.*;
+import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 
 public class RenderUtils {
@@ -27,18 +30,57 @@ public class RenderUtils {
     public static int defaultMinTextureSize = 2048;
     public static int defaultMaxTextureSize = 4096;
 
+    public static int maxBatchSegments = 4096;
+
+    /**
+     * The largest fraction of the canvas the visible region can cover for it to be rendered first, see JFXDrawingDisplayMode
+     */
+    public static double viewportCullingMaxArea = 0.5;
+
+    /**
+     * The size of the cells the canvas is split into when culling, in canvas pixels
+     */
+    public static int viewportCullingCellSize = 256;
+
     ///
 
     public interface IRenderFunction<R> {
         void renderGeometry(R renderer, IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen);
     }
 
-    public static void renderDrawingFX(GraphicsContext graphics, AbstractGeometryIterator geometryIterator, IGeometryFilter geometryFilter, int vertexLimit, int timeout) {
-        renderDrawing(graphics, geometryIterator, geometryFilter, vertexLimit, timeout, RenderUtils::renderGeometryFX);
+    /**
+     * A geometry captured along with the context it was iterated with, allowing it to be rendered again later without the original iterator, e.g. from a spatial index
+     */
+    public static class GeometryEntry {
+
+        public final IGeometry geometry;
+        public final PlottedDrawing drawing;
+        public final PlottedGroup group;
+        public final ObservableDrawingPen pen;
+
+        public GeometryEntry(IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen) {
+            this.geometry = geometry;
+            this.drawing = drawing;
+            this.group = group;
+            this.pen = pen;
+        }
+
+        public <R> void render(R renderer, IRenderFunction<R> renderFunction){
+            renderFunction.renderGeometry(renderer, geometry, drawing, group, pen);
+        }
+    }
+
+    public static int renderDrawingFX(GraphicsContext graphics, AbstractGeometryIterator geometryIterator, IGeometryFilter geometryFilter, int vertexLimit, int timeout) {
+        FXBatchRenderer batchRenderer = new FXBatchRenderer();
+        int rendered = renderDrawing(graphics, geometryIterator, geometryFilter, vertexLimit, timeout, batchRenderer);
+        batchRenderer.flush(graphics);
+        return rendered;
     }
 
     public static void renderDrawingAWT(Graphics2D graphics, AbstractGeometryIterator geometryIterator, IGeometryFilter geometryFilter, int vertexLimit, int timeout) {
-        renderDrawing(graphics, geometryIterator, geometryFilter, vertexLimit, timeout, RenderUtils::renderGeometryAWT);
+        AWTBatchRenderer batchRenderer = new AWTBatchRenderer();
+        renderDrawing(graphics, geometryIterator, geometryFilter, vertexLimit, timeout, batchRenderer);
+        batchRenderer.flush(graphics);
     }
 
     /**
@@ -47,22 +89,26 @@ public class RenderUtils {
      * @param geometryFilter the geometry filter
      * @param vertexLimit a vertex limit of 0 will render every vertex
      * @param renderFunction the render function, to pass the geometry for JavaFX, AWT, OpenGL for rendering
+     * @return the number of geometries which passed the filter and were rendered
      */
-    public static <R> void renderDrawing(R renderer, AbstractGeometryIterator geometryIterator, IGeometryFilter geometryFilter, int vertexLimit, int timeout, IRenderFunction<R> renderFunction) {
+    public static <R> int renderDrawing(R renderer, AbstractGeometryIterator geometryIterator, IGeometryFilter geometryFilter, int vertexLimit, int timeout, IRenderFunction<R> renderFunction) {
         geometryIterator.setGeometryFilter(geometryFilter);
         geometryIterator.setVertexLimit(vertexLimit);
 
         long startTime = System.currentTimeMillis();
+        int rendered = 0;
 
         while(geometryIterator.hasNext()){
             IGeometry next = geometryIterator.next();
             if(geometryIterator.currentFilterResult){
                 renderFunction.renderGeometry(renderer, next, geometryIterator.currentDrawing, geometryIterator.currentGroup, geometryIterator.currentPen);
+                rendered++;
             }
             if(timeout > 0 && System.currentTimeMillis() - startTime > timeout){
                 break;
             }
         }
+        return rendered;
     }
 
 
@@ -93,10 +139,153 @@ public class RenderUtils {
 
     ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Renders consecutive geometries which share the same pen, colour and stroke width as a batch, so the render state is only set once per batch, each geometry is still stroked on its own so the output is unchanged.
+     * If {@link DBPreferences#combineRenderPaths} is enabled, the path elements of opaque batches drawn with normal blending are also combined into a single path and stroked once.
+     * This is faster but not identical, antialiased pixels where the geometries overlap are only covered once, so they're lighter than when each geometry is stroked separately.
+     * {@link #flush(Object)} must be called once the last geometry has been rendered.
+     */
+    public static abstract class BatchRenderer<R> implements IRenderFunction<R> {
+
+        private final boolean allowCombinedPaths = DBPreferences.INSTANCE.combineRenderPaths.get();
+
+        private boolean hasBatch = false;
+        private ObservableDrawingPen batchPen;
+        private int batchRGBA;
+        private float batchWidth;
+        private boolean combinePaths;
+
+        private boolean pathOpen = false;
+        private int pathSegments = 0;
+
+        @Override
+        public void renderGeometry(R renderer, IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen) {
+            float width = drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize());
+            if(!hasBatch || batchPen != pen || batchRGBA != geometry.getSampledRGBA() || batchWidth != width){
+                flushPath(renderer);
+                hasBatch = true;
+                batchPen = pen;
+                batchRGBA = geometry.getSampledRGBA();
+                batchWidth = width;
+                combinePaths = setRenderState(renderer, geometry, drawing, group, pen) && allowCombinedPaths;
+            }
+            if(combinePaths && geometry instanceof IPathElement && geometry.getFillType() != 0){
+                appendToPath(renderer, geometry, !pathOpen);
+                pathOpen = true;
+                pathSegments += geometry.getVertexCount();
+                if(pathSegments >= maxBatchSegments){
+                    flushPath(renderer);
+                }
+            }else{
+                flushPath(renderer);
+                renderSingle(renderer, geometry);
+            }
+        }
+
+        /**
+         * Strokes the current batch's path, the render state will be set again for the next geometry
+         */
+        public void flush(R renderer){
+            flushPath(renderer);
+            hasBatch = false;
+        }
+
+        private void flushPath(R renderer){
+            if(pathOpen){
+                strokePath(renderer);
+                pathOpen = false;
+                pathSegments = 0;
+            }
+        }
+
+        /**
+         * Sets the render state for a new batch
+         * @return true if the path elements in the batch can be combined into a single path
+         */
+        protected abstract boolean setRenderState(R renderer, IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen);
+
+        protected abstract void appendToPath(R renderer, IGeometry geometry, boolean newPath);
+
+        protected abstract void strokePath(R renderer);
+
+        protected abstract void renderSingle(R renderer, IGeometry geometry);
+
+    }
+
+    public static class FXBatchRenderer extends BatchRenderer<GraphicsContext> {
+
+        @Override
+        protected boolean setRenderState(GraphicsContext graphics, IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen) {
+            preRenderGeometryFX(graphics, geometry, drawing, group, pen);
+            return graphics.getGlobalBlendMode() == BlendMode.SRC_OVER && graphics.getGlobalAlpha() == 1 && pen.getFXColor(geometry.getSampledRGBA()).isOpaque();
+        }
+
+        @Override
+        protected void appendToPath(GraphicsContext graphics, IGeometry geometry, boolean newPath) {
+            if(newPath){
+                graphics.beginPath();
+            }
+            appendAWTShapeToFX(graphics, geometry.getAWTShape());
+        }
+
+        @Override
+        protected void strokePath(GraphicsContext graphics) {
+            graphics.stroke();
+        }
+
+        @Override
+        protected void renderSingle(GraphicsContext graphics, IGeometry geometry) {
+            geometry.renderFX(graphics);
+        }
+    }
+
+    public static class AWTBatchRenderer extends BatchRenderer<Graphics2D> {
+
+        private final Path2D.Float path = new Path2D.Float();
+
+        @Override
+        protected boolean setRenderState(Graphics2D graphics, IGeometry geometry, PlottedDrawing drawing, PlottedGroup group, ObservableDrawingPen pen) {
+            preRenderGeometryAWT(graphics, geometry, drawing, group, pen);
+            return graphics.getComposite() instanceof AlphaComposite composite && composite.getRule() == AlphaComposite.SRC_OVER && composite.getAlpha() == 1F && graphics.getColor().getAlpha() == 255;
+        }
+
+        @Override
+        protected void appendToPath(Graphics2D graphics, IGeometry geometry, boolean newPath) {
+            if(geometry instanceof GLine line){
+                //matches GLine#renderAWT which draws with integer coordinates
+                path.moveTo((int)line.getX1(), (int)line.getY1());
+                path.lineTo((int)line.getX2(), (int)line.getY2());
+            }else{
+                path.append(geometry.getAWTShape(), false);
+            }
+        }
+
+        @Override
+        protected void strokePath(Graphics2D graphics) {
+            graphics.draw(path);
+            path.reset();
+        }
+
+        @Override
+        protected void renderSingle(Graphics2D graphics, IGeometry geometry) {
+            geometry.renderAWT(graphics);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////
+
     private static final double[] coords = new double[6];
 
     public static void renderAWTShapeToFX(GraphicsContext graphics, Shape s) {
         graphics.beginPath();
+        appendAWTShapeToFX(graphics, s);
+        graphics.stroke();
+    }
+
+    /**
+     * Adds the shape's segments to the graphics context's current path, without beginning or stroking the path
+     */
+    public static void appendAWTShapeToFX(GraphicsContext graphics, Shape s) {
         PathIterator iterator = s.getPathIterator(null);
         while (!iterator.isDone()) {
             int segType = iterator.currentSegment(coords);
@@ -121,7 +310,6 @@ public class RenderUtils {
             }
             iterator.next();
         }
-        graphics.stroke();
     }
 
 }
@@ -3,18 +3,33 @@ package drawingbot.render.modes;
 import drawingbot.DrawingBotV3;
 import drawingbot.api.IGeometryFilter;
 import drawingbot.javafx.observables.ObservableDrawingPen;
+import drawingbot.javafx.preferences.DBPreferences;
 import drawingbot.javafx.util.JFXUtils;
+import drawingbot.plotting.CulledGeometryIterator;
 import drawingbot.plotting.DrawingGeometryIterator;
 import drawingbot.plotting.PFMTask;
 import drawingbot.plotting.PlottedDrawing;
+import drawingbot.plotting.PlottedDrawingLOD;
 import drawingbot.plotting.WrappedGeometryIterator;
 import drawingbot.render.RenderUtils;
+import drawingbot.render.renderer.JFXLivePreview;
 import drawingbot.render.renderer.JFXRenderer;
+import drawingbot.render.renderer.JFXTileCache;
 import drawingbot.render.renderer.RendererFactory;
 import drawingbot.utils.EnumTaskStage;
+import drawingbot.render.viewport.Viewport;
 import drawingbot.utils.flags.Flags;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implements IJFXDisplayMode {
 
@@ -27,10 +42,35 @@ public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implement
 
     private DrawingGeometryIterator drawingIterator;
 
+    /**
+     * The tile cache is shared between the drawing display modes, so switching between modes which display the same drawing doesn't need to render it again
+     */
+    private static JFXTileCache tileCache;
+    private JFXTileCache activeTileCache;
+    private DrawingGeometryIterator activeLODIterator;
+    private JFXLivePreview livePreview;
+
+    /**
+     * When zoomed in, the canvas is split into cells and only the cells visible in the viewport are rendered, with the geometries found in the drawing's spatial index.
+     * Cells which have already been drawn are kept, so panning or zooming out only renders the cells which have just become visible
+     */
+    private CullingGrid cullingGrid;
+    private CulledGeometryIterator culledIterator;
+    private List<Rectangle> culledCells;
+
     @Override
     public void doRender(JFXRenderer jfr) {
         PlottedDrawing drawing = getDisplayedDrawing();
 
+        if(livePreview != null){
+            if(getDisplayedTask() != livePreview.task || livePreview.task.stage != EnumTaskStage.DO_PROCESS){
+                stopLivePreview();
+            }else if(livePreview.renderScale != jfr.getRenderScale() || livePreview.width != (int)Math.ceil(jfr.jfxCanvas.getWidth()) || livePreview.height != (int)Math.ceil(jfr.jfxCanvas.getHeight())){
+                //the canvas has been resized, restart the preview at the new size
+                getViewport().getRenderFlags().setFlag(Flags.FORCE_REDRAW, true);
+            }
+        }
+
         // Render the current active task using the Async - Iterator
         if(getDisplayedTask() != null){
             PFMTask renderedTask = getDisplayedTask();
@@ -38,13 +78,25 @@ public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implement
                 WrappedGeometryIterator iterator = renderedTask.getTaskGeometryIterator();
                 if (getViewport().getRenderFlags().anyMatchAndClearOnMatch(Flags.FORCE_REDRAW, Flags.CLEAR_DRAWING_JFX, Flags.CURRENT_DRAWING_CHANGED, Flags.ACTIVE_TASK_CHANGED, Flags.ACTIVE_TASK_CHANGED_STATE)) {
                     jfr.clearCanvas();
-                    iterator.reset();
+                    stopLivePreview();
+                    if(DBPreferences.INSTANCE.viewportLivePreview.get()){
+                        livePreview = new JFXLivePreview(renderedTask, getGeometryFilter(), getViewport().getRendererBlendMode(), jfr.getRenderScale(), (int)Math.ceil(jfr.jfxCanvas.getWidth()), (int)Math.ceil(jfr.jfxCanvas.getHeight()));
+                        livePreview.start();
+                    }else{
+                        iterator.reset();
+                    }
                 }
-                if (iterator.hasNext()) {
+                if (livePreview != null) {
+                    livePreview.drawDirtyRegion(jfr.graphicsFX);
+                } else if (iterator.hasNext()) {
                     jfr.graphicsFX.scale(jfr.getRenderScale(), jfr.getRenderScale());
                     jfr.graphicsFX.translate(renderedTask.drawing.getCanvas().getScaledDrawingOffsetX(), renderedTask.drawing.getCanvas().getScaledDrawingOffsetY());
 
-                    RenderUtils.renderDrawingFX(jfr.graphicsFX, iterator, getGeometryFilter(), jfr.getVertexRenderLimit(), jfr.getVertexRenderTimeOut());
+                    jfr.renderedGeometries += RenderUtils.renderDrawingFX(jfr.graphicsFX, iterator, getGeometryFilter(), jfr.getVertexRenderLimit(), jfr.getVertexRenderTimeOut());
+                }
+                if(DBPreferences.INSTANCE.viewportCulling.get()){
+                    //the spatial index is extended as the PFM adds geometries, so it's ready to cull the drawing once it's finished
+                    renderedTask.drawing.requestSpatialIndexUpdate(null);
                 }
             }else if (getViewport().getRenderFlags().anyMatchAndClearOnMatch(Flags.FORCE_REDRAW, Flags.CLEAR_DRAWING_JFX, Flags.CURRENT_DRAWING_CHANGED)){
                 jfr.clearCanvas();
@@ -60,21 +112,243 @@ public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implement
                 drawingIterator.reset(drawing);
                 setRenderStatus("Drawing");
                 setRenderProgress(0);
+                activeTileCache = updateTileCache(jfr, drawing);
+                PlottedDrawingLOD.Level lodLevel = activeTileCache == null ? updateLODLevel(jfr, drawing) : null;
+                activeLODIterator = lodLevel == null ? null : lodLevel.iterator(drawing);
+                updateCulling(jfr, drawing);
+            }
+            if(activeTileCache != null){
+                if(!activeTileCache.isCancelled()){
+                    jfr.renderedTiles += activeTileCache.drawRenderedTiles(jfr.graphicsFX);
+                    setRenderProgress(activeTileCache.getProgress());
+                    return;
+                }
+                //the tile cache failed, fall back to rendering the geometries directly
+                activeTileCache = null;
+                jfr.clearCanvas();
             }
-            if(drawingIterator.hasNext()){
+            if(cullingGrid != null){
+                if(culledIterator == null){
+                    culledCells = cullingGrid.getUndrawnCells(getVisibleCanvasRegion(jfr));
+                    if(culledCells.isEmpty()){
+                        return;
+                    }
+                    culledIterator = createCulledIterator(jfr, drawing, culledCells);
+                }
+                jfr.graphicsFX.beginPath();
+                for(Rectangle cell : culledCells){
+                    jfr.graphicsFX.rect(cell.x, cell.y, cell.width, cell.height);
+                }
+                jfr.graphicsFX.clip();
+
                 jfr.graphicsFX.scale(jfr.getRenderScale(), jfr.getRenderScale());
                 jfr.graphicsFX.translate(drawing.getCanvas().getScaledDrawingOffsetX(), drawing.getCanvas().getScaledDrawingOffsetY());
                 jfr.graphicsFX.setGlobalBlendMode(getViewport().getRendererBlendMode().jfxBlend);
 
-                RenderUtils.renderDrawingFX(jfr.graphicsFX, drawingIterator, getGeometryFilter(), jfr.getVertexRenderLimit(), jfr.getVertexRenderTimeOut());
+                //the LOD isn't used for culled cells, joined paths may start outside of them
+                jfr.renderedGeometries += RenderUtils.renderDrawingFX(jfr.graphicsFX, culledIterator, getGeometryFilter(), jfr.getVertexRenderLimit(), jfr.getVertexRenderTimeOut());
+                if(!culledIterator.hasNext()){
+                    cullingGrid.setDrawn(culledCells);
+                    culledIterator = null;
+                    culledCells = null;
+                }
+                return;
+            }
+            DrawingGeometryIterator iterator = activeLODIterator != null ? activeLODIterator : drawingIterator;
+            if(iterator.hasNext()){
+                jfr.graphicsFX.scale(jfr.getRenderScale(), jfr.getRenderScale());
+                jfr.graphicsFX.translate(drawing.getCanvas().getScaledDrawingOffsetX(), drawing.getCanvas().getScaledDrawingOffsetY());
+                jfr.graphicsFX.setGlobalBlendMode(getViewport().getRendererBlendMode().jfxBlend);
 
-                setRenderProgress(drawingIterator.getCurrentGeometryProgress());
+                jfr.renderedGeometries += RenderUtils.renderDrawingFX(jfr.graphicsFX, iterator, getGeometryFilter(), jfr.getVertexRenderLimit(), jfr.getVertexRenderTimeOut());
+                setRenderProgress(iterator.getCurrentGeometryProgress());
             }
         }else if (getViewport().getRenderFlags().anyMatchAndClearOnMatch(Flags.FORCE_REDRAW, Flags.CLEAR_DRAWING_JFX, Flags.ACTIVE_TASK_CHANGED, Flags.ACTIVE_TASK_CHANGED_STATE, Flags.CURRENT_DRAWING_CHANGED)) {
             jfr.clearCanvas();
         }
     }
 
+    /**
+     * @return the region of the canvas which is visible in the viewport, in canvas pixels, or null if it isn't known
+     */
+    private Rectangle getVisibleCanvasRegion(JFXRenderer jfr){
+        Bounds visible = getViewport().getVisibleRendererBounds();
+        if(visible == null){
+            return null;
+        }
+        //snapped to whole pixels, to match the culling cells
+        double scale = jfr.getRenderScale();
+        int minX = (int)Math.max(0, Math.floor(visible.getMinX() * scale));
+        int minY = (int)Math.max(0, Math.floor(visible.getMinY() * scale));
+        int maxX = (int)Math.min(Math.ceil(jfr.jfxCanvas.getWidth()), Math.ceil(visible.getMaxX() * scale));
+        int maxY = (int)Math.min(Math.ceil(jfr.jfxCanvas.getHeight()), Math.ceil(visible.getMaxY() * scale));
+        if(maxX <= minX || maxY <= minY){
+            return null;
+        }
+        return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Starts culling the drawing if the viewport is zoomed in, if the drawing's spatial index isn't ready it will be updated in the background and the drawing will be redrawn once it's ready
+     */
+    private void updateCulling(JFXRenderer jfr, PlottedDrawing drawing){
+        cullingGrid = null;
+        culledIterator = null;
+        culledCells = null;
+        if(activeTileCache != null || !DBPreferences.INSTANCE.viewportCulling.get()){
+            return;
+        }
+        if(!drawing.isSpatialIndexUpToDate()){
+            Viewport viewport = getViewport();
+            drawing.requestSpatialIndexUpdate(() -> Platform.runLater(() -> viewport.getRenderFlags().setFlag(Flags.FORCE_REDRAW, true)));
+            return;
+        }
+        Rectangle region = getVisibleCanvasRegion(jfr);
+        if(region == null || (double)region.width * region.height > jfr.jfxCanvas.getWidth() * jfr.jfxCanvas.getHeight() * RenderUtils.viewportCullingMaxArea){
+            return;
+        }
+        cullingGrid = new CullingGrid((int)Math.ceil(jfr.jfxCanvas.getWidth()), (int)Math.ceil(jfr.jfxCanvas.getHeight()), RenderUtils.viewportCullingCellSize);
+    }
+
+    /**
+     * @return an iterator of the geometries which may overlap the given cells of the canvas
+     */
+    private CulledGeometryIterator createCulledIterator(JFXRenderer jfr, PlottedDrawing drawing, List<Rectangle> cells){
+        //geometries are indexed without their stroke width, so the query is expanded by the widest pen
+        double padding = 1 / jfr.getRenderScale();
+        for(ObservableDrawingPen pen : drawing.getGlobalRenderOrder()){
+            padding = Math.max(padding, drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize()));
+        }
+        double scale = jfr.getRenderScale();
+        double offsetX = drawing.getCanvas().getScaledDrawingOffsetX();
+        double offsetY = drawing.getCanvas().getScaledDrawingOffsetY();
+        List<Rectangle2D> regions = new ArrayList<>();
+        for(Rectangle cell : cells){
+            regions.add(new Rectangle2D.Double(cell.getMinX() / scale - offsetX - padding, cell.getMinY() / scale - offsetY - padding, cell.getWidth() / scale + padding * 2, cell.getHeight() / scale + padding * 2));
+        }
+        return new CulledGeometryIterator(drawing, regions);
+    }
+
+    /**
+     * Tracks which cells of the canvas have been drawn since it was last cleared
+     */
+    private static class CullingGrid {
+
+        private final int width;
+        private final int height;
+        private final int cellSize;
+        private final int columns;
+        private final BitSet drawn = new BitSet();
+
+        public CullingGrid(int width, int height, int cellSize){
+            this.width = width;
+            this.height = height;
+            this.cellSize = cellSize;
+            this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        }
+
+        /**
+         * @return the cells which overlap the region and haven't been drawn yet, in canvas pixels
+         */
+        public List<Rectangle> getUndrawnCells(@Nullable Rectangle region){
+            List<Rectangle> cells = new ArrayList<>();
+            if(region == null){
+                return cells;
+            }
+            int minCol = Math.max(0, region.x / cellSize), maxCol = Math.min(columns - 1, (region.x + region.width - 1) / cellSize);
+            int minRow = Math.max(0, region.y / cellSize), maxRow = (Math.min(height, region.y + region.height) - 1) / cellSize;
+            for(int row = minRow; row <= maxRow; row++){
+                for(int col = minCol; col <= maxCol; col++){
+                    if(!drawn.get(row * columns + col)){
+                        cells.add(new Rectangle(col * cellSize, row * cellSize, Math.min(cellSize, width - col * cellSize), Math.min(cellSize, height - row * cellSize)));
+                    }
+                }
+            }
+            return cells;
+        }
+
+        public void setDrawn(List<Rectangle> cells){
+            for(Rectangle cell : cells){
+                drawn.set((cell.y / cellSize) * columns + cell.x / cellSize);
+            }
+        }
+    }
+
+    private void stopLivePreview(){
+        if(livePreview != null){
+            livePreview.cancel();
+            livePreview = null;
+        }
+    }
+
+    @Override
+    public void deactivateDisplayMode(Viewport viewport) {
+        super.deactivateDisplayMode(viewport);
+        stopLivePreview();
+    }
+
+    /**
+     * Finds the tile cache for the current render state of the drawing, creating a new one if the state has changed since it was last rendered
+     * @return the tile cache to draw, or null if the geometries should be rendered directly
+     */
+    private JFXTileCache updateTileCache(JFXRenderer jfr, PlottedDrawing drawing){
+        if(!DBPreferences.INSTANCE.viewportTileCache.get() || !isTileCacheSupported()){
+            return null;
+        }
+        int width = (int)Math.ceil(jfr.jfxCanvas.getWidth());
+        int height = (int)Math.ceil(jfr.jfxCanvas.getHeight());
+        if(width <= 0 || height <= 0){
+            return null;
+        }
+        int lodLevel = getLODLevel(jfr, drawing);
+        List<Object> key = JFXTileCache.createKey(drawing, getGeometryFilter(), getViewport().getRendererBlendMode(), DrawingBotV3.project().getDrawingArea().canvasColor.get(), jfr.getRenderScale(), width, height, lodLevel);
+        if(tileCache == null || !tileCache.key.equals(key)){
+            if(tileCache != null){
+                tileCache.cancel();
+            }
+            tileCache = new JFXTileCache(key, drawing, getGeometryFilter(), getViewport().getRendererBlendMode(), jfr.getRenderScale(), width, height, lodLevel);
+            tileCache.start(getVisibleCanvasRegion(jfr));
+        }else{
+            tileCache.resetDrawnTiles();
+        }
+        return tileCache.isCancelled() ? null : tileCache;
+    }
+
+    /**
+     * @return the level of detail which matches the current render scale, or -1 if the drawing should be rendered at full detail
+     */
+    private int getLODLevel(JFXRenderer jfr, PlottedDrawing drawing){
+        if(!DBPreferences.INSTANCE.viewportLevelOfDetail.get() || !PlottedDrawingLOD.canDisplayLOD(drawing, getViewport().getRendererBlendMode())){
+            return -1;
+        }
+        return PlottedDrawingLOD.getLevelForScale(jfr.getRenderScale());
+    }
+
+    /**
+     * Finds the level of detail to render the drawing with, if the level hasn't been built yet it will be built in the background and the drawing will be redrawn once it's ready
+     * @return the level to render, or null if the drawing should be rendered at full detail for now
+     */
+    private PlottedDrawingLOD.Level updateLODLevel(JFXRenderer jfr, PlottedDrawing drawing){
+        int level = getLODLevel(jfr, drawing);
+        if(level == -1){
+            return null;
+        }
+        PlottedDrawingLOD lod = drawing.getLOD();
+        PlottedDrawingLOD.Level lodLevel = lod.getLevelIfBuilt(level);
+        if(lodLevel == null){
+            Viewport viewport = getViewport();
+            lod.requestLevel(level, () -> Platform.runLater(() -> viewport.getRenderFlags().setFlag(Flags.FORCE_REDRAW, true)));
+        }
+        return lodLevel;
+    }
+
+    /**
+     * @return true if the geometry filter only depends on the state captured by {@link JFXTileCache#createKey}
+     */
+    protected boolean isTileCacheSupported(){
+        return true;
+    }
+
     @Override
     public boolean isRenderDirty(JFXRenderer jfr) {
         if(getViewport().getRenderFlags().anyMatch(Flags.FORCE_REDRAW, Flags.CLEAR_DRAWING_JFX, Flags.CURRENT_DRAWING_CHANGED, Flags.ACTIVE_TASK_CHANGED, Flags.ACTIVE_TASK_CHANGED_STATE)){
@@ -82,8 +356,20 @@ public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implement
         }
         PFMTask displayedTask = getDisplayedTask();
         if(displayedTask!= null) {
+            if(livePreview != null && livePreview.task == displayedTask){
+                return livePreview.isDirty() || displayedTask.stage != EnumTaskStage.DO_PROCESS;
+            }
             return displayedTask.stage == EnumTaskStage.DO_PROCESS && displayedTask.getTaskGeometryIterator().hasNext();
         }
+        if(activeTileCache != null){
+            return activeTileCache.isCancelled() || !activeTileCache.isFullyDrawn();
+        }
+        if(cullingGrid != null){
+            return culledIterator != null || !cullingGrid.getUndrawnCells(getVisibleCanvasRegion(jfr)).isEmpty();
+        }
+        if(activeLODIterator != null && getDisplayedDrawing() != null){
+            return activeLODIterator.hasNext();
+        }
         return drawingIterator != null && drawingIterator.hasNext();
     }
 
@@ -156,6 +442,12 @@ public abstract class JFXDrawingDisplayMode extends DisplayModeDrawing implement
 
         }
 
+        @Override
+        protected boolean isTileCacheSupported() {
+            //the selected pens aren't part of the tile cache's key
+            return false;
+        }
+
         @Override
         public String getName() {
             return "Selected pen";
@@ -5,20 +5,21 @@ import drawingbot.api.ICanvas;
 import drawingbot.image.ImageFilterSettings;
 import drawingbot.image.ImageFilteringService;
 import drawingbot.image.format.ImageData;
+import drawingbot.javafx.preferences.DBPreferences;
+import drawingbot.render.renderer.JFXImageUploader;
 import drawingbot.render.renderer.JFXRenderer;
 import drawingbot.render.renderer.RendererFactory;
 import drawingbot.utils.flags.Flags;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.WritableImage;
 
 //TODO REWRITE IMAGE FILTERING MAKE INSTANCEABLE
 public class JFXFilteredImageDisplayMode extends DisplayModeImage implements IJFXDisplayMode {
 
-    protected WritableImage cacheImage = null;
-    protected boolean imageChanged = false;
+    protected final JFXImageUploader imageUploader = new JFXImageUploader();
+    protected double displayedImageScale = 1;
 
     public ImageFilteringService imageFilteringService;
 
@@ -45,7 +46,10 @@ public class JFXFilteredImageDisplayMode extends DisplayModeImage implements IJF
         this.imageFilteringService.getImageFilteringService().setOnSucceeded(e -> {
             setDisplayedImage(imageFilteringService.getFilteredImage());
             setDisplayCanvas(imageFilteringService.getFilteredCanvas());
-            imageChanged = true;
+            displayedImageScale = imageFilteringService.getFilteredImageScale();
+            if(getDisplayedImage() != null && (!imageFilteringService.isResultUnchanged() || !imageUploader.matches(getDisplayedImage()))){
+                imageUploader.submit(getDisplayedImage(), this::onImageConverted);
+            }
             if(isActive()){
                 getViewport().getRenderFlags().setFlag(Flags.FORCE_REDRAW, true);
             }
@@ -54,6 +58,8 @@ public class JFXFilteredImageDisplayMode extends DisplayModeImage implements IJF
 
     @Override
     public void onRenderTick(JFXRenderer jfr) {
+        //while the settings are changing the filters are previewed on a proxy no larger than the viewport
+        this.imageFilteringService.setProxySize(DBPreferences.INSTANCE.viewportFilterPreview.get() ? (int) Math.max(getViewport().getViewportWidth(), getViewport().getViewportHeight()) : 0);
         this.imageFilteringService.update();
     }
 
@@ -62,13 +68,22 @@ public class JFXFilteredImageDisplayMode extends DisplayModeImage implements IJF
         jfr.clearCanvas();
 
         if(getDisplayedImage() != null){
-            if(imageChanged || cacheImage == null){
-                cacheImage = SwingFXUtils.toFXImage(getDisplayedImage(), cacheImage);
-                imageChanged = false;
+            WritableImage cacheImage = imageUploader.upload();
+            if(cacheImage == null){
+                return;
             }
+            //the image is drawn at the full resolution size, so a proxy preview or an image which is still being converted covers the same area
+            double width = getDisplayedImage().getWidth() / displayedImageScale;
+            double height = getDisplayedImage().getHeight() / displayedImageScale;
             jfr.graphicsFX.scale(jfr.getRenderScale(), jfr.getRenderScale());
             jfr.graphicsFX.translate(getCanvas().getScaledDrawingOffsetX(), getCanvas().getScaledDrawingOffsetY());
-            jfr.graphicsFX.drawImage(cacheImage, 0, 0);
+            jfr.graphicsFX.drawImage(cacheImage, 0, 0, width, height);
+        }
+    }
+
+    private void onImageConverted(){
+        if(isActive()){
+            getViewport().getRenderFlags().setFlag(Flags.FORCE_REDRAW, true);
         }
     }
 
@@ -3,17 +3,16 @@ package drawingbot.render.modes;
 import drawingbot.DrawingBotV3;
 import drawingbot.javafx.util.JFXUtils;
 import drawingbot.plotting.canvas.SimpleCanvas;
+import drawingbot.render.renderer.JFXImageUploader;
 import drawingbot.render.renderer.JFXRenderer;
 import drawingbot.render.renderer.RendererFactory;
 import drawingbot.utils.flags.Flags;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.WritableImage;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 
 public abstract class JFXImageDisplayMode extends DisplayModeImage implements IJFXDisplayMode{
 
-    protected WritableImage cacheImage = null;
-    protected boolean imageChanged = false;
+    protected final JFXImageUploader imageUploader = new JFXImageUploader();
 
     @Override
     public RendererFactory getRendererFactory() {
@@ -25,10 +24,12 @@ public abstract class JFXImageDisplayMode extends DisplayModeImage implements IJ
     public void init() {
         super.init();
         displayedImageProperty().addListener((observable, oldValue, newValue) -> {
+            if(newValue != null){
+                imageUploader.submit(newValue, this::onImageConverted);
+            }
             if(isActive()){
                 getViewport().getRenderFlags().setFlag(Flags.FORCE_REDRAW, true);
             }
-            imageChanged = true;
         });
     }
 
@@ -36,9 +37,10 @@ public abstract class JFXImageDisplayMode extends DisplayModeImage implements IJ
     public void doRender(JFXRenderer jfr) {
         jfr.clearCanvas();
         if(getDisplayedImage() != null){
-            if(imageChanged || cacheImage == null){
-                cacheImage = SwingFXUtils.toFXImage(getDisplayedImage(), cacheImage);
-                imageChanged = false;
+            WritableImage cacheImage = imageUploader.upload();
+            if(cacheImage == null || !imageUploader.matches(getDisplayedImage())){
+                //the new image hasn't been converted yet
+                return;
             }
             jfr.graphicsFX.scale(jfr.getRenderScale(), jfr.getRenderScale());
             jfr.graphicsFX.translate(getCanvas().getScaledDrawingOffsetX(), getCanvas().getScaledDrawingOffsetY());
@@ -46,6 +48,12 @@ public abstract class JFXImageDisplayMode extends DisplayModeImage implements IJ
         }
     }
 
+    private void onImageConverted(){
+        if(isActive()){
+            getViewport().getRenderFlags().setFlag(Flags.FORCE_REDRAW, true);
+        }
+    }
+
     @Override
     public boolean isRenderDirty(JFXRenderer jfr) {
         return getViewport().getRenderFlags().anyMatch(Flags.FORCE_REDRAW);
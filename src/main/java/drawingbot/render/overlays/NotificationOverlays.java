@@ -103,7 +103,8 @@ public class NotificationOverlays extends ViewportOverlayBase {
     }
 
     public void showIconTextSubtitle(Node icon, String text, String subtitle, final Action... actions){
-        if(!getEnabled()){
+        //the overlay is only initialised with the user interface, so there is nowhere to show notifications when headless
+        if(!getEnabled() || notificationPane == null){
             return;
         }
         if(!Platform.isFxApplicationThread()){
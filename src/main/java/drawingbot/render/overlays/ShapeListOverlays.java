@@ -1,5 +1,7 @@
 package drawingbot.render.overlays;
 
+import drawingbot.geom.shapes.IGeometry;
+import drawingbot.geom.spatial.SpatialGridIndex;
 import drawingbot.render.shapes.JFXShape;
 import drawingbot.render.shapes.JFXShapeList;
 import drawingbot.render.viewport.Viewport;
@@ -8,8 +10,18 @@ import javafx.beans.InvalidationListener;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.ListChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.transform.Affine;
+import javafx.scene.transform.NonInvertibleTransformException;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * A viewport overlay which supports the rendering of a {@link JFXShapeList} relative to the current {@link drawingbot.api.ICanvas}
@@ -169,6 +181,7 @@ public class ShapeListOverlays extends ViewportOverlayBase {
         updateMaskToCanvasTransform();
 
         activeList.get().getDisplayedShapes().forEach(this::onShapeDisplayed);
+        updateShapeCulling();
     }
 
     @Override
@@ -188,17 +201,63 @@ public class ShapeListOverlays extends ViewportOverlayBase {
 
 
     public void onShapeSelected(JFXShape select){
-        //NOP
+        if(displayedShapes.contains(select)){
+            showShape(select);
+        }
     }
 
     public void onShapeDeselected(JFXShape deselect){
-        //NOP
+        //the shape may have been transformed while it was selected
+        shapeIndex = null;
     }
 
     public void onShapeDisplayed(JFXShape shape){
         if(getViewport() == null){
             return;
         }
+        displayedShapes.add(shape);
+        shapeIndex = null;
+        if(shape.isSelected()){
+            showShape(shape);
+        }
+    }
+
+    public void onShapeHidden(JFXShape shape){
+        if(getViewport() == null){
+            return;
+        }
+        displayedShapes.remove(shape);
+        shapeIndex = null;
+        hideShape(shape);
+    }
+
+    ////////////////////////////////////////////////////////
+
+    /**
+     * The displayed shapes are indexed by their bounds, only the shapes which could be visible in the viewport have their nodes added to the scene, so panning and hit-testing only have to consider the visible shapes
+     * Selected shapes are always added, so they can be edited while they're being transformed
+     */
+    private final Set<JFXShape> displayedShapes = new LinkedHashSet<>();
+    private final Set<JFXShape> shownShapes = new HashSet<>();
+    private SpatialGridIndex<JFXShape> shapeIndex;
+    private final List<JFXShape> indexedShapes = new ArrayList<>();
+    private final List<IGeometry> indexedGeometries = new ArrayList<>();
+    private Bounds culledBounds;
+
+    /**
+     * The number of cells along the longest side of the shape index
+     */
+    public static int shapeIndexResolution = 32;
+
+    /**
+     * The distance outside the viewport shapes will still be added to the scene, in viewport pixels
+     */
+    public static double shapeCullingMargin = 32;
+
+    private void showShape(JFXShape shape){
+        if(!shownShapes.add(shape)){
+            return;
+        }
         shape.jfxShape.getTransforms().add(0, getViewport().getCanvasToViewportTransform());
         shape.jfxShape.getTransforms().add(1, getMaskToCanvasTransform());
         shape.jfxShape.strokeWidthProperty().bind(strokeWidthProperty());
@@ -206,11 +265,10 @@ public class ShapeListOverlays extends ViewportOverlayBase {
         getViewport().getBackgroundOverlayNodes().add(shape.jfxShape);
     }
 
-    public void onShapeHidden(JFXShape shape){
-        if(getViewport() == null){
+    private void hideShape(JFXShape shape){
+        if(!shownShapes.remove(shape)){
             return;
         }
-
         shape.jfxShape.getTransforms().remove(getViewport().getCanvasToViewportTransform());
         shape.jfxShape.getTransforms().remove(getMaskToCanvasTransform());
         shape.jfxShape.strokeWidthProperty().unbind();
@@ -218,6 +276,83 @@ public class ShapeListOverlays extends ViewportOverlayBase {
         getViewport().getBackgroundOverlayNodes().remove(shape.jfxShape);
     }
 
+    /**
+     * Adds the nodes of the shapes which have become visible to the scene and removes the nodes of the shapes which are no longer visible
+     */
+    private void updateShapeCulling(){
+        if(getViewport() == null){
+            return;
+        }
+        //the shape's transformed geometry is replaced whenever it's transformed, so moved shapes can be found without listening to every shape, selected shapes are always shown so they're ignored until they're deselected
+        for(int i = 0; shapeIndex != null && i < indexedShapes.size(); i++){
+            JFXShape shape = indexedShapes.get(i);
+            if(!shape.isSelected() && shape.transformed != indexedGeometries.get(i)){
+                shapeIndex = null;
+            }
+        }
+        Bounds visible = getVisibleShapeBounds();
+        if(shapeIndex != null && visible != null && visible.equals(culledBounds)){
+            return;
+        }
+        if(shapeIndex == null){
+            buildShapeIndex();
+        }
+        culledBounds = visible;
+
+        Set<JFXShape> visibleShapes = new HashSet<>();
+        if(visible != null){
+            shapeIndex.query(visible.getMinX(), visible.getMinY(), visible.getMaxX(), visible.getMaxY(), visibleShapes::add);
+        }else{
+            visibleShapes.addAll(displayedShapes);
+        }
+        for(JFXShape shape : List.copyOf(shownShapes)){
+            if(!shape.isSelected() && !visibleShapes.contains(shape)){
+                hideShape(shape);
+            }
+        }
+        visibleShapes.forEach(this::showShape);
+    }
+
+    private void buildShapeIndex(){
+        indexedShapes.clear();
+        indexedGeometries.clear();
+        List<Rectangle2D> shapeBounds = new ArrayList<>();
+        Rectangle2D union = null;
+        for(JFXShape shape : displayedShapes){
+            Rectangle2D bounds = shape.transformed.getAWTShape().getBounds2D();
+            indexedShapes.add(shape);
+            indexedGeometries.add(shape.transformed);
+            shapeBounds.add(bounds);
+            union = union == null ? (Rectangle2D) bounds.clone() : union.createUnion(bounds);
+        }
+        if(union == null){
+            union = new Rectangle2D.Double(0, 0, 1, 1);
+        }
+        double cellSize = Math.max(1E-3, Math.max(union.getWidth(), union.getHeight()) / shapeIndexResolution);
+        shapeIndex = new SpatialGridIndex<>(union.getMinX(), union.getMinY(), union.getWidth(), union.getHeight(), cellSize, cellSize);
+        for(int i = 0; i < indexedShapes.size(); i++){
+            Rectangle2D bounds = shapeBounds.get(i);
+            shapeIndex.insert(indexedShapes.get(i), bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+    }
+
+    /**
+     * @return the region visible in the viewport in the units of the shapes, or null if it isn't known
+     */
+    private Bounds getVisibleShapeBounds(){
+        Viewport viewport = getViewport();
+        Affine shapesToViewport = new Affine(viewport.getCanvasToViewportTransform());
+        shapesToViewport.append(getMaskToCanvasTransform());
+        try {
+            Bounds bounds = shapesToViewport.inverseTransform(new BoundingBox(-shapeCullingMargin, -shapeCullingMargin, viewport.getViewportWidth() + shapeCullingMargin*2, viewport.getViewportHeight() + shapeCullingMargin*2));
+            //the shapes are indexed without their stroke width
+            double padding = getStrokeWidth();
+            return new BoundingBox(bounds.getMinX() - padding, bounds.getMinY() - padding, bounds.getWidth() + padding*2, bounds.getHeight() + padding*2);
+        } catch (NonInvertibleTransformException e) {
+            return null;
+        }
+    }
+
     public void onSelectableClicked(JFXShape shape, MouseEvent event){
         if(event.isPrimaryButtonDown() && shape.isSelectable() && shape.isDisplayed() && !shape.isSelected()){
 
@@ -234,7 +369,7 @@ public class ShapeListOverlays extends ViewportOverlayBase {
     @Override
     public void onRenderTick() {
         super.onRenderTick();
-        //NOP
+        updateShapeCulling();
     }
 
     @Override
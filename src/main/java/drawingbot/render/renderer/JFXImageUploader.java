@@ -0,0 +1,163 @@
+package drawingbot.render.renderer;
+
+import drawingbot.DrawingBotV3;
+import javafx.application.Platform;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * Uploads {@link BufferedImage}s to a {@link WritableImage} for display, replacing {@link javafx.embed.swing.SwingFXUtils#toFXImage(BufferedImage, WritableImage)} for large images which change often.
+ * Each image is converted to pre-multiplied ARGB on the image upload thread into a staging buffer.
+ * The JavaFX thread then only has to copy the buffer into the {@link WritableImage}, in the image's native pixel format.
+ * The upload thread is separate from the image filtering thread, so slow full resolution filter passes never delay an upload.
+ */
+public class JFXImageUploader {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReference<PendingUpload> pending = new AtomicReference<>();
+
+    private int width;
+    private int height;
+    private int[] pixels;
+    private IntBuffer pixelBuffer;
+    private boolean dirty;
+
+    private WritableImage image;
+
+    /**
+     * Converts the image on the image upload thread, if several images are submitted before the thread is free only the latest will be converted
+     * @param onConverted called on the JavaFX thread once the image is ready to be uploaded
+     */
+    public void submit(BufferedImage source, @Nullable Runnable onConverted){
+        if(pending.getAndSet(new PendingUpload(source, onConverted)) != null){
+            //a conversion has already been queued, it will pick up the latest image
+            return;
+        }
+        DrawingBotV3.INSTANCE.imageUploadService.submit(() -> {
+            PendingUpload upload = pending.getAndSet(null);
+            if(upload == null){
+                return;
+            }
+            try{
+                convert(upload.source);
+            }catch (Exception e){
+                DrawingBotV3.logger.log(Level.WARNING, "Image Upload: Failed to convert image", e);
+                return;
+            }
+            if(upload.onConverted != null){
+                Platform.runLater(upload.onConverted);
+            }
+        });
+    }
+
+    private void convert(BufferedImage source){
+        lock.lock();
+        try{
+            if(pixels == null || width != source.getWidth() || height != source.getHeight()){
+                width = source.getWidth();
+                height = source.getHeight();
+                pixels = new int[width * height];
+                pixelBuffer = IntBuffer.wrap(pixels);
+            }
+            int[] row = new int[width];
+            for(int y = 0; y < height; y++){
+                readRow(source, y, row);
+                int offset = y * width;
+                for(int x = 0; x < width; x++){
+                    pixels[offset + x] = premultiply(row[x]);
+                }
+            }
+            dirty = true;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    private static void readRow(BufferedImage source, int y, int[] row){
+        int type = source.getType();
+        Raster raster = source.getRaster();
+        if((type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) && raster.getParent() == null && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sampleModel){
+            //read straight from the image's data buffer, avoiding the colour model conversion of getRGB
+            int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+            System.arraycopy(data, y * sampleModel.getScanlineStride(), row, 0, row.length);
+            if(type == BufferedImage.TYPE_INT_RGB){
+                for(int i = 0; i < row.length; i++){
+                    row[i] |= 0xFF000000;
+                }
+            }
+            return;
+        }
+        source.getRGB(0, y, row.length, 1, row, 0, row.length);
+    }
+
+    private static int premultiply(int argb){
+        int a = argb >>> 24;
+        if(a == 0xFF){
+            return argb;
+        }
+        if(a == 0){
+            return 0;
+        }
+        int r = (((argb >> 16) & 0xFF) * a + 127) / 255;
+        int g = (((argb >> 8) & 0xFF) * a + 127) / 255;
+        int b = ((argb & 0xFF) * a + 127) / 255;
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Copies the latest converted image into the {@link WritableImage}, must be called on the JavaFX thread
+     * If an image is still being converted the previous image is returned, the conversion's callback will request another upload
+     * @return the uploaded image, or null if no image has been converted yet
+     */
+    @Nullable
+    public WritableImage upload(){
+        if(!lock.tryLock()){
+            return image;
+        }
+        try{
+            if(pixels == null){
+                return null;
+            }
+            if(image == null || (int) image.getWidth() != width || (int) image.getHeight() != height){
+                image = new WritableImage(width, height);
+                dirty = true;
+            }
+            if(dirty){
+                pixelBuffer.position(0);
+                image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixelBuffer, width);
+                dirty = false;
+            }
+            return image;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the uploaded image will match the dimensions of the source image
+     */
+    public boolean matches(BufferedImage source){
+        return image != null && (int) image.getWidth() == source.getWidth() && (int) image.getHeight() == source.getHeight();
+    }
+
+    private static class PendingUpload {
+
+        public final BufferedImage source;
+        public final Runnable onConverted;
+
+        public PendingUpload(BufferedImage source, Runnable onConverted) {
+            this.source = source;
+            this.onConverted = onConverted;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package drawingbot.render.renderer;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.files.exporters.ImageRenderer;
+import drawingbot.image.blend.EnumBlendMode;
+import drawingbot.plotting.PFMTask;
+import drawingbot.plotting.WrappedGeometryIterator;
+import drawingbot.render.RenderUtils;
+import drawingbot.utils.EnumTaskStage;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Renders the geometries of a running {@link PFMTask} on a background thread, so PFMs which generate geometries faster than they can be rendered don't stall the JavaFX thread.
+ * The worker renders each batch of new geometries into an AWT back buffer and records the region of the raster the batch changed.
+ * On each pulse the JavaFX thread swaps out the dirty region, copies only those pixels into the front buffer and draws them onto the canvas.
+ */
+public class JFXLivePreview {
+
+    /**
+     * The longest time the worker will hold the back buffer while rendering a batch, the JavaFX thread has to wait for the batch to finish before copying the dirty region
+     */
+    public static int batchTimeOut = 8;
+
+    /**
+     * How long the worker waits before checking for new geometries when the iterator is empty
+     */
+    public static int idleWaitTime = 5;
+
+    public final PFMTask task;
+    public final double renderScale;
+    public final int width;
+    public final int height;
+
+    private final IGeometryFilter geometryFilter;
+    private final EnumBlendMode blendMode;
+    private final AffineTransform transform;
+
+    private final BufferedImage backBuffer;
+    private final int[] backBufferPixels;
+    private final WritableImage frontBuffer;
+
+    private final Object lock = new Object();
+    private Rectangle dirtyRegion;
+    private volatile boolean dirty = false;
+    private volatile boolean running = false;
+    private Future<?> future;
+
+    public JFXLivePreview(PFMTask task, IGeometryFilter geometryFilter, EnumBlendMode blendMode, double renderScale, int width, int height){
+        this.task = task;
+        this.geometryFilter = geometryFilter;
+        this.blendMode = blendMode;
+        this.renderScale = renderScale;
+        this.width = width;
+        this.height = height;
+
+        this.transform = AffineTransform.getScaleInstance(renderScale, renderScale);
+        this.transform.translate(task.drawing.getCanvas().getScaledDrawingOffsetX(), task.drawing.getCanvas().getScaledDrawingOffsetY());
+
+        this.backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.backBufferPixels = ((DataBufferInt) backBuffer.getRaster().getDataBuffer()).getData();
+        this.frontBuffer = new WritableImage(width, height);
+    }
+
+    /**
+     * Starts rendering the task's geometries on the live preview worker, the worker will stop once the task has finished processing
+     */
+    public void start(){
+        running = true;
+        future = DrawingBotV3.INSTANCE.livePreviewService.submit(() -> {
+            try{
+                run();
+            }catch (Exception e){
+                DrawingBotV3.logger.log(Level.WARNING, "Live Preview: Failed to render task", e);
+            }
+        });
+    }
+
+    private void run() throws InterruptedException {
+        Graphics2D graphics = ImageRenderer.createFreshGraphics2D(DrawingBotV3.context(), backBuffer, blendMode, false, true);
+        graphics.transform(transform);
+        markDirty(new Rectangle(0, 0, width, height));
+
+        WrappedGeometryIterator iterator = task.getTaskGeometryIterator();
+        iterator.reset();
+
+        RenderUtils.AWTBatchRenderer batchRenderer = new RenderUtils.AWTBatchRenderer();
+        Rectangle2D batchBounds = new Rectangle2D.Double();
+        boolean[] rendered = new boolean[1];
+        while(running && task.stage == EnumTaskStage.DO_PROCESS){
+            rendered[0] = false;
+            synchronized (lock){
+                RenderUtils.renderDrawing(graphics, iterator, geometryFilter, 0, batchTimeOut, (renderer, geometry, drawing, group, pen) -> {
+                    batchRenderer.renderGeometry(renderer, geometry, drawing, group, pen);
+
+                    float strokeWidth = drawing.getCanvas().getRenderedPenWidth(pen.getStrokeSize());
+                    Rectangle2D bounds = geometry.getAWTShape().getBounds2D();
+                    bounds.setRect(bounds.getX() - strokeWidth, bounds.getY() - strokeWidth, bounds.getWidth() + strokeWidth*2, bounds.getHeight() + strokeWidth*2);
+                    if(rendered[0]){
+                        batchBounds.add(bounds);
+                    }else{
+                        batchBounds.setRect(bounds);
+                        rendered[0] = true;
+                    }
+                });
+                batchRenderer.flush(graphics);
+                if(rendered[0]){
+                    Rectangle region = transform.createTransformedShape(batchBounds).getBounds();
+                    region.grow(2, 2);
+                    markDirty(region);
+                }
+            }
+            if(!rendered[0]){
+                Thread.sleep(idleWaitTime);
+            }
+        }
+        graphics.dispose();
+    }
+
+    private void markDirty(Rectangle region){
+        synchronized (lock){
+            Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+            if(clipped.isEmpty()){
+                return;
+            }
+            dirtyRegion = dirtyRegion == null ? clipped : dirtyRegion.union(clipped);
+            dirty = true;
+        }
+    }
+
+    /**
+     * @return true if the worker has rendered geometries which haven't been drawn onto the canvas yet
+     */
+    public boolean isDirty(){
+        return dirty;
+    }
+
+    /**
+     * Copies the pixels changed since the last call into the front buffer and draws them onto the canvas, must be called on the JavaFX thread
+     * @return true if anything was drawn
+     */
+    public boolean drawDirtyRegion(GraphicsContext graphics){
+        if(!dirty){
+            return false;
+        }
+        Rectangle region;
+        synchronized (lock){
+            region = dirtyRegion;
+            dirtyRegion = null;
+            dirty = false;
+            if(region == null){
+                return false;
+            }
+            frontBuffer.getPixelWriter().setPixels(region.x, region.y, region.width, region.height, PixelFormat.getIntArgbInstance(), backBufferPixels, region.y * width + region.x, width);
+        }
+        graphics.clearRect(region.x, region.y, region.width, region.height);
+        graphics.drawImage(frontBuffer, region.x, region.y, region.width, region.height, region.x, region.y, region.width, region.height);
+        return true;
+    }
+
+    /**
+     * Stops the worker after its current batch
+     */
+    public void cancel(){
+        running = false;
+        if(future != null){
+            future.cancel(false);
+        }
+    }
+}
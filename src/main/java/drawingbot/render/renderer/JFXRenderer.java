@@ -4,6 +4,7 @@ import drawingbot.DrawingBotV3;
 import drawingbot.image.blend.EnumBlendMode;
 import drawingbot.render.RenderUtils;
 import drawingbot.render.modes.IJFXDisplayMode;
+import drawingbot.utils.jfr.FlightRecorderEvents;
 import javafx.beans.binding.Bindings;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -25,6 +26,12 @@ public class JFXRenderer extends RendererBase {
     public Canvas jfxCanvas;
     public GraphicsContext graphicsFX;
 
+    /**
+     * The number of geometries / cached tiles drawn by the display mode in the current render pass
+     */
+    public int renderedGeometries;
+    public int renderedTiles;
+
     ///
 
     ////////////////////////////////////////////////////////
@@ -101,6 +108,11 @@ public class JFXRenderer extends RendererBase {
 
             //Re-Render the canvas if the Display Mode is dirty
             if(jfxDisplayMode.isRenderDirty(this)){
+                FlightRecorderEvents.ViewportRenderEvent event = new FlightRecorderEvents.ViewportRenderEvent();
+                event.begin();
+                renderedGeometries = 0;
+                renderedTiles = 0;
+
                 graphicsFX.restore(); //if the last render failed, clear the stateStack
 
                 graphicsFX.setGlobalBlendMode(BlendMode.SRC_OVER);
@@ -110,6 +122,13 @@ public class JFXRenderer extends RendererBase {
                 jfxDisplayMode.doRender(this);
                 jfxDisplayMode.postRender(this);
                 graphicsFX.restore();
+
+                if(event.shouldCommit()){
+                    event.displayMode = displayMode.get().getName();
+                    event.geometries = renderedGeometries;
+                    event.tiles = renderedTiles;
+                    event.commit();
+                }
             }
         }
 
@@ -0,0 +1,219 @@
+package drawingbot.render.renderer;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.api.IGeometryFilter;
+import drawingbot.files.exporters.ParallelTileRenderer;
+import drawingbot.image.blend.EnumBlendMode;
+import drawingbot.javafx.observables.ObservableDrawingPen;
+import drawingbot.plotting.PlottedDrawing;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * A raster cache of a completed drawing for the {@link JFXRenderer}, the drawing is rendered once at the current render scale into fixed size tiles on the parallel rendering threads.
+ * The JavaFX thread then only has to draw the finished tiles onto the canvas, so re-drawing the same drawing never has to iterate the geometries again.
+ * The cache's key captures everything which affects the rendered result, if the key of the current render state doesn't match a new cache must be created.
+ */
+public class JFXTileCache {
+
+    public final List<Object> key;
+    public final int width;
+    public final int height;
+
+    private final PlottedDrawing drawing;
+    private final IGeometryFilter geometryFilter;
+    private final int lodLevel;
+    private final ParallelTileRenderer tileRenderer;
+    private final List<Tile> tiles = new ArrayList<>();
+    private final AtomicInteger renderedTiles = new AtomicInteger();
+    private int tileCount = -1;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param lodLevel the level of detail to render the drawing with, or -1 to render the original geometries
+     */
+    public JFXTileCache(List<Object> key, PlottedDrawing drawing, IGeometryFilter geometryFilter, EnumBlendMode blendMode, double renderScale, int width, int height, int lodLevel){
+        this.key = key;
+        this.width = width;
+        this.height = height;
+        this.drawing = drawing;
+        this.geometryFilter = geometryFilter;
+        this.lodLevel = lodLevel;
+
+        AffineTransform transform = AffineTransform.getScaleInstance(renderScale, renderScale);
+        transform.translate(drawing.getCanvas().getScaledDrawingOffsetX(), drawing.getCanvas().getScaledDrawingOffsetY());
+        this.tileRenderer = new ParallelTileRenderer(DrawingBotV3.context(), blendMode, transform, width, height, ParallelTileRenderer.DEFAULT_TILE_SIZE, ParallelTileRenderer.DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Creates a key representing the current render state of the drawing, including the state of the pens which can change without the drawing changing
+     */
+    public static List<Object> createKey(PlottedDrawing drawing, IGeometryFilter geometryFilter, EnumBlendMode blendMode, Color canvasColor, double renderScale, int width, int height, int lodLevel){
+        List<Object> key = new ArrayList<>();
+        key.add(drawing);
+        key.add(drawing.getGeometryCount());
+        key.add(drawing.getDisplayedShapeMin());
+        key.add(drawing.getDisplayedShapeMax());
+        key.add(geometryFilter);
+        key.add(blendMode);
+        key.add(canvasColor);
+        key.add(renderScale);
+        key.add(width);
+        key.add(height);
+        key.add(lodLevel);
+        for(ObservableDrawingPen pen : drawing.getGlobalRenderOrder()){
+            key.add(pen);
+            key.add(pen.getARGB());
+            key.add(pen.isEnabled());
+            key.add(pen.getStrokeSize());
+        }
+        return key;
+    }
+
+    /**
+     * Indexes the drawing and renders every tile on the parallel rendering threads, this method returns immediately
+     * @param priorityRegion the tiles which overlap this region of the canvas will be rendered first, typically the region visible in the viewport, may be null
+     */
+    public void start(@Nullable Rectangle priorityRegion){
+        DrawingBotV3.INSTANCE.parallelRenderingService.submit(() -> {
+            try{
+                if(lodLevel == -1){
+                    tileRenderer.useDrawingIndex(drawing, drawing.getGlobalRenderOrder(), geometryFilter);
+                }else{
+                    //the joined geometries of the level of detail aren't in the drawing's spatial index
+                    tileRenderer.buildIndex(drawing.getLOD().getLevel(lodLevel).iterator(drawing), geometryFilter);
+                }
+            }catch (Exception e){
+                DrawingBotV3.logger.log(Level.WARNING, "Tile Cache: Failed to index drawing", e);
+                cancelled = true;
+                return;
+            }
+            List<Tile> newTiles = new ArrayList<>();
+            for(int row = 0; row < tileRenderer.getTileRows(); row++){
+                for(int col = 0; col < tileRenderer.getTileColumns(); col++){
+                    newTiles.add(new Tile(col, row, tileRenderer.getTileBounds(col, row)));
+                }
+            }
+            if(priorityRegion != null){
+                newTiles.sort(Comparator.comparing(tile -> !tile.bounds.intersects(priorityRegion)));
+            }
+            synchronized (tiles){
+                tiles.addAll(newTiles);
+                tileCount = newTiles.size();
+            }
+            for(Tile tile : newTiles){
+                if(tileRenderer.isTileEmpty(tile.column, tile.row)){
+                    //the canvas is cleared with the same background colour, so empty tiles never need to be drawn
+                    tile.empty = true;
+                    onTileRendered();
+                    continue;
+                }
+                DrawingBotV3.INSTANCE.parallelRenderingService.submit(() -> {
+                    if(cancelled){
+                        return;
+                    }
+                    try{
+                        tile.image = SwingFXUtils.toFXImage(tileRenderer.renderTile(tile.column, tile.row, true), null);
+                    }catch (Exception e){
+                        DrawingBotV3.logger.log(Level.WARNING, "Tile Cache: Failed to render tile", e);
+                        cancelled = true;
+                        return;
+                    }
+                    onTileRendered();
+                });
+            }
+        });
+    }
+
+    private void onTileRendered(){
+        if(renderedTiles.incrementAndGet() == tileCount){
+            //the index is no longer required once every tile has been rendered
+            tileRenderer.dispose();
+        }
+    }
+
+    /**
+     * Draws every rendered tile which hasn't already been drawn onto the graphics context, must be called on the JavaFX thread
+     * @return the number of tiles drawn
+     */
+    public int drawRenderedTiles(GraphicsContext graphics){
+        int drawn = 0;
+        synchronized (tiles){
+            for(Tile tile : tiles){
+                if(!tile.drawn && tile.image != null){
+                    graphics.drawImage(tile.image, tile.bounds.x, tile.bounds.y);
+                    tile.drawn = true;
+                    drawn++;
+                }
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Marks every tile as not drawn, should be called after the canvas is cleared
+     */
+    public void resetDrawnTiles(){
+        synchronized (tiles){
+            tiles.forEach(tile -> tile.drawn = false);
+        }
+    }
+
+    public boolean isRendered(){
+        return tileCount != -1 && renderedTiles.get() == tileCount;
+    }
+
+    public boolean isFullyDrawn(){
+        if(!isRendered()){
+            return false;
+        }
+        synchronized (tiles){
+            return tiles.stream().allMatch(tile -> tile.empty || tile.drawn);
+        }
+    }
+
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    public double getProgress(){
+        return tileCount <= 0 ? 0 : (double) renderedTiles.get() / tileCount;
+    }
+
+    /**
+     * Stops any tiles which haven't started rendering and releases the rendered tiles
+     */
+    public void cancel(){
+        cancelled = true;
+        synchronized (tiles){
+            tiles.clear();
+        }
+    }
+
+    private static class Tile {
+
+        public final int column;
+        public final int row;
+        public final Rectangle bounds;
+        public volatile WritableImage image;
+        public boolean empty;
+        public boolean drawn;
+
+        public Tile(int column, int row, Rectangle bounds) {
+            this.column = column;
+            this.row = row;
+            this.bounds = bounds;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.*;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Node;
 import javafx.scene.control.Control;
@@ -1003,6 +1005,18 @@ public class Viewport extends Control {
     }
 
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return the region of the renderer which is currently visible in the viewport, in renderer space i.e. before the render scale is applied, or null if there is no renderer
+     */
+    public Bounds getVisibleRendererBounds(){
+        if(getRenderer() == null || getSceneToRendererTransform() == null || getViewportWidth() <= 0 || getViewportHeight() <= 0){
+            return null;
+        }
+        return getSceneToRendererTransform().transform(new BoundingBox(getViewportX(), getViewportY(), getViewportWidth(), getViewportHeight()));
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////////////////
 
     protected Skin<?> createDefaultSkin() {
@@ -2,6 +2,10 @@ package drawingbot.utils;
 
 import drawingbot.DrawingBotV3;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * A lazy way to time things when debugging --todo use DATES?
  */
@@ -13,6 +17,9 @@ public class LazyTimer {
     private long startPause = -1;
     private long totalPausedTime = 0;
 
+    private long lastLap = -1;
+    private final Map<String, Long> laps = new LinkedHashMap<>();
+
     public LazyTimer(){}
 
     /**
@@ -21,6 +28,28 @@ public class LazyTimer {
     public void start(){
         startTime = System.currentTimeMillis();
         endTime = -1;
+        lastLap = startTime;
+        laps.clear();
+    }
+
+    /**
+     * Records the time since the previous lap, or the start, under the given name. Used to break down the time of a long process e.g. the start up
+     * @return the lap time in milliseconds
+     */
+    public long lap(String name){
+        long time = System.currentTimeMillis();
+        long lapTime = time - lastLap;
+        laps.merge(name, lapTime, Long::sum);
+        lastLap = time;
+        return lapTime;
+    }
+
+    public Map<String, Long> getLaps(){
+        return laps;
+    }
+
+    public String getLapsFormatted(){
+        return laps.entrySet().stream().map(entry -> entry.getKey() + ": " + getElapsedTimeFormatted(entry.getValue())).collect(Collectors.joining(", "));
     }
 
     public void pause(){
@@ -19,6 +19,16 @@ public class LazyTimerUtils {
         return timer;
     }
 
+    /**
+     * Records a lap of the timer with the given id, if the timer is running
+     */
+    public static void lapTimer(String id, String lapName){
+        LazyTimer timer = timersID.get(id);
+        if(timer != null){
+            timer.lap(lapName);
+        }
+    }
+
     public static LazyTimer finishTimer(String id){
         LazyTimer timer = timersID.remove(id);
         assert timer != null;
@@ -0,0 +1,121 @@
+package drawingbot.utils.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Custom JDK Flight Recorder events for the slowest parts of DrawingBotV3, they show up under the "DrawingBotV3" category in JDK Mission Control.
+ * When no recording is running, creating and committing an event is close to free, so they are always emitted.
+ * <br>
+ * Recordings can be started with -XX:StartFlightRecording, or for individual tasks with the "Record Tasks" preference see {@link FlightRecorderUtils}
+ */
+public class FlightRecorderEvents {
+
+    @Name("drawingbot.PFMStage")
+    @Label("PFM Stage")
+    @Category({"DrawingBotV3", "Plotting"})
+    @Description("A single stage of a PFM Task")
+    public static class PFMStageEvent extends Event {
+
+        @Label("Task")
+        public String task;
+
+        @Label("PFM")
+        public String pfm;
+
+        @Label("Stage")
+        public String stage;
+
+        @Label("Sub Task")
+        public boolean subTask;
+
+        @Label("Geometries")
+        public int geometries;
+
+    }
+
+    @Name("drawingbot.GeometryOperation")
+    @Label("Geometry Operation")
+    @Category({"DrawingBotV3", "Optimisation"})
+    @Description("A single geometry operation e.g. line simplifying, merging or sorting")
+    public static class GeometryOperationEvent extends Event {
+
+        @Label("Operation")
+        public String operation;
+
+        @Label("Input Geometries")
+        public int inputGeometries;
+
+        @Label("Output Geometries")
+        public int outputGeometries;
+
+    }
+
+    @Name("drawingbot.STRTreeBuild")
+    @Label("STR Tree Build")
+    @Category({"DrawingBotV3", "Optimisation"})
+    @Description("Building the spatial index used to sort geometries")
+    public static class STRTreeBuildEvent extends Event {
+
+        @Label("Nodes")
+        public int nodes;
+
+        @Label("Rebuild")
+        public boolean rebuild;
+
+    }
+
+    @Name("drawingbot.ImageFilter")
+    @Label("Image Filter")
+    @Category({"DrawingBotV3", "Image Processing"})
+    @Description("A single image filter applied to an image")
+    public static class ImageFilterEvent extends Event {
+
+        @Label("Filter")
+        public String filter;
+
+        @Label("Width")
+        public int width;
+
+        @Label("Height")
+        public int height;
+
+        @Label("Proxy")
+        @Description("True if the filter was applied to the reduced size preview image")
+        public boolean proxy;
+
+    }
+
+    @Name("drawingbot.Export")
+    @Label("Export")
+    @Category({"DrawingBotV3", "Export"})
+    @Description("Writing a single exported file")
+    public static class ExportEvent extends Event {
+
+        @Label("Export Handler")
+        public String exportHandler;
+
+        @Label("File")
+        public String file;
+
+        @Label("Geometries")
+        public int geometries;
+
+    }
+
+    @Name("drawingbot.ViewportRender")
+    @Label("Viewport Render")
+    @Category({"DrawingBotV3", "Rendering"})
+    @Description("A single render pass of the JavaFX viewport")
+    public static class ViewportRenderEvent extends Event {
+
+        @Label("Display Mode")
+        public String displayMode;
+
+        @Label("Geometries")
+        public int geometries;
+
+        @Label("Tiles")
+        public int tiles;
+
+    }
+}
@@ -0,0 +1,85 @@
+package drawingbot.utils.jfr;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.files.FileUtils;
+import drawingbot.javafx.preferences.DBPreferences;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.logging.Level;
+
+/**
+ * Records individual tasks with the JDK Flight Recorder, when the "Record Tasks" preference is enabled every task started by {@link DrawingBotV3#startTask(java.util.concurrent.ExecutorService, javafx.concurrent.Task)} is recorded.
+ * The recordings are written to the "recordings" folder in the user data directory, and can be opened in JDK Mission Control.
+ */
+public class FlightRecorderUtils {
+
+    /**
+     * The JFR settings to use, "default" has lower overhead, "profile" also samples allocations and more frequent stack traces
+     */
+    public static String recordingConfiguration = "profile";
+
+    public static String getUserRecordingsDirectory() {
+        return FileUtils.getUserDataDirectory() + "recordings" + File.separator;
+    }
+
+    public static boolean isTaskRecordingEnabled(){
+        return DBPreferences.INSTANCE.recordTasks.get() && FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Runs the task, recording it if task recording is enabled, the recording is always stopped and saved even if the task fails
+     */
+    public static void runRecorded(String taskName, Runnable task){
+        Recording recording = startRecording(taskName);
+        try{
+            task.run();
+        }finally {
+            stopRecording(recording);
+        }
+    }
+
+    @Nullable
+    public static Recording startRecording(String name){
+        if(!isTaskRecordingEnabled()){
+            return null;
+        }
+        try{
+            Recording recording = new Recording(Configuration.getConfiguration(recordingConfiguration));
+            String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+            File output = new File(getUserRecordingsDirectory(), "%s_%s.jfr".formatted(name.replaceAll("[^a-zA-Z0-9-_]", "_"), timestamp));
+            Files.createDirectories(output.getParentFile().toPath());
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.setDestination(output.toPath());
+            recording.start();
+            return recording;
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.WARNING, "Flight Recorder: Failed to start recording", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stops the recording and writes it to its destination
+     */
+    public static void stopRecording(@Nullable Recording recording){
+        if(recording == null){
+            return;
+        }
+        try{
+            recording.stop();
+            DrawingBotV3.logger.info("Flight Recorder: Saved recording " + recording.getDestination());
+        }catch (Exception e){
+            DrawingBotV3.logger.log(Level.WARNING, "Flight Recorder: Failed to save recording", e);
+        }finally {
+            recording.close();
+        }
+    }
+}
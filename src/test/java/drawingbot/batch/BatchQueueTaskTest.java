@@ -0,0 +1,70 @@
+package drawingbot.batch;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.JUnitDBV3ClassRunner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(JUnitDBV3ClassRunner.class)
+public class BatchQueueTaskTest {
+
+    /**
+     * Cancelling the queue part way through should save the finished jobs, so running it again with the same state file only runs the remaining jobs
+     */
+    @Test
+    public void testResumeFromState() throws IOException {
+        File directory = Files.createTempDirectory("batch_queue_test").toFile();
+        File stateFile = new File(directory, "batch_state.json");
+
+        List<String> firstRun = Collections.synchronizedList(new ArrayList<>());
+        BatchQueueTask task = new BatchQueueTask(DrawingBotV3.context(), createJobs(directory), stateFile, 1);
+        task.jobRunner = (job, progress, memoryBudget) -> {
+            firstRun.add(job.input);
+            if(firstRun.size() == 3){
+                task.cancel(false);
+            }
+            return createResult(job);
+        };
+        task.run();
+
+        Assert.assertTrue(task.isCancelled());
+        Assert.assertEquals(3, firstRun.size());
+        Assert.assertTrue(stateFile.exists());
+
+        List<String> secondRun = Collections.synchronizedList(new ArrayList<>());
+        List<BatchJob> jobs = createJobs(directory);
+        BatchQueueTask resumed = new BatchQueueTask(DrawingBotV3.context(), jobs, stateFile, 1);
+        resumed.jobRunner = (job, progress, memoryBudget) -> {
+            secondRun.add(job.input);
+            return createResult(job);
+        };
+        resumed.run();
+
+        Assert.assertEquals(List.of(jobs.get(3).input, jobs.get(4).input, jobs.get(5).input), secondRun);
+        for(BatchJob job : resumed.jobs){
+            Assert.assertEquals(job.toString(), BatchJob.Status.FINISHED, job.status);
+        }
+    }
+
+    private static List<BatchJob> createJobs(File directory){
+        List<BatchJob> jobs = new ArrayList<>();
+        for(int i = 0; i < 6; i++){
+            jobs.add(new BatchJob(new File(directory, "image_%s.png".formatted(i)).getPath(), directory.getPath()));
+        }
+        return jobs;
+    }
+
+    private static BatchJob.Result createResult(BatchJob job){
+        BatchJob.Result result = new BatchJob.Result(job);
+        result.success = true;
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package drawingbot.batch.farm;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.JUnitDBV3ClassRunner;
+import drawingbot.batch.BatchJob;
+import drawingbot.batch.BatchQueueTask;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(JUnitDBV3ClassRunner.class)
+public class RenderFarmLoopbackTest {
+
+    /**
+     * Runs a small batch on two workers listening on loopback, the jobs should be shared between them and every exported file returned to the coordinator
+     */
+    @Test
+    public void testLoopbackBatch() throws Exception {
+        File directory = Files.createTempDirectory("render_farm_test").toFile();
+        List<BatchJob> jobs = new ArrayList<>();
+        for(int i = 0; i < 6; i++){
+            BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 64, 64);
+            graphics.setColor(Color.BLACK);
+            graphics.fillOval(i * 4, i * 4, 32, 32);
+            graphics.dispose();
+
+            File imageFile = new File(directory, "image_%s.png".formatted(i));
+            ImageIO.write(image, "png", imageFile);
+            BatchJob job = new BatchJob(imageFile.getPath(), new File(directory, "output").getPath());
+            job.exportFormats.add("svg_default");
+            jobs.add(job);
+        }
+
+        RenderFarmWorker workerA = new RenderFarmWorker(0, 1);
+        RenderFarmWorker workerB = new RenderFarmWorker(0, 1);
+        workerA.start();
+        workerB.start();
+        try{
+            RenderFarmCoordinator coordinator = new RenderFarmCoordinator(List.of(
+                    URI.create("http://127.0.0.1:" + workerA.getPort()),
+                    URI.create("http://127.0.0.1:" + workerB.getPort())));
+            Assert.assertEquals(2, coordinator.getTotalSlots());
+
+            BatchQueueTask task = new BatchQueueTask(DrawingBotV3.context(), jobs, null, 2);
+            task.jobRunner = coordinator;
+            task.run();
+
+            List<BatchJob.Result> results = task.get();
+            Assert.assertEquals(jobs.size(), results.size());
+            for(BatchJob.Result result : results){
+                Assert.assertTrue(result.job + " " + result.error, result.success);
+                Assert.assertEquals(1, result.exportedFiles.size());
+                Assert.assertTrue(new File(result.exportedFiles.get(0)).length() > 0);
+            }
+
+            Assert.assertTrue(workerA.getStatus().completed > 0);
+            Assert.assertTrue(workerB.getStatus().completed > 0);
+            Assert.assertEquals(jobs.size(), workerA.getStatus().completed + workerB.getStatus().completed);
+            Assert.assertEquals(0, workerA.getStatus().failed + workerB.getStatus().failed);
+        }finally {
+            workerA.stop();
+            workerB.stop();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package drawingbot.batch.farm;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+
+public class RenderFarmProtocolTest extends TestCase {
+
+    public void testJobRequestRoundTrip() throws IOException {
+        RenderFarmProtocol.JobRequest request = new RenderFarmProtocol.JobRequest();
+        request.name = "test";
+        request.projectJson = "{\"presetName\": \"" + "x".repeat(100_000) + "\"}";
+        request.pfmPreset = "Sketch Lines PFM:Default";
+        request.exportFormats.addAll(List.of("svg_default", "image_default:.png"));
+        request.imageName = "test.png";
+        request.image = new byte[]{1, 2, 3};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        request.write(new DataOutputStream(bytes));
+        RenderFarmProtocol.JobRequest read = RenderFarmProtocol.JobRequest.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(request.name, read.name);
+        assertEquals(request.projectJson, read.projectJson);
+        assertEquals(request.pfmPreset, read.pfmPreset);
+        assertNull(read.drawingSetPreset);
+        assertEquals(request.exportFormats, read.exportFormats);
+        assertEquals(request.imageName, read.imageName);
+        assertTrue(Arrays.equals(request.image, read.image));
+    }
+
+    public void testJobResponseRoundTrip() throws IOException {
+        RenderFarmProtocol.JobResponse response = new RenderFarmProtocol.JobResponse();
+        response.success = true;
+        response.geometries = 42;
+        response.plottingTimeMs = 12.5;
+        response.fileNames.add("test.svg");
+        response.files.add(new byte[]{4, 5});
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        response.write(new DataOutputStream(bytes));
+        RenderFarmProtocol.JobResponse read = RenderFarmProtocol.JobResponse.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(read.success);
+        assertEquals(42, read.geometries);
+        assertEquals(12.5, read.plottingTimeMs);
+        assertEquals(List.of("test.svg"), read.fileNames);
+        assertTrue(Arrays.equals(new byte[]{4, 5}, read.files.get(0)));
+    }
+
+    public void testRejectsOtherMessages() {
+        byte[] invalid = new byte[]{0, 1, 2, 3, 4, 5, 6, 7};
+        try{
+            RenderFarmProtocol.JobRequest.read(new DataInputStream(new ByteArrayInputStream(invalid)));
+            fail("Expected an IOException");
+        }catch (IOException ignored){}
+    }
+}
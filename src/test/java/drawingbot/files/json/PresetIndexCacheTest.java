@@ -0,0 +1,80 @@
+package drawingbot.files.json;
+
+import com.google.gson.Gson;
+import drawingbot.JUnitDBV3ClassRunner;
+import drawingbot.javafx.GenericPreset;
+import drawingbot.registry.MasterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+@RunWith(JUnitDBV3ClassRunner.class)
+public class PresetIndexCacheTest {
+
+    @Test
+    public void testIndexCache() throws Exception {
+        Gson gson = JsonLoaderManager.createDefaultGson();
+        for (IPresetLoader<?> presetLoader : MasterRegistry.INSTANCE.presetLoaders) {
+            if(!(presetLoader instanceof AbstractPresetLoader<?> loader)){
+                continue;
+            }
+            File jsonFile = Files.createTempFile("preset_index_test", ".json").toFile();
+            File indexFile = PresetIndexCache.getIndexFile(jsonFile);
+            try{
+                PresetLoaderDataFile dataFile = new PresetLoaderDataFile();
+                dataFile.jsonMap.addAll(loader.getPresets());
+                dataFile.presetOrder.add("test:order");
+                try(Writer writer = new FileWriter(jsonFile)){
+                    gson.toJson(dataFile, PresetLoaderDataFile.class, writer);
+                }
+                PresetIndexCache.write(loader, jsonFile, dataFile);
+                Assert.assertTrue(indexFile.exists());
+
+                PresetLoaderDataFile cached = PresetIndexCache.read(loader, jsonFile);
+                PresetLoaderDataFile cachedAgain = PresetIndexCache.read(loader, jsonFile);
+                Assert.assertNotNull(cached);
+                Assert.assertNotNull(cachedAgain);
+                Assert.assertEquals(dataFile.jsonMap.size(), cached.jsonMap.size());
+                Assert.assertEquals(dataFile.presetOrder, cached.presetOrder);
+                for (int i = 0; i < dataFile.jsonMap.size(); i++) {
+                    GenericPreset<?> original = dataFile.jsonMap.get(i);
+                    GenericPreset<?> fromIndex = cached.jsonMap.get(i);
+                    Assert.assertEquals(original.getPresetID(), fromIndex.getPresetID());
+
+                    //comparing presets must not load their data
+                    Assert.assertEquals(fromIndex, cachedAgain.jsonMap.get(i));
+                    Assert.assertEquals(loader.canLoadDataLazily(), fromIndex.getLazyData() != null);
+
+                    Assert.assertEquals(gson.toJson(original), gson.toJson(fromIndex));
+                    Assert.assertNotNull(fromIndex.getData());
+                    Assert.assertNull(fromIndex.getLazyData());
+                }
+
+                //changing the json file must invalidate the index
+                Files.writeString(jsonFile.toPath(), "{ }");
+                Assert.assertNull(PresetIndexCache.read(loader, jsonFile));
+            }finally {
+                jsonFile.delete();
+                indexFile.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testFindDataRanges() throws Exception {
+        String json = "{\"presetOrder\": [\"a\"], \"jsonMap\": [ {\"presetName\": \"b}\\\"]\", \"data\" : {\"c\": [1, {\"d\": \"}\"}]} }, null, {\"data\": 2.5}], \"hiddenSystemPresets\": []}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<long[]> ranges = PresetIndexCache.findDataRanges(bytes);
+        Assert.assertEquals(3, ranges.size());
+        Assert.assertEquals("{\"c\": [1, {\"d\": \"}\"}]}", new String(bytes, (int) ranges.get(0)[0], (int) ranges.get(0)[1], StandardCharsets.UTF_8));
+        Assert.assertNull(ranges.get(1));
+        Assert.assertEquals("2.5", new String(bytes, (int) ranges.get(2)[0], (int) ranges.get(2)[1], StandardCharsets.UTF_8));
+    }
+}
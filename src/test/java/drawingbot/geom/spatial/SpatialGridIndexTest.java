@@ -0,0 +1,44 @@
+package drawingbot.geom.spatial;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class SpatialGridIndexTest extends TestCase {
+
+    SpatialGridIndex<String> index;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        index = new SpatialGridIndex<>(0, 0, 100, 100, 10, 10);
+        index.insert("a", 1, 1, 2, 2);
+        index.insert("b", 5, 5, 55, 55);
+        index.insert("c", 91, 91, 99, 99);
+        index.insert("d", -50, -50, -40, -40);
+    }
+
+    public void testSingleCellQuery(){
+        assertEquals(List.of("a", "b", "d"), index.query(0, 0, 9, 9));
+    }
+
+    public void testQueryPreservesInsertionOrder(){
+        assertEquals(List.of("a", "b", "c", "d"), index.query(0, 0, 100, 100));
+    }
+
+    public void testQueryExcludesDistantItems(){
+        assertEquals(List.of("b"), index.query(40, 40, 50, 50));
+        assertEquals(List.of("c"), index.query(95, 95, 200, 200));
+    }
+
+    public void testStripCells(){
+        SpatialGridIndex<String> strips = new SpatialGridIndex<>(0, 0, 100, 100, 100, 25);
+        strips.insert("a", 10, 10, 90, 30);
+        strips.insert("b", 10, 60, 90, 70);
+        assertEquals(4, strips.rows);
+        assertEquals(List.of("a"), strips.getCell(0, 0));
+        assertEquals(List.of("a"), strips.getCell(0, 1));
+        assertEquals(List.of("b"), strips.getCell(0, 2));
+        assertEquals(List.of(), strips.getCell(0, 3));
+    }
+}
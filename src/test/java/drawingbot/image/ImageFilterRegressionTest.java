@@ -48,7 +48,7 @@ public class ImageFilterRegressionTest {
                 imageFilterSettings.currentFilters.get().add(observableFilter);
 
                 //Apply the settings from the preset file if available
-                imageFilterPreset.data.filters.stream().filter(presetFilter -> presetFilter.type.equals(factory.getRegistryName())).findFirst().ifPresent(presetFilter -> GenericSetting.applySettings(presetFilter.settings, observableFilter.filterSettings));
+                imageFilterPreset.getData().filters.stream().filter(presetFilter -> presetFilter.type.equals(factory.getRegistryName())).findFirst().ifPresent(presetFilter -> GenericSetting.applySettings(presetFilter.settings, observableFilter.filterSettings));
                 observableFilter.enable.set(true); //make sure the filter is actually enabled
 
                 //Filter the image
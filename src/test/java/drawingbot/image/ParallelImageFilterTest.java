@@ -0,0 +1,66 @@
+package drawingbot.image;
+
+import drawingbot.DrawingBotV3;
+import drawingbot.JUnitDBV3ClassRunner;
+import drawingbot.TestUtils;
+import drawingbot.files.json.JsonLoaderManager;
+import drawingbot.files.json.presets.PresetImageFilters;
+import drawingbot.javafx.GenericFactory;
+import drawingbot.javafx.GenericPreset;
+import drawingbot.javafx.GenericSetting;
+import drawingbot.javafx.observables.ObservableImageFilter;
+import drawingbot.registry.MasterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(JUnitDBV3ClassRunner.class)
+public class ParallelImageFilterTest {
+
+    /**
+     * Every filter registered with a tile halo must give the same result when filtered in strips as when filtering the whole image
+     */
+    @Test
+    public void testTiledFilters() {
+        BufferedImage image = new BufferedImage(300, 400, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(0);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, 0xFF000000 | random.nextInt(0xFFFFFF));
+            }
+        }
+        InputStream stream = TestUtils.class.getResourceAsStream("/presets/filter_unit_test.json");
+        GenericPreset<PresetImageFilters> imageFilterPreset = JsonLoaderManager.importPresetFile(stream, null);
+        assert imageFilterPreset != null;
+
+        for (List<GenericFactory<BufferedImageOp>> factories : MasterRegistry.INSTANCE.imgFilterFactories.values()) {
+            for (GenericFactory<BufferedImageOp> factory : factories) {
+                if(!(factory instanceof ImageFilterFactory<?> imageFilterFactory) || !imageFilterFactory.isTileable()){
+                    continue;
+                }
+                ObservableImageFilter observableFilter = new ObservableImageFilter(factory);
+                imageFilterPreset.getData().filters.stream().filter(presetFilter -> presetFilter.type.equals(factory.getRegistryName())).findFirst().ifPresent(presetFilter -> GenericSetting.applySettings(presetFilter.settings, observableFilter.filterSettings));
+
+                int halo = imageFilterFactory.getTileHalo(observableFilter.getBufferedImageOp());
+                BufferedImage whole = observableFilter.getBufferedImageOp().filter(image, null);
+                BufferedImage strips = ParallelImageFilter.filterInStrips(observableFilter::getBufferedImageOp, halo, image, null, 8, DrawingBotV3.INSTANCE.parallelFilteringService);
+
+                int wrongPixels = 0;
+                for (int y = 0; y < image.getHeight(); y++) {
+                    for (int x = 0; x < image.getWidth(); x++) {
+                        if(whole.getRGB(x, y) != strips.getRGB(x, y)){
+                            wrongPixels++;
+                        }
+                    }
+                }
+                Assert.assertEquals("Tiled filter doesn't match whole image: " + factory.getRegistryName(), 0, wrongPixels);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package drawingbot.integrations.vpype;
+
+import drawingbot.api.IProgressCallback;
+import drawingbot.utils.Utils;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Runs the vpype handoff against a stand-in script, which copies stdin to the output file given by "read - write FILE" like vpype would
+ */
+public class VpypeHelperTest extends TestCase {
+
+    private File directory;
+    private File standIn;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("vpype_test").toFile();
+        standIn = new File(directory, "vpype.sh");
+        Files.writeString(standIn.toPath(), """
+                #!/bin/sh
+                if [ "$1" = "read" ] && [ "$2" = "-" ] && [ "$3" = "write" ]; then
+                    cat > "$4"
+                    exit 0
+                fi
+                echo "unsupported command" >&2
+                exit 2
+                """);
+        assertTrue(standIn.setExecutable(true));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        File[] files = directory.listFiles();
+        if(files != null){
+            for(File file : files){
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testStreamedInput() throws Exception {
+        if(Utils.getOS().isWindows()){
+            return;
+        }
+        VpypeSettings settings = new VpypeSettings();
+        settings.vpypeExecutable.set(standIn.getPath());
+        settings.vpypeCommand.set("write \"" + VpypeHelper.OUTPUT_FILE_WILDCARD + "\"");
+
+        File output = new File(directory, "output.svg");
+        String svg = "<svg>" + "<path d=\"M0,0L10,10\"/>".repeat(10000) + "</svg>";
+        String command = VpypeHelper.createFinalCommand(settings, VpypeHelper.STDIN_INPUT, output);
+        VpypeHelper.runVpypeCommand(command, true, IProgressCallback.NULL, writer -> writer.write(svg));
+
+        assertEquals(svg, Files.readString(output.toPath(), StandardCharsets.UTF_8));
+    }
+
+    public void testFailedCommand() throws Exception {
+        if(Utils.getOS().isWindows()){
+            return;
+        }
+        try{
+            VpypeHelper.runVpypeCommand(standIn.getPath() + " read -", true, IProgressCallback.NULL, writer -> writer.write("<svg></svg>"));
+            fail("Expected the failed command to throw");
+        }catch (IOException e){
+            //expected
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.awt.geom.Rectangle2D;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -80,4 +81,31 @@ public class GeometryIteratorTests {
         Assert.assertEquals(unseen.size(), 0);
     }
 
+    @Test
+    public void testCulledIterator(){
+        PlottedDrawing copy = drawing.copy();
+        copy.updateSpatialIndex();
+        Rectangle2D region = new Rectangle2D.Double(copy.getCanvas().getScaledDrawingWidth() / 4, copy.getCanvas().getScaledDrawingHeight() / 4, copy.getCanvas().getScaledDrawingWidth() / 8, copy.getCanvas().getScaledDrawingHeight() / 8);
+
+        List<IGeometry> expected = new ArrayList<>();
+        DrawingGeometryIterator drawingIterator = new DrawingGeometryIterator(copy);
+        while (drawingIterator.hasNext()){
+            IGeometry geometry = drawingIterator.next();
+            if(geometry.getAWTShape().getBounds2D().intersects(region)){
+                expected.add(geometry);
+            }
+        }
+
+        //the culled iterator is conservative, so it's compared after removing the geometries outside the region
+        List<IGeometry> culled = new ArrayList<>();
+        CulledGeometryIterator culledIterator = new CulledGeometryIterator(copy, List.of(region));
+        while (culledIterator.hasNext()){
+            IGeometry geometry = culledIterator.next();
+            if(geometry.getAWTShape().getBounds2D().intersects(region)){
+                culled.add(geometry);
+            }
+        }
+        Assert.assertEquals(expected, culled);
+    }
+
 }
\ No newline at end of file